@@ -1,6 +1,8 @@
 package edu.groupeighteen.librarydbms;
 
 import edu.groupeighteen.librarydbms.control.db.DatabaseHandler;
+import edu.groupeighteen.librarydbms.control.db.QueryMonitor;
+import edu.groupeighteen.librarydbms.control.entities.AsyncHandler;
 import edu.groupeighteen.librarydbms.control.entities.ItemHandler;
 import edu.groupeighteen.librarydbms.control.entities.UserHandler;
 import edu.groupeighteen.librarydbms.model.entities.User;
@@ -49,6 +51,9 @@ public class LibraryManager
      */
     public static void exit(int status)
     {
+        AsyncHandler.shutdown();
+        if (DatabaseHandler.isVerbose())
+            QueryMonitor.printStatistics();
         if (DatabaseHandler.getConnection() != null)
         { //Always close the connection to the database after use
             DatabaseHandler.closeDatabaseConnection();
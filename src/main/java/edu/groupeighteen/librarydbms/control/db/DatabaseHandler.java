@@ -3,15 +3,33 @@ package edu.groupeighteen.librarydbms.control.db;
 import edu.groupeighteen.librarydbms.LibraryManager;
 import edu.groupeighteen.librarydbms.control.entities.UserHandler;
 import edu.groupeighteen.librarydbms.control.exceptions.ExceptionHandler;
+import edu.groupeighteen.librarydbms.model.db.ConnectionPool;
 import edu.groupeighteen.librarydbms.model.db.DatabaseConnection;
+import edu.groupeighteen.librarydbms.model.db.PooledConnection;
 import edu.groupeighteen.librarydbms.model.db.QueryResult;
+import edu.groupeighteen.librarydbms.model.db.RowMapper;
 import edu.groupeighteen.librarydbms.model.db.SQLFormatter;
+import edu.groupeighteen.librarydbms.model.db.SQLParameter;
+import edu.groupeighteen.librarydbms.model.db.SQLScriptReader;
+import edu.groupeighteen.librarydbms.model.db.Transaction;
 
 import java.io.BufferedReader;
-import java.io.FileNotFoundException;
-import java.io.FileReader;
 import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
 import java.sql.*;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 /**
  * @author Mattias Fridsén
@@ -26,17 +44,35 @@ import java.sql.*;
  * <p>
  * This class is only responsible for general operations. Specific operations are delegated to specific Handler classes,
  * such as {@link UserHandler}.   //TODO-comment finish
+ * <p>
+ * Commands (executeCommand, DDL and USE) run on the single Connection retrieved from DatabaseConnection. Queries and
+ * updates run on connections borrowed from a {@link ConnectionPool}, so that independent operations on different
+ * threads don't have to wait for each other.
+ * <p>
+ * Every statement is timed by the {@link QueryMonitor}, which keeps latency statistics per statement and logs slow
+ * ones.
  */
 public class DatabaseHandler
 {
     //The DatabaseHandler needs a connection to perform commands and queries.
     private static Connection connection;
+    //Queries and updates are run on pooled connections
+    private static ConnectionPool pool;
     //Print commands being run, default = not
     private static boolean verbose = false;
+    //How many rows of a batch are sent to the server at a time
+    private static final int BATCH_SIZE = 500;
+    //Size of the read buffer used when executing SQL scripts
+    private static final int SCRIPT_BUFFER_SIZE = 1 << 20;
+    //Statements in SQL scripts that can be batched
+    private static final Pattern INSERT_PATTERN = Pattern.compile("^\\s*INSERT\\s", Pattern.CASE_INSENSITIVE);
+    //Used to keep the pool on the same database as the main connection
+    private static final Pattern USE_PATTERN = Pattern.compile("^\\s*use\\s+`?(\\w+)`?\\s*;?\\s*$",
+            Pattern.CASE_INSENSITIVE);
 
     /**
      * Sets up the DatabaseConnection, then checks if the database exists. If not, calls createDatabase to
-     * create it.
+     * create it. If it does, uses it and applies any migrations it is missing, keeping its data.
      */
     public static void setup(boolean verbose)
     {
@@ -46,23 +82,21 @@ public class DatabaseHandler
             DatabaseHandler.verbose = verbose;
 
             //Connect to database
-            connection = DatabaseConnection.setup();
+            setConnection(DatabaseConnection.setup());
 
-            executeCommand("drop database if exists " + LibraryManager.databaseName);
-            createDatabase(LibraryManager.databaseName);
+            if (!databaseExists(LibraryManager.databaseName))
+                createDatabase(LibraryManager.databaseName);
+            else
+            {
+                executeCommand("use " + LibraryManager.databaseName);
+                SchemaMigrator.migrate();
+            }
         }
         catch (SQLException | ClassNotFoundException e)
         {
             ExceptionHandler.HandleFatalException("Failed to setup databse due to " +
                     e.getClass().getName() + ": " + e.getMessage(), e);
         }
-
-        /*
-        if (!databaseExists(LibraryManager.databaseName)) {
-            createDatabase(LibraryManager.databaseName);
-        } else executeCommand("use " + LibraryManager.databaseName);
-        */
-
     }
 
     /**
@@ -93,7 +127,7 @@ public class DatabaseHandler
     }
 
     /**
-     * Creates a new database with a given name and fills it with tables and data.
+     * Creates a new database with a given name and fills it with tables and data by applying every migration.
      *
      * @param databaseName the name of the database.
      */
@@ -102,10 +136,9 @@ public class DatabaseHandler
         //Create DB
         executeCommand("create database " + databaseName);
         //Use DB
-        executeCommand("use " + LibraryManager.databaseName);
+        executeCommand("use " + databaseName);
         //Fill DB with tables and data
-        executeSQLCommandsFromFile("src/main/resources/sql/create_tables.sql");
-        executeSQLCommandsFromFile("src/main/resources/sql/data/test_data.sql");
+        SchemaMigrator.migrate();
     }
 
     /**
@@ -122,16 +155,28 @@ public class DatabaseHandler
             SQLFormatter.printFormattedSQL(command);
         }
 
+        QueryMonitor.Execution execution = QueryMonitor.start(command, false);
         try
         {
             Statement statement = connection.createStatement();
-            int rows = statement.executeUpdate(command);
+            //Commands are written for MySQL, other engines may need them translated
+            int rows = statement.executeUpdate(DatabaseConnection.getDialect().translate(command));
+            execution.succeeded(rows);
             if (verbose)
                 System.out.println("Command executed; rows affected: " + rows);
             statement.close(); //Always close Statements after we're done with them
+
+            //Raw commands can change any row, the handlers can't tell which
+            EntityCache.clearAll();
+
+            //If we switched database, the pooled connections need to follow
+            Matcher matcher = USE_PATTERN.matcher(command);
+            if (matcher.matches() && pool != null)
+                pool.setCatalog(matcher.group(1));
         }
         catch (SQLException e)
         {
+            execution.failed();
             ExceptionHandler.HandleFatalException("Failed to execute command due to " +
                     e.getClass().getName() + ": " + e.getMessage(), e);
         }
@@ -139,6 +184,36 @@ public class DatabaseHandler
 
     //TODO-TEST
 
+    /**
+     * Binds parameters to a PreparedStatement. Lets the String[] and SQLParameter[] variants of the execute methods
+     * share the same implementation.
+     */
+    private interface ParameterBinder
+    {
+        void bind(PreparedStatement statement)
+        throws SQLException;
+    }
+
+    /**
+     * Binds every String in order with setString, starting at index 1.
+     *
+     * @param parameters the parameters, can be null
+     * @return a ParameterBinder
+     */
+    private static ParameterBinder stringBinder(String[] parameters)
+    {
+        return statement ->
+        {
+            if (parameters != null)
+            {
+                for (int i = 0; i < parameters.length; i++)
+                {
+                    statement.setString(i + 1, parameters[i]);
+                }
+            }
+        };
+    }
+
     /**
      * Execute an SQL update statement using a prepared statement.
      *
@@ -147,6 +222,30 @@ public class DatabaseHandler
      * @return The number of rows affected by the update.
      */
     public static int executePreparedUpdate(String command, String[] parameters)
+    {
+        return runPreparedUpdate(command, stringBinder(parameters));
+    }
+
+    /**
+     * Execute an SQL update statement using a prepared statement, binding each parameter with its own type.
+     *
+     * @param command    The SQL statement to execute.
+     * @param parameters An array of typed values to be bound to the SQL statement.
+     * @return The number of rows affected by the update.
+     */
+    public static int executePreparedUpdate(String command, SQLParameter[] parameters)
+    {
+        return runPreparedUpdate(command, statement -> SQLParameter.bindAll(statement, parameters));
+    }
+
+    /**
+     * Executes an SQL update statement on a pooled connection.
+     *
+     * @param command The SQL statement to execute.
+     * @param binder  Binds the parameters to the statement.
+     * @return The number of rows affected by the update.
+     */
+    private static int runPreparedUpdate(String command, ParameterBinder binder)
     {
         if (verbose)
         {
@@ -154,26 +253,32 @@ public class DatabaseHandler
             SQLFormatter.printFormattedSQL(command);
         }
 
-        try (PreparedStatement stmt = connection.prepareStatement(command))
+        QueryMonitor.Execution execution = QueryMonitor.start(command, true);
+        PooledConnection pooledConnection = null;
+        PreparedStatement stmt = null;
+        try
         {
+            pooledConnection = acquireConnection();
+            stmt = pooledConnection.prepareStatement(command);
 
             //Bind the provided parameters to the SQL statement
-            if (parameters != null)
-            {
-                for (int i = 0; i < parameters.length; i++)
-                {
-                    stmt.setString(i + 1, parameters[i]);
-                }
-            }
+            binder.bind(stmt);
 
             //Execute the update and return the number of affected rows
-            return stmt.executeUpdate();
+            int rows = stmt.executeUpdate();
+            execution.succeeded(rows);
+            return rows;
         }
         catch (SQLException e)
         {
+            execution.failed();
             ExceptionHandler.HandleFatalException("Failed to execute prepared update due to " +
                     e.getClass().getName() + ": " + e.getMessage(), e);
         }
+        finally
+        {
+            release(pooledConnection, stmt);
+        }
 
         //Won't reach, but needed to compile
         return -1;
@@ -194,29 +299,77 @@ public class DatabaseHandler
             SQLFormatter.printFormattedSQL(query);
         }
 
+        QueryMonitor.Execution execution = QueryMonitor.start(query, false);
+        PooledConnection pooledConnection = null;
         ResultSet resultSet = null;
         Statement statement = null;
         try
         {
-            statement = connection.createStatement();
+            pooledConnection = acquireConnection();
+            statement = pooledConnection.getConnection().createStatement();
             resultSet = statement.executeQuery(query);
+            execution.executed();
         }
         catch (SQLException e)
         {
+            execution.failed();
             ExceptionHandler.HandleFatalException("Failed to execute query due to " +
                     e.getClass().getName() + ": " + e.getMessage(), e);
         }
-        return new QueryResult(resultSet, statement);
+        //The connection is released when the QueryResult is closed, which is when the rows read are recorded
+        return new QueryResult(execution.countRows(resultSet), statement, pooledConnection,
+                () -> execution.succeeded(0));
     }
 
-    //TODO-comment
-
     /**
-     * @param query
-     * @param params
-     * @return
+     * Executes a prepared query, binding every parameter with setString.
+     *
+     * @param query    the SQL query to execute
+     * @param params   the parameters to bind, can be null
+     * @param settings the column indexes of generated keys to return, e.g. Statement.RETURN_GENERATED_KEYS
+     * @return a QueryResult, which must be closed
      */
     public static QueryResult executePreparedQuery(String query, String[] params, int... settings)
+    {
+        return runPreparedQuery(query, stringBinder(params), false, settings);
+    }
+
+    /**
+     * Executes a prepared query, binding each parameter with its own type.
+     *
+     * @param query    the SQL query to execute
+     * @param params   the typed parameters to bind, can be null
+     * @param settings the column indexes of generated keys to return, e.g. Statement.RETURN_GENERATED_KEYS
+     * @return a QueryResult, which must be closed
+     */
+    public static QueryResult executePreparedQuery(String query, SQLParameter[] params, int... settings)
+    {
+        return runPreparedQuery(query, statement -> SQLParameter.bindAll(statement, params), false, settings);
+    }
+
+    /**
+     * Calls a stored procedure through a CallableStatement, binding each parameter with its own type. Only IN
+     * parameters are bound, so procedures return what they have to say as a result set.
+     *
+     * @param call   the call to execute, e.g. "{call checkout_item(?, ?, ?)}"
+     * @param params the typed parameters to bind, can be null
+     * @return a QueryResult holding the first result set of the procedure, which must be closed
+     */
+    public static QueryResult executeCall(String call, SQLParameter[] params)
+    {
+        return runPreparedQuery(call, statement -> SQLParameter.bindAll(statement, params), true);
+    }
+
+    /**
+     * Executes a prepared query on a pooled connection. The connection is released when the QueryResult is closed.
+     *
+     * @param query    the SQL query to execute
+     * @param binder   binds the parameters to the statement
+     * @param call     whether the query is a stored procedure call, prepared as a CallableStatement
+     * @param settings the column indexes of generated keys to return
+     * @return a QueryResult, which must be closed
+     */
+    private static QueryResult runPreparedQuery(String query, ParameterBinder binder, boolean call, int... settings)
     {
         if (verbose)
         {
@@ -224,32 +377,155 @@ public class DatabaseHandler
             SQLFormatter.printFormattedSQL(query);
         }
 
+        QueryMonitor.Execution execution = QueryMonitor.start(query, true);
+        PooledConnection pooledConnection = null;
         PreparedStatement preparedStatement = null;
         ResultSet resultSet = null;
+        int updateCount = 0;
 
         try
         {
+            pooledConnection = acquireConnection();
             //Prepare the statement with the given settings
-            preparedStatement = connection.prepareStatement(query, settings);
-            //Set the parameters if params is not null
-            if (params != null)
-            {
-                for (int i = 0; i < params.length; i++)
-                {
-                    preparedStatement.setString(i + 1, params[i]);
-                }
-            }
+            preparedStatement = call ? pooledConnection.prepareCall(query)
+                    : pooledConnection.prepareStatement(query, settings);
+            //Set the parameters
+            binder.bind(preparedStatement);
             //Execute the query
             preparedStatement.execute();
+            execution.executed();
             //Get the result set, if available
             resultSet = preparedStatement.getResultSet();
+            //Otherwise it was an update, e.g. an INSERT returning generated keys
+            if (resultSet == null)
+                updateCount = Math.max(preparedStatement.getUpdateCount(), 0);
         }
         catch (SQLException e)
         {
+            execution.failed();
             ExceptionHandler.HandleFatalException("Failed to execute prepared query due to " +
                     e.getClass().getName() + ": " + e.getMessage(), e);
         }
-        return new QueryResult(resultSet, preparedStatement);
+        //The connection is released when the QueryResult is closed, which is when the rows read are recorded
+        final int rowsAffected = updateCount;
+        return new QueryResult(execution.countRows(resultSet), preparedStatement, pooledConnection,
+                () -> execution.succeeded(rowsAffected));
+    }
+
+    /**
+     * Executes a prepared query and returns its rows as a lazily consumed Stream. Rows are read from the server as
+     * the Stream is consumed and mapped one at a time, so a whole table can be walked without holding it in memory.
+     * <p>
+     * The query runs on a pooled connection borrowed for the Stream alone, since the MySQL driver doesn't allow any
+     * other statement on a connection while a result is being streamed from it. Nested lookups made while mapping a
+     * row therefore run on a different connection, and don't see uncommitted changes made by the calling thread's
+     * Transaction. The connection is held until the Stream is closed, so the Stream must be closed, preferably with
+     * try-with-resources:
+     * <pre>{@code
+     * try (Stream<Item> items = ItemHandler.streamAllItems())
+     * {
+     *     items.forEach(...);
+     * }
+     * }</pre>
+     *
+     * @param query  the SQL query to execute
+     * @param params the typed parameters to bind, can be null
+     * @param mapper constructs an object from each row
+     * @param <T>    the type of the objects in the Stream
+     * @return a sequential Stream which must be closed
+     */
+    public static <T> Stream<T> streamPreparedQuery(String query, SQLParameter[] params, RowMapper<T> mapper)
+    {
+        if (verbose)
+        {
+            System.out.println("\nExecuting streaming query:");
+            SQLFormatter.printFormattedSQL(query);
+        }
+
+        checkConnection();
+        QueryMonitor.Execution execution = QueryMonitor.start(query, true);
+        PooledConnection pooledConnection = null;
+        PreparedStatement preparedStatement = null;
+        ResultSet resultSet = null;
+
+        try
+        {
+            pooledConnection = pool.borrow();
+            //Streaming statements aren't cached, the fetch size would leak into other uses of the statement
+            preparedStatement = pooledConnection.getConnection().prepareStatement(query,
+                    ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            preparedStatement.setFetchSize(DatabaseConnection.getDialect().getStreamingFetchSize());
+            SQLParameter.bindAll(preparedStatement, params);
+            resultSet = preparedStatement.executeQuery();
+            execution.executed();
+        }
+        catch (SQLException e)
+        {
+            execution.failed();
+            closeStream(pooledConnection, preparedStatement, resultSet);
+            ExceptionHandler.HandleFatalException("Failed to execute streaming query due to " +
+                    e.getClass().getName() + ": " + e.getMessage(), e);
+        }
+
+        final PooledConnection streamConnection = pooledConnection;
+        final PreparedStatement streamStatement = preparedStatement;
+        final ResultSet streamResultSet = resultSet;
+
+        Spliterator<T> rows = new Spliterators.AbstractSpliterator<>(Long.MAX_VALUE,
+                Spliterator.ORDERED | Spliterator.NONNULL)
+        {
+            @Override
+            public boolean tryAdvance(Consumer<? super T> action)
+            {
+                try
+                {
+                    if (!streamResultSet.next()) return false;
+                    execution.rowRead();
+                    action.accept(mapper.map(streamResultSet));
+                    return true;
+                }
+                catch (SQLException e)
+                {
+                    ExceptionHandler.HandleFatalException("Failed to read streamed row due to " +
+                            e.getClass().getName() + ": " + e.getMessage(), e);
+                }
+
+                //Won't reach, but needed to compile
+                return false;
+            }
+        };
+
+        return StreamSupport.stream(rows, false)
+                .onClose(() ->
+                {
+                    closeStream(streamConnection, streamStatement, streamResultSet);
+                    execution.succeeded(0);
+                });
+    }
+
+    /**
+     * Closes the ResultSet and statement of a streaming query, then hands its connection back to the pool. Closing a
+     * streamed ResultSet before every row has been read makes the driver read and discard the remaining rows.
+     *
+     * @param pooledConnection the borrowed connection, or null
+     * @param statement        the statement, or null
+     * @param resultSet        the ResultSet, or null
+     */
+    private static void closeStream(PooledConnection pooledConnection, Statement statement, ResultSet resultSet)
+    {
+        try
+        {
+            if (resultSet != null) resultSet.close();
+            if (statement != null) statement.close();
+        }
+        catch (SQLException e)
+        {
+            System.err.println("Error closing streaming query: " + e.getMessage());
+        }
+        finally
+        {
+            if (pooledConnection != null) pooledConnection.release();
+        }
     }
 
     /**
@@ -268,8 +544,13 @@ public class DatabaseHandler
 
         int rowsAffected = 0;
 
-        try (PreparedStatement preparedStatement = connection.prepareStatement(sql))
+        QueryMonitor.Execution execution = QueryMonitor.start(sql, true);
+        PooledConnection pooledConnection = null;
+        PreparedStatement preparedStatement = null;
+        try
         {
+            pooledConnection = acquireConnection();
+            preparedStatement = pooledConnection.prepareStatement(sql);
             for (int i = 0; i < params.length; i++)
             {
                 preparedStatement.setString(i + 1, params[i]);
@@ -277,18 +558,167 @@ public class DatabaseHandler
 
             //The method executeUpdate() returns the number of affected rows.
             rowsAffected = preparedStatement.executeUpdate();
+            execution.succeeded(rowsAffected);
         }
         catch (SQLException e)
         {
+            execution.failed();
             ExceptionHandler.HandleFatalException("Failed to execute update due to " +
                     e.getClass().getName() + ": " + e.getMessage(), e);
         }
+        finally
+        {
+            release(pooledConnection, preparedStatement);
+        }
 
         return rowsAffected;
     }
 
     /**
-     * A simple method which reads the contents of a file, and executes any SQL commands found in that file.
+     * Begins a transaction on the calling thread. Every query and update the thread runs until the transaction is
+     * completed is part of it. Calling this while a transaction is already open begins a nested transaction.
+     * <p>
+     * Use with try-with-resources, and call commit() at the end of the block. A transaction left uncommitted, for
+     * instance because an exception was thrown, is rolled back when closed:
+     * <pre>{@code
+     * try (Transaction transaction = DatabaseHandler.beginTransaction())
+     * {
+     *     ...
+     *     transaction.commit();
+     * }
+     * }</pre>
+     *
+     * @return the new Transaction
+     */
+    public static Transaction beginTransaction()
+    {
+        PooledConnection pooledConnection = null;
+        try
+        {
+            pooledConnection = acquireConnection();
+            return new Transaction(pooledConnection);
+        }
+        catch (SQLException e)
+        {
+            if (pooledConnection != null)
+                pooledConnection.release();
+            ExceptionHandler.HandleFatalException("Failed to begin transaction due to " +
+                    e.getClass().getName() + ": " + e.getMessage(), e);
+        }
+
+        //Won't reach, but needed to compile
+        return null;
+    }
+
+    /**
+     * Executes the same SQL command once for every set of parameters, sending them to the server in batches rather
+     * than one at a time. The whole batch is committed at once, or rolled back if any command fails.
+     *
+     * @param command the SQL command to execute, usually an INSERT or UPDATE with placeholders
+     * @param batch   one array of parameters for each execution of the command
+     * @return the number of rows affected by each execution, in the same order as the batch
+     */
+    public static int[] executeBatch(String command, List<SQLParameter[]> batch)
+    {
+        return runBatch(command, batch, false);
+    }
+
+    /**
+     * Executes an INSERT once for every set of parameters in batches, like {@link #executeBatch(String, List)}, and
+     * returns the keys generated for the inserted rows.
+     *
+     * @param command the INSERT command to execute
+     * @param batch   one array of parameters for each row to insert
+     * @return the generated key of each inserted row, in the same order as the batch
+     */
+    public static int[] executeBatchReturningKeys(String command, List<SQLParameter[]> batch)
+    {
+        return runBatch(command, batch, true);
+    }
+
+    /**
+     * Executes a batch on a pooled connection, flushing it to the server every BATCH_SIZE rows. The batch is run in
+     * its own transaction, nested in the thread's current transaction if there is one.
+     *
+     * @param command    the SQL command to execute
+     * @param batch      one array of parameters for each execution of the command
+     * @param returnKeys whether to return the generated keys rather than the update counts
+     * @return the update counts or generated keys, in the same order as the batch
+     */
+    private static int[] runBatch(String command, List<SQLParameter[]> batch, boolean returnKeys)
+    {
+        if (verbose)
+        {
+            System.out.println("\nExecuting batch of " + batch.size() + ":");
+            SQLFormatter.printFormattedSQL(command);
+        }
+
+        int[] results = new int[batch.size()];
+        if (batch.isEmpty()) return results;
+
+        QueryMonitor.Execution execution = QueryMonitor.start(command, true);
+        long rowsAffected = 0;
+        //One commit for the whole batch instead of one per row
+        try (Transaction transaction = beginTransaction())
+        {
+            PooledConnection pooledConnection = acquireConnection();
+            PreparedStatement statement = null;
+            try
+            {
+                statement = returnKeys ? pooledConnection.prepareStatement(command, Statement.RETURN_GENERATED_KEYS)
+                        : pooledConnection.prepareStatement(command);
+
+                int flushed = 0;
+                for (int i = 0; i < batch.size(); i++)
+                {
+                    SQLParameter.bindAll(statement, batch.get(i));
+                    statement.addBatch();
+
+                    //Flush every BATCH_SIZE rows, and at the end
+                    if ((i + 1) % BATCH_SIZE == 0 || i == batch.size() - 1)
+                    {
+                        int[] counts = statement.executeBatch();
+                        for (int count : counts)
+                            rowsAffected += Math.max(count, 0);
+                        if (returnKeys)
+                        {
+                            try (ResultSet generatedKeys = statement.getGeneratedKeys())
+                            {
+                                for (int j = flushed; j <= i && generatedKeys.next(); j++)
+                                    results[j] = generatedKeys.getInt(1);
+                            }
+                        }
+                        else System.arraycopy(counts, 0, results, flushed, counts.length);
+                        flushed = i + 1;
+                    }
+                }
+            }
+            finally
+            {
+                release(pooledConnection, statement);
+            }
+
+            transaction.commit();
+            execution.succeeded(rowsAffected);
+        }
+        catch (SQLException e)
+        {
+            execution.failed();
+            ExceptionHandler.HandleFatalException("Failed to execute batch due to " +
+                    e.getClass().getName() + ": " + e.getMessage(), e);
+        }
+
+        return results;
+    }
+
+    /**
+     * Reads an SQL script and executes the statements in it. The script is streamed through an SQLScriptReader, so
+     * scripts of any size can be executed, and quotes, comments and DELIMITER commands are handled like the mysql
+     * client handles them.
+     * <p>
+     * Consecutive INSERT statements are sent to the server in batches of BATCH_SIZE instead of one at a time, and
+     * the whole script runs in a single transaction (though MySQL commits implicitly after DDL statements). Other
+     * statements are run through executeCommand. If verbose, prints how many statements were executed and how fast.
      *
      * @param filePath the path of the file
      */
@@ -303,50 +733,89 @@ public class DatabaseHandler
 
         if (verbose) System.out.println("\nExecuting commands from file: " + filePath);
 
-        try (BufferedReader reader = new BufferedReader(new FileReader(filePath)))
+        //The statements run through executeCommand are also recorded on their own
+        QueryMonitor.Execution execution = QueryMonitor.start("SCRIPT " + filePath, true);
+        long start = System.nanoTime();
+        int statements = 0;
+        int inserts = 0;
+        boolean autoCommit = true;
+
+        //Engines other than MySQL may have their own version of the script
+        Path scriptPath = Path.of(DatabaseConnection.getDialect().resolveScript(filePath));
+        try (FileChannel channel = FileChannel.open(scriptPath, StandardOpenOption.READ);
+             SQLScriptReader script = new SQLScriptReader(new BufferedReader(
+                     Channels.newReader(channel, StandardCharsets.UTF_8), SCRIPT_BUFFER_SIZE));
+             Statement batch = connection.createStatement())
         {
-            String line;
-            StringBuilder commandBuilder = new StringBuilder();
+            autoCommit = connection.getAutoCommit();
+            connection.setAutoCommit(false);
 
-            while ((line = reader.readLine()) != null)
+            int batched = 0;
+            String command;
+            while ((command = script.nextStatement()) != null)
             {
-                //Remove inline comments
-                if (line.contains("--"))
-                {
-                    line = line.substring(0, line.indexOf("--"));
-                }
-
-                //Skip lines that are now empty (were only a comment)
-                if (line.trim().isEmpty())
+                statements++;
+                if (INSERT_PATTERN.matcher(command).lookingAt())
                 {
-                    continue;
+                    batch.addBatch(command);
+                    inserts++;
+                    if (++batched == BATCH_SIZE)
+                    {
+                        batch.executeBatch();
+                        batched = 0;
+                    }
                 }
-
-                //Append the line to the command string, adding a space in between
-                commandBuilder.append(line).append(" ");
-
-                //Check if the line ends with a semicolon, signifying the end of the command
-                if (line.endsWith(";"))
+                else
                 {
-                    String command = commandBuilder.toString().trim();
-
-                    if (!command.isEmpty())
+                    //Keep the statements in order
+                    if (batched > 0)
                     {
-                        executeCommand(command);
+                        batch.executeBatch();
+                        batched = 0;
                     }
-
-                    //Reset the command builder for the next command
-                    commandBuilder = new StringBuilder();
+                    executeCommand(command);
                 }
             }
+            if (batched > 0) batch.executeBatch();
+            connection.commit();
+            execution.succeeded(statements);
+
+            if (verbose)
+            {
+                double seconds = (System.nanoTime() - start) / 1_000_000_000.0;
+                double megabytes = channel.size() / (1024.0 * 1024.0);
+                System.out.printf("Executed %d statements (%d inserts) from %s in %.3f s, %.2f MB/s, " +
+                                "%.0f statements/s%n", statements, inserts, filePath, seconds,
+                        megabytes / Math.max(seconds, 0.001), statements / Math.max(seconds, 0.001));
+            }
         }
-        catch (FileNotFoundException e)
+        catch (NoSuchFileException e)
         {
+            execution.failed();
             ExceptionHandler.HandleFatalException("Couldn't find file at path " + filePath, e);
         }
         catch (IOException e)
         {
-            ExceptionHandler.HandleFatalException("Couldn't read file at path " + filePath, e);
+            execution.failed();
+            ExceptionHandler.HandleFatalException("Couldn't read file at path " + filePath + " due to " +
+                    e.getClass().getName() + ": " + e.getMessage(), e);
+        }
+        catch (SQLException e)
+        {
+            execution.failed();
+            ExceptionHandler.HandleFatalException("Failed to execute statement " + statements + " of file " +
+                    filePath + " due to " + e.getClass().getName() + ": " + e.getMessage(), e);
+        }
+        finally
+        {
+            try
+            {
+                connection.setAutoCommit(autoCommit);
+            }
+            catch (SQLException e)
+            {
+                System.err.println("Error restoring auto-commit: " + e.getMessage());
+            }
         }
     }
 
@@ -360,40 +829,10 @@ public class DatabaseHandler
     public static int[] getAuthorMetaData()
     {
         checkConnection();
-
-        try
-        {
-            DatabaseMetaData metaData = connection.getMetaData();
-
-            //Get metadata for authorFirstname column
-            ResultSet resultSet = metaData.getColumns(null, null,
-                    "authors", "authorFirstname");
-            int firstnameColumnSize = 0;
-            if (resultSet.next())
-            {
-                firstnameColumnSize = resultSet.getInt("COLUMN_SIZE");
-            }
-
-            //Get metadata for authorLastName column
-            resultSet = metaData.getColumns(null, null,
-                    "authors", "authorLastName");
-            int lastnameColumnSize = 0;
-            if (resultSet.next())
-            {
-                lastnameColumnSize = resultSet.getInt("COLUMN_SIZE");
-            }
-
-            return new int[]{firstnameColumnSize, lastnameColumnSize};
-
-        }
-        catch (SQLException e)
-        {
-            ExceptionHandler.HandleFatalException("Couldn't retrieve Author Meta data due to " +
-                    e.getClass().getName() + ": " + e.getMessage(), e);
-        }
-
-        //Won't reach, but needed to compile
-        return new int[0];
+        return new int[]{
+                SchemaMetadata.getColumnSize("authors", "authorFirstname"),
+                SchemaMetadata.getColumnSize("authors", "authorLastName")
+        };
     }
 
     /**
@@ -405,31 +844,7 @@ public class DatabaseHandler
     public static int[] getClassificationMetaData()
     {
         checkConnection();
-
-        try
-        {
-            DatabaseMetaData metaData = connection.getMetaData();
-
-            //Get metadata for classificationName column
-            ResultSet resultSet = metaData.getColumns(null, null,
-                    "classifications",
-                    "classificationName");
-            int classificationNameColumnSize = 0;
-            if (resultSet.next())
-            {
-                classificationNameColumnSize = resultSet.getInt("COLUMN_SIZE");
-            }
-
-            return new int[]{classificationNameColumnSize};
-        }
-        catch (SQLException e)
-        {
-            ExceptionHandler.HandleFatalException("Couldn't retrieve Classification Meta data due to " +
-                    e.getClass().getName() + ": " + e.getMessage(), e);
-        }
-
-        //Won't reach, but needed to compile
-        return new int[0];
+        return new int[]{SchemaMetadata.getColumnSize("classifications", "classificationName")};
     }
 
     /**
@@ -440,40 +855,10 @@ public class DatabaseHandler
     public static int[] getItemMetaData()
     {
         checkConnection();
-
-        try
-        {
-            DatabaseMetaData metaData = connection.getMetaData();
-
-            //Get metadata for title column
-            ResultSet resultSet = metaData.getColumns(null, null,
-                    "items", "title");
-            int titleColumnSize = 0;
-            if (resultSet.next())
-            {
-                titleColumnSize = resultSet.getInt("COLUMN_SIZE");
-            }
-
-            //Get metadata for barcode column
-            resultSet = metaData.getColumns(null, null,
-                    "items", "barcode");
-            int barcodeColumnSize = 0;
-            if (resultSet.next())
-            {
-                barcodeColumnSize = resultSet.getInt("COLUMN_SIZE");
-            }
-
-            return new int[]{titleColumnSize, barcodeColumnSize};
-
-        }
-        catch (SQLException e)
-        {
-            ExceptionHandler.HandleFatalException("Couldn't retrieve Item Meta data due to " +
-                    e.getClass().getName() + ": " + e.getMessage(), e);
-        }
-
-        //Won't reach, but needed to compile
-        return new int[0];
+        return new int[]{
+                SchemaMetadata.getColumnSize("items", "title"),
+                SchemaMetadata.getColumnSize("items", "barcode")
+        };
     }
 
     /**
@@ -484,30 +869,7 @@ public class DatabaseHandler
     public static int[] getLiteratureMetaData()
     {
         checkConnection();
-
-        try
-        {
-            DatabaseMetaData metaData = connection.getMetaData();
-
-            //Get metadata for title column
-            ResultSet resultSet = metaData.getColumns(null, null,
-                    "literature", "isbn");
-            int ISBNColumnSize = 0;
-            if (resultSet.next())
-            {
-                ISBNColumnSize = resultSet.getInt("COLUMN_SIZE");
-            }
-
-            return new int[]{ISBNColumnSize};
-        }
-        catch (SQLException e)
-        {
-            ExceptionHandler.HandleFatalException("Couldn't retrieve Literature Meta data due to " +
-                    e.getClass().getName() + ": " + e.getMessage(), e);
-        }
-
-        //Won't reach, but needed to compile
-        return new int[0];
+        return new int[]{SchemaMetadata.getColumnSize("literature", "isbn")};
     }
 
     /**
@@ -518,30 +880,7 @@ public class DatabaseHandler
     public static int[] getFilmMetaData()
     {
         checkConnection();
-
-        try
-        {
-            DatabaseMetaData metaData = connection.getMetaData();
-
-            //Get metadata for title column
-            ResultSet resultSet = metaData.getColumns(null, null,
-                    "films", "countryOfProduction");
-            int countryOfProductionColumnSize = 0;
-            if (resultSet.next())
-            {
-                countryOfProductionColumnSize = resultSet.getInt("COLUMN_SIZE");
-            }
-
-            return new int[]{countryOfProductionColumnSize};
-        }
-        catch (SQLException e)
-        {
-            ExceptionHandler.HandleFatalException("Couldn't retrieve Literature Meta data due to " +
-                    e.getClass().getName() + ": " + e.getMessage(), e);
-        }
-
-        //Won't reach, but needed to compile
-        return new int[0];
+        return new int[]{SchemaMetadata.getColumnSize("films", "countryOfProduction")};
     }
 
     /**
@@ -554,76 +893,130 @@ public class DatabaseHandler
     public static int[] getUserMetaData()
     {
         checkConnection();
+        return new int[]{
+                SchemaMetadata.getColumnSize("users", "username"),
+                SchemaMetadata.getColumnSize("users", "password"),
+                SchemaMetadata.getColumnSize("users", "email")
+        };
+    }
 
-        try
+    /**
+     * Sets up the DatabaseHandler if it isn't connected.
+     */
+    static void checkConnection()
+    {
+        if (connection == null)
         {
-            DatabaseMetaData metaData = connection.getMetaData();
-
-            //Get metadata for username column
-            ResultSet resultSet = metaData.getColumns(null, null,
-                    "users", "username");
-            int usernameColumnSize = 0;
-            if (resultSet.next())
-            {
-                usernameColumnSize = resultSet.getInt("COLUMN_SIZE");
-            }
-
-            //Get metadata for password column
-            resultSet = metaData.getColumns(null, null,
-                    "users", "password");
-            int passwordColumnSize = 0;
-            if (resultSet.next())
-            {
-                passwordColumnSize = resultSet.getInt("COLUMN_SIZE");
-            }
-
-            //Get metadata for email column
-            resultSet = metaData.getColumns(null, null,
-                    "users", "email");
-            int emailColumnSize = 0;
-            if (resultSet.next())
-            {
-                emailColumnSize = resultSet.getInt("COLUMN_SIZE");
-            }
+            setup(false);
+        }
+    }
 
-            return new int[]{usernameColumnSize, passwordColumnSize, emailColumnSize};
+    /**
+     * Leases a pooled connection to the calling thread. Nested calls on the same thread share the connection.
+     * Must be matched by a call to {@link PooledConnection#release()}.
+     *
+     * @return a pooled connection
+     * @throws SQLException if no connection could be acquired
+     */
+    private static PooledConnection acquireConnection()
+    throws SQLException
+    {
+        checkConnection();
+        return pool.acquire();
+    }
 
-        }
-        catch (SQLException e)
-        {
-            ExceptionHandler.HandleFatalException("Couldn't retrieve User Meta data due to " +
-                    e.getClass().getName() + ": " + e.getMessage(), e);
-        }
+    /**
+     * Hands a statement back to the statement cache of its pooled connection, then releases the connection.
+     *
+     * @param pooledConnection the pooled connection, or null if none was acquired
+     * @param statement        the statement, or null if none was prepared
+     */
+    private static void release(PooledConnection pooledConnection, Statement statement)
+    {
+        if (pooledConnection == null) return;
+        pooledConnection.releaseStatement(statement);
+        pooledConnection.release();
+    }
 
-        //Won't reach, but needed to compile
-        return new int[0];
+    /**
+     * Returns the number of prepared statements reused from the statement caches of the pooled connections.
+     *
+     * @return the number of statement cache hits, or 0 if there is no pool
+     */
+    public static long getStatementCacheHits()
+    {
+        return pool == null ? 0 : pool.getStatementCacheHits();
     }
 
-    private static void checkConnection()
+    /**
+     * Returns the number of statements that had to be prepared because they weren't cached.
+     *
+     * @return the number of statement cache misses, or 0 if there is no pool
+     */
+    public static long getStatementCacheMisses()
     {
-        if (connection == null)
-        {
-            setup(false);
-        }
+        return pool == null ? 0 : pool.getStatementCacheMisses();
     }
 
     /**
      * Since any other classes should only do Database-related things through this Handler class,
      * we need to add a close method that calls closeConnection in the DatabaseConnection class.
+     * Also closes the connection pool.
      */
     public static void closeDatabaseConnection()
     {
+        closePool();
         DatabaseConnection.closeConnection();
     }
 
+    /**
+     * Closes the connection pool, if there is one.
+     */
+    private static void closePool()
+    {
+        if (pool != null)
+        {
+            pool.close();
+            pool = null;
+        }
+    }
+
     public static Connection getConnection()
     {
         return connection;
     }
 
+    /**
+     * Sets the main connection, and replaces the connection pool with a new one connected to the same server.
+     *
+     * @param connection the new main connection
+     */
     public static void setConnection(Connection connection)
     {
         DatabaseHandler.connection = connection;
+        closePool();
+        EntityCache.clearAll();
+
+        if (connection != null)
+        {
+            try
+            {
+                pool = DatabaseConnection.createConnectionPool();
+                String catalog = DatabaseConnection.getDialect().getCurrentDatabase(connection);
+                if (catalog != null)
+                    pool.setCatalog(catalog);
+            }
+            catch (SQLException e)
+            {
+                ExceptionHandler.HandleFatalException("Failed to create connection pool due to " +
+                        e.getClass().getName() + ": " + e.getMessage(), e);
+            }
+        }
+    }
+
+    public static ConnectionPool getPool()
+    {
+        return pool;
     }
 
     public static boolean isVerbose()
@@ -0,0 +1,312 @@
+package edu.groupeighteen.librarydbms.control.db;
+
+import edu.groupeighteen.librarydbms.model.db.Transaction;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.UnaryOperator;
+
+/**
+ * @author Mattias Fridsén
+ * @project LibraryDBMS
+ * @package edu.groupeighteen.librarydbms.control.db
+ * @contact matfir-1@student.ltu.se
+ * @date 10/17/2026
+ * <p>
+ * A read-through cache of entities by ID, for the getByID methods of the handlers. Holds at most a given number of
+ * entities, evicting the least recently used one when full, and reads an entity again once it has been cached longer
+ * than the time to live.
+ * <p>
+ * The handlers invalidate an entity whenever they change its row. Inside a transaction the entity is invalidated once
+ * the transaction commits, when other connections can see the change, and not at all if it rolls back. Entities read
+ * inside a transaction are read from the database, so that the transaction sees its own changes, and aren't cached,
+ * since the transaction may still roll back. An entity read while it was being invalidated isn't cached either.
+ * <p>
+ * Each JVM has caches of its own, so rows changed some other way, including by another desk running the application,
+ * are only seen once the TTL has run out, except that every cache is cleared by {@link #clearAll()}, which the
+ * DatabaseHandler calls for raw commands and scripts, and when switching connection. The default TTL is 5 minutes,
+ * and can be set in seconds with -Dlibrarydbms.cacheTtlSeconds. Desks sharing a database should keep it short, 0 turns
+ * caching off.
+ * <p>
+ * Entities are mutable, so the cache keeps a copy of its own and hands out copies. Lookups that find nothing aren't
+ * cached. Hits, misses and evictions are counted, see {@link #printStatistics()}.
+ *
+ * @param <T> the type of entity cached
+ */
+public class EntityCache<T>
+{
+    private static final int DEFAULT_MAX_SIZE = 10_000;
+    private static final Duration DEFAULT_TTL = Duration.ofSeconds(Long.getLong("librarydbms.cacheTtlSeconds",
+            Duration.ofMinutes(5).toSeconds()));
+
+    //Every cache created, for clearAll and printStatistics
+    private static final List<EntityCache<?>> caches = new CopyOnWriteArrayList<>();
+
+    private final String name;
+    private final long ttlNanos;
+    private final UnaryOperator<T> copier;
+    //Least recently used first
+    private final Map<Integer, CachedEntity<T>> entries;
+    //Increased by every invalidation, so that a load that raced one isn't cached. Guarded by entries
+    private long version = 0;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    /**
+     * Reads an entity from the database.
+     *
+     * @param <T> the type of entity
+     * @param <E> the exception thrown if it can't be read
+     */
+    @FunctionalInterface
+    public interface Loader<T, E extends Exception>
+    {
+        /**
+         * @param id the ID of the entity
+         * @return the entity, or null if there is none with the ID
+         * @throws E if it couldn't be read
+         */
+        T load(int id)
+        throws E;
+    }
+
+    /**
+     * Creates an empty cache with the default size and TTL.
+     *
+     * @param name   the name shown in the statistics
+     * @param copier copies an entity
+     */
+    public EntityCache(String name, UnaryOperator<T> copier)
+    {
+        this(name, DEFAULT_MAX_SIZE, DEFAULT_TTL, copier);
+    }
+
+    /**
+     * Creates an empty cache.
+     *
+     * @param name    the name shown in the statistics
+     * @param maxSize the largest number of entities kept
+     * @param ttl     how long an entity is kept before it is read again
+     * @param copier  copies an entity
+     */
+    public EntityCache(String name, int maxSize, Duration ttl, UnaryOperator<T> copier)
+    {
+        if (maxSize < 1)
+            throw new IllegalArgumentException("Cache size must be at least 1, received " + maxSize);
+
+        this.name = name;
+        this.ttlNanos = ttl.toNanos();
+        this.copier = copier;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true)
+        {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Integer, CachedEntity<T>> eldest)
+            {
+                if (size() <= maxSize) return false;
+                evictions.increment();
+                return true;
+            }
+        };
+        caches.add(this);
+    }
+
+    /**
+     * Returns the entity with an ID, from the cache if it is there, otherwise from the loader.
+     *
+     * @param id     the ID of the entity
+     * @param loader reads the entity from the database on a miss
+     * @param <E>    the exception thrown by the loader
+     * @return a copy of the entity, or null if the loader found none
+     * @throws E if the loader throws it
+     */
+    public <E extends Exception> T get(int id, Loader<T, E> loader)
+    throws E
+    {
+        //The transaction may have changed the row
+        if (Transaction.getCurrent() != null)
+        {
+            misses.increment();
+            return loader.load(id);
+        }
+
+        long loadVersion;
+        synchronized (entries)
+        {
+            CachedEntity<T> cached = entries.get(id);
+            if (cached != null && System.nanoTime() - cached.loadedAt < ttlNanos)
+            {
+                hits.increment();
+                return copier.apply(cached.entity);
+            }
+            if (cached != null) entries.remove(id);
+            loadVersion = version;
+        }
+
+        misses.increment();
+        T entity = loader.load(id);
+        if (entity == null) return entity;
+
+        T copy = copier.apply(entity);
+        synchronized (entries)
+        {
+            if (loadVersion == version)
+                entries.put(id, new CachedEntity<>(copy, System.nanoTime()));
+        }
+        return entity;
+    }
+
+    /**
+     * Forgets the entity with an ID, after its row has changed. Inside a transaction, waits until the transaction has
+     * committed.
+     *
+     * @param id the ID of the entity
+     */
+    public void invalidate(int id)
+    {
+        Transaction transaction = Transaction.getCurrent();
+        if (transaction != null)
+            transaction.afterCommit(() -> invalidateNow(id));
+        else invalidateNow(id);
+    }
+
+    private void invalidateNow(int id)
+    {
+        synchronized (entries)
+        {
+            entries.remove(id);
+            version++;
+        }
+    }
+
+    /**
+     * Forgets every entity.
+     */
+    public void clear()
+    {
+        synchronized (entries)
+        {
+            entries.clear();
+            version++;
+        }
+    }
+
+    /**
+     * Forgets every entity of every cache. Used when rows may have changed without the handlers knowing.
+     */
+    public static void clearAll()
+    {
+        for (EntityCache<?> cache : caches)
+            cache.clear();
+    }
+
+    public String getName()
+    {
+        return name;
+    }
+
+    /**
+     * Returns the number of entities cached, including any whose TTL has run out but that haven't been read since.
+     *
+     * @return the number of entities
+     */
+    public int size()
+    {
+        synchronized (entries)
+        {
+            return entries.size();
+        }
+    }
+
+    public long getHits()
+    {
+        return hits.sum();
+    }
+
+    public long getMisses()
+    {
+        return misses.sum();
+    }
+
+    public long getEvictions()
+    {
+        return evictions.sum();
+    }
+
+    /**
+     * Returns the share of lookups answered from the cache.
+     *
+     * @return the hit rate, from 0 to 1, or 0 if nothing has been looked up
+     */
+    public double getHitRate()
+    {
+        long hits = getHits();
+        long lookups = hits + getMisses();
+        return lookups == 0 ? 0 : (double) hits / lookups;
+    }
+
+    /**
+     * Zeroes the hits, misses and evictions. Cached entities are kept.
+     */
+    public void resetStatistics()
+    {
+        hits.reset();
+        misses.reset();
+        evictions.reset();
+    }
+
+    @Override
+    public String toString()
+    {
+        return String.format("%-16s %8d %10d %10d %10d %8.1f%%", name, size(), getHits(), getMisses(),
+                getEvictions(), getHitRate() * 100);
+    }
+
+    public static List<EntityCache<?>> getCaches()
+    {
+        return caches;
+    }
+
+    /**
+     * Formats the statistics of every cache as a table.
+     *
+     * @return the table
+     */
+    public static String dump()
+    {
+        StringBuilder table = new StringBuilder(String.format("%-16s %8s %10s %10s %10s %9s%n",
+                "cache", "size", "hits", "misses", "evictions", "hit rate"));
+        for (EntityCache<?> cache : caches)
+            table.append(cache).append(System.lineSeparator());
+        return table.toString();
+    }
+
+    /**
+     * Prints the statistics of every cache.
+     */
+    public static void printStatistics()
+    {
+        System.out.println("\nEntity cache statistics:");
+        System.out.print(dump());
+    }
+
+    /**
+     * An entity and when it was read.
+     */
+    private static class CachedEntity<T>
+    {
+        private final T entity;
+        private final long loadedAt;
+
+        private CachedEntity(T entity, long loadedAt)
+        {
+            this.entity = entity;
+            this.loadedAt = loadedAt;
+        }
+    }
+}
@@ -0,0 +1,374 @@
+package edu.groupeighteen.librarydbms.control.db;
+
+import edu.groupeighteen.librarydbms.model.db.DelegatingResultSet;
+import edu.groupeighteen.librarydbms.model.db.QueryStatistics;
+import edu.groupeighteen.librarydbms.model.events.StatementEvent;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
+
+/**
+ * @author Mattias Fridsén
+ * @project LibraryDBMS
+ * @package edu.groupeighteen.librarydbms.control.db
+ * @contact matfir-1@student.ltu.se
+ * @date 10/17/2026
+ * <p>
+ * Records how long every statement run through the DatabaseHandler takes, grouped by statement template, together
+ * with the number of rows returned or affected and the number of failures. Statements slower than the slow query
+ * threshold are also written to the slow query log.
+ * <p>
+ * Prepared statements are their own templates. Literal strings and numbers in other statements are replaced by '?',
+ * so that e.g. every "use" of a database, or every query for a different ID, counts as the same template.
+ * <p>
+ * Latency is measured up to the point where the statement has been executed, i.e. for queries until the result is
+ * available, not until the caller has finished reading it. Rows returned by a query are counted as they are read,
+ * and recorded when the QueryResult or Stream is closed.
+ * <p>
+ * Slow queries are appended to logs/slow-queries.log, in the working directory. Another file can be set with
+ * -Dlibrarydbms.slowQueryLog=&lt;file&gt;, and an empty value turns the log off.
+ * <p>
+ * Use {@link #snapshot()} or {@link #printStatistics()} to see where the time goes. Every execution is also a
+ * {@link StatementEvent} for Flight Recorder, so that statements can be lined up with GC pauses and lock contention.
+ */
+public class QueryMonitor
+{
+    private static final Path DEFAULT_SLOW_QUERY_LOG = defaultSlowQueryLog();
+    private static final long DEFAULT_SLOW_QUERY_THRESHOLD_MILLIS = 200;
+    //Templates beyond this many are counted together, so that odd statements can't fill up memory
+    private static final int MAX_TEMPLATES = 1000;
+    private static final String OTHER_TEMPLATE = "(other statements)";
+
+    private static final Pattern STRING_LITERAL = Pattern.compile(
+            "'(?:[^'\\\\]|\\\\.|'')*'|\"(?:[^\"\\\\]|\\\\.|\"\")*\"");
+    private static final Pattern NUMBER_LITERAL = Pattern.compile("(?<![\\w.])-?\\d+(?:\\.\\d+)?(?![\\w.])");
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    private static final Map<String, QueryStatistics> statistics = new ConcurrentHashMap<>();
+    private static volatile boolean enabled = true;
+    private static volatile long slowQueryThresholdMillis = DEFAULT_SLOW_QUERY_THRESHOLD_MILLIS;
+    //Where slow queries are written, or null to not write them
+    private static volatile Path slowQueryLog = DEFAULT_SLOW_QUERY_LOG;
+
+    /**
+     * Returns snapshots of the statistics of every template, the ones the most time was spent on first.
+     *
+     * @return the snapshots
+     */
+    public static List<QueryStatistics.Snapshot> snapshot()
+    {
+        List<QueryStatistics.Snapshot> snapshots = new ArrayList<>();
+        for (QueryStatistics templateStatistics : statistics.values())
+            snapshots.add(templateStatistics.snapshot());
+        snapshots.sort(Comparator.comparingDouble(QueryStatistics.Snapshot::getTotalMillis).reversed());
+        return snapshots;
+    }
+
+    /**
+     * Returns a snapshot of the statistics of a template.
+     *
+     * @param template the template, as reported by {@link #toTemplate(String)} for statements that aren't prepared
+     * @return a snapshot, or null if the template hasn't been executed
+     */
+    public static QueryStatistics.Snapshot snapshot(String template)
+    {
+        QueryStatistics templateStatistics = statistics.get(template);
+        return templateStatistics == null ? null : templateStatistics.snapshot();
+    }
+
+    /**
+     * Formats the statistics of every template as a table, the ones the most time was spent on first.
+     *
+     * @return the table
+     */
+    public static String dump()
+    {
+        StringBuilder table = new StringBuilder(String.format("%8s %6s %9s %10s %8s %8s %8s %8s  %s%n",
+                "count", "errors", "rows", "total ms", "mean ms", "p95 ms", "p99 ms", "max ms", "statement"));
+        for (QueryStatistics.Snapshot snapshot : snapshot())
+            table.append(snapshot).append(System.lineSeparator());
+        return table.toString();
+    }
+
+    /**
+     * Prints the statistics of every template.
+     */
+    public static void printStatistics()
+    {
+        System.out.println("\nQuery statistics:");
+        System.out.print(dump());
+    }
+
+    /**
+     * Forgets every recorded execution.
+     */
+    public static void reset()
+    {
+        statistics.clear();
+    }
+
+    /**
+     * Turns a statement into its template, by replacing literal strings and numbers with '?' and collapsing
+     * whitespace.
+     *
+     * @param sql the statement
+     * @return its template
+     */
+    public static String toTemplate(String sql)
+    {
+        String template = STRING_LITERAL.matcher(sql).replaceAll("?");
+        template = NUMBER_LITERAL.matcher(template).replaceAll("?");
+        return WHITESPACE.matcher(template).replaceAll(" ").trim();
+    }
+
+    public static boolean isEnabled()
+    {
+        return enabled;
+    }
+
+    /**
+     * Turns recording on or off. Statistics already recorded are kept.
+     *
+     * @param enabled whether to record executions
+     */
+    public static void setEnabled(boolean enabled)
+    {
+        QueryMonitor.enabled = enabled;
+    }
+
+    public static long getSlowQueryThresholdMillis()
+    {
+        return slowQueryThresholdMillis;
+    }
+
+    /**
+     * Sets how long a statement may take before it is written to the slow query log.
+     *
+     * @param slowQueryThresholdMillis the threshold, in milliseconds
+     */
+    public static void setSlowQueryThresholdMillis(long slowQueryThresholdMillis)
+    {
+        if (slowQueryThresholdMillis < 0)
+            throw new IllegalArgumentException("Slow query threshold can't be negative, received " +
+                    slowQueryThresholdMillis);
+        QueryMonitor.slowQueryThresholdMillis = slowQueryThresholdMillis;
+    }
+
+    public static Path getSlowQueryLog()
+    {
+        return slowQueryLog;
+    }
+
+    /**
+     * Sets the file slow queries are appended to.
+     *
+     * @param slowQueryLog the file, or null to not log slow queries
+     */
+    public static void setSlowQueryLog(Path slowQueryLog)
+    {
+        QueryMonitor.slowQueryLog = slowQueryLog;
+    }
+
+    /**
+     * Returns the file slow queries are appended to unless set otherwise.
+     *
+     * @return the file, or null if slow queries aren't logged by default
+     */
+    public static Path getDefaultSlowQueryLog()
+    {
+        return DEFAULT_SLOW_QUERY_LOG;
+    }
+
+    //EXECUTIONS -------------------------------------------------------------------------------------------------------
+
+    /**
+     * Starts timing the execution of a statement. Also begins a {@link StatementEvent} if Flight Recorder is
+     * recording them, even if recording statistics is turned off.
+     *
+     * @param sql      the statement
+     * @param prepared whether it is a prepared statement, which is used as its own template
+     * @return the Execution, or a no-op if neither is recording
+     */
+    static Execution start(String sql, boolean prepared)
+    {
+        StatementEvent event = StatementEvent.isRecording() ? new StatementEvent() : null;
+        if (!enabled && event == null) return Execution.DISABLED;
+        return new Execution(prepared ? sql : toTemplate(sql), enabled, event);
+    }
+
+    /**
+     * The execution of a statement, from being started until it succeeds or fails.
+     */
+    static class Execution
+    {
+        private static final Execution DISABLED = new Execution(null, false, null);
+
+        private final String template;
+        //Whether to record statistics
+        private final boolean monitored;
+        //The Flight Recorder event, or null if they aren't being recorded
+        private final StatementEvent event;
+        private final long start;
+        private long elapsed = -1;
+        private long rows = 0;
+
+        private Execution(String template, boolean monitored, StatementEvent event)
+        {
+            this.template = template;
+            this.monitored = monitored;
+            this.event = event;
+            this.start = template == null ? 0 : System.nanoTime();
+            if (event != null)
+            {
+                event.setTemplate(template);
+                event.begin();
+            }
+        }
+
+        /**
+         * Marks the statement as executed, stopping the clock. Rows can still be counted afterwards.
+         */
+        void executed()
+        {
+            if (template != null && elapsed < 0)
+            {
+                elapsed = System.nanoTime() - start;
+                if (event != null) event.end();
+            }
+        }
+
+        /**
+         * Records the execution as successful. Stops the clock if it hasn't been stopped.
+         *
+         * @param affectedRows rows affected, added to the rows counted so far
+         */
+        void succeeded(long affectedRows)
+        {
+            if (template == null) return;
+            executed();
+            rows += affectedRows;
+            if (event != null)
+            {
+                event.setRows(rows);
+                event.commit();
+            }
+            if (!monitored) return;
+
+            statisticsOf(template).record(elapsed, rows);
+            if (elapsed >= slowQueryThresholdMillis * 1_000_000)
+                logSlowQuery(template, elapsed, rows);
+        }
+
+        /**
+         * Records the execution as failed.
+         */
+        void failed()
+        {
+            if (template == null) return;
+            executed();
+            if (event != null)
+            {
+                event.setFailed(true);
+                event.commit();
+            }
+            if (monitored)
+                statisticsOf(template).recordError(elapsed);
+        }
+
+        /**
+         * Counts a row read from the result.
+         */
+        void rowRead()
+        {
+            rows++;
+        }
+
+        /**
+         * Wraps a ResultSet so that the rows read from it are counted.
+         *
+         * @param resultSet the ResultSet, can be null
+         * @return a ResultSet counting rows, or the ResultSet itself if recording is turned off
+         */
+        ResultSet countRows(ResultSet resultSet)
+        {
+            if (template == null || resultSet == null) return resultSet;
+
+            return new DelegatingResultSet(resultSet)
+            {
+                @Override
+                public boolean next()
+                throws SQLException
+                {
+                    boolean read = super.next();
+                    if (read) rows++;
+                    return read;
+                }
+            };
+        }
+    }
+
+    //UTILITY METHODS---------------------------------------------------------------------------------------------------
+
+    /**
+     * Reads the slow query log from -Dlibrarydbms.slowQueryLog, defaulting to logs/slow-queries.log.
+     *
+     * @return the file, or null if the property is empty
+     */
+    private static Path defaultSlowQueryLog()
+    {
+        String log = System.getProperty("librarydbms.slowQueryLog", Path.of("logs", "slow-queries.log").toString());
+        return log.isBlank() ? null : Path.of(log);
+    }
+
+    private static QueryStatistics statisticsOf(String template)
+    {
+        QueryStatistics templateStatistics = statistics.get(template);
+        if (templateStatistics != null) return templateStatistics;
+
+        if (statistics.size() >= MAX_TEMPLATES)
+            template = OTHER_TEMPLATE;
+        return statistics.computeIfAbsent(template, QueryStatistics::new);
+    }
+
+    /**
+     * Appends a slow statement to the slow query log. Failing to do so is reported but isn't an error.
+     *
+     * @param template the template of the statement
+     * @param nanos    how long it took
+     * @param rows     the rows it returned or affected
+     */
+    private static synchronized void logSlowQuery(String template, long nanos, long rows)
+    {
+        Path log = slowQueryLog;
+        if (log == null) return;
+
+        String line = String.format("%s\t%.3f ms\t%d rows\t%s%n", LocalDateTime.now(), nanos / 1_000_000.0, rows,
+                template);
+        try
+        {
+            if (log.getParent() != null) Files.createDirectories(log.getParent());
+            try (Writer writer = Files.newBufferedWriter(log, StandardCharsets.UTF_8, StandardOpenOption.CREATE,
+                    StandardOpenOption.APPEND))
+            {
+                writer.write(line);
+            }
+        }
+        catch (IOException e)
+        {
+            System.err.println("Error writing slow query log " + log + ": " + e.getMessage());
+        }
+    }
+}
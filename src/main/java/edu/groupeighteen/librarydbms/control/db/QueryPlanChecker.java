@@ -0,0 +1,179 @@
+package edu.groupeighteen.librarydbms.control.db;
+
+import edu.groupeighteen.librarydbms.control.entities.AuthorHandler;
+import edu.groupeighteen.librarydbms.control.entities.ItemHandler;
+import edu.groupeighteen.librarydbms.control.entities.RentalHandler;
+import edu.groupeighteen.librarydbms.control.entities.UserHandler;
+import edu.groupeighteen.librarydbms.control.exceptions.ExceptionHandler;
+import edu.groupeighteen.librarydbms.model.db.DatabaseConnection;
+import edu.groupeighteen.librarydbms.model.db.QueryResult;
+import edu.groupeighteen.librarydbms.model.db.SQLParameter;
+
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * @author Mattias Fridsén
+ * @project LibraryDBMS
+ * @package edu.groupeighteen.librarydbms.control.db
+ * @contact matfir-1@student.ltu.se
+ * @date 10/17/2026
+ * <p>
+ * Checks that the queries the handlers run most often are answered through an index, by running EXPLAIN on them
+ * against the current database and looking for tables read in full.
+ * <p>
+ * The queries are the ones the handlers run, built from the SQL constants they expose, with sample parameters. The
+ * indexes they rely on are created by create_indexes.sql.
+ * <p>
+ * On small tables MySQL may read a table in full even though an index could be used, and in a join it counts the join
+ * columns as possible keys of every table. Such a scan is only reported once the table is expected to have more than
+ * {@link #DEFAULT_MAX_SCAN_ROWS} rows, which can be set with -Dlibrarydbms.maxScanRows. A scan with no index to use
+ * is always reported.
+ */
+public class QueryPlanChecker
+{
+    private static final String ITEM_QUERY = ItemHandler.SELECT_ITEMS + " ";
+    private static final String RENTAL_QUERY = RentalHandler.SELECT_RENTALS;
+    public static final long DEFAULT_MAX_SCAN_ROWS = Long.getLong("librarydbms.maxScanRows", 1000);
+    private static final LocalDateTime SAMPLE_DATE = LocalDateTime.of(2026, 1, 1, 12, 0);
+
+    //The hot queries of the handlers, none of which should read a table in full
+    private static final List<HotQuery> HOT_QUERIES = List.of(
+            new HotQuery("ItemHandler.getItemsByTitle", ITEM_QUERY + ItemHandler.BY_TITLE,
+                    SQLParameter.of("title")),
+            new HotQuery("ItemHandler.getItemsByISBN", ITEM_QUERY + ItemHandler.BY_ISBN,
+                    SQLParameter.of("9783161484100")),
+            new HotQuery("ItemHandler.getItemsByAuthor", ITEM_QUERY + ItemHandler.BY_AUTHOR,
+                    SQLParameter.of("firstname"), SQLParameter.of("lastname")),
+            new HotQuery("ItemHandler.getItemsByClassification", ITEM_QUERY + ItemHandler.BY_CLASSIFICATION,
+                    SQLParameter.of("classification")),
+            new HotQuery("RentalHandler.getOverdueRentals", RENTAL_QUERY + RentalHandler.OVERDUE,
+                    SQLParameter.of(SAMPLE_DATE)),
+            new HotQuery("RentalHandler.getRentalsByRentalDate", RENTAL_QUERY + RentalHandler.BY_RENTAL_DATE,
+                    SQLParameter.of(SAMPLE_DATE)),
+            new HotQuery("RentalHandler.getRentalsByTimePeriod", RENTAL_QUERY + RentalHandler.BY_TIME_PERIOD,
+                    SQLParameter.of(SAMPLE_DATE), SQLParameter.of(SAMPLE_DATE.plusDays(7))),
+            new HotQuery("RentalHandler.getRentalsByUserID", RENTAL_QUERY + RentalHandler.BY_USER_ID,
+                    SQLParameter.of(1)),
+            new HotQuery("RentalHandler.getRentalsByItemID", RENTAL_QUERY + RentalHandler.BY_ITEM_ID,
+                    SQLParameter.of(1)),
+            new HotQuery("RentalHandler.getRentalsByUsername", RENTAL_QUERY + RentalHandler.BY_USERNAME,
+                    SQLParameter.of("username")),
+            new HotQuery("RentalHandler.getRentalsByItemTitle", RENTAL_QUERY + RentalHandler.BY_ITEM_TITLE,
+                    SQLParameter.of("title")),
+            new HotQuery("AuthorHandler.getAuthorByAuthorName (first name)",
+                    AuthorHandler.SELECT_AUTHORS + AuthorHandler.FIRSTNAME_CONDITION,
+                    SQLParameter.of("firstname")),
+            new HotQuery("AuthorHandler.getAuthorByAuthorName (both names)",
+                    AuthorHandler.SELECT_AUTHORS + AuthorHandler.FIRSTNAME_CONDITION + " AND" +
+                            AuthorHandler.LASTNAME_CONDITION,
+                    SQLParameter.of("firstname"), SQLParameter.of("lastname")),
+            new HotQuery("AuthorHandler.getAuthorByAuthorName (last name)",
+                    AuthorHandler.SELECT_AUTHORS + AuthorHandler.LASTNAME_CONDITION,
+                    SQLParameter.of("lastname")),
+            new HotQuery("UserHandler.login", UserHandler.SELECT_PASSWORD,
+                    SQLParameter.of("username"))
+    );
+
+    /**
+     * Runs EXPLAIN on every hot query. Handles any failure as fatal.
+     *
+     * @return one message per table a hot query reads in full, empty if every hot query uses its indexes
+     */
+    public static List<String> verify()
+    {
+        return verify(DEFAULT_MAX_SCAN_ROWS);
+    }
+
+    /**
+     * Runs EXPLAIN on every hot query. Handles any failure as fatal.
+     *
+     * @param maxScanRows the number of rows a table may have and still be read in full when an index could be used
+     * @return one message per table a hot query reads in full, empty if every hot query uses its indexes
+     */
+    public static List<String> verify(long maxScanRows)
+    {
+        List<String> violations = new ArrayList<>();
+        for (HotQuery hotQuery : HOT_QUERIES)
+        {
+            for (String table : getFullScans(maxScanRows, hotQuery.getSql(), hotQuery.getParams()))
+                violations.add(hotQuery.getName() + " reads " + table + " in full: " + hotQuery.getSql());
+        }
+        return violations;
+    }
+
+    /**
+     * Runs EXPLAIN on a query and returns the tables it reads in full. Handles any failure as fatal.
+     *
+     * @param sql    the query
+     * @param params the parameters of the query, as in DatabaseHandler.executePreparedQuery
+     * @return the names of the tables read in full
+     */
+    public static List<String> getFullScans(String sql, SQLParameter... params)
+    {
+        return getFullScans(DEFAULT_MAX_SCAN_ROWS, sql, params);
+    }
+
+    /**
+     * Runs EXPLAIN on a query and returns the tables it reads in full. Handles any failure as fatal.
+     *
+     * @param maxScanRows the number of rows a table may have and still be read in full when an index could be used
+     * @param sql         the query
+     * @param params      the parameters of the query, as in DatabaseHandler.executePreparedQuery
+     * @return the names of the tables read in full
+     */
+    public static List<String> getFullScans(long maxScanRows, String sql, SQLParameter... params)
+    {
+        try (QueryResult queryResult = DatabaseHandler.executePreparedQuery("EXPLAIN " + sql, params))
+        {
+            return DatabaseConnection.getDialect().getFullScans(queryResult.getResultSet(), maxScanRows);
+        }
+        catch (SQLException e)
+        {
+            ExceptionHandler.HandleFatalException("Failed to explain query due to " +
+                    e.getClass().getName() + ": " + e.getMessage(), e);
+        }
+
+        //Won't reach, but needed to compile
+        return new ArrayList<>();
+    }
+
+    public static List<HotQuery> getHotQueries()
+    {
+        return HOT_QUERIES;
+    }
+
+    /**
+     * A query run often enough that it should never read a table in full.
+     */
+    public static class HotQuery
+    {
+        private final String name;
+        private final String sql;
+        private final SQLParameter[] params;
+
+        public HotQuery(String name, String sql, SQLParameter... params)
+        {
+            this.name = name;
+            this.sql = sql;
+            this.params = params;
+        }
+
+        public String getName()
+        {
+            return name;
+        }
+
+        public String getSql()
+        {
+            return sql;
+        }
+
+        public SQLParameter[] getParams()
+        {
+            return params;
+        }
+    }
+}
@@ -0,0 +1,296 @@
+package edu.groupeighteen.librarydbms.control.db;
+
+import edu.groupeighteen.librarydbms.control.exceptions.ExceptionHandler;
+import edu.groupeighteen.librarydbms.model.db.DatabaseConnection;
+import edu.groupeighteen.librarydbms.model.db.QueryResult;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Properties;
+
+/**
+ * @author Mattias Fridsén
+ * @project LibraryDBMS
+ * @package edu.groupeighteen.librarydbms.control.db
+ * @contact matfir-1@student.ltu.se
+ * @date 10/17/2026
+ * <p>
+ * Registry of the column sizes of the current database, used by the entities to initialize their maximum lengths.
+ * <p>
+ * Every column size is loaded with a single INFORMATION_SCHEMA query the first time one is asked for, instead of one
+ * DatabaseMetaData.getColumns call per column. The result is also written to a file in the cache directory, named
+ * after the database and its schema version, so that later starts against the same schema don't have to query for
+ * them at all. Since the schema only changes through migrations, a new version means a new file.
+ * <p>
+ * The cache directory is data/schema-metadata in the working directory, next to the files of the embedded database.
+ * Another directory can be set with -Dlibrarydbms.schemaCacheDirectory=&lt;directory&gt;, and an empty value turns
+ * the cache files off.
+ * <p>
+ * Table and column names are case-insensitive, as they are in MySQL.
+ */
+public class SchemaMetadata
+{
+    private static final Path DEFAULT_CACHE_DIRECTORY = defaultCacheDirectory();
+    private static final String COLUMNS_QUERY = "SELECT TABLE_NAME, COLUMN_NAME, " +
+            "COALESCE(CHARACTER_MAXIMUM_LENGTH, NUMERIC_PRECISION, 0) AS COLUMN_SIZE " +
+            "FROM INFORMATION_SCHEMA.COLUMNS WHERE TABLE_SCHEMA = ";
+    //Keys of the cache file that aren't column sizes, which always contain a dot
+    private static final String DATABASE_KEY = "database";
+    private static final String VERSION_KEY = "version";
+
+    //Where the cache files are written, or null to not write any
+    private static Path cacheDirectory = DEFAULT_CACHE_DIRECTORY;
+    //The loaded column sizes, by "table.column" in lower case
+    private static Map<String, Integer> columnSizes;
+    //The database the column sizes were loaded for
+    private static String loadedDatabase;
+
+    /**
+     * Returns the size of a column in the current database, as reported by DatabaseMetaData.getColumns: the maximum
+     * length of character columns and the precision of numeric ones. Loads the sizes of every column first if they
+     * haven't been loaded for the current database.
+     *
+     * @param tableName  the name of the table
+     * @param columnName the name of the column
+     * @return the size of the column, or 0 if there is no such column
+     */
+    public static synchronized int getColumnSize(String tableName, String columnName)
+    {
+        String database = getCurrentDatabase();
+        if (columnSizes == null || !database.equals(loadedDatabase))
+            load(database);
+
+        return columnSizes.getOrDefault(key(tableName, columnName), 0);
+    }
+
+    /**
+     * Forgets the loaded column sizes, so that they are loaded again the next time one is asked for. Called after
+     * migrations have been applied. Cache files are kept, since they are named after the schema version.
+     */
+    public static synchronized void invalidate()
+    {
+        columnSizes = null;
+        loadedDatabase = null;
+    }
+
+    /**
+     * Returns the cache file for a schema version of a database.
+     *
+     * @param database the name of the database
+     * @param version  the schema version
+     * @return the path of the cache file, or null if column sizes aren't cached
+     */
+    public static synchronized Path getCacheFile(String database, int version)
+    {
+        if (cacheDirectory == null) return null;
+        return cacheDirectory.resolve(database.toLowerCase(Locale.ROOT) + "-v" + version + ".properties");
+    }
+
+    public static synchronized Path getCacheDirectory()
+    {
+        return cacheDirectory;
+    }
+
+    /**
+     * Sets the directory cache files are read from and written to. The loaded column sizes are forgotten.
+     *
+     * @param cacheDirectory the directory, or null to always query the database
+     */
+    public static synchronized void setCacheDirectory(Path cacheDirectory)
+    {
+        SchemaMetadata.cacheDirectory = cacheDirectory;
+        invalidate();
+    }
+
+    /**
+     * Returns the directory cache files are read from and written to unless set otherwise.
+     *
+     * @return the directory, or null if column sizes aren't cached by default
+     */
+    public static Path getDefaultCacheDirectory()
+    {
+        return DEFAULT_CACHE_DIRECTORY;
+    }
+
+    //UTILITY METHODS---------------------------------------------------------------------------------------------------
+
+    /**
+     * Reads the cache directory from -Dlibrarydbms.schemaCacheDirectory, defaulting to data/schema-metadata.
+     *
+     * @return the directory, or null if the property is empty
+     */
+    private static Path defaultCacheDirectory()
+    {
+        String directory = System.getProperty("librarydbms.schemaCacheDirectory",
+                Path.of("data", "schema-metadata").toString());
+        return directory.isBlank() ? null : Path.of(directory);
+    }
+
+    /**
+     * Loads the column sizes of the given database from its cache file if there is one for its current schema
+     * version, otherwise from the database, writing the cache file.
+     *
+     * @param database the name of the current database
+     */
+    private static void load(String database)
+    {
+        //Databases not created by SchemaMigrator have no version to name the file after
+        int version = SchemaMigrator.getCurrentVersion();
+        Path cacheFile = version > 0 ? getCacheFile(database, version) : null;
+
+        Map<String, Integer> sizes = cacheFile != null ? readCacheFile(cacheFile, database, version) : null;
+        if (sizes == null)
+        {
+            sizes = queryColumnSizes();
+            if (cacheFile != null)
+                writeCacheFile(cacheFile, database, version, sizes);
+        }
+
+        columnSizes = sizes;
+        loadedDatabase = database;
+    }
+
+    /**
+     * Retrieves the size of every column in the current database.
+     *
+     * @return the column sizes, by key
+     */
+    private static Map<String, Integer> queryColumnSizes()
+    {
+        Map<String, Integer> sizes = new HashMap<>();
+        try (QueryResult queryResult = DatabaseHandler.executeQuery(COLUMNS_QUERY +
+                DatabaseConnection.getDialect().getCurrentDatabaseFunction()))
+        {
+            ResultSet resultSet = queryResult.getResultSet();
+            while (resultSet.next())
+            {
+                //LONGTEXT and the like are larger than an int can hold
+                long size = resultSet.getLong("COLUMN_SIZE");
+                sizes.put(key(resultSet.getString("TABLE_NAME"), resultSet.getString("COLUMN_NAME")),
+                        (int) Math.min(size, Integer.MAX_VALUE));
+            }
+        }
+        catch (SQLException e)
+        {
+            ExceptionHandler.HandleFatalException("Failed to retrieve column sizes due to " +
+                    e.getClass().getName() + ": " + e.getMessage(), e);
+        }
+        return sizes;
+    }
+
+    /**
+     * Reads column sizes from a cache file. A file that is missing, unreadable or written for another database or
+     * version is ignored.
+     *
+     * @param cacheFile the cache file
+     * @param database  the name of the database
+     * @param version   the schema version
+     * @return the column sizes, or null if the file couldn't be used
+     */
+    private static Map<String, Integer> readCacheFile(Path cacheFile, String database, int version)
+    {
+        if (!Files.isRegularFile(cacheFile)) return null;
+
+        Properties properties = new Properties();
+        try (Reader reader = Files.newBufferedReader(cacheFile, StandardCharsets.UTF_8))
+        {
+            properties.load(reader);
+        }
+        catch (IOException | IllegalArgumentException e)
+        {
+            System.err.println("Error reading column size cache " + cacheFile + ": " + e.getMessage());
+            return null;
+        }
+
+        if (!database.equalsIgnoreCase(properties.getProperty(DATABASE_KEY)) ||
+                !String.valueOf(version).equals(properties.getProperty(VERSION_KEY)))
+            return null;
+
+        Map<String, Integer> sizes = new HashMap<>();
+        try
+        {
+            for (String name : properties.stringPropertyNames())
+                if (name.indexOf('.') >= 0)
+                    sizes.put(name, Integer.parseInt(properties.getProperty(name)));
+        }
+        catch (NumberFormatException e)
+        {
+            System.err.println("Error reading column size cache " + cacheFile + ": " + e.getMessage());
+            return null;
+        }
+        return sizes;
+    }
+
+    /**
+     * Writes column sizes to a cache file. Failing to do so isn't an error, the sizes are just queried again on the
+     * next start.
+     *
+     * @param cacheFile the cache file
+     * @param database  the name of the database
+     * @param version   the schema version
+     * @param sizes     the column sizes
+     */
+    private static void writeCacheFile(Path cacheFile, String database, int version, Map<String, Integer> sizes)
+    {
+        Properties properties = new Properties();
+        properties.setProperty(DATABASE_KEY, database);
+        properties.setProperty(VERSION_KEY, String.valueOf(version));
+        for (Map.Entry<String, Integer> entry : sizes.entrySet())
+            properties.setProperty(entry.getKey(), String.valueOf(entry.getValue()));
+
+        try
+        {
+            Files.createDirectories(cacheFile.getParent());
+            //Write to a temporary file first, so that a concurrent start never reads half a file
+            Path temporaryFile = Files.createTempFile(cacheFile.getParent(), cacheFile.getFileName().toString(),
+                    ".tmp");
+            try (Writer writer = Files.newBufferedWriter(temporaryFile, StandardCharsets.UTF_8))
+            {
+                properties.store(writer, "Column sizes of " + database + " at schema version " + version);
+            }
+            Files.move(temporaryFile, cacheFile, StandardCopyOption.REPLACE_EXISTING);
+        }
+        catch (IOException e)
+        {
+            System.err.println("Error writing column size cache " + cacheFile + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * Returns the name of the database the DatabaseHandler is using, connecting first if needed.
+     *
+     * @return the name of the current database
+     */
+    private static String getCurrentDatabase()
+    {
+        DatabaseHandler.checkConnection();
+        try
+        {
+            String catalog = DatabaseConnection.getDialect().getCurrentDatabase(DatabaseHandler.getConnection());
+            return catalog == null ? "" : catalog;
+        }
+        catch (SQLException e)
+        {
+            ExceptionHandler.HandleFatalException("Failed to retrieve current database due to " +
+                    e.getClass().getName() + ": " + e.getMessage(), e);
+        }
+
+        //Won't reach, but needed to compile
+        return "";
+    }
+
+    private static String key(String tableName, String columnName)
+    {
+        return (tableName + "." + columnName).toLowerCase(Locale.ROOT);
+    }
+}
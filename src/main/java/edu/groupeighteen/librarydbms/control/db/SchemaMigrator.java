@@ -0,0 +1,291 @@
+package edu.groupeighteen.librarydbms.control.db;
+
+import edu.groupeighteen.librarydbms.control.exceptions.ExceptionHandler;
+import edu.groupeighteen.librarydbms.model.db.DatabaseConnection;
+import edu.groupeighteen.librarydbms.model.db.Migration;
+import edu.groupeighteen.librarydbms.model.db.QueryResult;
+import edu.groupeighteen.librarydbms.model.db.SQLParameter;
+import edu.groupeighteen.librarydbms.model.exceptions.MigrationException;
+
+import java.io.IOException;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.*;
+
+/**
+ * @author Mattias Fridsén
+ * @project LibraryDBMS
+ * @package edu.groupeighteen.librarydbms.control.db
+ * @contact matfir-1@student.ltu.se
+ * @date 10/17/2026
+ * <p>
+ * Brings the schema of the current database up to date by applying the migrations it hasn't had yet. Applied
+ * migrations are recorded, with the checksum of their script, in the schema_version table, so starting against a
+ * database that is already up to date only costs a query and reading the (small) scripts, however much data the
+ * database holds.
+ * <p>
+ * New scripts are added to the end of {@link #MIGRATIONS} with the next version number. A script must never be
+ * changed once it has been applied to a database that should be kept, since that database would then differ from
+ * one created from scratch. Changing one makes the migration fail instead.
+ */
+public class SchemaMigrator
+{
+    //Every migration, in version order
+    private static final List<Migration> MIGRATIONS = List.of(
+            new Migration(1, "Create tables", "src/main/resources/sql/create_tables.sql"),
+            new Migration(2, "Insert test data", "src/main/resources/sql/data/test_data.sql"),
+            new Migration(3, "Create indexes", "src/main/resources/sql/create_indexes.sql"),
+            new Migration(4, "Create routines", "src/main/resources/sql/create_routines.sql"),
+            new Migration(5, "Create triggers", "src/main/resources/sql/create_triggers.sql"),
+            new Migration(6, "Alter title stock", "src/main/resources/sql/alter_title_stock.sql")
+    );
+    //Databases created before migrations were recorded contain everything up to this version
+    private static final int BASELINE_VERSION = 2;
+
+    private static final String CREATE_VERSION_TABLE = "CREATE TABLE IF NOT EXISTS schema_version " +
+            "(version INT NOT NULL, description VARCHAR(255) NOT NULL, checksum CHAR(64) NOT NULL, " +
+            "appliedAt DATETIME NOT NULL, executionTime INT NOT NULL, PRIMARY KEY (version))";
+    private static final String INSERT_VERSION = "INSERT INTO schema_version " +
+            "(version, description, checksum, appliedAt, executionTime) VALUES (?, ?, ?, ?, ?)";
+
+    /**
+     * Applies every pending migration to the current database. Handles any failure as fatal.
+     *
+     * @return the number of migrations applied
+     */
+    public static int migrate()
+    {
+        try
+        {
+            return migrate(MIGRATIONS);
+        }
+        catch (MigrationException e)
+        {
+            ExceptionHandler.HandleFatalException("Failed to migrate database due to " +
+                    e.getClass().getName() + ": " + e.getMessage(), e);
+        }
+
+        //Won't reach, but needed to compile
+        return 0;
+    }
+
+    /**
+     * Applies the given migrations that haven't already been applied to the current database, in version order.
+     * Migrations that have been applied are checked against their recorded checksums first.
+     *
+     * @param migrations the migrations, in version order
+     * @return the number of migrations applied
+     * @throws MigrationException if the migrations aren't in order, an applied script has changed, the database has
+     *                            migrations that aren't known, or a script couldn't be read
+     */
+    public static int migrate(List<Migration> migrations)
+    throws MigrationException
+    {
+        checkOrder(migrations);
+
+        boolean versionTableExists = tableExists("schema_version");
+        boolean legacyDatabase = !versionTableExists && tableExists("items");
+        if (!versionTableExists)
+            DatabaseHandler.executeCommand(CREATE_VERSION_TABLE);
+
+        //Record the migrations a database created before this class existed already contains
+        if (legacyDatabase)
+        {
+            for (Migration migration : migrations)
+                if (migration.getVersion() <= BASELINE_VERSION)
+                    record(migration, checksumOf(migration), 0);
+        }
+
+        Map<Integer, String> applied = getAppliedChecksums();
+        validate(migrations, applied);
+
+        int count = 0;
+        for (Migration migration : migrations)
+        {
+            if (applied.containsKey(migration.getVersion())) continue;
+
+            String checksum = checksumOf(migration);
+            if (DatabaseHandler.isVerbose())
+                System.out.println("\nApplying migration " + migration);
+
+            long start = System.currentTimeMillis();
+            DatabaseHandler.executeSQLCommandsFromFile(migration.getScriptPath());
+            record(migration, checksum, (int) (System.currentTimeMillis() - start));
+            count++;
+        }
+
+        //The column sizes of the old schema no longer apply
+        if (count > 0)
+            SchemaMetadata.invalidate();
+        return count;
+    }
+
+    /**
+     * Returns the version of the current database, i.e. the highest applied migration.
+     *
+     * @return the current version, or 0 if no migrations have been applied
+     */
+    public static int getCurrentVersion()
+    {
+        if (!tableExists("schema_version")) return 0;
+
+        try (QueryResult queryResult = DatabaseHandler.executeQuery("SELECT MAX(version) FROM schema_version"))
+        {
+            ResultSet resultSet = queryResult.getResultSet();
+            if (resultSet.next()) return resultSet.getInt(1);
+        }
+        catch (SQLException e)
+        {
+            ExceptionHandler.HandleFatalException("Failed to retrieve schema version due to " +
+                    e.getClass().getName() + ": " + e.getMessage(), e);
+        }
+        return 0;
+    }
+
+    /**
+     * Returns the latest version known to this class, which the database is at once every migration is applied.
+     *
+     * @return the latest version
+     */
+    public static int getLatestVersion()
+    {
+        return MIGRATIONS.get(MIGRATIONS.size() - 1).getVersion();
+    }
+
+    public static List<Migration> getMigrations()
+    {
+        return MIGRATIONS;
+    }
+
+    //UTILITY METHODS---------------------------------------------------------------------------------------------------
+
+    /**
+     * Checks that the migrations are in strictly increasing version order.
+     *
+     * @param migrations the migrations
+     * @throws MigrationException if they aren't
+     */
+    private static void checkOrder(List<Migration> migrations)
+    throws MigrationException
+    {
+        int previous = 0;
+        for (Migration migration : migrations)
+        {
+            if (migration.getVersion() <= previous)
+                throw new MigrationException("Migrations must be in increasing version order, found V" +
+                        migration.getVersion() + " after V" + previous + ".");
+            previous = migration.getVersion();
+        }
+    }
+
+    /**
+     * Checks that every applied migration is known and that its script hasn't changed since it was applied.
+     *
+     * @param migrations the known migrations
+     * @param applied    the checksums of the applied migrations, by version
+     * @throws MigrationException if an applied migration is unknown or has changed
+     */
+    private static void validate(List<Migration> migrations, Map<Integer, String> applied)
+    throws MigrationException
+    {
+        Map<Integer, Migration> known = new HashMap<>();
+        for (Migration migration : migrations)
+            known.put(migration.getVersion(), migration);
+
+        for (Map.Entry<Integer, String> entry : applied.entrySet())
+        {
+            Migration migration = known.get(entry.getKey());
+            if (migration == null)
+                throw new MigrationException("Database has migration V" + entry.getKey() + " applied, which is " +
+                        "unknown. The database is newer than this version of the application.");
+            if (!checksumOf(migration).equals(entry.getValue()))
+                throw new MigrationException("Script of migration " + migration + " has changed since it was " +
+                        "applied.");
+        }
+    }
+
+    /**
+     * Retrieves the checksums of the applied migrations.
+     *
+     * @return the checksums, by version
+     */
+    private static Map<Integer, String> getAppliedChecksums()
+    {
+        Map<Integer, String> applied = new TreeMap<>();
+        try (QueryResult queryResult = DatabaseHandler.executeQuery("SELECT version, checksum FROM schema_version"))
+        {
+            ResultSet resultSet = queryResult.getResultSet();
+            while (resultSet.next())
+                applied.put(resultSet.getInt("version"), resultSet.getString("checksum"));
+        }
+        catch (SQLException e)
+        {
+            ExceptionHandler.HandleFatalException("Failed to retrieve applied migrations due to " +
+                    e.getClass().getName() + ": " + e.getMessage(), e);
+        }
+        return applied;
+    }
+
+    /**
+     * Records a migration as applied.
+     *
+     * @param migration     the migration
+     * @param checksum      the checksum of its script
+     * @param executionTime how long it took to apply, in milliseconds
+     */
+    private static void record(Migration migration, String checksum, int executionTime)
+    {
+        SQLParameter[] params = {
+                SQLParameter.of(migration.getVersion()),
+                SQLParameter.of(migration.getDescription()),
+                SQLParameter.of(checksum),
+                SQLParameter.of(LocalDateTime.now()),
+                SQLParameter.of(executionTime)
+        };
+        DatabaseHandler.executePreparedUpdate(INSERT_VERSION, params);
+    }
+
+    /**
+     * Calculates the checksum of a migration's script.
+     *
+     * @param migration the migration
+     * @return the checksum
+     * @throws MigrationException if the script couldn't be read
+     */
+    private static String checksumOf(Migration migration)
+    throws MigrationException
+    {
+        try
+        {
+            return migration.checksum();
+        }
+        catch (IOException e)
+        {
+            throw new MigrationException("Couldn't read script of migration " + migration, e);
+        }
+    }
+
+    /**
+     * Checks whether a table exists in the current database.
+     *
+     * @param tableName the name of the table
+     * @return true if it exists, otherwise false
+     */
+    private static boolean tableExists(String tableName)
+    {
+        String query = "SELECT 1 FROM INFORMATION_SCHEMA.TABLES WHERE TABLE_SCHEMA = " +
+                DatabaseConnection.getDialect().getCurrentDatabaseFunction() + " AND TABLE_NAME = ?";
+        try (QueryResult queryResult = DatabaseHandler.executePreparedQuery(query,
+                new SQLParameter[]{SQLParameter.of(tableName)}))
+        {
+            return queryResult.getResultSet().next();
+        }
+        catch (SQLException e)
+        {
+            ExceptionHandler.HandleFatalException("Failed to check whether table " + tableName + " exists due to " +
+                    e.getClass().getName() + ": " + e.getMessage(), e);
+        }
+        return false;
+    }
+}
@@ -0,0 +1,252 @@
+package edu.groupeighteen.librarydbms.control.entities;
+
+import edu.groupeighteen.librarydbms.control.db.DatabaseHandler;
+import edu.groupeighteen.librarydbms.model.db.ConnectionPool;
+import edu.groupeighteen.librarydbms.model.db.Page;
+import edu.groupeighteen.librarydbms.model.db.PageRequest;
+import edu.groupeighteen.librarydbms.model.entities.*;
+
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * @author Mattias Fridsén
+ * @project LibraryDBMS
+ * @package edu.groupeighteen.librarydbms.control.entities
+ * @contact matfir-1@student.ltu.se
+ * @date 10/17/2026
+ * <p>
+ * Asynchronous versions of the handler methods, returning CompletableFutures instead of blocking the caller. Meant
+ * for the GUIs, which shouldn't run database calls on the event dispatch thread, and for fanning out independent
+ * lookups, e.g. retrieving a user and an item at the same time.
+ * <p>
+ * Operations run on a pool of worker threads, one per pooled connection, so that as many of them as there are
+ * connections can run at once. Each operation runs on a single worker from start to end, with its own connection and,
+ * if it opens one, its own transaction. Operations submitted together may run in any order, so one that depends on
+ * another should be chained to it, e.g. with {@link CompletableFuture#thenCompose}. The handlers don't use this class
+ * themselves, a handler method always runs on the thread that called it.
+ * <p>
+ * Checked exceptions thrown by a handler method complete the future exceptionally, and are found as the cause of the
+ * CompletionException thrown by {@link CompletableFuture#join()}.
+ * <p>
+ * Methods not covered here can be run through {@link #read(Callable)} and {@link #write(Callable)}.
+ */
+public class AsyncHandler
+{
+    //Sized after the connection pool
+    private static ExecutorService executor;
+
+    /**
+     * Runs a read-only operation on a worker thread.
+     *
+     * @param operation the operation to run
+     * @param <T>       the type of the result
+     * @return a future completed with the result of the operation, or exceptionally with what it threw
+     */
+    public static <T> CompletableFuture<T> read(Callable<T> operation)
+    {
+        return submit(getExecutor(), operation);
+    }
+
+    /**
+     * Runs an operation that changes data on a worker thread.
+     *
+     * @param operation the operation to run
+     * @param <T>       the type of the result
+     * @return a future completed with the result of the operation, or exceptionally with what it threw
+     */
+    public static <T> CompletableFuture<T> write(Callable<T> operation)
+    {
+        return submit(getExecutor(), operation);
+    }
+
+    /**
+     * Shuts down the worker threads. Operations already submitted are still run. The threads are recreated if the
+     * AsyncHandler is used again.
+     */
+    public static synchronized void shutdown()
+    {
+        if (executor != null)
+        {
+            executor.shutdown();
+            executor = null;
+        }
+    }
+
+    //ITEMS ------------------------------------------------------------------------------------------------------------
+
+    public static CompletableFuture<Item> getItemByID(int itemID)
+    {
+        return read(() -> ItemHandler.getItemByID(itemID));
+    }
+
+    public static CompletableFuture<List<Item>> getItemsByTitle(String title)
+    {
+        return read(() -> ItemHandler.getItemsByTitle(title));
+    }
+
+    public static CompletableFuture<Page<Item>> getAllItems(PageRequest pageRequest)
+    {
+        return read(() -> ItemHandler.getAllItems(pageRequest));
+    }
+
+    public static CompletableFuture<Void> updateItem(Item item)
+    {
+        return write(() ->
+        {
+            ItemHandler.updateItem(item);
+            return null;
+        });
+    }
+
+    public static CompletableFuture<Void> deleteItem(Item item)
+    {
+        return write(() ->
+        {
+            ItemHandler.deleteItem(item);
+            return null;
+        });
+    }
+
+    //USERS ------------------------------------------------------------------------------------------------------------
+
+    public static CompletableFuture<User> getUserByID(int userID)
+    {
+        return read(() -> UserHandler.getUserByID(userID));
+    }
+
+    public static CompletableFuture<User> getUserByUsername(String username)
+    {
+        return read(() -> UserHandler.getUserByUsername(username));
+    }
+
+    public static CompletableFuture<Page<User>> getAllUsers(PageRequest pageRequest)
+    {
+        return read(() -> UserHandler.getAllUsers(pageRequest));
+    }
+
+    public static CompletableFuture<User> createNewUser(String username, String password, String email,
+                                                       User.UserType userType)
+    {
+        return write(() -> UserHandler.createNewUser(username, password, email, userType));
+    }
+
+    public static CompletableFuture<Void> updateUser(User user)
+    {
+        return write(() ->
+        {
+            UserHandler.updateUser(user);
+            return null;
+        });
+    }
+
+    //RENTALS ----------------------------------------------------------------------------------------------------------
+
+    public static CompletableFuture<Rental> getRentalByID(int rentalID)
+    {
+        return read(() -> RentalHandler.getRentalByID(rentalID));
+    }
+
+    public static CompletableFuture<Page<Rental>> getAllRentals(PageRequest pageRequest)
+    {
+        return read(() -> RentalHandler.getAllRentals(pageRequest));
+    }
+
+    public static CompletableFuture<Page<Rental>> getRentalsByUserID(int userID, PageRequest pageRequest)
+    {
+        return read(() -> RentalHandler.getRentalsByUserID(userID, pageRequest));
+    }
+
+    public static CompletableFuture<Rental> createNewRental(int userID, int itemID)
+    {
+        return write(() -> RentalHandler.createNewRental(userID, itemID));
+    }
+
+    public static CompletableFuture<Rental> returnRental(Rental rental)
+    {
+        return write(() -> RentalHandler.returnRental(rental));
+    }
+
+    //AUTHORS AND CLASSIFICATIONS --------------------------------------------------------------------------------------
+
+    public static CompletableFuture<Author> getAuthorByID(int authorID)
+    {
+        return read(() -> AuthorHandler.getAuthorByID(authorID, false));
+    }
+
+    public static CompletableFuture<Author> createNewAuthor(String authorFirstname, String authorLastname)
+    {
+        return write(() -> AuthorHandler.createNewAuthor(authorFirstname, authorLastname));
+    }
+
+    public static CompletableFuture<Classification> getClassificationByID(int classificationID)
+    {
+        return read(() -> ClassificationHandler.getClassificationByID(classificationID));
+    }
+
+    public static CompletableFuture<Classification> createNewClassification(String classificationName)
+    {
+        return write(() -> ClassificationHandler.createNewClassification(classificationName));
+    }
+
+    //UTILITY METHODS---------------------------------------------------------------------------------------------------
+
+    /**
+     * Submits an operation to an executor, completing the returned future with its result or with what it threw.
+     *
+     * @param executor  the executor to run the operation on
+     * @param operation the operation to run
+     * @param <T>       the type of the result
+     * @return a future of the result
+     */
+    private static <T> CompletableFuture<T> submit(Executor executor, Callable<T> operation)
+    {
+        CompletableFuture<T> future = new CompletableFuture<>();
+        executor.execute(() ->
+        {
+            try
+            {
+                future.complete(operation.call());
+            }
+            catch (Throwable t)
+            {
+                future.completeExceptionally(t);
+            }
+        });
+        return future;
+    }
+
+    /**
+     * Returns the executor, creating it with one thread per connection the pool can hold.
+     *
+     * @return the executor
+     */
+    private static synchronized ExecutorService getExecutor()
+    {
+        if (executor == null)
+        {
+            ConnectionPool pool = DatabaseHandler.getPool();
+            int threads = pool == null ? Runtime.getRuntime().availableProcessors() : pool.getConfig().getMaxSize();
+            executor = Executors.newFixedThreadPool(Math.max(1, threads), threadFactory("async"));
+        }
+        return executor;
+    }
+
+    /**
+     * Creates a factory of named daemon threads, so that idle workers don't keep the application running.
+     *
+     * @param name the name of the threads, which are numbered
+     * @return a ThreadFactory
+     */
+    private static ThreadFactory threadFactory(String name)
+    {
+        AtomicInteger count = new AtomicInteger();
+        return runnable ->
+        {
+            Thread thread = new Thread(runnable, name + "-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+}
@@ -1,14 +1,15 @@
 package edu.groupeighteen.librarydbms.control.entities;
 
 import edu.groupeighteen.librarydbms.control.db.DatabaseHandler;
+import edu.groupeighteen.librarydbms.control.db.EntityCache;
 import edu.groupeighteen.librarydbms.control.exceptions.ExceptionHandler;
+import edu.groupeighteen.librarydbms.control.repositories.Repositories;
 import edu.groupeighteen.librarydbms.model.db.QueryResult;
 import edu.groupeighteen.librarydbms.model.entities.Author;
 import edu.groupeighteen.librarydbms.model.exceptions.*;
 
 import java.sql.ResultSet;
 import java.sql.SQLException;
-import java.sql.Statement;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -27,6 +28,15 @@ import java.util.List;
  */
 public class AuthorHandler
 {
+    //The authors most recently retrieved by ID. Every item read needs the name of its author
+    private static final EntityCache<Author> authorCache = new EntityCache<>("authors", Author::new);
+
+    //The search by name, followed by one or both conditions joined by AND. Public so that QueryPlanChecker explains
+    //the same SQL the search runs
+    public static final String SELECT_AUTHORS = "SELECT authorID, authorFirstname, authorLastname, biography, " +
+            "deleted FROM authors WHERE";
+    public static final String FIRSTNAME_CONDITION = " authorFirstname = ?";
+    public static final String LASTNAME_CONDITION = " authorLastname = ?";
 
     public static void printAuthorList(List<Author> authorList)
     {
@@ -52,12 +62,9 @@ public class AuthorHandler
             validateAuthorname(authorFirstname, authorLastName);
 
             // Create and save the new author, retrieving the ID
-            newAuthor = new Author(authorFirstname, authorLastName);
-            newAuthor.setAuthorID(saveAuthor(newAuthor));
-
-
+            newAuthor = Repositories.getAuthors().insert(new Author(authorFirstname, authorLastName));
         }
-        catch (ConstructionException | InvalidIDException e)
+        catch (ConstructionException e)
         {
             ExceptionHandler.HandleFatalException(String.format("Failed to create Author with the given name: " +
                     "'%s' due to %s: %s", authorFirstname, e.getClass().getName(), e.getMessage()), e);
@@ -66,69 +73,14 @@ public class AuthorHandler
         return newAuthor;
     }
 
-    private static int saveAuthor(Author author)
+    public static Author getAuthorByID(int authorID, boolean getDeleted)
     {
-        try
-        {
-            // Prepare query
-            String query = "INSERT INTO authors (authorFirstname, authorLastName, " +
-                    "VALUES (?, ?)";
-
-            String[] params = {
-                    author.getAuthorFirstname(),
-                    author.getAuthorLastName(),
-            };
-
-            // Execute query and get the generated authorID, using try-with-resources
-            try (QueryResult queryResult =
-                         DatabaseHandler.executePreparedQuery(query, params, Statement.RETURN_GENERATED_KEYS))
-            {
-                ResultSet generatedKeys = queryResult.getStatement().getGeneratedKeys();
-                if (generatedKeys.next())
-                {
-                    return generatedKeys.getInt(1);
-                }
-            }
-        }
-        catch (SQLException e)
-        {
-            ExceptionHandler.HandleFatalException("Failed to save author to database due to " +
-                    e.getClass().getName() + ": " + e.getMessage(), e);
-        }
-
-        //Not reachable, but needed for compilation
-        return 0;
+        return authorCache.get(authorID, AuthorHandler::readAuthorByID);
     }
 
-    public static Author getAuthorByID(int authorID, boolean getDeleted)
+    private static Author readAuthorByID(int authorID)
     {
-        Author author = null;
-
-        //Prepare statement
-        String query = "SELECT authorID, authorFirstname, authorLastname, biography, deleted " +
-                "FROM authors WHERE authorID = ?";
-        String[] params = {String.valueOf(authorID)};
-
-        //Execute statement
-        try (QueryResult queryResult = DatabaseHandler.executePreparedQuery(query, params))
-        {
-            ResultSet resultSet = queryResult.getResultSet();
-            if (resultSet.next())
-                author = new Author(
-                        resultSet.getInt("authorID"),
-                        resultSet.getString("authorFirstname"),
-                        resultSet.getString("authorLastname"),
-                        resultSet.getString("biography"),
-                        resultSet.getBoolean("deleted")
-                );
-        }
-        catch (SQLException | ConstructionException e)
-        {
-            ExceptionHandler.HandleFatalException("Failed to retrieve author by ID from database due to " +
-                    e.getClass().getName() + ": " + e.getMessage(), e);
-        }
-
-        return author;
+        return Repositories.getAuthors().findByID(authorID);
     }
 
 
@@ -140,16 +92,11 @@ public class AuthorHandler
         //Let's check if the author exists in the database before we go on
         updateAuthor(updatedAuthor);
 
-        // Prepare a SQL command to update a updatedAuthors's data by authorID.
-        String sql = "UPDATE authors SET authorFirstname = ?, authorLastName = ?, + WHERE authorID = ?";
-        String[] params = {
-                updatedAuthor.getAuthorFirstname(),
-                updatedAuthor.getAuthorLastName(),
-                String.valueOf(updatedAuthor.getAuthorID())
-        };
-
-        // Execute the update.
-        DatabaseHandler.executePreparedUpdate(sql, params);
+        // Update the updatedAuthor's data by authorID.
+        Repositories.getAuthors().update(updatedAuthor);
+        authorCache.invalidate(updatedAuthor.getAuthorID());
+        //Items carry the name of their author
+        ItemHandler.refreshItems();
     }
 
     public static void deleteAuthor(Author authorToDelete)
@@ -170,15 +117,9 @@ public class AuthorHandler
             //Set deleted to true (doesn't need to be set before calling this method)
             authorToDelete.setDeleted(true);
 
-            //Prepare a SQL query to update the author details
-            String query = "UPDATE authors SET deleted = ? WHERE authorID = ?";
-            String[] params = {
-                    authorToDelete.isDeleted() ? "1" : "0",
-                    String.valueOf(authorToDelete.getAuthorID())
-            };
-
-            //Executor-class Star Dreadnought
-            DatabaseHandler.executePreparedUpdate(query, params);
+            //Update the author details
+            Repositories.getAuthors().setDeleted(authorToDelete.getAuthorID(), true);
+            authorCache.invalidate(authorToDelete.getAuthorID());
         }
     }
 
@@ -199,15 +140,9 @@ public class AuthorHandler
         // Set deleted to false
         authorToRecover.setDeleted(false);
 
-        // Prepare a SQL query to update the author details
-        String query = "UPDATE authors SET deleted = ? WHERE authorID = ?";
-        String[] params = {
-                authorToRecover.isDeleted() ? "1" : "0",
-                String.valueOf(authorToRecover.getAuthorID())
-        };
-
-        // Executor-class Star Dreadnought
-        DatabaseHandler.executePreparedUpdate(query, params);
+        // Update the author details
+        Repositories.getAuthors().setDeleted(authorToRecover.getAuthorID(), false);
+        authorCache.invalidate(authorToRecover.getAuthorID());
     }
 
 
@@ -226,12 +161,10 @@ public class AuthorHandler
                         "Author Delete failed due to: " + e.getClass().getName() + ": " + e.getMessage(), e);
             }
 
-            //Prepare a SQL query to update the authorToDelete details
-            String query = "DELETE FROM authors WHERE authorID = ?";
-            String[] params = {String.valueOf(authorToDelete.getAuthorID())};
-
-            //Executor-class Star Dreadnought
-            DatabaseHandler.executePreparedUpdate(query, params);
+            //Delete the authorToDelete
+            Repositories.getAuthors().delete(authorToDelete.getAuthorID());
+            authorCache.invalidate(authorToDelete.getAuthorID());
+            ItemHandler.refreshItems();
         }
     }
 
@@ -248,13 +181,14 @@ public class AuthorHandler
             List<Author> authors = new ArrayList<>();
 
             // Prepare a SQL query to select a author by authorFirstname and authorLastname
-            String query = "SELECT authorID, authorFirstname, authorLastname, biography, deleted FROM authors WHERE";
+            String query = SELECT_AUTHORS;
             List<String> params = new ArrayList<>();
 
             if (authorFirstname != null && !authorFirstname.trim().isEmpty())
             {
-                query += " LOWER(authorFirstname) = ?";
-                params.add(authorFirstname.toLowerCase());
+                //The collation of the column ignores case, and unlike LOWER() lets the index be used
+                query += FIRSTNAME_CONDITION;
+                params.add(authorFirstname);
             }
 
             if (authorLastname != null && !authorLastname.trim().isEmpty())
@@ -263,8 +197,8 @@ public class AuthorHandler
                 {
                     query += " AND";
                 }
-                query += " LOWER(authorLastname) = ?";
-                params.add(authorLastname.toLowerCase());
+                query += LASTNAME_CONDITION;
+                params.add(authorLastname);
             }
 
             String[] paramsArray = params.toArray(new String[0]);
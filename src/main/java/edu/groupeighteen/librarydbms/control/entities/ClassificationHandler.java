@@ -1,15 +1,15 @@
 package edu.groupeighteen.librarydbms.control.entities;
 
 import edu.groupeighteen.librarydbms.control.db.DatabaseHandler;
+import edu.groupeighteen.librarydbms.control.db.EntityCache;
 import edu.groupeighteen.librarydbms.control.exceptions.ExceptionHandler;
+import edu.groupeighteen.librarydbms.control.repositories.Repositories;
 import edu.groupeighteen.librarydbms.model.db.QueryResult;
 import edu.groupeighteen.librarydbms.model.entities.Classification;
 import edu.groupeighteen.librarydbms.model.exceptions.*;
 
 import java.sql.ResultSet;
 import java.sql.SQLException;
-import java.sql.Statement;
-import java.util.ArrayList;
 import java.util.List;
 
 /**
@@ -21,10 +21,17 @@ public class ClassificationHandler
 {
 
     /**
-     * Used to make the process of verifying if a username is taken or not, faster.
+     * Used to make the process of verifying if a classification name is taken or not, faster. Ignores case, like the
+     * UNIQUE index on the classificationName column.
      */
 
-    private static final ArrayList<String> storedClassificationNames = new ArrayList<>();
+    private static final KeyRegistry storedClassificationNames = new KeyRegistry(true);
+
+    /**
+     * The classifications most recently retrieved by ID. Every item read needs the name of its classification.
+     */
+    private static final EntityCache<Classification> classificationCache =
+            new EntityCache<>("classifications", Classification::new);
 
     /**
      * Performs setup tasks. In this case, syncing storedClassificationNames against the database.
@@ -37,10 +44,11 @@ public class ClassificationHandler
     public static void reset()
     {
         storedClassificationNames.clear();
+        classificationCache.clear();
     }
 
     /**
-     * Syncs the storedClassificationNames list against the usernames in the Classification table.
+     * Syncs the storedClassificationNames registry against the names in the Classification table.
      */
 
     public static void syncClassificationNames()
@@ -59,7 +67,7 @@ public class ClassificationHandler
             try (QueryResult result = DatabaseHandler.executeQuery(query))
             {
 
-                // Add the retrieved classificationNames to the ArrayList
+                // Add the retrieved classificationNames to the registry
                 while (result.getResultSet().next())
                 {
                     storedClassificationNames.add(result.getResultSet().getString("username"));
@@ -74,7 +82,7 @@ public class ClassificationHandler
     }
 
     /**
-     * Prints all the classificationName in the ArrayList.
+     * Prints all the classificationName in the registry.
      */
     public static void printClassificationNames()
     {
@@ -88,10 +96,10 @@ public class ClassificationHandler
     }
 
     /**
-     * Returns the Arraylist of classificationName
+     * Returns the registry of classificationNames
      */
 
-    public static ArrayList<String> getStoredClassificationNames()
+    public static KeyRegistry getStoredClassificationNames()
     {
         return storedClassificationNames;
     }
@@ -136,13 +144,12 @@ public class ClassificationHandler
             validateClassificationName(classificationName);
 
             // Create and save the new classification, retrieving the ID.
-            newClassification = new Classification(classificationName);
-            newClassification.setClassificationID(saveClassification(newClassification));
+            newClassification = Repositories.getClassifications().insert(new Classification(classificationName));
 
             // Need to remember to add to the list
             storedClassificationNames.add(newClassification.getClassificationName());
         }
-        catch (ConstructionException | InvalidIDException e)
+        catch (ConstructionException e)
         {
             ExceptionHandler.HandleFatalException(
                     String.format("Failed to create Classification with classificationName: " +
@@ -152,38 +159,6 @@ public class ClassificationHandler
         return newClassification;
     }
 
-    private static int saveClassification(Classification classification)
-    {
-        try
-        {
-            // Prepare query
-            String query = "INSERT INTO classifications (classificationName, description, deleted" + "VALUES (?, ?, ?)";
-
-            String[] params = {
-                    classification.getClassificationName(),
-                    classification.getDescription(),
-                    "0"
-            };
-
-            // Execute query and get the generated classificationID, using try-with-resources.
-            try (QueryResult queryResult =
-                         DatabaseHandler.executePreparedQuery(query, params, Statement.RETURN_GENERATED_KEYS))
-            {
-                ResultSet generatedKeys = queryResult.getStatement().getGeneratedKeys();
-                if (generatedKeys.next())
-                {
-                    return generatedKeys.getInt(1);
-                }
-            }
-        }
-        catch (SQLException e)
-        {
-            ExceptionHandler.HandleFatalException("Failed to save user to database due to " +
-                    e.getClass().getName() + ":" + e.getMessage(), e);
-        }
-        return 0;
-    }
-
     /**
      * Retrieves a Classification object from the database using the provided classificationID. The method first validates the provided
      * classificationID. It then prepares and executes an SQL query to select the classification's details from the database. If a classification
@@ -196,43 +171,21 @@ public class ClassificationHandler
     public static Classification getClassificationByID(int classificationID)
     throws InvalidIDException
     {
-        try
-        {
-
-            // No point getting invalid Classifications, throws InvalidIDException
-            checkValidClassificationID(classificationID);
-
-            // Prepare a SQL query to select a classification by classificationID.
-            String query = "SELECT classificationName, description, deleted " +
-                    "FROM classifications WHERE classificationID = ?";
-            String[] params = {String.valueOf(classificationID)};
-
-            // Execute the query and store the result in a ResultSet.
-            try (QueryResult queryResult = DatabaseHandler.executePreparedQuery(query, params))
-            {
-                ResultSet resultSet = queryResult.getResultSet();
-                // If the ResultSet contains data, create a new Classification object using the retrieved classificationsName,
-                // and set the classification's classificationsID.
-                if (resultSet.next())
-                {
-
-                    return new Classification(classificationID,
-                            resultSet.getString("classificationName"),
-                            resultSet.getString("description"),
-                            resultSet.getBoolean("deleted")
-                    );
-                }
-            }
-        }
-        catch (SQLException | ConstructionException e)
-        {
-            ExceptionHandler.HandleFatalException("Failed to retrieve user by ID from database due to " +
-                    e.getClass().getName() + ": " + e.getMessage(), e);
-        }
-        // Return null if not found
-        return null;
+        // No point getting invalid Classifications, throws InvalidIDException
+        checkValidClassificationID(classificationID);
 
+        return classificationCache.get(classificationID, ClassificationHandler::readClassificationByID);
+    }
 
+    /**
+     * Reads a Classification from the database, on a miss in the classification cache.
+     *
+     * @param classificationID The classificationID of the classification to be read.
+     * @return The Classification, or null if it does not exist.
+     */
+    private static Classification readClassificationByID(int classificationID)
+    {
+        return Repositories.getClassifications().findByID(classificationID);
     }
 
     //UTILITY METHODS---------------------------------------------------------------------------------------------------
@@ -309,12 +262,9 @@ public class ClassificationHandler
             //Validate classification, throws NullEntityException/EntityNotFoundException
             validateClassificationObject(classificationToDelete);
 
-            // Prepare a SQL command to set deleted to true for the specified classification.
-            String sql = "UPDATE classifications SET deleted = 1 WHERE classificationID = ?";
-            String[] params = {String.valueOf(classificationToDelete.getClassificationID())};
-
-            // Execute the update.
-            DatabaseHandler.executePreparedUpdate(sql, params);
+            // Set deleted to true for the specified classification.
+            Repositories.getClassifications().setDeleted(classificationToDelete.getClassificationID(), true);
+            classificationCache.invalidate(classificationToDelete.getClassificationID());
 
             //Update the deleted field of the classification object
             classificationToDelete.setDeleted(true);
@@ -353,12 +303,9 @@ public class ClassificationHandler
             // Update the deleted field of the classification object
             classificationToRecover.setDeleted(false);
 
-            //Prepare a SQL command to set deleted to false for the specified classification.
-            String sql = "UPDATE classifications SET deleted = 0 WHERE classificationID = ?";
-            String[] params = {String.valueOf(classificationToRecover.getClassificationID())};
-
-            // Execute the update
-            DatabaseHandler.executePreparedUpdate(sql, params);
+            // Set deleted to false for the specified classification.
+            Repositories.getClassifications().setDeleted(classificationToRecover.getClassificationID(), false);
+            classificationCache.invalidate(classificationToRecover.getClassificationID());
 
         }
         catch (NullEntityException | EntityNotFoundException | InvalidIDException e)
@@ -394,12 +341,10 @@ public class ClassificationHandler
             // Retrieve the unique classificationName
             String classificationName = classificationToDelete.getClassificationName();
 
-            // Prepare a SQL command to delete a classificationToDelete by classificationID.
-            String sql = "DELETE FROM classifications WHERE classificationID = ?";
-            String[] params = {String.valueOf(classificationToDelete.getClassificationID())};
-
-            // Execute the update
-            DatabaseHandler.executePreparedUpdate(sql, params);
+            // Delete the classificationToDelete by classificationID.
+            Repositories.getClassifications().delete(classificationToDelete.getClassificationID());
+            classificationCache.invalidate(classificationToDelete.getClassificationID());
+            ItemHandler.refreshItems();
 
             // Set booleans
             classificationToDelete.setDeleted(true);
@@ -435,8 +380,9 @@ public class ClassificationHandler
             String oldClassificationName = getClassificationByID(
                     updatedClassification.getClassificationID()).getClassificationName();
 
-            // If classificationName has been changed...
-            if (!updatedClassification.getClassificationName().equals(oldClassificationName))
+            // If classificationName has been changed, other than in case...
+            if (!storedClassificationNames.isSameKey(updatedClassification.getClassificationName(),
+                    oldClassificationName))
             {
                 //... and is taken. Throws ClassificationTakenException
                 checkClassificationNameTaken(updatedClassification.getClassificationName());
@@ -446,16 +392,11 @@ public class ClassificationHandler
                 storedClassificationNames.add(updatedClassification.getClassificationName());
             }
 
-            String sql = "UPDATE classifications SET classificationsName = ?, classificationID = ?, description = ?, WHERE classificationID  = ?";
-            String[] params = {
-                    updatedClassification.getClassificationName(),
-                    updatedClassification.getDescription(),
-                    String.valueOf(updatedClassification.getClassificationID())
-
-            };
-
             //Execute the update
-            DatabaseHandler.executePreparedUpdate(sql, params);
+            Repositories.getClassifications().update(updatedClassification);
+            classificationCache.invalidate(updatedClassification.getClassificationID());
+            //Items carry the name of their classification
+            ItemHandler.refreshItems();
         }
         catch (InvalidIDException | InvalidNameException e)
         {
@@ -470,8 +411,9 @@ public class ClassificationHandler
     {
         Classification oldClassification = getClassificationByID(updatedClassification.getClassificationID());
 
-        // If classification is different
-        if (!updatedClassification.getClassificationName().equals(oldClassification.getClassificationName()))
+        // If classification is different, other than in case
+        if (!storedClassificationNames.isSameKey(updatedClassification.getClassificationName(),
+                oldClassification.getClassificationName()))
             if (storedClassificationNames.contains(updatedClassification.getClassificationName()))
                 throw new InvalidIDException("Cannot update classifications; classification " +
                         updatedClassification.getClassificationName() + "already taken.");
@@ -0,0 +1,253 @@
+package edu.groupeighteen.librarydbms.control.entities;
+
+import java.util.Arrays;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * @author Mattias Fridsén
+ * @project LibraryDBMS
+ * @package edu.groupeighteen.librarydbms.control.entities
+ * @contact matfir-1@student.ltu.se
+ * @date 10/17/2026
+ * <p>
+ * A cuckoo filter of strings: a compact set that can answer "definitely not present" or "maybe present", and that,
+ * unlike a Bloom filter, supports removal.
+ * <p>
+ * Each string is reduced to a 16 bit fingerprint stored in one of two buckets of four slots, so a string costs a little
+ * over two bytes however long it is, and a lookup reads at most two buckets. A string that was added is always found.
+ * A string that wasn't is reported as maybe present with a probability of about 1 in 8000.
+ * <p>
+ * Only strings that were added may be removed, otherwise the fingerprint of another string may be removed with them.
+ * Adding the same string twice stores it twice, and it must then be removed twice. Once the filter is full,
+ * {@link #add(String)} returns false and the string isn't added.
+ * <p>
+ * All methods are synchronized.
+ */
+public class CuckooFilter
+{
+    private static final int BUCKET_SIZE = 4;
+    //How many fingerprints an insertion may move before the filter is considered full
+    private static final int MAX_KICKS = 500;
+    private static final int MAX_BUCKETS = 1 << 28;
+    //Marks an empty slot, fingerprints are never 0
+    private static final char EMPTY = 0;
+
+    private final char[] slots;
+    private final int mask;
+    private int size = 0;
+
+    //The fingerprint left over when an insertion failed, and one of its buckets. Full while there is one
+    private char victim = EMPTY;
+    private int victimIndex;
+
+    /**
+     * Creates an empty filter.
+     *
+     * @param capacity the number of strings it should hold. It can usually hold a few more, up to the next power of
+     *                 two
+     */
+    public CuckooFilter(int capacity)
+    {
+        if (capacity < 1)
+            throw new IllegalArgumentException("Capacity must be at least 1, received " + capacity);
+
+        int buckets = (int) Math.min(((long) capacity + BUCKET_SIZE - 1) / BUCKET_SIZE, MAX_BUCKETS);
+        buckets = buckets == 1 ? 1 : Integer.highestOneBit(buckets - 1) << 1;
+        slots = new char[buckets * BUCKET_SIZE];
+        mask = buckets - 1;
+    }
+
+    /**
+     * Adds a string.
+     *
+     * @param key the string
+     * @return true if it was added, false if the filter is full
+     */
+    public synchronized boolean add(String key)
+    {
+        if (victim != EMPTY) return false;
+
+        long hash = hash(key);
+        char fingerprint = fingerprint(hash);
+        int index = index(hash);
+        if (insert(index, fingerprint) || insert(alternateIndex(index, fingerprint), fingerprint))
+        {
+            size++;
+            return true;
+        }
+
+        //Both buckets are full, move fingerprints to their other bucket until one has room
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        if (random.nextBoolean()) index = alternateIndex(index, fingerprint);
+        for (int kick = 0; kick < MAX_KICKS; kick++)
+        {
+            int slot = index * BUCKET_SIZE + random.nextInt(BUCKET_SIZE);
+            char evicted = slots[slot];
+            slots[slot] = fingerprint;
+            fingerprint = evicted;
+            index = alternateIndex(index, fingerprint);
+            if (insert(index, fingerprint))
+            {
+                size++;
+                return true;
+            }
+        }
+
+        //Keep the fingerprint that was moved out last, and refuse anything more
+        victim = fingerprint;
+        victimIndex = index;
+        size++;
+        return true;
+    }
+
+    /**
+     * Returns whether a string may have been added.
+     *
+     * @param key the string
+     * @return false if it definitely hasn't been added, true if it may have been
+     */
+    public synchronized boolean mightContain(String key)
+    {
+        long hash = hash(key);
+        char fingerprint = fingerprint(hash);
+        int index = index(hash);
+        int alternate = alternateIndex(index, fingerprint);
+        return find(index, fingerprint) >= 0 || find(alternate, fingerprint) >= 0 ||
+                (victim == fingerprint && (victimIndex == index || victimIndex == alternate));
+    }
+
+    /**
+     * Removes a string that was added.
+     *
+     * @param key the string
+     * @return true if a fingerprint matching it was removed
+     */
+    public synchronized boolean remove(String key)
+    {
+        long hash = hash(key);
+        char fingerprint = fingerprint(hash);
+        int index = index(hash);
+        int alternate = alternateIndex(index, fingerprint);
+
+        int slot = find(index, fingerprint);
+        if (slot < 0) slot = find(alternate, fingerprint);
+        if (slot >= 0)
+        {
+            slots[slot] = EMPTY;
+            size--;
+            //Try to make room for the leftover fingerprint
+            if (victim != EMPTY && (insert(victimIndex, victim) ||
+                    insert(alternateIndex(victimIndex, victim), victim)))
+                victim = EMPTY;
+            return true;
+        }
+        if (victim == fingerprint && (victimIndex == index || victimIndex == alternate))
+        {
+            victim = EMPTY;
+            size--;
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Removes every string.
+     */
+    public synchronized void clear()
+    {
+        Arrays.fill(slots, EMPTY);
+        victim = EMPTY;
+        size = 0;
+    }
+
+    /**
+     * Returns the number of strings added and not removed.
+     *
+     * @return the number of strings
+     */
+    public synchronized int size()
+    {
+        return size;
+    }
+
+    /**
+     * Returns the number of fingerprints the filter has room for, which is more than it can usually be filled to.
+     *
+     * @return the number of slots
+     */
+    public int getSlots()
+    {
+        return slots.length;
+    }
+
+    /**
+     * Returns whether the filter is full, in which case nothing more can be added until something is removed.
+     *
+     * @return true if the filter is full
+     */
+    public synchronized boolean isFull()
+    {
+        return victim != EMPTY;
+    }
+
+    /**
+     * Hashes a string to 64 bits, with FNV-1a followed by the finalizer of MurmurHash3 so that every bit depends on
+     * every character. The lower bits choose the bucket and the upper bits the fingerprint.
+     *
+     * @param key the string
+     * @return the hash
+     */
+    private static long hash(String key)
+    {
+        long hash = 0xcbf29ce484222325L;
+        for (int i = 0; i < key.length(); i++)
+        {
+            hash ^= key.charAt(i);
+            hash *= 0x100000001b3L;
+        }
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb93e7f7ecb53L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+
+    private static char fingerprint(long hash)
+    {
+        char fingerprint = (char) (hash >>> 48);
+        return fingerprint == EMPTY ? 1 : fingerprint;
+    }
+
+    private int index(long hash)
+    {
+        return (int) hash & mask;
+    }
+
+    //The other bucket of a fingerprint, from either of its buckets
+    private int alternateIndex(int index, char fingerprint)
+    {
+        return (index ^ (fingerprint * 0x5bd1e995)) & mask;
+    }
+
+    private boolean insert(int index, char fingerprint)
+    {
+        for (int slot = index * BUCKET_SIZE; slot < (index + 1) * BUCKET_SIZE; slot++)
+        {
+            if (slots[slot] == EMPTY)
+            {
+                slots[slot] = fingerprint;
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private int find(int index, char fingerprint)
+    {
+        for (int slot = index * BUCKET_SIZE; slot < (index + 1) * BUCKET_SIZE; slot++)
+            if (slots[slot] == fingerprint)
+                return slot;
+        return -1;
+    }
+}
@@ -1,9 +1,16 @@
 package edu.groupeighteen.librarydbms.control.entities;
 
 import edu.groupeighteen.librarydbms.control.db.DatabaseHandler;
+import edu.groupeighteen.librarydbms.control.db.EntityCache;
 import edu.groupeighteen.librarydbms.control.exceptions.ExceptionHandler;
+import edu.groupeighteen.librarydbms.control.repositories.Repositories;
+import edu.groupeighteen.librarydbms.model.db.Page;
+import edu.groupeighteen.librarydbms.model.db.PageRequest;
 import edu.groupeighteen.librarydbms.model.db.QueryResult;
+import edu.groupeighteen.librarydbms.model.db.SQLParameter;
+import edu.groupeighteen.librarydbms.model.db.Transaction;
 import edu.groupeighteen.librarydbms.model.entities.*;
+import edu.groupeighteen.librarydbms.model.events.ItemQueryEvent;
 import edu.groupeighteen.librarydbms.model.exceptions.*;
 import edu.groupeighteen.librarydbms.model.exceptions.item.InvalidBarcodeException;
 import edu.groupeighteen.librarydbms.model.exceptions.item.InvalidISBNException;
@@ -11,11 +18,9 @@ import edu.groupeighteen.librarydbms.model.exceptions.item.InvalidTitleException
 
 import java.sql.ResultSet;
 import java.sql.SQLException;
-import java.sql.Statement;
-import java.util.ArrayList;
-import java.util.HashMap;
-import java.util.List;
-import java.util.Map;
+import java.util.*;
+import java.util.function.Function;
+import java.util.stream.Stream;
 
 import static edu.groupeighteen.librarydbms.control.entities.ItemHandlerUtils.*;
 
@@ -27,7 +32,8 @@ import static edu.groupeighteen.librarydbms.control.entities.ItemHandlerUtils.*;
  * @date 5/5/2023
  * <p>
  * This class contains database CRUD operation methods as well as other methods related to the Item entity class.
- * It contains a list of all Item titles for quicker validation.
+ * It knows how many copies of each Item title there are, through {@link TitleStock}, for quicker validation.
+ * Items retrieved by ID are kept in an {@link EntityCache}, which the methods changing items invalidate.
  * <p>
  * Note on Exceptions:
  * <p>
@@ -44,141 +50,170 @@ import static edu.groupeighteen.librarydbms.control.entities.ItemHandlerUtils.*;
  */
 public class ItemHandler
 {
+    //Insert commands of the batch create methods
+    private static final String INSERT_ITEM = "INSERT INTO items (title, itemType, barcode, authorID, " +
+            "classificationID, allowedRentalDays, available, deleted) VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+    private static final String INSERT_LITERATURE = "INSERT INTO literature (literatureID, ISBN) VALUES (?, ?)";
+    private static final String INSERT_FILM = "INSERT INTO films (filmID, ageRating, countryOfProduction, actors) " +
+            "VALUES (?, ?, ?, ?)";
+
+    //Items joined with films and literature, and the suffixes of the searches. Public so that QueryPlanChecker
+    //explains the same SQL the searches run
+    public static final String SELECT_ITEMS = "SELECT * FROM items " +
+            "LEFT JOIN films ON items.itemID = films.filmID " +
+            "LEFT JOIN literature ON items.itemID = literature.literatureID";
+    public static final String BY_TITLE = "WHERE title = ?";
+    public static final String BY_ISBN = "WHERE literature.ISBN = ?";
+    public static final String BY_CLASSIFICATION = "LEFT JOIN classifications ON items.classificationID = " +
+            "classifications.classificationID WHERE classifications.classificationName = ?";
+    public static final String BY_AUTHOR = "LEFT JOIN authors ON items.authorID = authors.authorID " +
+            "WHERE authors.authorFirstname = ? AND authors.authorLastname = ?";
+    public static final String BY_AUTHOR_FIRSTNAME = "LEFT JOIN authors ON items.authorID = authors.authorID " +
+            "WHERE authors.authorFirstname = ?";
+    public static final String BY_AUTHOR_LASTNAME = "LEFT JOIN authors ON items.authorID = authors.authorID " +
+            "WHERE authors.authorLastname = ?";
+
+    //Titles kept in memory by titleStock
+    private static final int TITLE_CACHE_SIZE = 1024;
+
     /**
-     * Used to speed up searching. Contains a HashMap with the titles of all Items in the database and how many
-     * copies there are of each.
+     * Used to speed up searching. Knows how many copies there are of each title in the database, and how many of
+     * them are available.
      */
-    private static final Map<String, Integer> storedTitles = new HashMap<>();
+    private static final TitleStock titleStock = new TitleStock(TITLE_CACHE_SIZE);
 
     /**
-     * Used to keep track of how many available copies there are of Items in the database.
+     * The items most recently retrieved by ID.
      */
-    private static final Map<String, Integer> availableTitles = new HashMap<>();
+    private static final EntityCache<Item> itemCache = new EntityCache<>("items",
+            item -> item instanceof Film ? new Film((Film) item) : new Literature((Literature) item));
 
     /**
      * Used to keep track of already existing barcodes to quickly enforce uniqueness.
      */
-    private static final ArrayList<String> registeredBarcodes = new ArrayList<>();
+    private static final UniqueKeyFilter registeredBarcodes = new UniqueKeyFilter("items", "barcode", false);
 
     /**
-     * Returns the storedTitles map.
+     * Returns the number of copies of a title, read from title_stock unless the title is cached.
      *
-     * @return the storedTitles map.
+     * @param title the title
+     * @return the number of copies, 0 if there are none
      */
-    public static Map<String, Integer> getStoredTitles()
+    public static int countCopies(String title)
     {
-        return storedTitles;
+        int[] counts = titleStock.get(title);
+        return counts == null ? 0 : counts[0];
     }
 
     /**
-     * Returns the availableTitles map.
+     * Returns the number of available copies of a title, read from title_stock unless the title is cached.
      *
-     * @return the availableTitles map.
+     * @param title the title
+     * @return the number of available copies, 0 if there are none
      */
-    public static Map<String, Integer> getAvailableTitles()
+    public static int countAvailableCopies(String title)
     {
-        return availableTitles;
+        int[] counts = titleStock.get(title);
+        return counts == null ? 0 : counts[1];
     }
 
     /**
-     * Returns the registeredBarcodes list.
+     * Returns the number of titles with copies. Counts the rows of title_stock each time.
      *
-     * @return the registeredBarcodes list.
+     * @return the number of titles
      */
-    public static ArrayList<String> getRegisteredBarcodes()
+    public static int countTitles()
     {
-        return registeredBarcodes;
+        return titleStock.countTitles();
     }
 
     /**
-     * Increments the count of a title in both the stored and available titles maps.
+     * Streams the titles with copies in title order, from title_stock. The stream must be closed.
      *
-     * @param title The title to be incremented.
+     * @return the titles
      */
-    public static void incrementBothTitles(String title)
+    public static Stream<String> streamTitles()
     {
-        incrementStoredTitles(title);
-        incrementAvailableTitles(title);
+        return titleStock.streamTitles();
     }
 
     /**
-     * Increments the count of a title in both the stored and available titles maps.
+     * Returns the registeredBarcodes filter.
      *
-     * @param title The title to be incremented.
+     * @return the registeredBarcodes filter.
      */
-    public static void incrementStoredTitles(String title)
+    public static UniqueKeyFilter getRegisteredBarcodes()
     {
-        storedTitles.put(title, storedTitles.getOrDefault(title, 0) + 1);
-        if (!availableTitles.containsKey(title))
-        {
-            availableTitles.put(title, 0);
-        }
+        return registeredBarcodes;
     }
 
     /**
-     * Increments the count of a title in the available titles map. If the title is not present in the map,
-     * it is added with a count of 1.
+     * Makes the next lookup of a title read its counts from title_stock, after copies of it have been added or
+     * removed. The triggers on items have already updated the table. Rented and returned copies are counted with
+     * reserveCopy and releaseCopy instead.
      *
-     * @param title The title to be incremented.
+     * @param title The title whose copies have changed.
      */
-    public static void incrementAvailableTitles(String title)
+    public static void refreshTitle(String title)
     {
-        availableTitles.put(title, availableTitles.getOrDefault(title, 0) + 1);
+        titleStock.invalidate(title);
     }
 
     /**
-     * Decrements the count of a title in the stored titles map. If the count reaches 0, the title is removed from both stored and available titles maps.
+     * Takes a ticket before a copy is rented or returned, to pass to reserveCopy or releaseCopy once the rental has
+     * been committed.
      *
-     * @param title The title to be decremented.
+     * @return the ticket
      */
-    public static void decrementStoredTitles(String title)
+    public static long beginCopyChange()
     {
-        int storedCount = storedTitles.get(title) - 1;
-        if (storedCount == 0)
-        {
-            storedTitles.remove(title);
-            availableTitles.remove(title);
-        }
-        else
-        {
-            storedTitles.put(title, storedCount);
-        }
+        return titleStock.beginChange();
     }
 
     /**
-     * Decrements the count of a title in the available titles map, if it exists. If the count reaches 0 or less, the title is removed from the map.
+     * Counts a copy of a title as rented, after the triggers on rentals have made it unavailable in title_stock.
      *
-     * @param title The title to be decremented.
+     * @param title  The title of the rented copy.
+     * @param ticket The ticket from beginCopyChange.
      */
-    public static void decrementAvailableTitles(String title)
+    public static void reserveCopy(String title, long ticket)
     {
-        Integer count = availableTitles.get(title);
-        if (count != null && count > 0)
-        {
-            availableTitles.put(title, count - 1);
-        }
-        else
-        {
-            availableTitles.put(title, 0); //keep the item in the map with a count of 0
-        }
+        titleStock.reserve(title, ticket);
     }
 
     /**
-     * Decrements the counts of stored titles and available titles based on the provided old title.
+     * Counts a copy of a title as available, after the triggers on rentals have made it available in title_stock.
      *
-     * @param oldTitle The old title of the item.
+     * @param title  The title of the returned copy.
+     * @param ticket The ticket from beginCopyChange.
      */
-    private static void decrementTitle(String oldTitle)
+    public static void releaseCopy(String title, long ticket)
     {
-        if (storedTitles.get(oldTitle) != null)
-        {
-            decrementStoredTitles(oldTitle);
-            decrementAvailableTitles(oldTitle);
-        }
+        titleStock.release(title, ticket);
     }
 
     /**
-     * Increments the count of registered barcodes by adding the specified barcode.
+     * Makes the next retrieval of an item by ID read it from the database, after its row has been changed outside
+     * of this handler, for instance by the triggers on rentals.
+     *
+     * @param itemID The ID of the changed item.
+     */
+    public static void refreshItem(int itemID)
+    {
+        itemCache.invalidate(itemID);
+    }
+
+    /**
+     * Makes the next retrieval of any item by ID read it from the database, after something every item may carry,
+     * such as the name of its author or classification, has changed.
+     */
+    public static void refreshItems()
+    {
+        itemCache.clear();
+    }
+
+    /**
+     * Registers the specified barcode.
      *
      * @param barcode The barcode to be added.
      */
@@ -188,7 +223,7 @@ public class ItemHandler
     }
 
     /**
-     * Decrements the count of registered barcodes by removing the specified barcode.
+     * Unregisters the specified barcode.
      *
      * @param barcode The barcode to be removed.
      */
@@ -198,7 +233,7 @@ public class ItemHandler
     }
 
     /**
-     * Prepares the handler by syncing titles from the database. Called at the start of the application.
+     * Prepares the handler by syncing barcodes from the database. Called at the start of the application.
      */
     public static void setup()
     {
@@ -206,63 +241,33 @@ public class ItemHandler
     }
 
     /**
-     * Syncs the handler with the database by clearing existing data and retrieving current titles and barcodes from
-     * the database.
+     * Syncs the handler with the database by forgetting the cached titles and retrieving the current barcodes from
+     * the database. Titles are read again as they are looked up.
      * <p>
      * Can be called if something's gone wrong and data needs to be re-synced during runtime.
      */
     public static void syncTitlesAndBarcodes()
     {
         reset();
-        retrieveTitlesAndBarcodesFromTable();
+        retrieveBarcodesFromTable();
     }
 
     /**
-     * Retrieves titles from the Items table and returns them as a map with title-count pairs.
+     * Rebuilds the registeredBarcodes filter from the barcodes in the Items table.
      */
-    private static void retrieveTitlesAndBarcodesFromTable() //TODO-PRIO RE-TEST AGAINST RETRIEVAL FROM TEST_DATA FILE
+    private static void retrieveBarcodesFromTable()
     {
-        //Execute the query to retrieve data
-        String query = "SELECT title, available, barcode FROM items ORDER BY " + "title ASC";
-        try (QueryResult result = DatabaseHandler.executeQuery(query))
-        {
-            while (result.getResultSet().next())
-            {
-                //Retrieve data
-                String title = result.getResultSet().getString("title");
-                boolean available = result.getResultSet().getBoolean("available");
-                String barcode = result.getResultSet().getString("barcode");
-
-                //Increment titles
-                incrementStoredTitles(title);
-                if (available)
-                {
-                    incrementAvailableTitles(title);
-                }
-
-                //Increment barcodes
-                incrementRegisteredBarcodes(barcode);
-            }
-        }
-        catch (SQLException e) //This is fatal
-        {
-            ExceptionHandler.HandleFatalException("Failed to retrieve titles and barcodes from database due to " +
-                    e.getClass().getName() + ": " + e.getMessage(), e);
-        }
-        finally
-        {
-            if (storedTitles.isEmpty()) System.err.println("No titles retrieved from table!");
-            if (registeredBarcodes.isEmpty()) System.err.println("No barcodes retrieved from table!");
-        }
+        registeredBarcodes.sync();
+        if (registeredBarcodes.isEmpty()) System.err.println("No barcodes retrieved from table!");
     }
 
     /**
-     * Clears both stored and available titles maps as well as the registered barcodes list.
+     * Forgets the cached titles and items, and clears the registered barcodes.
      */
     public static void reset()
     {
-        storedTitles.clear();
-        availableTitles.clear();
+        titleStock.clear();
+        itemCache.clear();
         registeredBarcodes.clear();
     }
 
@@ -305,20 +310,16 @@ public class ItemHandler
         //Create literature object and set authorName and classificationName by retrieving from their handlers
         Literature newLiterature = new Literature(title, type, authorID, classificationID, barcode, ISBN);
 
-        //Save, retrieve and set itemID,
-        int itemID = saveItem(newLiterature);
-        newLiterature.setItemID(itemID); //Throws InvalidIDException
-
-        //Save literature
-        saveLiterature(newLiterature);
+        //Save to the items and literature tables, and set itemID
+        Repositories.getItems().insert(newLiterature);
 
         //Set author and classification names
         newLiterature.setAuthorFirstname(author.getAuthorFirstname());
         newLiterature.setAuthorLastname(author.getAuthorLastName());
         newLiterature.setClassificationName(classification.getClassificationName());
 
-        //Increment the count of the new title. Add a new entry if the title does not exist yet.
-        incrementBothTitles(title);
+        //The new copy is counted in title_stock
+        refreshTitle(title);
 
         //Increment registered barcode
         incrementRegisteredBarcodes(barcode);
@@ -362,21 +363,16 @@ public class ItemHandler
         //Create film object and set authorName and classificationName by retrieving from their handlers
         Film newFilm = new Film(title, authorID, classificationID, barcode, ageRating); //Throws ConstructionException
 
-        //Save, retrieve and set itemID,
-        int itemID = saveItem(newFilm);
-
-        newFilm.setItemID(itemID); //Throws InvalidIDException
-
-        //Save the new film to the table
-        saveFilm(newFilm);
+        //Save to the items and films tables, and set itemID
+        Repositories.getItems().insert(newFilm);
 
         //Set author and classification names
         newFilm.setAuthorFirstname(author.getAuthorFirstname());
         newFilm.setAuthorLastname(author.getAuthorLastName());
         newFilm.setClassificationName(classification.getClassificationName());
 
-        //Increment the count of the new title. Add a new entry if the title does not exist yet.
-        incrementBothTitles(title);
+        //The new copy is counted in title_stock
+        refreshTitle(title);
 
         //Increment registered barcode
         incrementRegisteredBarcodes(barcode);
@@ -385,99 +381,175 @@ public class ItemHandler
     }
 
     /**
-     * Saves an Item object to the database and returns the automatically generated item ID.
-     * This method saves common attributes of all items in the library to the 'items' table,
-     * such as title, item type, barcode, author ID, classification ID, allowed rental days,
-     * availability status, and deletion status.
-     * <p>
-     * If a SQLException occurs during the operation, the method will throw a fatal exception
-     * that is handled by the ExceptionHandler.
-     * <p>
-     * Note: The returned value of 0 is a fallback and should never be reached in normal circumstances
-     * as any SQLException will halt the execution of the program.
+     * Returns the parameters for inserting an Item into the items table, in the order of INSERT_ITEM.
      *
-     * @param item The Item object to be saved.
-     * @return The automatically generated ID of the saved item.
+     * @param item the Item to insert
+     * @return the parameters
      */
-    private static int saveItem(Item item)
+    private static SQLParameter[] itemParameters(Item item)
     {
-        try
-        {
-            //Prepare query
-            String query = "INSERT INTO items (title, itemType, barcode, authorID, classificationID, " +
-                    "allowedRentalDays, available, deleted) VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
-            String[] params = {
-                    item.getTitle(),
-                    item.getType().toString(),
-                    item.getBarcode(),
-                    String.valueOf(item.getAuthorID()),
-                    String.valueOf(item.getClassificationID()),
-                    String.valueOf(item.getAllowedRentalDays()),
-                    item.isAvailable() ? "1" : "0", //If boolean is true, add the string "1", if false, "0"
-                    item.isDeleted() ? "1" : "0" //If boolean is true, add the string "1", if false, "0"
-            };
-
-            //Execute query and get the generated itemID
-            try (QueryResult queryResult = DatabaseHandler.executePreparedQuery(query, params,
-                    Statement.RETURN_GENERATED_KEYS))
-            {
-                ResultSet generatedKeys = queryResult.getStatement().getGeneratedKeys();
-                if (generatedKeys.next())
-                {
-                    return generatedKeys.getInt(1);
-                }
-            }
-        }
-        catch (SQLException e) //Fatal
-        {
-            ExceptionHandler.HandleFatalException("Failed to save Item to database due to " +
-                    e.getClass().getName() + ": " + e.getMessage(), e);
-        }
+        return new SQLParameter[]{
+                SQLParameter.of(item.getTitle()),
+                SQLParameter.of(item.getType().toString()),
+                SQLParameter.of(item.getBarcode()),
+                SQLParameter.of(item.getAuthorID()),
+                SQLParameter.of(item.getClassificationID()),
+                SQLParameter.of(item.getAllowedRentalDays()),
+                SQLParameter.of(item.isAvailable()),
+                SQLParameter.of(item.isDeleted())
+        };
+    }
 
-        //Won't reach, needed for compilation
-        return 0;
+    /**
+     * Returns the parameters for inserting a Literature into the literature table, in the order of INSERT_LITERATURE.
+     *
+     * @param literature the Literature to insert, with its itemID set
+     * @return the parameters
+     */
+    private static SQLParameter[] literatureParameters(Literature literature)
+    {
+        return new SQLParameter[]{
+                SQLParameter.of(literature.getItemID()),
+                SQLParameter.of(literature.getISBN())
+        };
     }
 
     /**
-     * Saves a Literature object to the literature table in the database.
+     * Returns the parameters for inserting a Film into the films table, in the order of INSERT_FILM. Null country of
+     * production and actors are inserted as NULL.
      *
-     * @param literature The Literature object to be saved.
+     * @param film the Film to insert, with its itemID set
+     * @return the parameters
      */
-    private static void saveLiterature(Literature literature)
+    private static SQLParameter[] filmParameters(Film film)
     {
-        //Save to literature table
-        String query = "INSERT INTO literature (literatureID, ISBN) VALUES (?, ?)";
-        DatabaseHandler.executePreparedQuery(query,
-                new String[]{
-                        String.valueOf(literature.getItemID()),
-                        literature.getISBN()});
+        return new SQLParameter[]{
+                SQLParameter.of(film.getItemID()),
+                SQLParameter.of(film.getAgeRating()),
+                SQLParameter.of(film.getCountryOfProduction()),
+                SQLParameter.of(film.getListOfActors())
+        };
     }
 
     /**
-     * Saves a Film object to the films table in the database.
+     * Creates several new Literature objects at once. Works like createNewLiterature, except that every item is
+     * validated before anything is saved, and the rows are inserted with one batch per table instead of two
+     * statements per item. Meant for importing a catalog.
      *
-     * @param film the Film object to save
+     * @param newLiterature unsaved Literature objects
+     * @return the same Literature objects, with their itemIDs and author and classification names set
+     * @throws InvalidBarcodeException If a barcode is already registered, or appears twice in the batch.
+     * @throws InvalidIDException      If an authorID or classificationID is invalid.
+     * @throws EntityNotFoundException If an authorID or classificationID does not correspond to an existing author
+     *                                 or classification.
      */
-    private static void saveFilm(Film film)
+    public static List<Literature> createNewLiteratureBatch(List<Literature> newLiterature)
+    throws InvalidBarcodeException, InvalidIDException, EntityNotFoundException
     {
-        // Check if countryOfProduction or listOfActors are null
-        String countryOfProduction = film.getCountryOfProduction() == null ? null : film.getCountryOfProduction();
-        String listOfActors = film.getListOfActors() == null ? null : film.getListOfActors();
+        return createNewItemBatch(newLiterature, INSERT_LITERATURE, ItemHandler::literatureParameters);
+    }
 
-        //Save to films table
-        String query = "INSERT INTO films (filmID, ageRating, countryOfProduction, actors) VALUES (?, ?, ?, ?)";
-        DatabaseHandler.executePreparedQuery(query,
-                new String[]{
-                        String.valueOf(film.getItemID()),
-                        String.valueOf(film.getAgeRating()),
-                        countryOfProduction,
-                        listOfActors});
+    /**
+     * Creates several new Film objects at once. Works like createNewFilm, except that every item is validated before
+     * anything is saved, and the rows are inserted with one batch per table instead of two statements per item.
+     * Meant for importing a catalog.
+     *
+     * @param newFilms unsaved Film objects
+     * @return the same Film objects, with their itemIDs and author and classification names set
+     * @throws InvalidBarcodeException If a barcode is already registered, or appears twice in the batch.
+     * @throws InvalidIDException      If an authorID or classificationID is invalid.
+     * @throws EntityNotFoundException If an authorID or classificationID does not correspond to an existing author
+     *                                 or classification.
+     */
+    public static List<Film> createNewFilmBatch(List<Film> newFilms)
+    throws InvalidBarcodeException, InvalidIDException, EntityNotFoundException
+    {
+        return createNewItemBatch(newFilms, INSERT_FILM, ItemHandler::filmParameters);
+    }
+
+    /**
+     * Validates, saves and registers a batch of new items. Authors and classifications are only retrieved once per
+     * ID, however many items share them.
+     *
+     * @param newItems        unsaved items of the same type
+     * @param childInsert     the insert command for the films or literature table
+     * @param childParameters creates the parameters for childInsert from a saved item
+     * @param <T>             Film or Literature
+     * @return the same items, with their itemIDs and author and classification names set
+     * @throws InvalidBarcodeException If a barcode is already registered, or appears twice in the batch.
+     * @throws InvalidIDException      If an authorID or classificationID is invalid.
+     * @throws EntityNotFoundException If an authorID or classificationID does not correspond to an existing author
+     *                                 or classification.
+     */
+    private static <T extends Item> List<T> createNewItemBatch(List<T> newItems, String childInsert,
+                                                               Function<T, SQLParameter[]> childParameters)
+    throws InvalidBarcodeException, InvalidIDException, EntityNotFoundException
+    {
+        //Validate everything before saving anything
+        Set<String> batchBarcodes = new HashSet<>();
+        Map<Integer, Author> authors = new HashMap<>();
+        Map<Integer, Classification> classifications = new HashMap<>();
+        for (T item : newItems)
+        {
+            if (barcodeTaken(item.getBarcode()) || !batchBarcodes.add(item.getBarcode()))
+                throw new InvalidBarcodeException("Barcode " + item.getBarcode() + " is already registered.");
+            if (invalidID(item.getAuthorID()))
+                throw new InvalidIDException("Invalid authorID: " + item.getAuthorID());
+            if (invalidID(item.getClassificationID()))
+                throw new InvalidIDException("Invalid classificationID: " + item.getClassificationID());
+
+            //Throw EntityNotFoundException
+            if (!authors.containsKey(item.getAuthorID()))
+                authors.put(item.getAuthorID(), getExistingAuthor(item.getAuthorID()));
+            if (!classifications.containsKey(item.getClassificationID()))
+                classifications.put(item.getClassificationID(),
+                        getExistingClassification(item.getClassificationID()));
+        }
+
+        //Both batches are one transaction, committed once
+        try (Transaction transaction = DatabaseHandler.beginTransaction())
+        {
+            //Save to items table and set the generated itemIDs
+            List<SQLParameter[]> itemBatch = new ArrayList<>(newItems.size());
+            for (T item : newItems)
+                itemBatch.add(itemParameters(item));
+            int[] itemIDs = DatabaseHandler.executeBatchReturningKeys(INSERT_ITEM, itemBatch);
+            for (int i = 0; i < newItems.size(); i++)
+                newItems.get(i).setItemID(itemIDs[i]); //Throws InvalidIDException
+
+            //Save to films or literature table
+            List<SQLParameter[]> childBatch = new ArrayList<>(newItems.size());
+            for (T item : newItems)
+                childBatch.add(childParameters.apply(item));
+            DatabaseHandler.executeBatch(childInsert, childBatch);
+
+            transaction.commit();
+        }
+        catch (SQLException e) //Fatal
+        {
+            ExceptionHandler.HandleFatalException("Failed to save Items to database due to " +
+                    e.getClass().getName() + ": " + e.getMessage(), e);
+        }
+
+        //Set author and classification names, and update titles and barcodes
+        for (T item : newItems)
+        {
+            Author author = authors.get(item.getAuthorID());
+            item.setAuthorFirstname(author.getAuthorFirstname());
+            item.setAuthorLastname(author.getAuthorLastName());
+            item.setClassificationName(classifications.get(item.getClassificationID()).getClassificationName());
+            refreshTitle(item.getTitle());
+            incrementRegisteredBarcodes(item.getBarcode());
+        }
+
+        return newItems;
     }
 
     //UPDATE -----------------------------------------------------------------------------------------------------------
 
     /**
      * Updates an item in the database with the provided item object.
+     * Its availability is left to the triggers on rentals, and the item is given the one in the database.
      *
      * @param item The item object containing the updated information.
      * @throws NullEntityException     If the item is null.
@@ -499,33 +571,12 @@ public class ItemHandler
             // Get the old title
             String oldTitle = oldItem.getTitle();
 
-            // Get the old availability status
-            boolean oldAvailability = oldItem.isAvailable();
-
-            // Prepare a SQL command to update an item's title and availability by itemID.
-            String sql = "UPDATE items SET title = ?, itemType = ?, barcode = ?, authorID = ?, classificationID = ?, " +
-                    "allowedRentalDays = ?, available = ? WHERE " +
-                    "itemID = ?";
-            String[] params = {
-                    item.getTitle(),
-                    String.valueOf(item.getType()),
-                    item.getBarcode(),
-                    String.valueOf(item.getAuthorID()),
-                    String.valueOf(item.getClassificationID()),
-                    String.valueOf(item.getAllowedRentalDays()),
-                    item.isAvailable() ? "1" : "0", // If boolean is true, add the string "1", if false, "0"
-                    String.valueOf(item.getItemID())
-            };
-
-            // Execute the update.
-            DatabaseHandler.executePreparedUpdate(sql, params);
-
-            // Depending on the itemType, update the appropriate details in either the films or literature table
-            if (item instanceof Literature) updateLiterature((Literature) item);
-            else if (item instanceof Film) updateFilm((Film) item);
+            // Update the items row, and the films or literature row
+            Repositories.getItems().update(item);
+            refreshItem(item.getItemID());
 
             //Update maps
-            updateMaps(item, oldTitle, oldAvailability);
+            updateMaps(item, oldTitle);
         }
         catch (InvalidIDException | RetrievalException e)
         {
@@ -535,69 +586,18 @@ public class ItemHandler
     }
 
     /**
-     * Updates the literature details in the database based on the provided literature object.
-     *
-     * @param literature The literature object containing the updated information.
-     */
-    private static void updateLiterature(Literature literature)
-    {
-        String updateLiteratureQuery = "UPDATE literature SET ISBN = ? WHERE literatureID = ?";
-        String[] literatureParams = {
-                literature.getISBN(),
-                String.valueOf(literature.getItemID()) // Literature's itemID is same as literatureID
-        };
-        DatabaseHandler.executePreparedUpdate(updateLiteratureQuery, literatureParams);
-    }
-
-    /**
-     * Updates the film details in the database based on the provided film object.
-     *
-     * @param film The film object containing the updated information.
-     */
-    private static void updateFilm(Film film)
-    {
-        // Check if countryOfProduction or listOfActors are null
-        String countryOfProduction = film.getCountryOfProduction() == null ? null : film.getCountryOfProduction();
-        String listOfActors = film.getListOfActors() == null ? null : film.getListOfActors();
-
-        //Update to films table
-        String updateFilmQuery = "UPDATE films SET ageRating = ?, countryOfProduction = ?, actors = ? WHERE filmID = ?";
-        String[] filmParams = {
-                String.valueOf(film.getAgeRating()),
-                countryOfProduction,
-                listOfActors, // actors is a string
-                String.valueOf(film.getItemID()) // Film's itemID is same as filmID
-        };
-        DatabaseHandler.executePreparedUpdate(updateFilmQuery, filmParams);
-    }
-
-    /**
-     * Updates the maps based on the changes in the item's title and availability status.
+     * Refreshes the titles whose counts in title_stock change with the item's title. Its availability only changes
+     * with rentals, which count their copies themselves.
      *
-     * @param item            The updated item object.
-     * @param oldTitle        The previous title of the item.
-     * @param oldAvailability The previous availability status of the item.
+     * @param item     The updated item object.
+     * @param oldTitle The previous title of the item.
      */
-    private static void updateMaps(Item item, String oldTitle, boolean oldAvailability)
+    private static void updateMaps(Item item, String oldTitle)
     {
-        // If the title has changed, adjust the counts in the maps
         if (!oldTitle.equals(item.getTitle()))
         {
-            decrementStoredTitles(oldTitle);
-            incrementStoredTitles(item.getTitle());
-        }
-
-        // If the availability status has changed, adjust the counts in the availableTitles map
-        if (oldAvailability != item.isAvailable())
-        {
-            if (oldAvailability)
-            {
-                decrementAvailableTitles(oldTitle);
-            }
-            if (item.isAvailable())
-            {
-                incrementAvailableTitles(item.getTitle());
-            }
+            refreshTitle(oldTitle);
+            refreshTitle(item.getTitle());
         }
     }
 
@@ -615,12 +615,9 @@ public class ItemHandler
             checkNullItem(itemToDelete);
             validateItem(itemToDelete);
 
-            // Prepare a SQL command to set deleted to true for the specified item.
-            String sql = "UPDATE items SET deleted = 1 WHERE itemID = ?";
-            String[] params = {String.valueOf(itemToDelete.getItemID())};
-
-            // Execute the update.
-            DatabaseHandler.executePreparedUpdate(sql, params);
+            // Set deleted to true for the specified item.
+            Repositories.getItems().setDeleted(itemToDelete.getItemID(), true);
+            refreshItem(itemToDelete.getItemID());
 
             // Update the deleted field of the item object
             itemToDelete.setDeleted(true);
@@ -645,12 +642,9 @@ public class ItemHandler
             //Validate item
             validateItem(itemToRecover);
 
-            // Prepare a SQL command to set deleted to false for the specified item.
-            String sql = "UPDATE items SET deleted = 0 WHERE itemID = ?";
-            String[] params = {String.valueOf(itemToRecover.getItemID())};
-
-            // Execute the update.
-            DatabaseHandler.executePreparedUpdate(sql, params);
+            // Set deleted to false for the specified item.
+            Repositories.getItems().setDeleted(itemToRecover.getItemID(), false);
+            refreshItem(itemToRecover.getItemID());
 
             // Update the deleted field of the item object
             itemToRecover.setDeleted(false);
@@ -679,25 +673,12 @@ public class ItemHandler
             String oldTitle = retrieveOldTitle(item);
             String oldBarcode = retrieveOldBarcode(item);
 
-            // Delete from child tables (Film or Literature) first
-            if (item instanceof Film)
-            {
-                deleteFilm(item);
-            }
-            else if (item instanceof Literature)
-            {
-                deleteLiterature(item);
-            }
-
-            // Prepare a SQL command to delete an item by itemID
-            String sql = "DELETE FROM items WHERE itemID = ?";
-            String[] params = new String[]{String.valueOf(item.getItemID())};
+            // Delete the films or literature row, then the items row //TODO-prio handle cascades in rentals
+            Repositories.getItems().delete(item.getItemID());
+            refreshItem(item.getItemID());
 
-            // Execute the update //TODO-prio handle cascades in rentals
-            DatabaseHandler.executePreparedUpdate(sql, params);
-
-            // Decrement the count of the old title. Remove the entry if the count reaches 0
-            decrementTitle(oldTitle);
+            //The copy is no longer counted in title_stock
+            refreshTitle(oldTitle);
 
             //Remove old barcode
             decrementRegisteredBarcodes(oldBarcode);
@@ -709,57 +690,25 @@ public class ItemHandler
         }
     }
 
-    /**
-     * Deletes a film from the database based on the provided item.
-     *
-     * @param item The item object representing the film to be deleted.
-     */
-    private static void deleteFilm(Item item)
-    {
-        // Prepare SQL command to delete a film by filmID
-        String sql = "DELETE FROM films WHERE filmID = ?";
-        String[] params = new String[]{String.valueOf(item.getItemID())};
-
-        // Execute the update
-        DatabaseHandler.executePreparedUpdate(sql, params);
-    }
-
-    /**
-     * Deletes literature from the database based on the provided item.
-     *
-     * @param item The item object representing the literature to be deleted.
-     */
-    private static void deleteLiterature(Item item)
-    {
-        // Prepare SQL command to delete a literature by literatureID
-        String sql = "DELETE FROM literature WHERE literatureID = ?";
-        String[] params = new String[]{String.valueOf(item.getItemID())};
-
-        // Execute the update
-        DatabaseHandler.executePreparedUpdate(sql, params);
-    }
-
     //RETRIEVING -------------------------------------------------------------------------------------------------------
 
     /**
-     * Retrieves a list of items based on the provided SQL suffix, parameters, and settings.
+     * Retrieves a list of items based on the provided SQL suffix, parameters, and settings. Recorded as an
+     * {@link ItemQueryEvent} for Flight Recorder.
      *
      * @param sqlSuffix the SQL suffix to append to the main SQL command
      * @param params    the parameters to use in the prepared statement
      * @param settings  the settings for executing the prepared query
      * @return a list of items matching the query criteria
      */
-    public static List<Item> getItems(String sqlSuffix, String[] params, int settings)
+    public static List<Item> getItems(String sqlSuffix, SQLParameter[] params, int settings)
     {
+        ItemQueryEvent event = new ItemQueryEvent();
+        event.setSqlSuffix(sqlSuffix);
+        event.begin();
         List<Item> items = new ArrayList<>();
 
-        // Prepare a SQL command to select all items from the 'items' table and join with films and literature
-        String sql = "SELECT * FROM items " +
-                "LEFT JOIN films ON items.itemID = films.filmID " +
-                "LEFT JOIN literature ON items.itemID = literature.literatureID " +
-                (sqlSuffix == null ? "" : " " + sqlSuffix);
-
-        try (QueryResult queryResult = DatabaseHandler.executePreparedQuery(sql, params, settings))
+        try (QueryResult queryResult = DatabaseHandler.executePreparedQuery(itemQuery(sqlSuffix), params, settings))
         {
             //Retrieve the ResultSet from the QueryResult
             ResultSet resultSet = queryResult.getResultSet();
@@ -767,10 +716,7 @@ public class ItemHandler
             //Loop through the results
             while (resultSet.next())
             {
-                Item.ItemType type = Item.ItemType.valueOf(resultSet.getString("itemType"));
-
-                if (type == Item.ItemType.FILM) items.add(constructRetrievedFilm(resultSet));
-                else items.add(constructRetrievedLiterature(resultSet));
+                items.add(constructRetrievedItem(resultSet));
             }
         }
         catch (SQLException e)
@@ -778,9 +724,40 @@ public class ItemHandler
             ExceptionHandler.HandleFatalException("Failed to retrieve Items due to " +
                     e.getClass().getName() + ": " + e.getMessage(), e);
         }
+
+        event.setRows(items.size());
+        event.commit();
         return items;
     }
 
+    /**
+     * Retrieves one page of the items matching the provided SQL suffix and parameters, ordered by itemID.
+     *
+     * @param sqlSuffix   the SQL suffix to append to the main SQL command, without ORDER BY or LIMIT
+     * @param params      the parameters to use in the prepared statement
+     * @param pageRequest the page to retrieve
+     * @return the requested page of items
+     */
+    public static Page<Item> getItems(String sqlSuffix, SQLParameter[] params, PageRequest pageRequest)
+    {
+        List<Item> items = getItems(pageRequest.toSQLSuffix(sqlSuffix, "items.itemID"),
+                pageRequest.toSQLParameters(params), 0);
+        return new Page<>(items, pageRequest, Item::getItemID);
+    }
+
+    /**
+     * Retrieves items based on the provided SQL suffix and parameters as a Stream, constructing each item as it is
+     * read from the database instead of collecting them all in a list first. The Stream must be closed.
+     *
+     * @param sqlSuffix the SQL suffix to append to the main SQL command
+     * @param params    the parameters to use in the prepared statement
+     * @return a Stream of the items matching the query criteria
+     */
+    public static Stream<Item> streamItems(String sqlSuffix, SQLParameter[] params)
+    {
+        return DatabaseHandler.streamPreparedQuery(itemQuery(sqlSuffix), params, ItemHandler::constructRetrievedItem);
+    }
+
     /**
      * Retrieves all items from the database.
      *
@@ -792,7 +769,56 @@ public class ItemHandler
     }
 
     /**
-     * Retrieves an item with the specified item ID.
+     * Retrieves one page of all items in the database, ordered by itemID.
+     *
+     * @param pageRequest the page to retrieve
+     * @return the requested page of items
+     */
+    public static Page<Item> getAllItems(PageRequest pageRequest)
+    {
+        return getItems(null, null, pageRequest);
+    }
+
+    /**
+     * Retrieves all items from the database as a Stream, for walking through large tables in constant memory.
+     * The Stream must be closed.
+     *
+     * @return a Stream of all items
+     */
+    public static Stream<Item> streamAllItems()
+    {
+        return streamItems(null, null);
+    }
+
+    /**
+     * Builds the SQL selecting items joined with films and literature.
+     *
+     * @param sqlSuffix the SQL suffix to append, can be null
+     * @return the SQL query
+     */
+    private static String itemQuery(String sqlSuffix)
+    {
+        return SELECT_ITEMS + (sqlSuffix == null ? "" : " " + sqlSuffix);
+    }
+
+    /**
+     * Constructs a Film or Literature object from the current row, depending on its item type.
+     *
+     * @param resultSet the ResultSet, positioned on an item row
+     * @return the constructed item
+     * @throws SQLException if a column couldn't be read
+     */
+    private static Item constructRetrievedItem(ResultSet resultSet)
+    throws SQLException
+    {
+        Item.ItemType type = Item.ItemType.valueOf(resultSet.getString("itemType"));
+
+        if (type == Item.ItemType.FILM) return constructRetrievedFilm(resultSet);
+        else return constructRetrievedLiterature(resultSet);
+    }
+
+    /**
+     * Retrieves an item with the specified item ID, from the item cache if it's there.
      *
      * @param itemID the ID of the item to retrieve
      * @return the item object matching the provided ID, or null if not found
@@ -805,15 +831,18 @@ public class ItemHandler
         // Validate the provided ID
         checkValidItemID(itemID);
 
-        //Prepare suffix
-        String suffix = "WHERE itemID = ?";
-        String[] params = {String.valueOf(itemID)};
-
-        List<Item> items = getItems(suffix, params, 0);
+        return itemCache.get(itemID, ItemHandler::readItemByID);
+    }
 
-        if (items.size() > 1) throw new RetrievalException("There should not be more than 1 item with ID " + itemID);
-        else if (items.size() == 0) return null;
-        else return items.get(0);
+    /**
+     * Reads an item with the specified item ID from the item repository.
+     *
+     * @param itemID the ID of the item to read
+     * @return the item object matching the provided ID, or null if not found
+     */
+    private static Item readItemByID(int itemID)
+    {
+        return Repositories.getItems().findByID(itemID);
     }
 
     /**
@@ -830,12 +859,32 @@ public class ItemHandler
         checkEmptyTitle(title);
 
         //Prepare a SQL suffix to select an item by title
-        String suffix = "WHERE title = ?";
-        String[] params = {title};
+        String suffix = BY_TITLE;
+        SQLParameter[] params = {SQLParameter.of(title)};
 
         return getItems(suffix, params, 0);
     }
 
+    /**
+     * Retrieves one page of the items with the specified title, ordered by itemID.
+     *
+     * @param title       the title of the items to retrieve
+     * @param pageRequest the page to retrieve
+     * @return the requested page of items matching the provided title
+     * @throws InvalidTitleException if the provided title is invalid
+     */
+    public static Page<Item> getItemsByTitle(String title, PageRequest pageRequest)
+    throws InvalidTitleException
+    {
+        //No point getting invalid Items
+        checkEmptyTitle(title);
+
+        String suffix = BY_TITLE;
+        SQLParameter[] params = {SQLParameter.of(title)};
+
+        return getItems(suffix, params, pageRequest);
+    }
+
     /**
      * Retrieves a list of items by ISBN.
      *
@@ -850,8 +899,8 @@ public class ItemHandler
         validateISBN(ISBN);
 
         //Prepare a SQL suffix to select an item by title
-        String suffix = "WHERE literature.ISBN = ?";
-        String[] params = {ISBN};
+        String suffix = BY_ISBN;
+        SQLParameter[] params = {SQLParameter.of(ISBN)};
 
         return getItems(suffix, params, 0);
     }
@@ -870,9 +919,8 @@ public class ItemHandler
         validateEmptyClassificationName(classificationName);
 
         //Prepare a SQL suffix to select an item by classification
-        String suffix = "LEFT JOIN classifications ON items.classificationID = classifications.classificationID " +
-                "WHERE classifications.classificationName = ?";
-        String[] params = {classificationName};
+        String suffix = BY_CLASSIFICATION;
+        SQLParameter[] params = {SQLParameter.of(classificationName)};
 
         return getItems(suffix, params, 0);
     }
@@ -895,27 +943,26 @@ public class ItemHandler
 
         //Prepare a SQL suffix to select an item by author name
         String suffix;
-        String[] params;
+        SQLParameter[] params;
 
         //Both names are given
         if (authorFirstname != null && !authorFirstname.isEmpty() &&
                 authorLastname != null && !authorLastname.isEmpty())
         {
-            suffix = "LEFT JOIN authors ON items.authorID = authors.authorID WHERE authors.authorFirstname = ? " +
-                    "AND authors.authorLastname = ?";
-            params = new String[]{authorFirstname, authorLastname};
+            suffix = BY_AUTHOR;
+            params = new SQLParameter[]{SQLParameter.of(authorFirstname), SQLParameter.of(authorLastname)};
         }
         //First name is given
         else if (authorFirstname != null && !authorFirstname.isEmpty())
         {
-            suffix = "LEFT JOIN authors ON items.authorID = authors.authorID WHERE authors.authorFirstname = ?";
-            params = new String[]{authorFirstname};
+            suffix = BY_AUTHOR_FIRSTNAME;
+            params = new SQLParameter[]{SQLParameter.of(authorFirstname)};
         }
         //Last name is given
         else
         {
-            suffix = "LEFT JOIN authors ON items.authorID = authors.authorID WHERE authors.authorLastname = ?";
-            params = new String[]{authorLastname};
+            suffix = BY_AUTHOR_LASTNAME;
+            params = new SQLParameter[]{SQLParameter.of(authorLastname)};
         }
 
         return getItems(suffix, params, 0);
@@ -965,7 +1012,7 @@ public class ItemHandler
     private static String getItemTitleByID(int itemID)
     {
         String sql = "SELECT title FROM items WHERE itemID = ?";
-        String[] params = {String.valueOf(itemID)};
+        SQLParameter[] params = {SQLParameter.of(itemID)};
 
         try
         {
@@ -1014,8 +1061,9 @@ public class ItemHandler
     throws EntityNotFoundException, NullEntityException
     {
         checkNullItem(item);
-        if (!availableTitles.containsKey(item.getTitle()) && !storedTitles.containsKey(item.getTitle()))
+        int[] counts = titleStock.get(item.getTitle());
+        if (counts == null)
             throw new EntityNotFoundException(item.getTitle() + ": Item not found in stored or available titles.");
-        return availableTitles.get(item.getTitle());
+        return counts[1];
     }
 }
\ No newline at end of file
@@ -9,6 +9,7 @@ import edu.groupeighteen.librarydbms.model.exceptions.item.InvalidTitleException
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.util.List;
+import java.util.stream.Stream;
 
 import static edu.groupeighteen.librarydbms.control.entities.ItemHandler.getItemByID;
 
@@ -289,8 +290,11 @@ public class ItemHandlerUtils
     static void printTitles()
     {
         System.out.println("\nTitles:");
-        ItemHandler.getStoredTitles().forEach(
-                (title, count) -> System.out.println("Title: " + title + " Copies: " + count));
+        try (Stream<String> titles = ItemHandler.streamTitles())
+        {
+            titles.forEach(title ->
+                    System.out.println("Title: " + title + " Copies: " + ItemHandler.countCopies(title)));
+        }
     }
 
     /**
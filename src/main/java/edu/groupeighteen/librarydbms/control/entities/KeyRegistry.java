@@ -0,0 +1,123 @@
+package edu.groupeighteen.librarydbms.control.entities;
+
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * @author Mattias Fridsén
+ * @project LibraryDBMS
+ * @package edu.groupeighteen.librarydbms.control.entities
+ * @contact matfir-1@student.ltu.se
+ * @date 10/17/2026
+ * <p>
+ * The values of a unique column kept in memory, such as classification names, so that the handlers can tell whether
+ * a value is taken without asking the database. Columns with too many rows to keep in memory use a
+ * {@link UniqueKeyFilter} instead.
+ * <p>
+ * Looking up, adding and removing a value takes constant time, and is safe from any number of threads. A registry can
+ * ignore case, for columns whose UNIQUE index does, in which case values are kept as they were first added but
+ * compared in lower case. Values already in lower case are stored once, not twice.
+ */
+public class KeyRegistry implements Iterable<String>
+{
+    private final boolean ignoreCase;
+    //From the value as compared to the value as added
+    private final Map<String, String> keys = new ConcurrentHashMap<>();
+
+    /**
+     * Creates an empty KeyRegistry.
+     *
+     * @param ignoreCase whether values differing only in case are the same value
+     */
+    public KeyRegistry(boolean ignoreCase)
+    {
+        this.ignoreCase = ignoreCase;
+    }
+
+    /**
+     * Adds a value, unless it is already registered.
+     *
+     * @param key the value
+     * @return true if it was added, false if it was already registered
+     */
+    public boolean add(String key)
+    {
+        return keys.putIfAbsent(normalize(key), key) == null;
+    }
+
+    /**
+     * Removes a value.
+     *
+     * @param key the value
+     * @return true if it was registered
+     */
+    public boolean remove(String key)
+    {
+        return keys.remove(normalize(key)) != null;
+    }
+
+    /**
+     * Returns whether a value is registered.
+     *
+     * @param key the value
+     * @return true if it is registered
+     */
+    public boolean contains(String key)
+    {
+        return key != null && keys.containsKey(normalize(key));
+    }
+
+    /**
+     * Returns whether two values are the same value to this registry, e.g. when a value is changed only in case.
+     *
+     * @param key   a value
+     * @param other another value
+     * @return true if they are the same value
+     */
+    public boolean isSameKey(String key, String other)
+    {
+        return normalize(key).equals(normalize(other));
+    }
+
+    public int size()
+    {
+        return keys.size();
+    }
+
+    public boolean isEmpty()
+    {
+        return keys.isEmpty();
+    }
+
+    /**
+     * Removes every value.
+     */
+    public void clear()
+    {
+        keys.clear();
+    }
+
+    public boolean isIgnoreCase()
+    {
+        return ignoreCase;
+    }
+
+    /**
+     * Iterates over the values as they were added, in no particular order.
+     *
+     * @return a read-only Iterator
+     */
+    @Override
+    public Iterator<String> iterator()
+    {
+        return Collections.unmodifiableCollection(keys.values()).iterator();
+    }
+
+    private String normalize(String key)
+    {
+        return ignoreCase ? key.toLowerCase(Locale.ROOT) : key;
+    }
+}
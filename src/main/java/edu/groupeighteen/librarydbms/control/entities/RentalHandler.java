@@ -2,16 +2,24 @@ package edu.groupeighteen.librarydbms.control.entities;
 
 import edu.groupeighteen.librarydbms.control.db.DatabaseHandler;
 import edu.groupeighteen.librarydbms.control.exceptions.ExceptionHandler;
+import edu.groupeighteen.librarydbms.control.repositories.JdbcRentalRepository;
+import edu.groupeighteen.librarydbms.control.repositories.Repositories;
+import edu.groupeighteen.librarydbms.model.db.DatabaseConnection;
+import edu.groupeighteen.librarydbms.model.db.Page;
+import edu.groupeighteen.librarydbms.model.db.PageRequest;
 import edu.groupeighteen.librarydbms.model.db.QueryResult;
+import edu.groupeighteen.librarydbms.model.db.SQLParameter;
+import edu.groupeighteen.librarydbms.model.db.Transaction;
 import edu.groupeighteen.librarydbms.model.entities.Item;
 import edu.groupeighteen.librarydbms.model.entities.Rental;
 import edu.groupeighteen.librarydbms.model.entities.User;
+import edu.groupeighteen.librarydbms.model.events.CheckoutEvent;
+import edu.groupeighteen.librarydbms.model.events.ReturnEvent;
 import edu.groupeighteen.librarydbms.model.exceptions.*;
 import edu.groupeighteen.librarydbms.model.exceptions.item.InvalidTitleException;
 import edu.groupeighteen.librarydbms.model.exceptions.rental.InvalidReceiptException;
 import edu.groupeighteen.librarydbms.model.exceptions.rental.RentalNotAllowedException;
 import edu.groupeighteen.librarydbms.model.exceptions.rental.RentalReturnException;
-import edu.groupeighteen.librarydbms.model.exceptions.user.InvalidUserRentalsException;
 
 import java.sql.ResultSet;
 import java.sql.SQLException;
@@ -19,10 +27,10 @@ import java.sql.Statement;
 import java.sql.Timestamp;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
 import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.stream.Stream;
 
 /**
  * @author Mattias Fridsén
@@ -39,6 +47,7 @@ import java.util.List;
  * - getRentalByID(int rentalID): Retrieves a rental by its ID.
  * - getRentalsByUserID(int userID): Retrieves all rentals associated with a specific user ID.
  * - getRentalsByItemID(int itemID): Retrieves all rentals associated with a specific item ID.
+ * - streamAllRentals(): Retrieves all rentals as a Stream, without holding them all in memory.
  * - updateRental(Rental oldRental, Rental newRental): Updates the details of a rental in the database.
  * - deleteRental(Rental rental): Deletes a rental from the database.
  * <p>
@@ -66,6 +75,23 @@ public class RentalHandler
      */
     private static boolean verbose = false;
 
+    //Stored procedures in create_routines.sql, used when the dialect supports them
+    private static final String CHECKOUT_CALL = "{call checkout_item(?, ?, ?)}";
+    private static final String RETURN_CALL = "{call return_item(?, ?)}";
+
+    //Rentals with the username, item title and item type they are shown with, in one query instead of a user and an
+    //item lookup per rental, and the suffixes of the searches. Suffixes qualify their columns, since the users and
+    //items tables share some names. Public so that QueryPlanChecker explains the same SQL the searches run
+    public static final String SELECT_RENTALS = JdbcRentalRepository.SELECT + " ";
+    public static final String OVERDUE = "WHERE rentals.rentalDueDate < ? AND rentals.rentalReturnDate IS NULL";
+    public static final String BY_RENTAL_DATE = "WHERE rentals.rentalDate = ?";
+    public static final String BY_RENTAL_DAY = "WHERE rentals.rentalDate >= ? AND rentals.rentalDate < ?";
+    public static final String BY_TIME_PERIOD = "WHERE rentals.rentalDate >= ? AND rentals.rentalDate <= ?";
+    public static final String BY_USER_ID = "WHERE rentals.userID = ?";
+    public static final String BY_ITEM_ID = "WHERE rentals.itemID = ?";
+    public static final String BY_USERNAME = "WHERE users.username = ?";
+    public static final String BY_ITEM_TITLE = "WHERE items.title = ?";
+
     /**
      * Checks if verbose mode is enabled.
      *
@@ -89,8 +115,12 @@ public class RentalHandler
     /**
      * Creates a new rental in the system.
      * This method checks that the user ID and item ID are valid, retrieves the user and item,
-     * and updates the item to mark it as not available and the user to increment the number of current rentals.
+     * and saves the rental, which makes the triggers on rentals mark the item as not available and increment the user's
+     * number of current rentals.
      * The newly created rental is then returned.
+     * The user and then the item are looked up inside the transaction that makes all the database changes.
+     * If the dialect supports stored procedures, the whole checkout is instead a single call to checkout_item.
+     * Recorded as a {@link CheckoutEvent} for Flight Recorder.
      *
      * @param userID the ID of the user renting the item
      * @param itemID the ID of the item being rented
@@ -109,6 +139,39 @@ public class RentalHandler
     public static Rental createNewRental(int userID, int itemID)
     throws
     EntityNotFoundException, RentalNotAllowedException, InvalidIDException, InvalidTypeException
+    {
+        CheckoutEvent event = new CheckoutEvent();
+        event.setUserID(userID);
+        event.setItemID(itemID);
+        event.begin();
+        try
+        {
+            Rental rental = rentItem(userID, itemID);
+            if (rental != null)
+            {
+                //The item might be another copy than the one requested
+                event.setItemID(rental.getItemID());
+                event.setRentalID(rental.getRentalID());
+                event.setSucceeded(true);
+            }
+            return rental;
+        }
+        finally
+        {
+            event.commit();
+        }
+    }
+
+    /**
+     * Does the work of createNewRental.
+     *
+     * @param userID the ID of the user renting the item
+     * @param itemID the ID of the item being rented
+     * @return the newly created Rental
+     */
+    private static Rental rentItem(int userID, int itemID)
+    throws
+    EntityNotFoundException, RentalNotAllowedException, InvalidIDException, InvalidTypeException
     {
         if (verbose)
             System.out.println("\nCreating new rental...");
@@ -119,11 +182,19 @@ public class RentalHandler
         if (checkItemID(itemID))
             throw new InvalidIDException("Rental creation failed: invalid itemID " + itemID);
 
+        //One round trip instead of one per lookup and update
+        if (DatabaseConnection.getDialect().supportsStoredProcedures())
+            return checkoutItem(userID, itemID);
+
         String username = ""; //Create username here so catch block is happy
         String title = ""; //Create title here so catch block is happy
         String itemType = ""; //Create the itemType string here so catch block is happy
 
-        try
+        //Taken before the rental is saved, see TitleStock
+        long ticket = ItemHandler.beginCopyChange();
+
+        //Everything below is one transaction, so that a failure can't leave a half-applied rental behind
+        try (Transaction transaction = DatabaseHandler.beginTransaction())
         {
             //Retrieve user, throws EntityNotFoundException if not found or RentalNotAllowedException if not allowed
             User user = getValidatedUser(userID);
@@ -152,24 +223,18 @@ public class RentalHandler
             newRental.setReceipt(createReceipt(newRental));
 
             //Save rental
-            int rentalID = saveRental(newRental);
-            newRental.setRentalID(rentalID);
+            Repositories.getRentals().insert(newRental);
 
-            //Update Item to change its status to not available
-            item.setAvailable(false);
-            ItemHandler.updateItem(item);
-
-            //Update User to increment number of current rentals
-            user.setCurrentRentals(user.getCurrentRentals() + 1);
-            UserHandler.updateUser(user);
+            //The triggers on rentals have made the item unavailable and incremented the user's current rentals
+            transaction.commit();
+            ItemHandler.reserveCopy(title, ticket);
+            refreshUserAndItem(userID, itemID);
 
             //Return rental
             return newRental;
-
         }
-        catch (InvalidIDException | NullEntityException | InvalidDateException | InvalidNameException |
-               InvalidTitleException | RetrievalException | InvalidUserRentalsException | UpdateException |
-               InvalidReceiptException e)
+        catch (InvalidIDException | InvalidDateException | InvalidNameException | InvalidTitleException |
+               RetrievalException | InvalidReceiptException | SQLException e)
         {
             String cause = (e.getCause() != null) ? e.getCause().getClass().getName() : "Unknown";
             ExceptionHandler.HandleFatalException("Rental creation failed due to " + cause + ":" + e.getMessage(), e);
@@ -185,16 +250,83 @@ public class RentalHandler
         return null;
     }
 
+    /**
+     * Does the work of rentItem with the checkout_item procedure, which validates the user and item, picks another
+     * available copy if needed, saves the rental and updates the item and user, in one call to the server.
+     *
+     * @param userID the ID of the user renting the item
+     * @param itemID the ID of the item being rented
+     * @return the newly created Rental
+     * @throws EntityNotFoundException   if the user or item cannot be found, or no copy of the item is available
+     * @throws RentalNotAllowedException if the user is not allowed to rent, or the item is not allowed for rent
+     */
+    private static Rental checkoutItem(int userID, int itemID)
+    throws EntityNotFoundException, RentalNotAllowedException
+    {
+        //DATETIME columns have no fractions of seconds
+        LocalDateTime rentalDate = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+        SQLParameter[] params = {
+                SQLParameter.of(userID),
+                SQLParameter.of(itemID),
+                SQLParameter.of(rentalDate)
+        };
+
+        long ticket = ItemHandler.beginCopyChange();
+        try (QueryResult queryResult = DatabaseHandler.executeCall(CHECKOUT_CALL, params))
+        {
+            ResultSet resultSet = queryResult.getResultSet();
+            if (!resultSet.next())
+                throw new SQLException("checkout_item returned no result.");
+
+            switch (resultSet.getInt("status"))
+            {
+                case 0 -> { }
+                case 1 -> throw new EntityNotFoundException("User with ID " + userID + " not found.");
+                case 2 -> throw new EntityNotFoundException("User with ID " + userID + " found but is deleted.");
+                case 3 -> throw new RentalNotAllowedException("User not allowed to rent either due to already " +
+                        "renting at maximum capacity or having a late fee.");
+                case 4 -> throw new EntityNotFoundException("Item with ID " + itemID + " not found.");
+                case 5 -> throw new EntityNotFoundException("Item with ID " + itemID + " found but is deleted.");
+                case 6 -> throw new RentalNotAllowedException("Item with ID: " + itemID + " is not allowed for rent.");
+                case 7 -> throw new EntityNotFoundException("Rental creation failed: No available copy of " +
+                        resultSet.getString("itemTitle") + " found.");
+                default -> throw new SQLException("checkout_item returned unknown status " +
+                        resultSet.getInt("status"));
+            }
+
+            Rental newRental = new Rental(resultSet.getInt("rentalID"), userID, resultSet.getInt("itemID"),
+                    rentalDate, convertTimeStampToLocalDateTime(resultSet, "rentalDueDate"),
+                    resultSet.getString("username"), resultSet.getString("itemTitle"),
+                    resultSet.getString("itemType"), null, 0.0, resultSet.getString("receipt"), false);
+
+            //The triggers on rentals have made the item unavailable
+            ItemHandler.reserveCopy(newRental.getItemTitle(), ticket);
+            refreshUserAndItem(userID, newRental.getItemID());
+            return newRental;
+        }
+        catch (SQLException | ConstructionException e)
+        {
+            ExceptionHandler.HandleFatalException("Rental creation failed due to " +
+                    e.getClass().getName() + ": " + e.getMessage(), e);
+        }
+
+        //Won't reach, needed for compilation
+        return null;
+    }
+
     /**
      * Generates a receipt for a newly created rental.
      * The receipt includes information about the rental date, rental due date, user ID, username, item title
      * and item type.
+     * <p>
+     * checkout_item builds the same receipt in SQL, so that a checkout stays a single call. Public so that the tests
+     * can check that the two agree.
      *
      * @param newRental the new Rental for which the receipt is to be created
      * @return a String representing the receipt for the Rental
      * @see Rental
      */
-    private static String createReceipt(Rental newRental)
+    public static String createReceipt(Rental newRental)
     {
         return "\nRECEIPT" +
                 "\nRental Date: " + newRental.getRentalDate() +
@@ -204,67 +336,6 @@ public class RentalHandler
                 "\nItem Type: " + newRental.getItemType() + "\n";
     }
 
-    /**
-     * Saves a new rental in the database.
-     * <p>
-     * The method accepts a Rental object, validates it, and then attempts to insert it
-     * into the 'rentals' table in the database. The rental's user ID, item ID, rental date,
-     * rental due date, and late fee are required and must be set in the
-     * Rental object before calling this method. The rental return date can be null,
-     * indicating that the item has not been returned yet.
-     * <p>
-     * The method returns the ID of the newly inserted rental as generated by the database.
-     *
-     * @param rental The Rental object to be saved. It must have all required fields set.
-     * @return The ID of the newly inserted rental as generated by the database.
-     */
-    private static int saveRental(Rental rental)
-    {
-        try
-        {
-            //Validate input
-            if (rental == null)
-                throw new NullEntityException(
-                        "Error saving rental: rental is null.");
-
-            //Prepare query
-            String query = "INSERT INTO rentals " +
-                    "(userID, itemID, rentalDate, rentalDueDate, rentalReturnDate, lateFee, receipt, deleted) " +
-                    "VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
-
-            //Set parameters for query
-            //We check if rental.getRentalReturnDate() is null. If it is, we set the corresponding parameter to null.
-            //If it's not, we convert it to a string using toString().
-            //This should prevent any NullPointerExceptions when handling the return date.
-            String[] params = {
-                    String.valueOf(rental.getUserID()),
-                    String.valueOf(rental.getItemID()),
-                    rental.getRentalDate().toString(),
-                    rental.getRentalDueDate().toString(),
-                    (rental.getRentalReturnDate() == null) ? null : rental.getRentalReturnDate().toString(),
-                    String.valueOf(rental.getLateFee()),
-                    rental.getReceipt(),
-                    "0" //Not deleted by default
-            };
-
-            //Execute query and get the generated rentalID, using try-with-resources
-            try (QueryResult queryResult = DatabaseHandler.executePreparedQuery(query, params,
-                    Statement.RETURN_GENERATED_KEYS))
-            {
-                ResultSet generatedKeys = queryResult.getStatement().getGeneratedKeys();
-                if (generatedKeys.next()) return generatedKeys.getInt(1);
-            }
-        }
-        catch (NullEntityException | SQLException e)
-        {
-            ExceptionHandler.HandleFatalException("Failed to save Rental due to " +
-                    e.getClass().getName() + ": " + e.getMessage(), e);
-        }
-
-        //Cannot be reached, but needed for compilation
-        return 0;
-    }
-
     /**
      * Returns a rental and updates the necessary details related to the associated user and item.
      * <p>
@@ -273,17 +344,16 @@ public class RentalHandler
      *   <li>Validates the returnability of the provided rental. The rental is considered returnable if it is not already
      *       returned and it is associated with a valid user and a valid item. If the rental is not valid, the method
      *       throws a {@link RentalReturnException}.</li>
-     *   <li>Retrieves the User and Item associated with the rental. This step ensures that the rental is associated with
-     *       valid entities. If any of the associated entities are not valid, the method considers it a fatal exception and
-     *       handles it accordingly.</li>
+     *   <li>Retrieves the Item associated with the rental. This step ensures that the rental is associated with a
+     *       valid item. If it is not valid, the method considers it a fatal exception and handles it accordingly.</li>
      *   <li>Sets the return date of the rental to the current time. The method considers any exception during this step as
      *       a fatal exception.</li>
-     *   <li>Updates the rental in the database. Any exception during this update is considered fatal.</li>
-     *   <li>Decrements the number of rentals of the User and updates the User. The method handles any exception during
-     *       this step as a fatal exception.</li>
-     *   <li>Changes the availability status of the Item and updates it in the database. The method also updates the list of
-     *       available items in the ItemHandler.</li>
+     *   <li>Updates the rental in the database. Any exception during this update is considered fatal. The triggers on
+     *       rentals then decrement the number of rentals of the User and make the Item available.</li>
+     *   <li>Updates the list of available items in the ItemHandler.</li>
      * </ol>
+     * All database changes are made in a single transaction. If the dialect supports stored procedures, the whole
+     * return is instead a single call to return_item. Recorded as a {@link ReturnEvent} for Flight Recorder.
      *
      * @param rentalToReturn The rental to be returned.
      * @return The rental that has been returned.
@@ -292,6 +362,41 @@ public class RentalHandler
     public static Rental returnRental(Rental rentalToReturn)
     throws RentalReturnException
     {
+        ReturnEvent event = new ReturnEvent();
+        if (rentalToReturn != null)
+        {
+            event.setRentalID(rentalToReturn.getRentalID());
+            event.setUserID(rentalToReturn.getUserID());
+            event.setItemID(rentalToReturn.getItemID());
+        }
+        event.begin();
+        try
+        {
+            Rental returnedRental = returnItem(rentalToReturn);
+            event.setSucceeded(true);
+            return returnedRental;
+        }
+        finally
+        {
+            event.commit();
+        }
+    }
+
+    /**
+     * Does the work of returnRental.
+     *
+     * @param rentalToReturn The rental to be returned.
+     * @return The rental that has been returned.
+     */
+    private static Rental returnItem(Rental rentalToReturn)
+    throws RentalReturnException
+    {
+        //One round trip instead of one per lookup and update. Null and already returned rentals are validated below,
+        //since they can't be returned anyway
+        if (DatabaseConnection.getDialect().supportsStoredProcedures() && rentalToReturn != null &&
+                rentalToReturn.getRentalReturnDate() == null)
+            return callReturnItem(rentalToReturn);
+
         //Validate input, check if rental is already returned
         try
         {
@@ -302,10 +407,13 @@ public class RentalHandler
             throw new RentalReturnException("Rental return failed: " + e.getMessage(), e);
         }
 
-        try
+        //Taken before the rental is updated, see TitleStock
+        long ticket = ItemHandler.beginCopyChange();
+
+        //Updating the rental, user and item is one transaction
+        try (Transaction transaction = DatabaseHandler.beginTransaction())
         {
-            //Retrieve User and Item
-            User user = UserHandler.getUserByID(rentalToReturn.getUserID()); //InvalidIDException, fatal
+            //Retrieve Item
             Item item = ItemHandler.getItemByID(rentalToReturn.getItemID()); //RetrievalException, fatal
 
             //I need to look over UserHandler since user should technically be able to be null just like item here
@@ -320,17 +428,13 @@ public class RentalHandler
             //Update the rental in the table, throws UpdateException which is considered fatal in this context
             updateRental(rentalToReturn);
 
-            //Decrement User's currentRentals and update
-            user.setCurrentRentals(user.getCurrentRentals() - 1); //InvalidUserRentalsException, fatal
-            UserHandler.updateUser(user);
-
-            //Change Item's availability and update ItemHandler's list
-            item.setAvailable(true);
-            ItemHandler.updateItem(item);
-            ItemHandler.incrementAvailableTitles(item.getTitle());
+            //The triggers on rentals have made the item available and decremented the user's current rentals
+            transaction.commit();
+            ItemHandler.releaseCopy(item.getTitle(), ticket);
+            refreshUserAndItem(rentalToReturn.getUserID(), rentalToReturn.getItemID());
         }
         catch (InvalidDateException | UpdateException | InvalidIDException | RetrievalException |
-               InvalidUserRentalsException | NullEntityException | EntityNotFoundException e)
+               EntityNotFoundException | SQLException e)
         { //We get these and something has gone seriously wrong
             ExceptionHandler.HandleFatalException("Rental return failed fatally: " + e.getMessage(), e);
         }
@@ -338,6 +442,58 @@ public class RentalHandler
         return rentalToReturn;
     }
 
+    /**
+     * Does the work of returnItem with the return_item procedure, which checks that the rental exists and hasn't been
+     * returned, sets its return date and updates the user and item, in one call to the server.
+     *
+     * @param rentalToReturn The rental to be returned, not null and not returned.
+     * @return The rental that has been returned.
+     * @throws RentalReturnException If the rental is not found or has already been returned.
+     */
+    private static Rental callReturnItem(Rental rentalToReturn)
+    throws RentalReturnException
+    {
+        LocalDateTime returnDate = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+        SQLParameter[] params = {
+                SQLParameter.of(rentalToReturn.getRentalID()),
+                SQLParameter.of(returnDate)
+        };
+
+        long ticket = ItemHandler.beginCopyChange();
+        try (QueryResult queryResult = DatabaseHandler.executeCall(RETURN_CALL, params))
+        {
+            ResultSet resultSet = queryResult.getResultSet();
+            if (!resultSet.next())
+                throw new SQLException("return_item returned no result.");
+
+            switch (resultSet.getInt("status"))
+            {
+                case 0 -> { }
+                case 1 ->
+                {
+                    EntityNotFoundException cause = new EntityNotFoundException(
+                            "Can't return rental; rental not found in table.");
+                    throw new RentalReturnException("Rental return failed: " + cause.getMessage(), cause);
+                }
+                case 2 -> throw new RentalReturnException("Can't return rental; rental already returned.");
+                default -> throw new SQLException("return_item returned unknown status " +
+                        resultSet.getInt("status"));
+            }
+
+            rentalToReturn.setRentalReturnDate(returnDate);
+
+            //The triggers on rentals have made the item available again
+            ItemHandler.releaseCopy(resultSet.getString("itemTitle"), ticket);
+            refreshUserAndItem(rentalToReturn.getUserID(), resultSet.getInt("itemID"));
+        }
+        catch (SQLException | InvalidDateException e)
+        {
+            ExceptionHandler.HandleFatalException("Rental return failed fatally: " + e.getMessage(), e);
+        }
+
+        return rentalToReturn;
+    }
+
     /**
      * Validates whether a rental is returnable.
      * <p>
@@ -377,22 +533,22 @@ public class RentalHandler
      * is converted into a list of Rental objects. In case of an error, a fatal exception will be handled and the program
      * will terminate.
      *
-     * @param sqlSuffix The SQL query suffix to be added after "SELECT * FROM rentals". Can be null or contain conditions,
-     *                  ordering, etc. E.g., "WHERE userID = ?".
-     * @param params    An array of Strings representing the parameters to be set in the PreparedStatement for the query.
+     * @param sqlSuffix The SQL query suffix to be added after SELECT_RENTALS. Can be null or contain conditions,
+     *                  ordering, etc. E.g., "WHERE rentals.userID = ?".
+     * @param params    An array of SQLParameters to be bound to the PreparedStatement for the query.
      *                  Each '?' character in the sqlSuffix will be replaced by a value from this array. Can be null if no
      *                  parameters are required.
      * @param settings  Settings to apply to the Statement, passed to the DatabaseHandler's executePreparedQuery method.
      *                  For example, it can be used to set Statement.RETURN_GENERATED_KEYS.
      * @return A list of Rental objects matching the query, or an empty list if no matching rentals are found.
      */
-    private static List<Rental> getRentals(String sqlSuffix, String[] params, int settings)
+    private static List<Rental> getRentals(String sqlSuffix, SQLParameter[] params, int settings)
     {
         //Convert the ResultSet into a List of Rental objects
         List<Rental> rentals = new ArrayList<>();
 
         // Prepare a SQL command to select all rentals from the 'rentals' table with given sqlSuffix
-        String sql = "SELECT * FROM rentals " + (sqlSuffix == null ? "" : sqlSuffix);
+        String sql = SELECT_RENTALS + (sqlSuffix == null ? "" : sqlSuffix);
 
         try
         {
@@ -424,15 +580,44 @@ public class RentalHandler
         return rentals;
     }
 
+    /**
+     * Retrieves one page of the rentals matching the provided SQL suffix and parameters, ordered by rentalID.
+     *
+     * @param sqlSuffix   The SQL query suffix to be added after SELECT_RENTALS, without ORDER BY or LIMIT.
+     *                    Can be null.
+     * @param params      An array of SQLParameters to be bound to the PreparedStatement for the query. Can be null.
+     * @param pageRequest The page to retrieve.
+     * @return The requested page of Rental objects.
+     */
+    private static Page<Rental> getRentals(String sqlSuffix, SQLParameter[] params, PageRequest pageRequest)
+    {
+        List<Rental> rentals = getRentals(pageRequest.toSQLSuffix(sqlSuffix, "rentals.rentalID"),
+                pageRequest.toSQLParameters(params), 0);
+        return new Page<>(rentals, pageRequest, Rental::getRentalID);
+    }
+
+    /**
+     * Retrieves rentals based on the provided SQL suffix and parameters as a Stream, constructing each rental as it
+     * is read from the database instead of collecting them all in a list first. The Stream must be closed.
+     *
+     * @param sqlSuffix The SQL query suffix to be added after SELECT_RENTALS. Can be null.
+     * @param params    An array of SQLParameters to be bound to the PreparedStatement for the query. Can be null.
+     * @return A Stream of the Rental objects matching the query.
+     */
+    private static Stream<Rental> streamRentals(String sqlSuffix, SQLParameter[] params)
+    {
+        String sql = SELECT_RENTALS + (sqlSuffix == null ? "" : sqlSuffix);
+        return DatabaseHandler.streamPreparedQuery(sql, params, RentalHandler::constructRetrievedRental);
+    }
+
     /**
      * Constructs a Rental object from the provided ResultSet. This method is used to convert database records
-     * into Java objects. It fetches all necessary information about a rental, including associated user and item information.
+     * into Java objects. The username, item title and item type are read from the columns joined in by
+     * SELECT_RENTALS.
      *
      * @param resultSet the ResultSet obtained from the database query for a rental record
      * @see Rental
      * @see SQLException
-     * @see InvalidIDException
-     * @see RetrievalException
      * @see ConstructionException
      */
     private static Rental constructRetrievedRental(ResultSet resultSet)
@@ -449,10 +634,9 @@ public class RentalHandler
             LocalDateTime rentalReturnDate = convertTimeStampToLocalDateTime(resultSet, "rentalReturnDate");
 
             //Get username, itemTitle and itemType
-            String username = UserHandler.getUserByID(userID).getUsername();
-            Item item = ItemHandler.getItemByID(itemID);
-            String itemTitle = item.getTitle(); //Throws RetrievalException
-            String itemType = item.getType().toString();
+            String username = resultSet.getString("username");
+            String itemTitle = resultSet.getString("itemTitle");
+            String itemType = resultSet.getString("itemType");
 
             //Create and return the rental
             return new Rental(
@@ -470,7 +654,7 @@ public class RentalHandler
                     resultSet.getBoolean("deleted")
             );
         }
-        catch (SQLException | InvalidIDException | RetrievalException | ConstructionException e)
+        catch (SQLException | ConstructionException e)
         {
             ExceptionHandler.HandleFatalException("Failed to construct retrieved rental from database due to " +
                     e.getClass().getName() + ": " + e.getMessage(), e);
@@ -515,6 +699,28 @@ public class RentalHandler
         return getRentals(null, null, 0);
     }
 
+    /**
+     * Retrieves one page of the rentals found in the table, ordered by rentalID.
+     *
+     * @param pageRequest the page to retrieve
+     * @return the requested page of rentals
+     */
+    public static Page<Rental> getAllRentals(PageRequest pageRequest)
+    {
+        return getRentals(null, null, pageRequest);
+    }
+
+    /**
+     * Retrieves all rentals found in the table as a Stream, for walking through large tables in constant memory.
+     * The Stream must be closed.
+     *
+     * @return a Stream of all rentals in database.
+     */
+    public static Stream<Rental> streamAllRentals()
+    {
+        return streamRentals(null, null);
+    }
+
     /**
      * This method fetches a rental by its rental ID from the database.
      *
@@ -529,31 +735,13 @@ public class RentalHandler
         //Validate input
         validateRentalID(rentalID); //Throws InvalidIDException if <= 0
 
-        //Create a list to store the Rental objects (should only contain one element, but getRentals returns a list)
-        List<Rental> rentals = null; //"Redundant" my ass, never rely on automatic initialization
-
-        //Prepare suffix to select rentals by ID
-        String suffix = "WHERE rentalID = " + rentalID;
-
-        //Executor-class Star Dreadnought
-        rentals = getRentals(suffix, null, 0);
-
-        //Check results, this first option should not happen and will be considered fatal
-        if (rentals.size() > 1)
-            ExceptionHandler.HandleFatalException(new InvalidIDException("There should not be more than 1 rental " +
-                    "with ID " + rentalID + ", received: " + rentals.size()));
-
-            //Found something
-        else if (rentals.size() == 1) return rentals.get(0);
-
-        //Found nothing
-        return null;
+        return Repositories.getRentals().findByID(rentalID);
     }
 
     /**
      * Retrieves a list of all overdue rentals from the database. Overdue rentals are those whose
      * due date is earlier than the current date and time and have not yet been returned. The current
-     * date and time are formatted to match the SQL DateTime format and used as a parameter for the
+     * date and time, truncated to seconds to match the precision in the database, is used as a parameter for the
      * query.
      *
      * @return a List of Rental objects representing all overdue rentals in the system.
@@ -563,11 +751,10 @@ public class RentalHandler
     public static List<Rental> getOverdueRentals()
     {
         // Prepare a SQL suffix to select rentals that are overdue
-        String suffix = "WHERE rentalDueDate < ? AND rentalReturnDate IS NULL";
+        String suffix = OVERDUE;
 
         // Prepare parameters for query
-        String[] params = {DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss").
-                format(LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS))};
+        SQLParameter[] params = {SQLParameter.of(LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS))};
 
         //Executor-class Star Dreadnought
         return getRentals(suffix, params, 0); //No settings
@@ -598,23 +785,11 @@ public class RentalHandler
             throw new UpdateException("Rental Update failed: " + e.getMessage(), e);
         }
 
-        //Prepare a SQL query to update the rental details
-        String query = "UPDATE rentals " +
-                "SET userID = ?, itemID = ?, rentalDate = ?, rentalDueDate = ?, rentalReturnDate = ?, lateFee = ?, " +
-                "receipt = ? WHERE rentalID = ?";
-        String[] params = {
-                String.valueOf(updatedRental.getUserID()), //TODO-prio Should probably not be allowed
-                String.valueOf(updatedRental.getItemID()), //TODO-prio Should probably not be allowed
-                String.valueOf(updatedRental.getRentalDate()), //TODO-prio Should probably not be allowed
-                String.valueOf(updatedRental.getRentalDueDate()),
-                (updatedRental.getRentalReturnDate() == null) ? null : updatedRental.getRentalReturnDate().toString(),
-                String.valueOf(updatedRental.getLateFee()),
-                updatedRental.getReceipt(), //TODO-prio Should probably not be allowed
-                String.valueOf(updatedRental.getRentalID())
-        };
+        //Update the rental details
+        Repositories.getRentals().update(updatedRental);
 
-        //Executor-class Star Dreadnought
-        DatabaseHandler.executePreparedUpdate(query, params);
+        //The triggers on rentals update the user and item if the rental was returned
+        refreshUserAndItem(updatedRental.getUserID(), updatedRental.getItemID());
     }
 
     /**
@@ -641,15 +816,8 @@ public class RentalHandler
         //Set deleted to true (doesn't need to be set before calling this method)
         rentalToDelete.setDeleted(true);
 
-        //Prepare a SQL query to update the rental details
-        String query = "UPDATE rentals SET deleted = ? WHERE rentalID = ?";
-        String[] params = {
-                rentalToDelete.isDeleted() ? "1" : "0",
-                String.valueOf(rentalToDelete.getRentalID())
-        };
-
         //Executor-class Star Dreadnought
-        DatabaseHandler.executePreparedUpdate(query, params);
+        Repositories.getRentals().setDeleted(rentalToDelete.getRentalID(), true);
     }
 
     /**
@@ -681,15 +849,8 @@ public class RentalHandler
         //Set deleted to false
         rentalToRecover.setDeleted(false);
 
-        //Prepare a SQL query to update the rental details
-        String query = "UPDATE rentals SET deleted = ? WHERE rentalID = ?";
-        String[] params = {
-                rentalToRecover.isDeleted() ? "1" : "0",
-                String.valueOf(rentalToRecover.getRentalID())
-        };
-
         //Executor-class Star Dreadnought
-        DatabaseHandler.executePreparedUpdate(query, params);
+        Repositories.getRentals().setDeleted(rentalToRecover.getRentalID(), false);
     }
 
     /**
@@ -713,12 +874,11 @@ public class RentalHandler
             throw new DeletionException("Rental Delete failed: " + e.getMessage(), e);
         }
 
-        //Prepare a SQL query to update the rentalToDelete details
-        String query = "DELETE FROM rentals WHERE rentalID = ?";
-        String[] params = {String.valueOf(rentalToDelete.getRentalID())};
-
         //Executor-class Star Dreadnought
-        DatabaseHandler.executePreparedUpdate(query, params);
+        Repositories.getRentals().delete(rentalToDelete.getRentalID());
+
+        //The triggers on rentals update the user and item if the rental was active
+        refreshUserAndItem(rentalToDelete.getUserID(), rentalToDelete.getItemID());
     }
 
     //RETRIEVING -------------------------------------------------------------------------------------------------------
@@ -746,10 +906,10 @@ public class RentalHandler
         rentalDate = rentalDate.truncatedTo(ChronoUnit.SECONDS);
 
         // Prepare a SQL suffix to select rentals by rentalDate
-        String suffix = " WHERE rentalDate = ?";
+        String suffix = BY_RENTAL_DATE;
 
         // Prepare parameters for query
-        String[] params = {rentalDate.format(DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss"))};
+        SQLParameter[] params = {SQLParameter.of(rentalDate)};
 
         //Executor-class Star Dreadnought
         return getRentals(suffix, params, 0); //No settings
@@ -776,11 +936,10 @@ public class RentalHandler
         LocalDateTime startOfDayPlusOne = startOfDay.plusDays(1);
 
         //Prepare a SQL suffix to select rentals by rentalDay.
-        String suffix = "WHERE rentalDate >= ? AND rentalDate < ?";
+        String suffix = BY_RENTAL_DAY;
 
         // Prepare parameters for query
-        String[] params = {startOfDay.toString(),
-                startOfDayPlusOne.toString()};
+        SQLParameter[] params = {SQLParameter.of(startOfDay), SQLParameter.of(startOfDayPlusOne)};
 
         //Executor-class Star Dreadnought
         return getRentals(suffix, params, 0); //No settings
@@ -803,8 +962,8 @@ public class RentalHandler
         LocalDateTime endDateTime = endDate.plusDays(1).atTime(23, 59, 59);
 
         //Prepare a SQL query to select rentals by rentalDate within a given period
-        String suffix = "WHERE rentalDate >= ? AND rentalDate <= ?";
-        String[] params = {startDateTime.toString(), endDateTime.toString()};
+        String suffix = BY_TIME_PERIOD;
+        SQLParameter[] params = {SQLParameter.of(startDateTime), SQLParameter.of(endDateTime)};
 
         //Return the list of rentals
         return getRentals(suffix, params, 0);
@@ -819,13 +978,34 @@ public class RentalHandler
             throw new InvalidIDException("Invalid userID: " + userID + ". userID must be greater than 0.");
 
         //Prepare a SQL query to select rentals by userID
-        String suffix = "WHERE userID = ?";
-        String[] params = {String.valueOf(userID)};
+        String suffix = BY_USER_ID;
+        SQLParameter[] params = {SQLParameter.of(userID)};
 
         //Return the list of rentals
         return getRentals(suffix, params, 0);
     }
 
+    /**
+     * Retrieves one page of the rentals of a user, ordered by rentalID.
+     *
+     * @param userID      the ID of the user
+     * @param pageRequest the page to retrieve
+     * @return the requested page of the user's rentals
+     * @throws InvalidIDException if the userID is invalid
+     */
+    public static Page<Rental> getRentalsByUserID(int userID, PageRequest pageRequest)
+    throws InvalidIDException
+    {
+        //Validate the input
+        if (userID <= 0)
+            throw new InvalidIDException("Invalid userID: " + userID + ". userID must be greater than 0.");
+
+        String suffix = BY_USER_ID;
+        SQLParameter[] params = {SQLParameter.of(userID)};
+
+        return getRentals(suffix, params, pageRequest);
+    }
+
     //TODO OPTIONAL
     public static List<Rental> getRentalsByItemID(int itemID)
     {
@@ -834,8 +1014,8 @@ public class RentalHandler
             throw new IllegalArgumentException("Invalid itemID: " + itemID + ". itemID must be greater than 0.");
 
         //Prepare a SQL query to select rentals by itemID
-        String suffix = "WHERE itemID = ?";
-        String[] params = {Integer.toString(itemID)};
+        String suffix = BY_ITEM_ID;
+        SQLParameter[] params = {SQLParameter.of(itemID)};
 
         //Return the list of rentals
         return getRentals(suffix, params, 0);
@@ -851,16 +1031,14 @@ public class RentalHandler
             throw new InvalidNameException("Invalid username: username can't be null or empty.");
 
         //Prepare a SQL query to select rentals by username
-        String suffix = "INNER JOIN users ON rentals.userID = users.userID " +
-                "WHERE users.username = ?";
-        String[] params = {username};
+        String suffix = BY_USERNAME;
+        SQLParameter[] params = {SQLParameter.of(username)};
 
         //Return the list of rentals
         return getRentals(suffix, params, 0);
     }
 
     //TODO OPTIONAL
-    //TODO-PRIO won't work with getRentals
     public static List<Rental> getRentalsByItemTitle(String title)
     throws InvalidTitleException
     {
@@ -869,9 +1047,8 @@ public class RentalHandler
             throw new InvalidTitleException("Invalid title: title can't be null or empty.");
 
         //Prepare a SQL query to select rentals by item title
-        String suffix = "INNER JOIN items ON rentals.itemID = items.itemID WHERE items" +
-                ".title = ?";
-        String[] params = {title};
+        String suffix = BY_ITEM_TITLE;
+        SQLParameter[] params = {SQLParameter.of(title)};
 
         //Return the list of rentals
         return getRentals(suffix, params, 0);
@@ -901,6 +1078,19 @@ public class RentalHandler
         return itemID <= 0;
     }
 
+    /**
+     * Makes the next retrievals of a user and an item by ID read them from the database, after the triggers on
+     * rentals may have changed their rows.
+     *
+     * @param userID the ID of the user of the rental
+     * @param itemID the ID of the item of the rental
+     */
+    private static void refreshUserAndItem(int userID, int itemID)
+    {
+        UserHandler.refreshUser(userID);
+        ItemHandler.refreshItem(itemID);
+    }
+
     /**
      * Retrieves a User object given a userID, throwing an exception if the User doesn't exist or is (soft) deleted.
      *
@@ -0,0 +1,265 @@
+package edu.groupeighteen.librarydbms.control.entities;
+
+import edu.groupeighteen.librarydbms.control.db.DatabaseHandler;
+import edu.groupeighteen.librarydbms.control.exceptions.ExceptionHandler;
+import edu.groupeighteen.librarydbms.model.db.QueryResult;
+import edu.groupeighteen.librarydbms.model.db.SQLParameter;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+/**
+ * @author Mattias Fridsén
+ * @project LibraryDBMS
+ * @package edu.groupeighteen.librarydbms.control.entities
+ * @contact matfir-1@student.ltu.se
+ * @date 10/17/2026
+ * <p>
+ * The number of copies of each title, and how many of them are available, read from the title_stock table that the
+ * triggers of create_triggers.sql keep up to date.
+ * <p>
+ * Titles are read one at a time, when asked for, and the most recently used ones are kept in a cache of limited size,
+ * so nothing is read at startup and memory doesn't grow with the catalog. Titles without copies are cached as well.
+ * Whoever adds or removes items of a title calls {@link #invalidate(String)}, so that the title is read again. Renting
+ * and returning a copy instead {@link #reserve(String, long) reserves} and {@link #release(String, long) releases} it
+ * in the cache, with a ticket from {@link #beginChange()} taken before the database was changed.
+ * <p>
+ * Safe to use from any number of threads without a global lock. Lookups of cached titles don't lock at all, and the
+ * available count of a title is changed atomically in place.
+ * <p>
+ * Titles are compared regardless of case, like the title column of title_stock, so "It" and "IT" are the same title.
+ * {@link #countTitles()} and {@link #streamTitles()} read the whole table, past the cache, and are meant for listings.
+ * Counts are only ever returned by {@link #get(String)}.
+ */
+public class TitleStock
+{
+    private static final String SELECT_TITLE = "SELECT totalCopies, availableCopies FROM title_stock WHERE title = ?";
+    private static final String SELECT_TITLES = "SELECT title FROM title_stock ORDER BY title";
+    private static final String COUNT_TITLES = "SELECT COUNT(*) FROM title_stock";
+
+    private final int capacity;
+    //Copies and available copies per title, by key
+    private final ConcurrentMap<String, TitleCounter> cache = new ConcurrentHashMap<>();
+    //Increased by every invalidation and change, so that a read that raced one isn't cached
+    private final AtomicLong version = new AtomicLong();
+
+    /**
+     * Creates an empty TitleStock.
+     *
+     * @param capacity the largest number of titles kept in the cache
+     */
+    public TitleStock(int capacity)
+    {
+        this.capacity = capacity;
+    }
+
+    /**
+     * Returns the number of copies of a title, and how many of them are available. Handles any failure as fatal.
+     *
+     * @param title the title
+     * @return the total and available number of copies, in that order, or null if there are no copies of the title
+     */
+    public int[] get(String title)
+    {
+        String key = key(title);
+        TitleCounter counter = cache.get(key);
+        if (counter == null)
+        {
+            long readVersion = version.get();
+            counter = read(title, readVersion);
+            cache.put(key, counter);
+            //Invalidated or changed while being read, the table may already have changed again
+            if (version.get() != readVersion)
+                cache.remove(key, counter);
+            else if (cache.size() > capacity)
+                evictLeastRecentlyUsed();
+        }
+        return counter.snapshot();
+    }
+
+    /**
+     * Returns a ticket for a copy about to be rented or returned, to be taken before the database is changed and
+     * passed to {@link #reserve(String, long)} or {@link #release(String, long)} once the change is committed. Counts
+     * read before the ticket are known not to include the change, and are changed in place. Counts read after it may
+     * or may not, and are forgotten instead.
+     *
+     * @return the ticket
+     */
+    public long beginChange()
+    {
+        return version.incrementAndGet();
+    }
+
+    /**
+     * Counts one more copy of a title as rented, after a copy has been rented in the database. Does nothing if the
+     * title isn't cached, in which case it is read from the table when next asked for.
+     *
+     * @param title  the title
+     * @param ticket the ticket from beginChange, taken before the copy was rented
+     */
+    public void reserve(String title, long ticket)
+    {
+        String key = key(title);
+        TitleCounter counter = cache.get(key);
+        if (counter != null && !(counter.readVersion < ticket && counter.reserve()))
+            cache.remove(key, counter);
+    }
+
+    /**
+     * Counts one more copy of a title as available, after a copy has been returned in the database. Does nothing if
+     * the title isn't cached.
+     *
+     * @param title  the title
+     * @param ticket the ticket from beginChange, taken before the copy was returned
+     */
+    public void release(String title, long ticket)
+    {
+        String key = key(title);
+        TitleCounter counter = cache.get(key);
+        if (counter != null && !(counter.readVersion < ticket && counter.release()))
+            cache.remove(key, counter);
+    }
+
+    /**
+     * Forgets what is cached for a title, after copies of it have been added or removed.
+     *
+     * @param title the title
+     */
+    public void invalidate(String title)
+    {
+        version.incrementAndGet();
+        cache.remove(key(title));
+    }
+
+    /**
+     * Forgets every cached title.
+     */
+    public void clear()
+    {
+        version.incrementAndGet();
+        cache.clear();
+    }
+
+    /**
+     * Returns the number of titles with copies, counted in the table.
+     *
+     * @return the number of titles
+     */
+    public int countTitles()
+    {
+        try (QueryResult queryResult = DatabaseHandler.executeQuery(COUNT_TITLES))
+        {
+            ResultSet resultSet = queryResult.getResultSet();
+            if (resultSet.next())
+                return resultSet.getInt(1);
+        }
+        catch (SQLException e)
+        {
+            ExceptionHandler.HandleFatalException("Failed to count titles due to " +
+                    e.getClass().getName() + ": " + e.getMessage(), e);
+        }
+        return 0;
+    }
+
+    /**
+     * Streams the titles with copies in title order, read from the table one at a time without filling the cache. The
+     * stream holds a connection until it's closed.
+     *
+     * @return the titles
+     */
+    public Stream<String> streamTitles()
+    {
+        return DatabaseHandler.streamPreparedQuery(SELECT_TITLES, null, resultSet -> resultSet.getString("title"));
+    }
+
+    /**
+     * Reads the counts of a title from the table.
+     *
+     * @param title       the title
+     * @param readVersion the version before reading
+     * @return the counts, which are empty if the title isn't in the table
+     */
+    private static TitleCounter read(String title, long readVersion)
+    {
+        try (QueryResult queryResult = DatabaseHandler.executePreparedQuery(SELECT_TITLE,
+                new SQLParameter[]{SQLParameter.of(title)}))
+        {
+            ResultSet resultSet = queryResult.getResultSet();
+            if (resultSet.next())
+                return new TitleCounter(resultSet.getInt("totalCopies"), resultSet.getInt("availableCopies"),
+                        readVersion);
+        }
+        catch (SQLException e)
+        {
+            ExceptionHandler.HandleFatalException("Failed to retrieve stock of title " + title + " due to " +
+                    e.getClass().getName() + ": " + e.getMessage(), e);
+        }
+        return new TitleCounter(-1, 0, readVersion);
+    }
+
+    //The cache key of a title
+    private static String key(String title)
+    {
+        return title.toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Removes the least recently used title. Scanning the cache is cheap next to the read from the table that filled
+     * it.
+     */
+    private void evictLeastRecentlyUsed()
+    {
+        Map.Entry<String, TitleCounter> eldest = null;
+        for (Map.Entry<String, TitleCounter> entry : cache.entrySet())
+            if (eldest == null || entry.getValue().lastUsed < eldest.getValue().lastUsed)
+                eldest = entry;
+        if (eldest != null)
+            cache.remove(eldest.getKey(), eldest.getValue());
+    }
+
+    /**
+     * The counts of one title. The total only changes when copies are added or removed, which replaces the counter,
+     * while the available count is changed in place.
+     */
+    private static class TitleCounter
+    {
+        //-1 for a title without copies
+        private final int total;
+        private final AtomicInteger available;
+        private final long readVersion;
+        private volatile long lastUsed = System.nanoTime();
+
+        private TitleCounter(int total, int available, long readVersion)
+        {
+            this.total = total;
+            this.available = new AtomicInteger(available);
+            this.readVersion = readVersion;
+        }
+
+        //The total and available counts, or null for a title without copies
+        private int[] snapshot()
+        {
+            lastUsed = System.nanoTime();
+            return total < 0 ? null : new int[]{total, available.get()};
+        }
+
+        //False if there was no copy to reserve, meaning the counts are wrong
+        private boolean reserve()
+        {
+            return available.getAndUpdate(count -> count > 0 ? count - 1 : count) > 0;
+        }
+
+        //False if every copy was already available
+        private boolean release()
+        {
+            return available.getAndUpdate(count -> count < total ? count + 1 : count) < total;
+        }
+    }
+}
@@ -0,0 +1,266 @@
+package edu.groupeighteen.librarydbms.control.entities;
+
+import edu.groupeighteen.librarydbms.control.db.DatabaseHandler;
+import edu.groupeighteen.librarydbms.control.exceptions.ExceptionHandler;
+import edu.groupeighteen.librarydbms.model.db.QueryResult;
+import edu.groupeighteen.librarydbms.model.db.SQLParameter;
+import edu.groupeighteen.librarydbms.model.db.Transaction;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Locale;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Stream;
+
+/**
+ * @author Mattias Fridsén
+ * @project LibraryDBMS
+ * @package edu.groupeighteen.librarydbms.control.entities
+ * @contact matfir-1@student.ltu.se
+ * @date 10/17/2026
+ * <p>
+ * Tells whether a value of a unique column, such as a username or a barcode, is taken, without keeping the values
+ * themselves in memory.
+ * <p>
+ * The values are kept in a {@link CuckooFilter}, at a little over two bytes each, which is built by streaming the
+ * column from the database and kept up to date by the handlers as they insert and delete rows. A value the filter has
+ * never seen is not taken, and is answered without asking the database. A value it may have seen is looked up in the
+ * UNIQUE index of the column, so the answer is always exact, and the database decides whether case matters.
+ * <p>
+ * The filter is sized from the number of rows when synced. Values that no longer fit are kept in a small
+ * {@link KeyRegistry} until the next sync, which happens by itself outside of transactions.
+ */
+public class UniqueKeyFilter
+{
+    //The smallest number of values the filter is built for, so that a small table can grow for a while
+    private static final int MIN_CAPACITY = 1024;
+    //How many values may spill over before the filter is rebuilt
+    private static final int MAX_SPILLED = 256;
+
+    private final String table;
+    private final String column;
+    private final boolean ignoreCase;
+    private final String lookupQuery;
+
+    private volatile CuckooFilter filter = new CuckooFilter(MIN_CAPACITY);
+    //Values added while the filter was full
+    private volatile KeyRegistry spilled;
+
+    private final LongAdder skipped = new LongAdder();
+    private final LongAdder confirmed = new LongAdder();
+    private final LongAdder falsePositives = new LongAdder();
+
+    /**
+     * Creates an empty filter for a column. Call {@link #sync()} to fill it.
+     *
+     * @param table      the table
+     * @param column     the unique column
+     * @param ignoreCase whether the UNIQUE index of the column ignores case, in which case so does the filter
+     */
+    public UniqueKeyFilter(String table, String column, boolean ignoreCase)
+    {
+        this.table = table;
+        this.column = column;
+        this.ignoreCase = ignoreCase;
+        this.lookupQuery = "SELECT 1 FROM " + table + " WHERE " + column + " = ?";
+        this.spilled = new KeyRegistry(ignoreCase);
+    }
+
+    /**
+     * Rebuilds the filter from the values in the column, sized for the number of rows.
+     */
+    public synchronized void sync()
+    {
+        int rows = countRows();
+        CuckooFilter rebuilt = new CuckooFilter(Math.max(rows * 2, MIN_CAPACITY));
+        KeyRegistry rebuiltSpilled = new KeyRegistry(ignoreCase);
+
+        //Only the index of the unique column needs to be read, one row at a time
+        try (Stream<String> values = DatabaseHandler.streamPreparedQuery("SELECT " + column + " FROM " + table,
+                null, resultSet -> resultSet.getString(1)))
+        {
+            values.forEach(value ->
+            {
+                if (!rebuilt.add(normalize(value)))
+                    rebuiltSpilled.add(value);
+            });
+        }
+
+        filter = rebuilt;
+        spilled = rebuiltSpilled;
+    }
+
+    /**
+     * Registers a value, after its row has been inserted.
+     *
+     * @param value the value
+     */
+    public synchronized void add(String value)
+    {
+        if (filter.add(normalize(value))) return;
+
+        spilled.add(value);
+        //The row has been committed unless there is a transaction, so the rebuild will read the value
+        if (spilled.size() > MAX_SPILLED && Transaction.getCurrent() == null)
+            sync();
+    }
+
+    /**
+     * Unregisters a value, after its row has been deleted.
+     *
+     * @param value the value
+     */
+    public synchronized void remove(String value)
+    {
+        if (!spilled.remove(value))
+            filter.remove(normalize(value));
+    }
+
+    /**
+     * Returns whether a value is taken. Values the filter hasn't seen are answered in memory, and any other value
+     * with one lookup in the UNIQUE index of the column.
+     *
+     * @param value the value
+     * @return true if a row has the value
+     */
+    public boolean contains(String value)
+    {
+        if (value == null) return false;
+        if (!mightContain(value))
+        {
+            skipped.increment();
+            return false;
+        }
+
+        confirmed.increment();
+        boolean taken = isInTable(value);
+        if (!taken) falsePositives.increment();
+        return taken;
+    }
+
+    /**
+     * Returns whether a value may be taken, without asking the database.
+     *
+     * @param value the value
+     * @return false if it definitely isn't taken
+     */
+    public boolean mightContain(String value)
+    {
+        return value != null && (filter.mightContain(normalize(value)) || spilled.contains(value));
+    }
+
+    /**
+     * Returns whether two values are the same value to this filter, e.g. when a value is changed only in case.
+     *
+     * @param value a value
+     * @param other another value
+     * @return true if they are the same value
+     */
+    public boolean isSameKey(String value, String other)
+    {
+        return normalize(value).equals(normalize(other));
+    }
+
+    /**
+     * Returns the number of values registered.
+     *
+     * @return the number of values
+     */
+    public int size()
+    {
+        return filter.size() + spilled.size();
+    }
+
+    public boolean isEmpty()
+    {
+        return size() == 0;
+    }
+
+    /**
+     * Unregisters every value, keeping the size of the filter.
+     */
+    public synchronized void clear()
+    {
+        filter.clear();
+        spilled.clear();
+    }
+
+    public boolean isIgnoreCase()
+    {
+        return ignoreCase;
+    }
+
+    /**
+     * Returns the number of lookups answered without asking the database.
+     *
+     * @return the number of lookups
+     */
+    public long getSkippedLookups()
+    {
+        return skipped.sum();
+    }
+
+    /**
+     * Returns the number of lookups confirmed against the database.
+     *
+     * @return the number of lookups
+     */
+    public long getConfirmedLookups()
+    {
+        return confirmed.sum();
+    }
+
+    /**
+     * Returns the number of lookups confirmed against the database that found no row.
+     *
+     * @return the number of lookups
+     */
+    public long getFalsePositives()
+    {
+        return falsePositives.sum();
+    }
+
+    @Override
+    public String toString()
+    {
+        return String.format("%s.%s: %d values in %d slots, %d lookups skipped, %d confirmed, %d false positives",
+                table, column, size(), filter.getSlots(), getSkippedLookups(), getConfirmedLookups(),
+                getFalsePositives());
+    }
+
+    private String normalize(String value)
+    {
+        return ignoreCase ? value.toLowerCase(Locale.ROOT) : value;
+    }
+
+    private int countRows()
+    {
+        try (QueryResult result = DatabaseHandler.executeQuery("SELECT COUNT(*) FROM " + table))
+        {
+            ResultSet resultSet = result.getResultSet();
+            if (resultSet.next())
+                return resultSet.getInt(1);
+        }
+        catch (SQLException e)
+        {
+            ExceptionHandler.HandleFatalException("Failed to count rows of " + table + " due to " +
+                    e.getClass().getName() + ": " + e.getMessage(), e);
+        }
+        return 0;
+    }
+
+    private boolean isInTable(String value)
+    {
+        SQLParameter[] params = {SQLParameter.of(value)};
+        try (QueryResult result = DatabaseHandler.executePreparedQuery(lookupQuery, params))
+        {
+            return result.getResultSet().next();
+        }
+        catch (SQLException e)
+        {
+            ExceptionHandler.HandleFatalException("Failed to look up " + column + " in " + table + " due to " +
+                    e.getClass().getName() + ": " + e.getMessage(), e);
+        }
+        return false;
+    }
+}
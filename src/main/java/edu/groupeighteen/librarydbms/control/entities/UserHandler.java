@@ -1,18 +1,24 @@
 package edu.groupeighteen.librarydbms.control.entities;
 
 import edu.groupeighteen.librarydbms.control.db.DatabaseHandler;
+import edu.groupeighteen.librarydbms.control.db.EntityCache;
 import edu.groupeighteen.librarydbms.control.exceptions.ExceptionHandler;
+import edu.groupeighteen.librarydbms.control.repositories.Repositories;
+import edu.groupeighteen.librarydbms.model.db.Page;
+import edu.groupeighteen.librarydbms.model.db.PageRequest;
 import edu.groupeighteen.librarydbms.model.db.QueryResult;
+import edu.groupeighteen.librarydbms.model.db.SQLParameter;
 import edu.groupeighteen.librarydbms.model.entities.User;
+import edu.groupeighteen.librarydbms.model.events.LoginEvent;
 import edu.groupeighteen.librarydbms.model.exceptions.InvalidEmailException;
 import edu.groupeighteen.librarydbms.model.exceptions.*;
 import edu.groupeighteen.librarydbms.model.exceptions.user.*;
 
 import java.sql.ResultSet;
 import java.sql.SQLException;
-import java.sql.Statement;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.stream.Stream;
 
 /**
  * @author Mattias Fridsén
@@ -22,7 +28,8 @@ import java.util.List;
  * @date 4/5/2023
  * <p>
  * This class contains database CRUD operation methods as well as other methods related to the User entity class.
- * It contains a list of all usernames for quicker validation.
+ * It keeps a filter of all usernames and emails for quicker validation, and keeps the users retrieved by ID in an
+ * {@link EntityCache}.
  * <p>
  * Note on Exceptions:
  * <p>
@@ -42,15 +49,27 @@ import java.util.List;
  */
 public class UserHandler //TODO-future rewrite Get-methods according to ItemHandler and RentalHandler, re-test
 {
+    //Insert command of the batch create method
+    private static final String INSERT_USER = "INSERT INTO users (username, password, userType, email, " +
+            "allowedRentals, currentRentals, lateFee, allowedToRent, deleted) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)";
+    //The query of login. Public so that QueryPlanChecker explains the same SQL login runs
+    public static final String SELECT_PASSWORD = "SELECT password FROM users WHERE username = ?";
+
     /**
-     * Used to make the process of verifying if a username is taken or not faster.
+     * Used to make the process of verifying if a username is taken or not faster. Ignores case, like the UNIQUE
+     * index on the username column.
      */
-    private static final ArrayList<String> storedUsernames = new ArrayList<>();
+    private static final UniqueKeyFilter storedUsernames = new UniqueKeyFilter("users", "username", true);
 
     /**
-     * Used to make the process of verifying if an email is registered or not faster.
+     * Used to make the process of verifying if an email is registered or not faster. Ignores case.
      */
-    private static final ArrayList<String> registeredEmails = new ArrayList<>();
+    private static final UniqueKeyFilter registeredEmails = new UniqueKeyFilter("users", "email", true);
+
+    /**
+     * The users most recently retrieved by ID, deleted or not.
+     */
+    private static final EntityCache<User> userCache = new EntityCache<>("users", User::new);
 
     /**
      * Performs setup tasks. In this case, syncing storedUsernames against the database.
@@ -61,7 +80,7 @@ public class UserHandler //TODO-future rewrite Get-methods according to ItemHand
     }
 
     /**
-     * Clears and syncs the both lists against the Users table.
+     * Rebuilds both filters from the Users table.
      */
     public static void sync()
     {
@@ -70,88 +89,44 @@ public class UserHandler //TODO-future rewrite Get-methods according to ItemHand
     }
 
     /**
-     * Clears and syncs the storedUsernames list against the usernames in the Users table.
+     * Rebuilds the storedUsernames filter from the usernames in the Users table.
      */
     public static void syncUsernames()
     {
-        resetUsernames();
-        retrieveUsernamesFromTable();
+        storedUsernames.sync();
     }
 
     /**
-     * Clears and syncs the registeredEmails list against the emails in the Users table.
+     * Rebuilds the registeredEmails filter from the emails in the Users table.
      */
     public static void syncEmails()
     {
-        resetEmails();
-        retrieveEmailsFromTable();
+        registeredEmails.sync();
     }
 
     /**
-     * Method that retrieves the usernames in the Users table and stores them in the static ArrayList.
-     * Query needs to be ORDER BY user_id ASC or ids will be in the order of 10, 1, 2, ...
+     * Clears both filters and forgets the cached users.
      */
-    private static void retrieveUsernamesFromTable()
-    {
-        try
-        {
-            //Execute the query to retrieve all usernames
-            String query = "SELECT username FROM users ORDER BY userID ASC";
-            try (QueryResult result = DatabaseHandler.executeQuery(query))
-            {
-
-                //Add the retrieved usernames to the ArrayList
-                while (result.getResultSet().next())
-                {
-                    storedUsernames.add(result.getResultSet().getString("username"));
-                }
-            }
-        }
-        catch (SQLException e)
-        {
-            ExceptionHandler.HandleFatalException("Failed to retrieve usernames from database due to " +
-                    e.getClass().getName() + ": " + e.getMessage(), e);
-        }
-    }
-
-    /**
-     * Method that retrieves the emails in the Users table and stores them in the static ArrayList.
-     * Query needs to be ORDER BY user_id ASC or ids will be in the order of 10, 1, 2, ...
-     */
-    private static void retrieveEmailsFromTable()
+    public static void reset()
     {
-        try
-        {
-            //Execute the query to retrieve all emails
-            String query = "SELECT email FROM users ORDER BY userID ASC";
-            try (QueryResult result = DatabaseHandler.executeQuery(query))
-            {
-
-                //Add the retrieved usernames to the ArrayList
-                while (result.getResultSet().next())
-                {
-                    registeredEmails.add(result.getResultSet().getString("email"));
-                }
-            }
-        }
-        catch (SQLException e)
-        {
-            ExceptionHandler.HandleFatalException("Failed to retrieve emails from database due to " +
-                    e.getClass().getName() + ": " + e.getMessage(), e);
-        }
+        resetUsernames();
+        resetEmails();
+        userCache.clear();
     }
 
     /**
-     * Clears both lists.
+     * Makes the next retrieval of a user by ID read it from the database, after its row has been changed outside
+     * of this handler, for instance by the triggers on rentals.
+     *
+     * @param userID the ID of the changed user
      */
-    public static void reset()
+    public static void refreshUser(int userID)
     {
-        resetUsernames();
-        resetEmails();
+        userCache.invalidate(userID);
     }
 
     /**
-     * Clears the list of storedUsernames.
+     * Clears the storedUsernames filter.
      */
     public static void resetUsernames()
     {
@@ -159,7 +134,7 @@ public class UserHandler //TODO-future rewrite Get-methods according to ItemHand
     }
 
     /**
-     * Clears the list of registeredEmails.
+     * Clears the registeredEmails filter.
      */
     public static void resetEmails()
     {
@@ -167,49 +142,54 @@ public class UserHandler //TODO-future rewrite Get-methods according to ItemHand
     }
 
     /**
-     * Prints all usernames in the ArrayList.
+     * Prints all usernames in the Users table.
      */
     public static void printUsernames()
     {
-        System.out.println("\nUsernames:");
-        int num = 1;
-        for (String username : storedUsernames)
-        {
-            System.out.println(num + ": " + username);
-            num++;
-        }
+        printColumn("Usernames", "username");
     }
 
     /**
-     * Prints all emails in the ArrayList.
+     * Prints all emails in the Users table.
      */
     public static void printEmails()
     {
-        System.out.println("\nEmails:");
-        int num = 1;
-        for (String email : registeredEmails)
+        printColumn("Emails", "email");
+    }
+
+    /**
+     * Prints every value of a column of the Users table, streamed since the filters don't hold the values.
+     *
+     * @param heading the heading to print first
+     * @param column  the column
+     */
+    private static void printColumn(String heading, String column)
+    {
+        System.out.println("\n" + heading + ":");
+        try (Stream<String> values = DatabaseHandler.streamPreparedQuery("SELECT " + column + " FROM users",
+                null, resultSet -> resultSet.getString(1)))
         {
-            System.out.println(num + ": " + email);
-            num++;
+            int[] num = {1};
+            values.forEach(value -> System.out.println(num[0]++ + ": " + value));
         }
     }
 
     /**
-     * Returns the ArrayList of usernames.
+     * Returns the filter of usernames.
      *
-     * @return the ArrayList of usernames
+     * @return the filter of usernames
      */
-    public static ArrayList<String> getStoredUsernames()
+    public static UniqueKeyFilter getStoredUsernames()
     {
         return storedUsernames;
     }
 
     /**
-     * Returns the ArrayList of emails.
+     * Returns the filter of emails.
      *
-     * @return the ArrayList of emails
+     * @return the filter of emails
      */
-    public static ArrayList<String> getRegisteredEmails()
+    public static UniqueKeyFilter getRegisteredEmails()
     {
         return registeredEmails;
     }
@@ -262,15 +242,14 @@ public class UserHandler //TODO-future rewrite Get-methods according to ItemHand
             validateEmail(email);
             validateUserType(userType);
 
-            //Create and save the new user, retrieving the ID
-            newUser = new User(username, password, email, userType);
-            newUser.setUserID(saveUser(newUser));
+            //Create and save the new user, setting the ID
+            newUser = Repositories.getUsers().insert(new User(username, password, email, userType));
 
             //Need to remember to add to the lists
             storedUsernames.add(username);
             registeredEmails.add(email);
         }
-        catch (ConstructionException | InvalidIDException e)
+        catch (ConstructionException e)
         {
             ExceptionHandler.HandleFatalException(String.format("Failed to create User with username: " +
                     "'%s' due to %s: %s", username, e.getClass().getName(), e.getMessage()), e);
@@ -285,55 +264,83 @@ public class UserHandler //TODO-future rewrite Get-methods according to ItemHand
     }
 
     /**
-     * Saves a user to the database. The method prepares an SQL insert query with the user's details such as
-     * username, password, userType, email, allowed rentals, current rentals, late fee, allowedToRent and deleted status.
-     * The query is executed and the auto-generated user ID from the database is retrieved and returned. If the query
-     * execution fails, the method handles the SQLException and terminates the application.
+     * Returns the parameters for inserting a User into the users table, in the order of INSERT_USER.
+     *
+     * @param user the User to insert
+     * @return the parameters
+     */
+    private static SQLParameter[] userParameters(User user)
+    {
+        return new SQLParameter[]{
+                SQLParameter.of(user.getUsername()),
+                SQLParameter.of(user.getPassword()),
+                SQLParameter.of(user.getUserType().toString()),
+                SQLParameter.of(user.getEmail()),
+                SQLParameter.of(user.getAllowedRentals()),
+                SQLParameter.of(user.getCurrentRentals()),
+                SQLParameter.of(user.getLateFee()),
+                SQLParameter.of(user.isAllowedToRent()),
+                SQLParameter.of(user.isDeleted())
+        };
+    }
+
+    /**
+     * Creates several new Users at once. Works like createNewUser, except that every user is validated before
+     * anything is saved, and all users are inserted with one batch instead of one statement each. Meant for
+     * importing patrons.
      *
-     * @param user The user object to be saved.
-     * @return The auto-generated ID of the user from the database.
-     * Returns 0 if an SQLException occurs. This won't happen because the application will terminate first.
+     * @param newUsers unsaved User objects
+     * @return the same User objects, with their userIDs set
+     * @throws CreationException if validation of any user fails, including a username or email appearing twice in
+     *                           the batch.
      */
-    private static int saveUser(User user)
+    public static List<User> createNewUserBatch(List<User> newUsers)
+    throws CreationException
     {
         try
         {
-            //Prepare query
-            String query = "INSERT INTO users (username, password, userType, email, allowedRentals, " +
-                    "currentRentals, lateFee, allowedToRent, deleted) " +
-                    "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)";
-
-            String[] params = {
-                    user.getUsername(),
-                    user.getPassword(),
-                    user.getUserType().toString(),
-                    user.getEmail(),
-                    String.valueOf(user.getAllowedRentals()),
-                    String.valueOf(user.getCurrentRentals()),
-                    String.valueOf(user.getLateFee()),
-                    user.isAllowedToRent() ? "1" : "0",
-                    user.isDeleted() ? "1" : "0"
-            };
-
-            //Execute query and get the generated userID, using try-with-resources
-            try (QueryResult queryResult =
-                         DatabaseHandler.executePreparedQuery(query, params, Statement.RETURN_GENERATED_KEYS))
+            //Validate everything before saving anything
+            KeyRegistry batchUsernames = new KeyRegistry(storedUsernames.isIgnoreCase());
+            KeyRegistry batchEmails = new KeyRegistry(registeredEmails.isIgnoreCase());
+            for (User user : newUsers)
             {
-                ResultSet generatedKeys = queryResult.getStatement().getGeneratedKeys();
-                if (generatedKeys.next())
-                {
-                    return generatedKeys.getInt(1);
-                }
+                validateUsername(user.getUsername());
+                validatePassword(user.getPassword());
+                validateEmail(user.getEmail());
+                validateUserType(user.getUserType());
+                if (!batchUsernames.add(user.getUsername()))
+                    throw new InvalidNameException("Username " + user.getUsername() + " appears twice in batch.");
+                if (!batchEmails.add(user.getEmail()))
+                    throw new InvalidEmailException("Email " + user.getEmail() + " appears twice in batch.");
+            }
+
+            //Save and set the generated IDs
+            List<SQLParameter[]> batch = new ArrayList<>(newUsers.size());
+            for (User user : newUsers)
+                batch.add(userParameters(user));
+            int[] userIDs = DatabaseHandler.executeBatchReturningKeys(INSERT_USER, batch);
+            for (int i = 0; i < newUsers.size(); i++)
+                newUsers.get(i).setUserID(userIDs[i]);
+
+            //Need to remember to add to the lists
+            for (User user : newUsers)
+            {
+                storedUsernames.add(user.getUsername());
+                registeredEmails.add(user.getEmail());
             }
         }
-        catch (SQLException e)
+        catch (InvalidIDException e)
         {
-            ExceptionHandler.HandleFatalException("Failed to save user to database due to " +
+            ExceptionHandler.HandleFatalException("Failed to create User batch due to " +
+                    e.getClass().getName() + ": " + e.getMessage(), e);
+        }
+        catch (InvalidEmailException | InvalidNameException | InvalidPasswordException | InvalidTypeException e)
+        {
+            throw new CreationException("Failed to create User batch due to " +
                     e.getClass().getName() + ": " + e.getMessage(), e);
         }
 
-        //Not reachable, but needed for compilation
-        return 0;
+        return newUsers;
     }
 
     /**
@@ -352,7 +359,8 @@ public class UserHandler //TODO-future rewrite Get-methods according to ItemHand
     }
 
     /**
-     * Retrieves a user from the database by the specified userID, with an option to include deleted users.
+     * Retrieves a user by the specified userID, with an option to include deleted users. Users are read from the
+     * user cache if they're there.
      *
      * @param userID     the ID of the user to retrieve
      * @param getDeleted specifies whether to include deleted users in the retrieval
@@ -362,47 +370,79 @@ public class UserHandler //TODO-future rewrite Get-methods according to ItemHand
     public static User getUserByID(int userID, boolean getDeleted) //TODO-test
     throws InvalidIDException
     {
-        try
-        {
-            //No point getting invalid Users, throws InvalidIDException
-            checkValidUserID(userID);
+        //No point getting invalid Users, throws InvalidIDException
+        checkValidUserID(userID);
+
+        //Deleted users are cached too, and left out here
+        User user = userCache.get(userID, UserHandler::readUserByID);
+        if (user == null || (user.isDeleted() && !getDeleted))
+            return null;
+        return user;
+    }
 
-            //Prepare a SQL query to select a user by userID. Include deleted condition based on getDeleted
-            String query = getDeleted ?
-                    "SELECT * FROM users WHERE userID = ?" :
-                    "SELECT * FROM users WHERE userID = ? AND deleted = false";
-            String[] params = {String.valueOf(userID)};
+    /**
+     * Reads a user, deleted or not, from the user repository by the specified userID.
+     *
+     * @param userID the ID of the user to read
+     * @return the User object representing the read user, or null if not found
+     */
+    private static User readUserByID(int userID)
+    {
+        return Repositories.getUsers().findByID(userID);
+    }
 
-            //Execute the query and store the result in a ResultSet.
-            try (QueryResult queryResult = DatabaseHandler.executePreparedQuery(query, params))
+    /**
+     * Retrieves one page of the users in the database, ordered by userID.
+     * <p>
+     * Does not retrieve deleted users.
+     *
+     * @param pageRequest the page to retrieve
+     * @return the requested page of users
+     */
+    public static Page<User> getAllUsers(PageRequest pageRequest)
+    {
+        return getUsers("WHERE deleted = false", null, pageRequest);
+    }
+
+    /**
+     * Retrieves one page of the users matching the provided SQL suffix and parameters, ordered by userID.
+     *
+     * @param sqlSuffix   the SQL suffix to append to "SELECT * FROM users", without ORDER BY or LIMIT, can be null
+     * @param params      the parameters to use in the prepared statement, can be null
+     * @param pageRequest the page to retrieve
+     * @return the requested page of users
+     */
+    private static Page<User> getUsers(String sqlSuffix, SQLParameter[] params, PageRequest pageRequest)
+    {
+        List<User> users = new ArrayList<>();
+        String query = "SELECT * FROM users " + pageRequest.toSQLSuffix(sqlSuffix, "userID");
+
+        try (QueryResult queryResult = DatabaseHandler.executePreparedQuery(query,
+                pageRequest.toSQLParameters(params)))
+        {
+            ResultSet resultSet = queryResult.getResultSet();
+            while (resultSet.next())
             {
-                ResultSet resultSet = queryResult.getResultSet();
-                //If the ResultSet contains data, create a new User object using the retrieved username and password,
-                //and set the user's userID.
-                if (resultSet.next())
-                {
-                    return new User(
-                            userID,
-                            resultSet.getString("username"),
-                            resultSet.getString("password"),
-                            resultSet.getString("email"),
-                            User.UserType.valueOf(resultSet.getString("userType")),
-                            resultSet.getInt("allowedRentals"),
-                            resultSet.getInt("currentRentals"),
-                            resultSet.getFloat("lateFee"),
-                            resultSet.getBoolean("allowedToRent"),
-                            resultSet.getBoolean("deleted"));
-                }
+                users.add(new User(
+                        resultSet.getInt("userID"),
+                        resultSet.getString("username"),
+                        resultSet.getString("password"),
+                        resultSet.getString("email"),
+                        User.UserType.valueOf(resultSet.getString("userType")),
+                        resultSet.getInt("allowedRentals"),
+                        resultSet.getInt("currentRentals"),
+                        resultSet.getFloat("lateFee"),
+                        resultSet.getBoolean("allowedToRent"),
+                        resultSet.getBoolean("deleted")));
             }
         }
         catch (SQLException | ConstructionException e)
         {
-            ExceptionHandler.HandleFatalException("Failed to retrieve user by ID from database due to " +
+            ExceptionHandler.HandleFatalException("Failed to retrieve users from database due to " +
                     e.getClass().getName() + ": " + e.getMessage(), e);
         }
 
-        //Return null if not found.
-        return null;
+        return new Page<>(users, pageRequest, User::getUserID);
     }
 
     // DELETE AND RECOVER ----------------------------------------------------------------------------------------------
@@ -428,12 +468,9 @@ public class UserHandler //TODO-future rewrite Get-methods according to ItemHand
             //Check if user has lateFee or currentRentals, throws InvalidUserRentalsException/InvalidLateFeeException
             validateAllowedToDeleteUser(userToDelete);
 
-            //Prepare a SQL command to set deleted to true for the specified user.
-            String sql = "UPDATE users SET allowedToRent = 0, deleted = 1 WHERE userID = ?";
-            String[] params = {String.valueOf(userToDelete.getUserID())};
-
-            //Execute the update.
-            DatabaseHandler.executePreparedUpdate(sql, params);
+            //Set deleted to true and allowedToRent to false for the specified user.
+            Repositories.getUsers().setDeleted(userToDelete.getUserID(), true);
+            refreshUser(userToDelete.getUserID());
 
             //Update the deleted field of the user object
             userToDelete.setDeleted(true);
@@ -473,13 +510,9 @@ public class UserHandler //TODO-future rewrite Get-methods according to ItemHand
             if ((userToRecover.getLateFee() == 0) && (userToRecover.getCurrentRentals() < userToRecover.getAllowedRentals()))
                 userToRecover.setAllowedToRent(true);
 
-            //Prepare a SQL command to set deleted to false for the specified user.
-            String sql = "UPDATE users SET allowedToRent = ?, deleted = 0 WHERE userID = ?";
-            String[] params = {userToRecover.isAllowedToRent() ? "1" : "0",
-                    String.valueOf(userToRecover.getUserID())};
-
-            //Execute the update.
-            DatabaseHandler.executePreparedUpdate(sql, params);
+            //Set deleted to false for the specified user, allowedToRent follows from its rentals and late fee
+            Repositories.getUsers().setDeleted(userToRecover.getUserID(), false);
+            refreshUser(userToRecover.getUserID());
         }
         catch (NullEntityException | EntityNotFoundException | InvalidIDException |
                InvalidRentalStatusChangeException e)
@@ -515,12 +548,9 @@ public class UserHandler //TODO-future rewrite Get-methods according to ItemHand
             String username = userToDelete.getUsername();
             String email = userToDelete.getEmail();
 
-            //Prepare a SQL command to delete a userToDelete by userID.
-            String sql = "DELETE FROM users WHERE userID = ?";
-            String[] params = {String.valueOf(userToDelete.getUserID())};
-
-            //Execute the update.
-            DatabaseHandler.executePreparedUpdate(sql, params);
+            //Delete userToDelete by userID.
+            Repositories.getUsers().delete(userToDelete.getUserID());
+            refreshUser(userToDelete.getUserID());
 
             //Set booleans
             userToDelete.setDeleted(true);
@@ -556,7 +586,12 @@ public class UserHandler //TODO-future rewrite Get-methods according to ItemHand
             String oldUsername = oldUser.getUsername();
             String oldEmail = oldUser.getEmail();
 
-            //If username has been changed...
+            //Update the updatedUser's data by userID. currentRentals and allowedToRent are left to the triggers on
+            //rentals, see JdbcUserRepository
+            Repositories.getUsers().update(updatedUser);
+            refreshUser(updatedUser.getUserID());
+
+            //Once the row holds them, if username has been changed...
             if (!updatedUser.getUsername().equals(oldUsername))
             {
                 //... remove old username from and add new username to storedUsernames
@@ -571,24 +606,6 @@ public class UserHandler //TODO-future rewrite Get-methods according to ItemHand
                 registeredEmails.remove(oldEmail);
                 registeredEmails.add(updatedUser.getEmail());
             }
-
-            //Prepare a SQL command to update a updatedUser's data by userID.
-            String sql = "UPDATE users SET username = ?, password = ?, userType = ?, email = ?, allowedRentals = ?, " +
-                    "currentRentals = ?, lateFee = ?, allowedToRent = ? WHERE userID = ?";
-            String[] params = {
-                    updatedUser.getUsername(),
-                    updatedUser.getPassword(),
-                    updatedUser.getUserType().toString(),
-                    updatedUser.getEmail(),
-                    String.valueOf(updatedUser.getAllowedRentals()),
-                    String.valueOf(updatedUser.getCurrentRentals()),
-                    String.valueOf(updatedUser.getLateFee()),
-                    updatedUser.isAllowedToRent() ? "1" : "0",
-                    String.valueOf(updatedUser.getUserID())
-            };
-
-            //Execute the update.
-            DatabaseHandler.executePreparedUpdate(sql, params);
         }
         catch (InvalidIDException | InvalidNameException | EntityNotFoundException | InvalidEmailException e)
         {
@@ -602,14 +619,14 @@ public class UserHandler //TODO-future rewrite Get-methods according to ItemHand
     {
         User oldUser = getUserByID(updatedUser.getUserID());
 
-        //If username is different
-        if (!updatedUser.getUsername().equals(oldUser.getUsername()))
+        //If username is different, other than in case
+        if (!storedUsernames.isSameKey(updatedUser.getUsername(), oldUser.getUsername()))
             if (storedUsernames.contains(updatedUser.getUsername()))
                 throw new InvalidNameException("Cannot update username; username " + updatedUser.getUsername() +
                         " already taken.");
 
-        //If email is different
-        if (!updatedUser.getEmail().equals(oldUser.getEmail()))
+        //If email is different, other than in case
+        if (!registeredEmails.isSameKey(updatedUser.getEmail(), oldUser.getEmail()))
             if (registeredEmails.contains(updatedUser.getEmail()))
                 throw new InvalidEmailException("Cannot update email; email " + updatedUser.getEmail() +
                         " already taken.");
@@ -619,7 +636,7 @@ public class UserHandler //TODO-future rewrite Get-methods according to ItemHand
 
     /**
      * Basic login method. Checks whether username exists in storedUsernames. If it does, check whether password
-     * matches that user's password.
+     * matches that user's password. Recorded as a {@link LoginEvent} for Flight Recorder.
      *
      * @param username the username attempting to login
      * @param password the password attempting to login
@@ -627,6 +644,31 @@ public class UserHandler //TODO-future rewrite Get-methods according to ItemHand
      */
     public static boolean login(String username, String password) //TODO-test //TODO-deleted
     throws UserValidationException
+    {
+        LoginEvent event = new LoginEvent();
+        event.setUsername(username);
+        event.begin();
+        try
+        {
+            boolean loggedIn = checkLogin(username, password);
+            event.setSucceeded(loggedIn);
+            return loggedIn;
+        }
+        finally
+        {
+            event.commit();
+        }
+    }
+
+    /**
+     * Does the work of login.
+     *
+     * @param username the username attempting to login
+     * @param password the password attempting to login
+     * @return true if successful, otherwise false
+     */
+    private static boolean checkLogin(String username, String password)
+    throws UserValidationException
     {
         try
         {
@@ -635,24 +677,25 @@ public class UserHandler //TODO-future rewrite Get-methods according to ItemHand
             //Throws PasswordEmptyException
             checkEmptyPassword(password);
 
-            //First check list
-            if (!storedUsernames.contains(username))
+            //Usernames the filter hasn't seen don't exist. The query below confirms any other username, so the
+            //filter doesn't have to
+            if (!storedUsernames.mightContain(username))
                 throw new EntityNotFoundException("User " + username + " does not exist.");
 
-            String query = "SELECT password FROM users WHERE username = ?";
-            String[] params = {username};
+            String query = SELECT_PASSWORD;
+            SQLParameter[] params = {SQLParameter.of(username)};
 
             //Execute the query and check if the input password matches the retrieved password
             try (QueryResult queryResult = DatabaseHandler.executePreparedQuery(query, params))
             {
                 ResultSet resultSet = queryResult.getResultSet();
-                if (resultSet.next())
+                if (!resultSet.next())
+                    throw new EntityNotFoundException("User " + username + " does not exist.");
+
+                String storedPassword = resultSet.getString("password");
+                if (password.equals(storedPassword))
                 {
-                    String storedPassword = resultSet.getString("password");
-                    if (password.equals(storedPassword))
-                    {
-                        return true;
-                    }
+                    return true;
                 }
             }
         }
@@ -718,7 +761,7 @@ public class UserHandler //TODO-future rewrite Get-methods according to ItemHand
                     "SELECT * FROM users WHERE username = ?" :
                     "SELECT * FROM users WHERE username = ? AND deleted = false";
 
-            String[] params = {username};
+            SQLParameter[] params = {SQLParameter.of(username)};
 
             //Execute the query and store the result in a ResultSet
             try (QueryResult queryResult = DatabaseHandler.executePreparedQuery(query, params))
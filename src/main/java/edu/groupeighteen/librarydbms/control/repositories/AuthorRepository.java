@@ -0,0 +1,27 @@
+package edu.groupeighteen.librarydbms.control.repositories;
+
+import edu.groupeighteen.librarydbms.model.entities.Author;
+
+import java.util.List;
+
+/**
+ * @author Mattias Fridsén
+ * @project LibraryDBMS
+ * @package edu.groupeighteen.librarydbms.control.repositories
+ * @contact matfir-1@student.ltu.se
+ * @date 10/17/2026
+ * <p>
+ * Stores Authors.
+ */
+public interface AuthorRepository extends Repository<Author>
+{
+    /**
+     * Retrieves the authors with the given names, ignoring case. Either name can be null or empty, in which case only
+     * the other one is matched.
+     *
+     * @param authorFirstname the first name, can be null
+     * @param authorLastname  the last name, can be null
+     * @return the matching authors, ordered by ID
+     */
+    List<Author> findByName(String authorFirstname, String authorLastname);
+}
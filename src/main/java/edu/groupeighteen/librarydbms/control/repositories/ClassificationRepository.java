@@ -0,0 +1,23 @@
+package edu.groupeighteen.librarydbms.control.repositories;
+
+import edu.groupeighteen.librarydbms.model.entities.Classification;
+
+/**
+ * @author Mattias Fridsén
+ * @project LibraryDBMS
+ * @package edu.groupeighteen.librarydbms.control.repositories
+ * @contact matfir-1@student.ltu.se
+ * @date 10/17/2026
+ * <p>
+ * Stores Classifications. Classification names are unique.
+ */
+public interface ClassificationRepository extends Repository<Classification>
+{
+    /**
+     * Retrieves a classification by its name.
+     *
+     * @param classificationName the name of the classification
+     * @return the classification, or null if there is none with that name
+     */
+    Classification findByName(String classificationName);
+}
@@ -0,0 +1,62 @@
+package edu.groupeighteen.librarydbms.control.repositories;
+
+import edu.groupeighteen.librarydbms.model.entities.Author;
+import edu.groupeighteen.librarydbms.model.exceptions.InvalidIDException;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * @author Mattias Fridsén
+ * @project LibraryDBMS
+ * @package edu.groupeighteen.librarydbms.control.repositories
+ * @contact matfir-1@student.ltu.se
+ * @date 10/17/2026
+ * <p>
+ * Keeps Authors in memory, indexed by first and last name in lower case.
+ */
+public class InMemoryAuthorRepository extends InMemoryRepository<Author> implements AuthorRepository
+{
+    private final Index<String> byFirstname = addIndex(author -> toLowerCase(author.getAuthorFirstname()), false);
+    private final Index<String> byLastname = addIndex(author -> toLowerCase(author.getAuthorLastName()), false);
+
+    @Override
+    public List<Author> findByName(String authorFirstname, String authorLastname)
+    {
+        boolean firstname = authorFirstname != null && !authorFirstname.isEmpty();
+        boolean lastname = authorLastname != null && !authorLastname.isEmpty();
+        if (!firstname && !lastname)
+            return new ArrayList<>();
+        if (!lastname)
+            return byFirstname.find(authorFirstname.toLowerCase());
+
+        List<Author> authors = byLastname.find(authorLastname.toLowerCase());
+        if (firstname)
+            authors.removeIf(author -> !authorFirstname.equalsIgnoreCase(author.getAuthorFirstname()));
+        return authors;
+    }
+
+    @Override
+    protected Author copy(Author author)
+    {
+        return new Author(author);
+    }
+
+    @Override
+    protected int getID(Author author)
+    {
+        return author.getAuthorID();
+    }
+
+    @Override
+    protected void setID(Author author, int id)
+    throws InvalidIDException
+    {
+        author.setAuthorID(id);
+    }
+
+    private static String toLowerCase(String name)
+    {
+        return name == null ? null : name.toLowerCase();
+    }
+}
@@ -0,0 +1,44 @@
+package edu.groupeighteen.librarydbms.control.repositories;
+
+import edu.groupeighteen.librarydbms.model.entities.Classification;
+import edu.groupeighteen.librarydbms.model.exceptions.InvalidIDException;
+
+/**
+ * @author Mattias Fridsén
+ * @project LibraryDBMS
+ * @package edu.groupeighteen.librarydbms.control.repositories
+ * @contact matfir-1@student.ltu.se
+ * @date 10/17/2026
+ * <p>
+ * Keeps Classifications in memory, indexed by their unique name.
+ */
+public class InMemoryClassificationRepository extends InMemoryRepository<Classification>
+        implements ClassificationRepository
+{
+    private final Index<String> byName = addIndex(Classification::getClassificationName, true);
+
+    @Override
+    public Classification findByName(String classificationName)
+    {
+        return byName.findFirst(classificationName);
+    }
+
+    @Override
+    protected Classification copy(Classification classification)
+    {
+        return new Classification(classification);
+    }
+
+    @Override
+    protected int getID(Classification classification)
+    {
+        return classification.getClassificationID();
+    }
+
+    @Override
+    protected void setID(Classification classification, int id)
+    throws InvalidIDException
+    {
+        classification.setClassificationID(id);
+    }
+}
@@ -0,0 +1,81 @@
+package edu.groupeighteen.librarydbms.control.repositories;
+
+import edu.groupeighteen.librarydbms.model.entities.Film;
+import edu.groupeighteen.librarydbms.model.entities.Item;
+import edu.groupeighteen.librarydbms.model.entities.Literature;
+import edu.groupeighteen.librarydbms.model.exceptions.InvalidIDException;
+
+import java.util.List;
+
+/**
+ * @author Mattias Fridsén
+ * @project LibraryDBMS
+ * @package edu.groupeighteen.librarydbms.control.repositories
+ * @contact matfir-1@student.ltu.se
+ * @date 10/17/2026
+ * <p>
+ * Keeps Items in memory, indexed by their unique barcodes, by title, by the ISBN of literature, and by author and
+ * classification.
+ * <p>
+ * Author and classification names are stored as they are set on the items inserted, they aren't looked up.
+ */
+public class InMemoryItemRepository extends InMemoryRepository<Item> implements ItemRepository
+{
+    private final Index<String> byBarcode = addIndex(Item::getBarcode, true);
+    private final Index<String> byTitle = addIndex(Item::getTitle, false);
+    private final Index<String> byISBN = addIndex(
+            item -> item instanceof Literature ? ((Literature) item).getISBN() : null, false);
+    private final Index<Integer> byAuthorID = addIndex(Item::getAuthorID, false);
+    private final Index<Integer> byClassificationID = addIndex(Item::getClassificationID, false);
+
+    @Override
+    public Item findByBarcode(String barcode)
+    {
+        return byBarcode.findFirst(barcode);
+    }
+
+    @Override
+    public List<Item> findByTitle(String title)
+    {
+        return byTitle.find(title);
+    }
+
+    @Override
+    public List<Item> findByISBN(String ISBN)
+    {
+        return byISBN.find(ISBN);
+    }
+
+    @Override
+    public List<Item> findByAuthorID(int authorID)
+    {
+        return byAuthorID.find(authorID);
+    }
+
+    @Override
+    public List<Item> findByClassificationID(int classificationID)
+    {
+        return byClassificationID.find(classificationID);
+    }
+
+    @Override
+    protected Item copy(Item item)
+    {
+        if (item instanceof Film)
+            return new Film((Film) item);
+        return new Literature((Literature) item);
+    }
+
+    @Override
+    protected int getID(Item item)
+    {
+        return item.getItemID();
+    }
+
+    @Override
+    protected void setID(Item item, int id)
+    throws InvalidIDException
+    {
+        item.setItemID(id);
+    }
+}
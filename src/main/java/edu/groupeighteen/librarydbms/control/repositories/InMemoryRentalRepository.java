@@ -0,0 +1,64 @@
+package edu.groupeighteen.librarydbms.control.repositories;
+
+import edu.groupeighteen.librarydbms.model.entities.Rental;
+import edu.groupeighteen.librarydbms.model.exceptions.InvalidIDException;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * @author Mattias Fridsén
+ * @project LibraryDBMS
+ * @package edu.groupeighteen.librarydbms.control.repositories
+ * @contact matfir-1@student.ltu.se
+ * @date 10/17/2026
+ * <p>
+ * Keeps Rentals in memory, indexed by user and item. Rentals not yet returned have an index of their own, so finding
+ * the overdue ones doesn't go through every rental ever made.
+ */
+public class InMemoryRentalRepository extends InMemoryRepository<Rental> implements RentalRepository
+{
+    private final Index<Integer> byUserID = addIndex(Rental::getUserID, false);
+    private final Index<Integer> byItemID = addIndex(Rental::getItemID, false);
+    private final Index<Boolean> notReturned = addIndex(
+            rental -> rental.getRentalReturnDate() == null ? Boolean.TRUE : null, false);
+
+    @Override
+    public List<Rental> findByUserID(int userID)
+    {
+        return byUserID.find(userID);
+    }
+
+    @Override
+    public List<Rental> findByItemID(int itemID)
+    {
+        return byItemID.find(itemID);
+    }
+
+    @Override
+    public List<Rental> findOverdue(LocalDateTime now)
+    {
+        List<Rental> rentals = notReturned.find(Boolean.TRUE);
+        rentals.removeIf(rental -> rental.getRentalDueDate() == null || !rental.getRentalDueDate().isBefore(now));
+        return rentals;
+    }
+
+    @Override
+    protected Rental copy(Rental rental)
+    {
+        return new Rental(rental);
+    }
+
+    @Override
+    protected int getID(Rental rental)
+    {
+        return rental.getRentalID();
+    }
+
+    @Override
+    protected void setID(Rental rental, int id)
+    throws InvalidIDException
+    {
+        rental.setRentalID(id);
+    }
+}
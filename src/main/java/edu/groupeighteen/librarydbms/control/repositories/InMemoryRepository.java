@@ -0,0 +1,386 @@
+package edu.groupeighteen.librarydbms.control.repositories;
+
+import edu.groupeighteen.librarydbms.model.entities.Entity;
+import edu.groupeighteen.librarydbms.model.exceptions.InvalidIDException;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * @author Mattias Fridsén
+ * @project LibraryDBMS
+ * @package edu.groupeighteen.librarydbms.control.repositories
+ * @contact matfir-1@student.ltu.se
+ * @date 10/17/2026
+ * <p>
+ * The shared parts of the in-memory repositories, which keep their entities in a ConcurrentHashMap by ID, with
+ * secondary indexes for the fields they are looked up by.
+ * <p>
+ * Reads never block. Writes are made one at a time, and each one puts a new copy of the entity in the map, so a read
+ * sees an entity either as it was before a write or after it. Entities are copied on the way in and out, so nothing
+ * outside the repository can change what it stores.
+ * <p>
+ * Unique indexes work like unique columns, storing a second entity with the same key throws IllegalStateException.
+ * The handlers check uniqueness before storing anything, so this is never expected to happen.
+ * <p>
+ * The repository remembers which entities were written and removed since it was last persisted, see
+ * {@link #persistChanges(Repository)} and {@link #persistRemovals(Repository)}.
+ *
+ * @param <T> the type of entity stored
+ */
+public abstract class InMemoryRepository<T extends Entity> implements Repository<T>
+{
+    private final Map<Integer, T> entities = new ConcurrentHashMap<>();
+    private final List<Index<?>> indexes = new ArrayList<>();
+    private final Object writeLock = new Object();
+    private int lastID = 0;
+
+    //Written and removed since last persisted, guarded by writeLock
+    private final Set<Integer> changedIDs = new HashSet<>();
+    private final Set<Integer> removedIDs = new HashSet<>();
+
+    /**
+     * Copies an entity, so that the stored one and the one handed out are never the same object.
+     *
+     * @param entity the entity to copy
+     * @return the copy
+     */
+    protected abstract T copy(T entity);
+
+    protected abstract int getID(T entity);
+
+    protected abstract void setID(T entity, int id)
+    throws InvalidIDException;
+
+    /**
+     * Adds a secondary index. Must be called from the constructor of the subclass.
+     *
+     * @param key    the key to index by, entities with a null key are left out
+     * @param unique whether two entities can have the same key
+     * @param <K>    the type of the key
+     * @return the index
+     */
+    protected <K> Index<K> addIndex(Function<T, K> key, boolean unique)
+    {
+        Index<K> index = new Index<>(key, unique);
+        indexes.add(index);
+        return index;
+    }
+
+    @Override
+    public T findByID(int id)
+    {
+        T entity = entities.get(id);
+        return entity == null ? null : copy(entity);
+    }
+
+    @Override
+    public List<T> findAll()
+    {
+        return sortedCopies(entities.values());
+    }
+
+    @Override
+    public int count()
+    {
+        return entities.size();
+    }
+
+    @Override
+    public T insert(T entity)
+    {
+        synchronized (writeLock)
+        {
+            int id = getID(entity);
+            if (id == 0)
+                id = lastID + 1;
+            else if (entities.containsKey(id))
+                throw new IllegalStateException("An entity with ID " + id + " is already stored.");
+            checkUnique(entity, id);
+
+            try
+            {
+                setID(entity, id);
+            }
+            catch (InvalidIDException e)
+            {
+                throw new IllegalArgumentException("Invalid ID " + id + ": " + e.getMessage(), e);
+            }
+            lastID = Math.max(lastID, id);
+
+            store(copy(entity), null);
+            changedIDs.add(id);
+            //Reusing the ID of a removed entity overwrites it instead
+            removedIDs.remove(id);
+        }
+        return entity;
+    }
+
+    @Override
+    public boolean update(T entity)
+    {
+        synchronized (writeLock)
+        {
+            int id = getID(entity);
+            T old = entities.get(id);
+            if (old == null)
+                return false;
+            checkUnique(entity, id);
+
+            store(copy(entity), old);
+            changedIDs.add(id);
+            return true;
+        }
+    }
+
+    @Override
+    public boolean setDeleted(int id, boolean deleted)
+    {
+        synchronized (writeLock)
+        {
+            T old = entities.get(id);
+            if (old == null)
+                return false;
+
+            T updated = copy(old);
+            updated.setDeleted(deleted);
+            store(updated, old);
+            changedIDs.add(id);
+            return true;
+        }
+    }
+
+    @Override
+    public boolean delete(int id)
+    {
+        synchronized (writeLock)
+        {
+            T old = entities.remove(id);
+            if (old == null)
+                return false;
+
+            for (Index<?> index : indexes)
+                index.remove(old);
+            changedIDs.remove(id);
+            removedIDs.add(id);
+            return true;
+        }
+    }
+
+    /**
+     * Replaces everything in this repository with the entities of another, for instance to load the database into
+     * memory. Nothing loaded counts as changed.
+     *
+     * @param source the repository to copy
+     */
+    public void load(Repository<T> source)
+    {
+        List<T> loaded = source.findAll();
+        synchronized (writeLock)
+        {
+            clear();
+            for (T entity : loaded)
+            {
+                store(copy(entity), null);
+                lastID = Math.max(lastID, getID(entity));
+            }
+        }
+    }
+
+    /**
+     * Removes every entity, and forgets what has changed.
+     */
+    public void clear()
+    {
+        synchronized (writeLock)
+        {
+            entities.clear();
+            for (Index<?> index : indexes)
+                index.clear();
+            changedIDs.clear();
+            removedIDs.clear();
+            lastID = 0;
+        }
+    }
+
+    /**
+     * Writes the entities inserted or updated since the last time to another repository, keeping their IDs. Entities
+     * the target doesn't have are inserted, the rest updated.
+     * <p>
+     * Writes made while this runs are left for the next time.
+     *
+     * @param target the repository to write to
+     * @return the number of entities written
+     */
+    public int persistChanges(Repository<T> target)
+    {
+        List<T> changed = new ArrayList<>();
+        synchronized (writeLock)
+        {
+            for (int id : changedIDs)
+            {
+                T entity = entities.get(id);
+                if (entity != null)
+                    changed.add(copy(entity));
+            }
+            changedIDs.clear();
+        }
+
+        changed.sort(Comparator.comparingInt(this::getID));
+        for (T entity : changed)
+        {
+            if (!target.update(entity))
+                target.insert(entity);
+        }
+        return changed.size();
+    }
+
+    /**
+     * Removes the entities removed from this repository since the last time from another repository.
+     *
+     * @param target the repository to remove from
+     * @return the number of entities removed
+     */
+    public int persistRemovals(Repository<T> target)
+    {
+        List<Integer> removed;
+        synchronized (writeLock)
+        {
+            removed = new ArrayList<>(removedIDs);
+            removedIDs.clear();
+        }
+
+        Collections.sort(removed);
+        for (int id : removed)
+            target.delete(id);
+        return removed.size();
+    }
+
+    /**
+     * Puts an entity in the map and updates the indexes. Must be called holding the write lock.
+     *
+     * @param entity the entity to store, not handed out to anyone
+     * @param old    the entity it replaces, or null
+     */
+    private void store(T entity, T old)
+    {
+        entities.put(getID(entity), entity);
+        for (Index<?> index : indexes)
+            index.replace(old, entity);
+    }
+
+    private void checkUnique(T entity, int id)
+    {
+        for (Index<?> index : indexes)
+            index.checkUnique(entity, id);
+    }
+
+    private List<T> sortedCopies(Collection<T> stored)
+    {
+        List<T> copies = new ArrayList<>(stored.size());
+        for (T entity : stored)
+            copies.add(copy(entity));
+        copies.sort(Comparator.comparingInt(this::getID));
+        return copies;
+    }
+
+    /**
+     * A secondary index, mapping a key to the IDs of the entities with that key.
+     *
+     * @param <K> the type of the key
+     */
+    protected final class Index<K>
+    {
+        private final Function<T, K> key;
+        private final boolean unique;
+        private final Map<K, Set<Integer>> ids = new ConcurrentHashMap<>();
+
+        private Index(Function<T, K> key, boolean unique)
+        {
+            this.key = key;
+            this.unique = unique;
+        }
+
+        /**
+         * Retrieves the entities with a key.
+         *
+         * @param value the key
+         * @return copies of the entities, ordered by ID
+         */
+        public List<T> find(K value)
+        {
+            if (value == null)
+                return new ArrayList<>();
+            Set<Integer> matches = ids.get(value);
+            if (matches == null)
+                return new ArrayList<>();
+
+            List<T> found = new ArrayList<>();
+            for (int id : matches)
+            {
+                //A write can be half done, so check that the entity still has the key
+                T entity = entities.get(id);
+                if (entity != null && value.equals(key.apply(entity)))
+                    found.add(entity);
+            }
+            return sortedCopies(found);
+        }
+
+        /**
+         * Retrieves the entity with the lowest ID among those with a key.
+         *
+         * @param value the key
+         * @return a copy of the entity, or null if none has the key
+         */
+        public T findFirst(K value)
+        {
+            List<T> found = find(value);
+            return found.isEmpty() ? null : found.get(0);
+        }
+
+        //Adds the new key before removing the old one, so that readers never miss an entity whose key is unchanged
+        private void replace(T old, T entity)
+        {
+            K value = key.apply(entity);
+            if (old != null && Objects.equals(value, key.apply(old)))
+                return;
+            if (value != null)
+                ids.computeIfAbsent(value, k -> ConcurrentHashMap.newKeySet()).add(getID(entity));
+            if (old != null)
+                remove(old);
+        }
+
+        private void remove(T entity)
+        {
+            K value = key.apply(entity);
+            if (value == null)
+                return;
+            ids.computeIfPresent(value, (k, set) ->
+            {
+                set.remove(getID(entity));
+                return set.isEmpty() ? null : set;
+            });
+        }
+
+        private void checkUnique(T entity, int id)
+        {
+            if (!unique)
+                return;
+            K value = key.apply(entity);
+            Set<Integer> matches = value == null ? null : ids.get(value);
+            if (matches == null)
+                return;
+            for (int other : matches)
+            {
+                if (other != id)
+                    throw new IllegalStateException("Duplicate key " + value + ", already stored for ID " + other);
+            }
+        }
+
+        private void clear()
+        {
+            ids.clear();
+        }
+    }
+}
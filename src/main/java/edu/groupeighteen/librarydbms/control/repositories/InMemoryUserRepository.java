@@ -0,0 +1,50 @@
+package edu.groupeighteen.librarydbms.control.repositories;
+
+import edu.groupeighteen.librarydbms.model.entities.User;
+import edu.groupeighteen.librarydbms.model.exceptions.InvalidIDException;
+
+/**
+ * @author Mattias Fridsén
+ * @project LibraryDBMS
+ * @package edu.groupeighteen.librarydbms.control.repositories
+ * @contact matfir-1@student.ltu.se
+ * @date 10/17/2026
+ * <p>
+ * Keeps Users in memory, indexed by their unique usernames and emails.
+ */
+public class InMemoryUserRepository extends InMemoryRepository<User> implements UserRepository
+{
+    private final Index<String> byUsername = addIndex(User::getUsername, true);
+    private final Index<String> byEmail = addIndex(User::getEmail, true);
+
+    @Override
+    public User findByUsername(String username)
+    {
+        return byUsername.findFirst(username);
+    }
+
+    @Override
+    public User findByEmail(String email)
+    {
+        return byEmail.findFirst(email);
+    }
+
+    @Override
+    protected User copy(User user)
+    {
+        return new User(user);
+    }
+
+    @Override
+    protected int getID(User user)
+    {
+        return user.getUserID();
+    }
+
+    @Override
+    protected void setID(User user, int id)
+    throws InvalidIDException
+    {
+        user.setUserID(id);
+    }
+}
@@ -0,0 +1,58 @@
+package edu.groupeighteen.librarydbms.control.repositories;
+
+import edu.groupeighteen.librarydbms.model.entities.Item;
+
+import java.util.List;
+
+/**
+ * @author Mattias Fridsén
+ * @project LibraryDBMS
+ * @package edu.groupeighteen.librarydbms.control.repositories
+ * @contact matfir-1@student.ltu.se
+ * @date 10/17/2026
+ * <p>
+ * Stores Items, as the Film or Literature they are. Barcodes are unique. Retrieved items have their author and
+ * classification names set.
+ */
+public interface ItemRepository extends Repository<Item>
+{
+    /**
+     * Retrieves an item by its barcode.
+     *
+     * @param barcode the barcode of the item
+     * @return the item, or null if there is none with that barcode
+     */
+    Item findByBarcode(String barcode);
+
+    /**
+     * Retrieves the items with the given title.
+     *
+     * @param title the title
+     * @return the items, ordered by ID
+     */
+    List<Item> findByTitle(String title);
+
+    /**
+     * Retrieves the literature with the given ISBN.
+     *
+     * @param ISBN the ISBN
+     * @return the items, ordered by ID
+     */
+    List<Item> findByISBN(String ISBN);
+
+    /**
+     * Retrieves the items by an author.
+     *
+     * @param authorID the ID of the author
+     * @return the items, ordered by ID
+     */
+    List<Item> findByAuthorID(int authorID);
+
+    /**
+     * Retrieves the items in a classification.
+     *
+     * @param classificationID the ID of the classification
+     * @return the items, ordered by ID
+     */
+    List<Item> findByClassificationID(int classificationID);
+}
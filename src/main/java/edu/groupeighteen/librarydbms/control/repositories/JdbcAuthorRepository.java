@@ -0,0 +1,101 @@
+package edu.groupeighteen.librarydbms.control.repositories;
+
+import edu.groupeighteen.librarydbms.model.db.SQLParameter;
+import edu.groupeighteen.librarydbms.model.entities.Author;
+import edu.groupeighteen.librarydbms.model.exceptions.ConstructionException;
+import edu.groupeighteen.librarydbms.model.exceptions.InvalidIDException;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * @author Mattias Fridsén
+ * @project LibraryDBMS
+ * @package edu.groupeighteen.librarydbms.control.repositories
+ * @contact matfir-1@student.ltu.se
+ * @date 10/17/2026
+ * <p>
+ * Stores Authors in the authors table.
+ */
+public class JdbcAuthorRepository extends JdbcRepository<Author> implements AuthorRepository
+{
+    private static final String[] COLUMNS = {"authorFirstname", "authorLastname", "biography", "deleted"};
+
+    public JdbcAuthorRepository()
+    {
+        super("authors", "authorID",
+                "SELECT authorID, authorFirstname, authorLastname, biography, deleted FROM authors");
+    }
+
+    @Override
+    public List<Author> findByName(String authorFirstname, String authorLastname)
+    {
+        List<String> conditions = new ArrayList<>();
+        List<SQLParameter> params = new ArrayList<>();
+        if (authorFirstname != null && !authorFirstname.isEmpty())
+        {
+            //The collation of the column ignores case, and unlike LOWER() lets the index be used
+            conditions.add("authorFirstname = ?");
+            params.add(SQLParameter.of(authorFirstname));
+        }
+        if (authorLastname != null && !authorLastname.isEmpty())
+        {
+            conditions.add("authorLastname = ?");
+            params.add(SQLParameter.of(authorLastname));
+        }
+        if (conditions.isEmpty())
+            return new ArrayList<>();
+
+        return find("WHERE " + String.join(" AND ", conditions), params.toArray(new SQLParameter[0]));
+    }
+
+    @Override
+    public Author insert(Author author)
+    {
+        insertRow(author, COLUMNS, parameters(author));
+        return author;
+    }
+
+    @Override
+    public boolean update(Author author)
+    {
+        return updateRow(author, COLUMNS, parameters(author));
+    }
+
+    @Override
+    protected Author construct(ResultSet resultSet)
+    throws SQLException, ConstructionException
+    {
+        return new Author(
+                resultSet.getInt("authorID"),
+                resultSet.getString("authorFirstname"),
+                resultSet.getString("authorLastname"),
+                resultSet.getString("biography"),
+                resultSet.getBoolean("deleted"));
+    }
+
+    @Override
+    protected int getID(Author author)
+    {
+        return author.getAuthorID();
+    }
+
+    @Override
+    protected void setID(Author author, int id)
+    throws InvalidIDException
+    {
+        author.setAuthorID(id);
+    }
+
+    private static SQLParameter[] parameters(Author author)
+    {
+        return new SQLParameter[]{
+                SQLParameter.of(author.getAuthorFirstname()),
+                SQLParameter.of(author.getAuthorLastName()),
+                SQLParameter.of(author.getBiography()),
+                SQLParameter.of(author.isDeleted())
+        };
+    }
+}
@@ -0,0 +1,84 @@
+package edu.groupeighteen.librarydbms.control.repositories;
+
+import edu.groupeighteen.librarydbms.model.db.SQLParameter;
+import edu.groupeighteen.librarydbms.model.entities.Classification;
+import edu.groupeighteen.librarydbms.model.exceptions.ConstructionException;
+import edu.groupeighteen.librarydbms.model.exceptions.InvalidIDException;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.List;
+
+/**
+ * @author Mattias Fridsén
+ * @project LibraryDBMS
+ * @package edu.groupeighteen.librarydbms.control.repositories
+ * @contact matfir-1@student.ltu.se
+ * @date 10/17/2026
+ * <p>
+ * Stores Classifications in the classifications table.
+ */
+public class JdbcClassificationRepository extends JdbcRepository<Classification> implements ClassificationRepository
+{
+    private static final String[] COLUMNS = {"classificationName", "description", "deleted"};
+
+    public JdbcClassificationRepository()
+    {
+        super("classifications", "classificationID",
+                "SELECT classificationID, classificationName, description, deleted FROM classifications");
+    }
+
+    @Override
+    public Classification findByName(String classificationName)
+    {
+        List<Classification> classifications = find("WHERE classificationName = ?",
+                SQLParameter.of(classificationName));
+        return classifications.isEmpty() ? null : classifications.get(0);
+    }
+
+    @Override
+    public Classification insert(Classification classification)
+    {
+        insertRow(classification, COLUMNS, parameters(classification));
+        return classification;
+    }
+
+    @Override
+    public boolean update(Classification classification)
+    {
+        return updateRow(classification, COLUMNS, parameters(classification));
+    }
+
+    @Override
+    protected Classification construct(ResultSet resultSet)
+    throws SQLException, ConstructionException
+    {
+        return new Classification(
+                resultSet.getInt("classificationID"),
+                resultSet.getString("classificationName"),
+                resultSet.getString("description"),
+                resultSet.getBoolean("deleted"));
+    }
+
+    @Override
+    protected int getID(Classification classification)
+    {
+        return classification.getClassificationID();
+    }
+
+    @Override
+    protected void setID(Classification classification, int id)
+    throws InvalidIDException
+    {
+        classification.setClassificationID(id);
+    }
+
+    private static SQLParameter[] parameters(Classification classification)
+    {
+        return new SQLParameter[]{
+                SQLParameter.of(classification.getClassificationName()),
+                SQLParameter.of(classification.getDescription()),
+                SQLParameter.of(classification.isDeleted())
+        };
+    }
+}
@@ -0,0 +1,279 @@
+package edu.groupeighteen.librarydbms.control.repositories;
+
+import edu.groupeighteen.librarydbms.control.db.DatabaseHandler;
+import edu.groupeighteen.librarydbms.control.exceptions.ExceptionHandler;
+import edu.groupeighteen.librarydbms.model.db.QueryResult;
+import edu.groupeighteen.librarydbms.model.db.SQLParameter;
+import edu.groupeighteen.librarydbms.model.db.Transaction;
+import edu.groupeighteen.librarydbms.model.entities.Film;
+import edu.groupeighteen.librarydbms.model.entities.Item;
+import edu.groupeighteen.librarydbms.model.entities.Literature;
+import edu.groupeighteen.librarydbms.model.exceptions.ConstructionException;
+import edu.groupeighteen.librarydbms.model.exceptions.InvalidIDException;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.List;
+
+/**
+ * @author Mattias Fridsén
+ * @project LibraryDBMS
+ * @package edu.groupeighteen.librarydbms.control.repositories
+ * @contact matfir-1@student.ltu.se
+ * @date 10/17/2026
+ * <p>
+ * Stores Items in the items table, and the Film or Literature specific columns in the films or literature table.
+ * Both rows are written in one transaction. The author and classification names are joined in by the same query that
+ * reads the items.
+ * <p>
+ * An item can't change between Film and Literature once inserted.
+ * <p>
+ * available belongs to the triggers on rentals, which set it as copies are rented and returned, so it is only written
+ * when an item is inserted. An updated item is given the value in its row instead.
+ */
+public class JdbcItemRepository extends JdbcRepository<Item> implements ItemRepository
+{
+    private static final String[] COLUMNS = {"title", "itemType", "barcode", "authorID", "classificationID",
+            "allowedRentalDays", "available", "deleted"};
+    //available is left to the triggers
+    private static final String[] UPDATE_COLUMNS = {"title", "itemType", "barcode", "authorID", "classificationID",
+            "allowedRentalDays", "deleted"};
+
+    public JdbcItemRepository()
+    {
+        super("items", "itemID", "SELECT items.*, films.ageRating, films.countryOfProduction, films.actors, " +
+                "literature.ISBN, authors.authorFirstname, authors.authorLastname, " +
+                "classifications.classificationName " +
+                "FROM items " +
+                "LEFT JOIN films ON items.itemID = films.filmID " +
+                "LEFT JOIN literature ON items.itemID = literature.literatureID " +
+                "LEFT JOIN authors ON items.authorID = authors.authorID " +
+                "LEFT JOIN classifications ON items.classificationID = classifications.classificationID");
+    }
+
+    @Override
+    public Item findByBarcode(String barcode)
+    {
+        List<Item> items = find("WHERE items.barcode = ?", SQLParameter.of(barcode));
+        return items.isEmpty() ? null : items.get(0);
+    }
+
+    @Override
+    public List<Item> findByTitle(String title)
+    {
+        return find("WHERE items.title = ?", SQLParameter.of(title));
+    }
+
+    @Override
+    public List<Item> findByISBN(String ISBN)
+    {
+        return find("WHERE literature.ISBN = ?", SQLParameter.of(ISBN));
+    }
+
+    @Override
+    public List<Item> findByAuthorID(int authorID)
+    {
+        return find("WHERE items.authorID = ?", SQLParameter.of(authorID));
+    }
+
+    @Override
+    public List<Item> findByClassificationID(int classificationID)
+    {
+        return find("WHERE items.classificationID = ?", SQLParameter.of(classificationID));
+    }
+
+    @Override
+    public Item insert(Item item)
+    {
+        try (Transaction transaction = DatabaseHandler.beginTransaction())
+        {
+            int itemID = insertRow(item, COLUMNS, parameters(item));
+            if (item instanceof Film)
+                DatabaseHandler.executePreparedUpdate(
+                        "INSERT INTO films (filmID, ageRating, countryOfProduction, actors) VALUES (?, ?, ?, ?)",
+                        withID(filmParameters((Film) item), itemID));
+            else
+                DatabaseHandler.executePreparedUpdate("INSERT INTO literature (literatureID, ISBN) VALUES (?, ?)",
+                        withID(literatureParameters((Literature) item), itemID));
+            transaction.commit();
+        }
+        catch (SQLException e)
+        {
+            ExceptionHandler.HandleFatalException("Failed to insert Item due to " +
+                    e.getClass().getName() + ": " + e.getMessage(), e);
+        }
+        return item;
+    }
+
+    @Override
+    public boolean update(Item item)
+    {
+        try (Transaction transaction = DatabaseHandler.beginTransaction())
+        {
+            if (!updateRow(item, UPDATE_COLUMNS, updateParameters(item)))
+                return false;
+            if (item instanceof Film)
+                DatabaseHandler.executePreparedUpdate(
+                        "UPDATE films SET ageRating = ?, countryOfProduction = ?, actors = ? WHERE filmID = ?",
+                        append(filmParameters((Film) item), item.getItemID()));
+            else
+                DatabaseHandler.executePreparedUpdate("UPDATE literature SET ISBN = ? WHERE literatureID = ?",
+                        append(literatureParameters((Literature) item), item.getItemID()));
+            item.setAvailable(isAvailable(item.getItemID()));
+            transaction.commit();
+            return true;
+        }
+        catch (SQLException e)
+        {
+            ExceptionHandler.HandleFatalException("Failed to update Item due to " +
+                    e.getClass().getName() + ": " + e.getMessage(), e);
+        }
+
+        //Won't reach, needed for compilation
+        return false;
+    }
+
+    @Override
+    public boolean delete(int id)
+    {
+        try (Transaction transaction = DatabaseHandler.beginTransaction())
+        {
+            SQLParameter[] params = {SQLParameter.of(id)};
+            DatabaseHandler.executePreparedUpdate("DELETE FROM films WHERE filmID = ?", params);
+            DatabaseHandler.executePreparedUpdate("DELETE FROM literature WHERE literatureID = ?", params);
+            boolean deleted = super.delete(id);
+            transaction.commit();
+            return deleted;
+        }
+        catch (SQLException e)
+        {
+            ExceptionHandler.HandleFatalException("Failed to delete Item due to " +
+                    e.getClass().getName() + ": " + e.getMessage(), e);
+        }
+
+        //Won't reach, needed for compilation
+        return false;
+    }
+
+    @Override
+    protected Item construct(ResultSet resultSet)
+    throws SQLException, ConstructionException
+    {
+        Item.ItemType type = Item.ItemType.valueOf(resultSet.getString("itemType"));
+        if (type == Item.ItemType.FILM)
+            return new Film(
+                    resultSet.getBoolean("deleted"),
+                    resultSet.getInt("itemID"),
+                    resultSet.getString("title"),
+                    type,
+                    resultSet.getString("barcode"),
+                    resultSet.getInt("authorID"),
+                    resultSet.getInt("classificationID"),
+                    resultSet.getString("authorFirstname"),
+                    resultSet.getString("authorLastname"),
+                    resultSet.getString("classificationName"),
+                    resultSet.getInt("allowedRentalDays"),
+                    resultSet.getBoolean("available"),
+                    resultSet.getInt("ageRating"),
+                    resultSet.getString("countryOfProduction"),
+                    resultSet.getString("actors"));
+
+        return new Literature(
+                resultSet.getBoolean("deleted"),
+                resultSet.getInt("itemID"),
+                resultSet.getString("title"),
+                type,
+                resultSet.getString("barcode"),
+                resultSet.getInt("authorID"),
+                resultSet.getInt("classificationID"),
+                resultSet.getString("authorFirstname"),
+                resultSet.getString("authorLastname"),
+                resultSet.getString("classificationName"),
+                resultSet.getInt("allowedRentalDays"),
+                resultSet.getBoolean("available"),
+                resultSet.getString("ISBN"));
+    }
+
+    @Override
+    protected int getID(Item item)
+    {
+        return item.getItemID();
+    }
+
+    @Override
+    protected void setID(Item item, int id)
+    throws InvalidIDException
+    {
+        item.setItemID(id);
+    }
+
+    private static SQLParameter[] parameters(Item item)
+    {
+        return new SQLParameter[]{
+                SQLParameter.of(item.getTitle()),
+                SQLParameter.of(item.getType().toString()),
+                SQLParameter.of(item.getBarcode()),
+                SQLParameter.of(item.getAuthorID()),
+                SQLParameter.of(item.getClassificationID()),
+                SQLParameter.of(item.getAllowedRentalDays()),
+                SQLParameter.of(item.isAvailable()),
+                SQLParameter.of(item.isDeleted())
+        };
+    }
+
+    private static SQLParameter[] updateParameters(Item item)
+    {
+        return new SQLParameter[]{
+                SQLParameter.of(item.getTitle()),
+                SQLParameter.of(item.getType().toString()),
+                SQLParameter.of(item.getBarcode()),
+                SQLParameter.of(item.getAuthorID()),
+                SQLParameter.of(item.getClassificationID()),
+                SQLParameter.of(item.getAllowedRentalDays()),
+                SQLParameter.of(item.isDeleted())
+        };
+    }
+
+    //Reads the availability the triggers on rentals have set
+    private static boolean isAvailable(int itemID)
+    throws SQLException
+    {
+        try (QueryResult result = DatabaseHandler.executePreparedQuery("SELECT available FROM items WHERE itemID = ?",
+                new SQLParameter[]{SQLParameter.of(itemID)}))
+        {
+            ResultSet resultSet = result.getResultSet();
+            return resultSet.next() && resultSet.getBoolean(1);
+        }
+    }
+
+    private static SQLParameter[] literatureParameters(Literature literature)
+    {
+        return new SQLParameter[]{SQLParameter.of(literature.getISBN())};
+    }
+
+    private static SQLParameter[] filmParameters(Film film)
+    {
+        return new SQLParameter[]{
+                SQLParameter.of(film.getAgeRating()),
+                SQLParameter.of(film.getCountryOfProduction()),
+                SQLParameter.of(film.getListOfActors())
+        };
+    }
+
+    //The child tables take the ID first when inserting, and last when updating
+    private static SQLParameter[] withID(SQLParameter[] params, int itemID)
+    {
+        SQLParameter[] parameters = new SQLParameter[params.length + 1];
+        parameters[0] = SQLParameter.of(itemID);
+        System.arraycopy(params, 0, parameters, 1, params.length);
+        return parameters;
+    }
+
+    private static SQLParameter[] append(SQLParameter[] params, int itemID)
+    {
+        SQLParameter[] parameters = new SQLParameter[params.length + 1];
+        System.arraycopy(params, 0, parameters, 0, params.length);
+        parameters[params.length] = SQLParameter.of(itemID);
+        return parameters;
+    }
+}
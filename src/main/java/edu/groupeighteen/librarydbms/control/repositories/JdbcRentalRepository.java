@@ -0,0 +1,115 @@
+package edu.groupeighteen.librarydbms.control.repositories;
+
+import edu.groupeighteen.librarydbms.model.db.SQLParameter;
+import edu.groupeighteen.librarydbms.model.entities.Rental;
+import edu.groupeighteen.librarydbms.model.exceptions.ConstructionException;
+import edu.groupeighteen.librarydbms.model.exceptions.InvalidIDException;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * @author Mattias Fridsén
+ * @project LibraryDBMS
+ * @package edu.groupeighteen.librarydbms.control.repositories
+ * @contact matfir-1@student.ltu.se
+ * @date 10/17/2026
+ * <p>
+ * Stores Rentals in the rentals table. The username, item title and item type are joined in by the same query
+ * that reads the rentals.
+ */
+public class JdbcRentalRepository extends JdbcRepository<Rental> implements RentalRepository
+{
+    private static final String[] COLUMNS = {"userID", "itemID", "rentalDate", "rentalDueDate", "rentalReturnDate",
+            "lateFee", "receipt", "deleted"};
+
+    //Also the query RentalHandler searches rentals with
+    public static final String SELECT = "SELECT rentals.*, users.username, items.title AS itemTitle, " +
+            "items.itemType FROM rentals " +
+            "INNER JOIN users ON rentals.userID = users.userID " +
+            "INNER JOIN items ON rentals.itemID = items.itemID";
+
+    public JdbcRentalRepository()
+    {
+        super("rentals", "rentalID", SELECT);
+    }
+
+    @Override
+    public List<Rental> findByUserID(int userID)
+    {
+        return find("WHERE rentals.userID = ?", SQLParameter.of(userID));
+    }
+
+    @Override
+    public List<Rental> findByItemID(int itemID)
+    {
+        return find("WHERE rentals.itemID = ?", SQLParameter.of(itemID));
+    }
+
+    @Override
+    public List<Rental> findOverdue(LocalDateTime now)
+    {
+        return find("WHERE rentals.rentalDueDate < ? AND rentals.rentalReturnDate IS NULL", SQLParameter.of(now));
+    }
+
+    @Override
+    public Rental insert(Rental rental)
+    {
+        insertRow(rental, COLUMNS, parameters(rental));
+        return rental;
+    }
+
+    @Override
+    public boolean update(Rental rental)
+    {
+        return updateRow(rental, COLUMNS, parameters(rental));
+    }
+
+    @Override
+    protected Rental construct(ResultSet resultSet)
+    throws SQLException, ConstructionException
+    {
+        return new Rental(
+                resultSet.getInt("rentalID"),
+                resultSet.getInt("userID"),
+                resultSet.getInt("itemID"),
+                getLocalDateTime(resultSet, "rentalDate"),
+                getLocalDateTime(resultSet, "rentalDueDate"),
+                resultSet.getString("username"),
+                resultSet.getString("itemTitle"),
+                resultSet.getString("itemType"),
+                getLocalDateTime(resultSet, "rentalReturnDate"),
+                resultSet.getDouble("lateFee"),
+                resultSet.getString("receipt"),
+                resultSet.getBoolean("deleted"));
+    }
+
+    @Override
+    protected int getID(Rental rental)
+    {
+        return rental.getRentalID();
+    }
+
+    @Override
+    protected void setID(Rental rental, int id)
+    throws InvalidIDException
+    {
+        rental.setRentalID(id);
+    }
+
+    private static SQLParameter[] parameters(Rental rental)
+    {
+        return new SQLParameter[]{
+                SQLParameter.of(rental.getUserID()),
+                SQLParameter.of(rental.getItemID()),
+                SQLParameter.of(rental.getRentalDate()),
+                SQLParameter.of(rental.getRentalDueDate()),
+                SQLParameter.of(rental.getRentalReturnDate()),
+                SQLParameter.of(rental.getLateFee()),
+                SQLParameter.of(rental.getReceipt()),
+                SQLParameter.of(rental.isDeleted())
+        };
+    }
+}
@@ -0,0 +1,243 @@
+package edu.groupeighteen.librarydbms.control.repositories;
+
+import edu.groupeighteen.librarydbms.control.db.DatabaseHandler;
+import edu.groupeighteen.librarydbms.control.db.EntityCache;
+import edu.groupeighteen.librarydbms.control.exceptions.ExceptionHandler;
+import edu.groupeighteen.librarydbms.model.db.QueryResult;
+import edu.groupeighteen.librarydbms.model.db.SQLParameter;
+import edu.groupeighteen.librarydbms.model.entities.Entity;
+import edu.groupeighteen.librarydbms.model.exceptions.ConstructionException;
+import edu.groupeighteen.librarydbms.model.exceptions.InvalidIDException;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * @author Mattias Fridsén
+ * @project LibraryDBMS
+ * @package edu.groupeighteen.librarydbms.control.repositories
+ * @contact matfir-1@student.ltu.se
+ * @date 10/17/2026
+ * <p>
+ * The shared parts of the JDBC repositories, which store their entities in one table each through the
+ * DatabaseHandler. SQLExceptions are fatal, like in the handlers.
+ * <p>
+ * The handlers store and retrieve entities by ID through these repositories, and invalidate their own
+ * {@link EntityCache}s afterwards. Writing through a repository directly leaves the caches as they are.
+ *
+ * @param <T> the type of entity stored
+ */
+public abstract class JdbcRepository<T extends Entity> implements Repository<T>
+{
+    private final String table;
+    private final String idColumn;
+    private final String select;
+
+    /**
+     * @param table    the table the entities are stored in
+     * @param idColumn the ID column of the table
+     * @param select   the query selecting the columns construct reads, without WHERE
+     */
+    protected JdbcRepository(String table, String idColumn, String select)
+    {
+        this.table = table;
+        this.idColumn = idColumn;
+        this.select = select;
+    }
+
+    /**
+     * Constructs an entity from the current row of a query made with the select of this repository.
+     *
+     * @param resultSet the ResultSet, positioned on the row
+     * @return the entity
+     * @throws SQLException          if a column couldn't be read
+     * @throws ConstructionException if the row doesn't make a valid entity
+     */
+    protected abstract T construct(ResultSet resultSet)
+    throws SQLException, ConstructionException;
+
+    protected abstract int getID(T entity);
+
+    protected abstract void setID(T entity, int id)
+    throws InvalidIDException;
+
+    @Override
+    public T findByID(int id)
+    {
+        List<T> entities = find("WHERE " + table + "." + idColumn + " = ?", SQLParameter.of(id));
+        return entities.isEmpty() ? null : entities.get(0);
+    }
+
+    @Override
+    public List<T> findAll()
+    {
+        return find(null);
+    }
+
+    @Override
+    public int count()
+    {
+        try (QueryResult queryResult = DatabaseHandler.executeQuery("SELECT COUNT(*) FROM " + table))
+        {
+            ResultSet resultSet = queryResult.getResultSet();
+            if (resultSet.next())
+                return resultSet.getInt(1);
+        }
+        catch (SQLException e)
+        {
+            ExceptionHandler.HandleFatalException("Failed to count " + table + " due to " +
+                    e.getClass().getName() + ": " + e.getMessage(), e);
+        }
+
+        //Won't reach, needed for compilation
+        return 0;
+    }
+
+    @Override
+    public boolean setDeleted(int id, boolean deleted)
+    {
+        return DatabaseHandler.executePreparedUpdate("UPDATE " + table + " SET deleted = ? WHERE " + idColumn +
+                " = ?", new SQLParameter[]{SQLParameter.of(deleted), SQLParameter.of(id)}) > 0;
+    }
+
+    @Override
+    public boolean delete(int id)
+    {
+        return DatabaseHandler.executePreparedUpdate("DELETE FROM " + table + " WHERE " + idColumn + " = ?",
+                new SQLParameter[]{SQLParameter.of(id)}) > 0;
+    }
+
+    /**
+     * Retrieves the entities matching a suffix, ordered by ID.
+     *
+     * @param sqlSuffix the suffix to append to the select, without ORDER BY, can be null
+     * @param params    the parameters of the suffix
+     * @return the entities
+     */
+    protected List<T> find(String sqlSuffix, SQLParameter... params)
+    {
+        List<T> entities = new ArrayList<>();
+        String query = select + (sqlSuffix == null ? "" : " " + sqlSuffix) + " ORDER BY " + table + "." + idColumn;
+
+        try (QueryResult queryResult = DatabaseHandler.executePreparedQuery(query, params))
+        {
+            ResultSet resultSet = queryResult.getResultSet();
+            while (resultSet.next())
+                entities.add(construct(resultSet));
+        }
+        catch (SQLException | ConstructionException e)
+        {
+            ExceptionHandler.HandleFatalException("Failed to retrieve " + table + " due to " +
+                    e.getClass().getName() + ": " + e.getMessage(), e);
+        }
+
+        return entities;
+    }
+
+    /**
+     * Inserts a row for an entity. The ID column is included if the entity has an ID, otherwise the generated one is
+     * set on the entity.
+     *
+     * @param entity  the entity to insert
+     * @param columns the columns to insert, ID column excluded
+     * @param params  the values of the columns
+     * @return the ID of the entity
+     */
+    protected int insertRow(T entity, String[] columns, SQLParameter[] params)
+    {
+        boolean generateID = getID(entity) == 0;
+        List<String> insertColumns = new ArrayList<>();
+        List<SQLParameter> insertParams = new ArrayList<>();
+        if (!generateID)
+        {
+            insertColumns.add(idColumn);
+            insertParams.add(SQLParameter.of(getID(entity)));
+        }
+        Collections.addAll(insertColumns, columns);
+        Collections.addAll(insertParams, params);
+
+        String command = "INSERT INTO " + table + " (" + String.join(", ", insertColumns) + ") VALUES (" +
+                String.join(", ", Collections.nCopies(insertColumns.size(), "?")) + ")";
+        SQLParameter[] parameters = insertParams.toArray(new SQLParameter[0]);
+
+        try
+        {
+            if (!generateID)
+            {
+                DatabaseHandler.executePreparedUpdate(command, parameters);
+                return getID(entity);
+            }
+
+            try (QueryResult queryResult = DatabaseHandler.executePreparedQuery(command, parameters,
+                    Statement.RETURN_GENERATED_KEYS))
+            {
+                ResultSet generatedKeys = queryResult.getStatement().getGeneratedKeys();
+                if (generatedKeys.next())
+                {
+                    setID(entity, generatedKeys.getInt(1));
+                    return getID(entity);
+                }
+            }
+        }
+        catch (SQLException | InvalidIDException e)
+        {
+            ExceptionHandler.HandleFatalException("Failed to insert into " + table + " due to " +
+                    e.getClass().getName() + ": " + e.getMessage(), e);
+        }
+
+        //Won't reach, needed for compilation
+        return 0;
+    }
+
+    /**
+     * Updates the row of an entity.
+     *
+     * @param entity  the entity to update
+     * @param columns the columns to set, ID column excluded
+     * @param params  the values of the columns
+     * @return true if the row existed
+     */
+    protected boolean updateRow(T entity, String[] columns, SQLParameter[] params)
+    {
+        return updateRow(entity, String.join(" = ?, ", columns) + " = ?", params);
+    }
+
+    /**
+     * Updates the row of an entity with a SET clause of its own, for columns that aren't simply assigned a value.
+     *
+     * @param entity      the entity to update
+     * @param assignments the assignments of the SET clause, without SET
+     * @param params      the parameters of the assignments
+     * @return true if the row existed
+     */
+    protected boolean updateRow(T entity, String assignments, SQLParameter[] params)
+    {
+        SQLParameter[] parameters = new SQLParameter[params.length + 1];
+        System.arraycopy(params, 0, parameters, 0, params.length);
+        parameters[params.length] = SQLParameter.of(getID(entity));
+
+        String command = "UPDATE " + table + " SET " + assignments + " WHERE " + idColumn + " = ?";
+        return DatabaseHandler.executePreparedUpdate(command, parameters) > 0;
+    }
+
+    /**
+     * Reads a nullable DATETIME column.
+     *
+     * @param resultSet  the ResultSet, positioned on a row
+     * @param columnName the column
+     * @return the date and time, or null
+     * @throws SQLException if the column couldn't be read
+     */
+    protected static LocalDateTime getLocalDateTime(ResultSet resultSet, String columnName)
+    throws SQLException
+    {
+        Timestamp timestamp = resultSet.getTimestamp(columnName);
+        return timestamp == null ? null : timestamp.toLocalDateTime();
+    }
+}
@@ -0,0 +1,130 @@
+package edu.groupeighteen.librarydbms.control.repositories;
+
+import edu.groupeighteen.librarydbms.control.db.DatabaseHandler;
+import edu.groupeighteen.librarydbms.model.db.SQLParameter;
+import edu.groupeighteen.librarydbms.model.entities.User;
+import edu.groupeighteen.librarydbms.model.exceptions.ConstructionException;
+import edu.groupeighteen.librarydbms.model.exceptions.InvalidIDException;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.List;
+
+/**
+ * @author Mattias Fridsén
+ * @project LibraryDBMS
+ * @package edu.groupeighteen.librarydbms.control.repositories
+ * @contact matfir-1@student.ltu.se
+ * @date 10/17/2026
+ * <p>
+ * Stores Users in the users table.
+ * <p>
+ * currentRentals belongs to the triggers on rentals, which count the rentals as they are stored, so it is never
+ * written from a User. New users start out with none, and allowedToRent is always worked out from the count in the
+ * row. This way a user and its rentals can be stored in either order, as {@link Repositories#persist()} does, without
+ * the rentals being counted twice.
+ */
+public class JdbcUserRepository extends JdbcRepository<User> implements UserRepository
+{
+    private static final String[] COLUMNS = {"username", "password", "userType", "email", "allowedRentals",
+            "currentRentals", "lateFee", "allowedToRent", "deleted"};
+    //currentRentals and allowedToRent are left to the triggers
+    private static final String ASSIGNMENTS = "username = ?, password = ?, userType = ?, email = ?, " +
+            "allowedRentals = ?, lateFee = ?, deleted = ?, allowedToRent = (? AND currentRentals < ? AND ? = 0)";
+    private static final String SET_DELETED = "UPDATE users SET deleted = ?, " +
+            "allowedToRent = (? AND currentRentals < allowedRentals AND lateFee = 0) WHERE userID = ?";
+
+    public JdbcUserRepository()
+    {
+        super("users", "userID", "SELECT * FROM users");
+    }
+
+    @Override
+    public User findByUsername(String username)
+    {
+        List<User> users = find("WHERE username = ?", SQLParameter.of(username));
+        return users.isEmpty() ? null : users.get(0);
+    }
+
+    @Override
+    public User findByEmail(String email)
+    {
+        List<User> users = find("WHERE email = ?", SQLParameter.of(email));
+        return users.isEmpty() ? null : users.get(0);
+    }
+
+    @Override
+    public User insert(User user)
+    {
+        //The user's rentals, if any, are counted as they are inserted
+        SQLParameter[] params = {
+                SQLParameter.of(user.getUsername()),
+                SQLParameter.of(user.getPassword()),
+                SQLParameter.of(user.getUserType().toString()),
+                SQLParameter.of(user.getEmail()),
+                SQLParameter.of(user.getAllowedRentals()),
+                SQLParameter.of(0),
+                SQLParameter.of(user.getLateFee()),
+                SQLParameter.of(!user.isDeleted() && user.getAllowedRentals() > 0 && user.getLateFee() == 0),
+                SQLParameter.of(user.isDeleted())
+        };
+        insertRow(user, COLUMNS, params);
+        return user;
+    }
+
+    @Override
+    public boolean update(User user)
+    {
+        SQLParameter[] params = {
+                SQLParameter.of(user.getUsername()),
+                SQLParameter.of(user.getPassword()),
+                SQLParameter.of(user.getUserType().toString()),
+                SQLParameter.of(user.getEmail()),
+                SQLParameter.of(user.getAllowedRentals()),
+                SQLParameter.of(user.getLateFee()),
+                SQLParameter.of(user.isDeleted()),
+                SQLParameter.of(!user.isDeleted()),
+                SQLParameter.of(user.getAllowedRentals()),
+                SQLParameter.of(user.getLateFee())
+        };
+        return updateRow(user, ASSIGNMENTS, params);
+    }
+
+    @Override
+    public boolean setDeleted(int id, boolean deleted)
+    {
+        //A deleted user isn't allowed to rent
+        return DatabaseHandler.executePreparedUpdate(SET_DELETED, new SQLParameter[]{
+                SQLParameter.of(deleted), SQLParameter.of(!deleted), SQLParameter.of(id)}) > 0;
+    }
+
+    @Override
+    protected User construct(ResultSet resultSet)
+    throws SQLException, ConstructionException
+    {
+        return new User(
+                resultSet.getInt("userID"),
+                resultSet.getString("username"),
+                resultSet.getString("password"),
+                resultSet.getString("email"),
+                User.UserType.valueOf(resultSet.getString("userType")),
+                resultSet.getInt("allowedRentals"),
+                resultSet.getInt("currentRentals"),
+                resultSet.getDouble("lateFee"),
+                resultSet.getBoolean("allowedToRent"),
+                resultSet.getBoolean("deleted"));
+    }
+
+    @Override
+    protected int getID(User user)
+    {
+        return user.getUserID();
+    }
+
+    @Override
+    protected void setID(User user, int id)
+    throws InvalidIDException
+    {
+        user.setUserID(id);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,42 @@
+package edu.groupeighteen.librarydbms.control.repositories;
+
+import edu.groupeighteen.librarydbms.model.entities.Rental;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * @author Mattias Fridsén
+ * @project LibraryDBMS
+ * @package edu.groupeighteen.librarydbms.control.repositories
+ * @contact matfir-1@student.ltu.se
+ * @date 10/17/2026
+ * <p>
+ * Stores Rentals. Retrieved rentals have the username, item title and item type set.
+ */
+public interface RentalRepository extends Repository<Rental>
+{
+    /**
+     * Retrieves the rentals of a user.
+     *
+     * @param userID the ID of the user
+     * @return the rentals, ordered by ID
+     */
+    List<Rental> findByUserID(int userID);
+
+    /**
+     * Retrieves the rentals of an item.
+     *
+     * @param itemID the ID of the item
+     * @return the rentals, ordered by ID
+     */
+    List<Rental> findByItemID(int itemID);
+
+    /**
+     * Retrieves the rentals that haven't been returned and were due before the given time.
+     *
+     * @param now the time to compare the due dates with
+     * @return the overdue rentals, ordered by ID
+     */
+    List<Rental> findOverdue(LocalDateTime now);
+}
@@ -0,0 +1,188 @@
+package edu.groupeighteen.librarydbms.control.repositories;
+
+import edu.groupeighteen.librarydbms.control.db.EntityCache;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @author Mattias Fridsén
+ * @project LibraryDBMS
+ * @package edu.groupeighteen.librarydbms.control.repositories
+ * @contact matfir-1@student.ltu.se
+ * @date 10/17/2026
+ * <p>
+ * Decides which repositories are in use. The JDBC ones are the default.
+ * <p>
+ * The handlers retrieve entities by ID, and create, update and delete them, through the repositories in use. Their
+ * searches, and the checkout and return of rentals, always run against the database.
+ * <p>
+ * In memory mode every entity is kept in the in-memory repositories, either starting out empty, which is what
+ * benchmarks of the business logic want, or loaded from the database, which is what a kiosk wants. Changes made in
+ * memory are only written to the database by {@link #persist()}, which can be run periodically with
+ * {@link #startPeriodicPersistence(long, TimeUnit)}. Entities keep their IDs when written, so in memory mode is
+ * meant for installations where nothing else writes to the database at the same time.
+ * <p>
+ * Switching repositories clears the {@link EntityCache}s of the handlers.
+ */
+public class Repositories
+{
+    private static volatile AuthorRepository authors = new JdbcAuthorRepository();
+    private static volatile ClassificationRepository classifications = new JdbcClassificationRepository();
+    private static volatile ItemRepository items = new JdbcItemRepository();
+    private static volatile UserRepository users = new JdbcUserRepository();
+    private static volatile RentalRepository rentals = new JdbcRentalRepository();
+
+    //Only set in memory mode
+    private static InMemoryAuthorRepository memoryAuthors;
+    private static InMemoryClassificationRepository memoryClassifications;
+    private static InMemoryItemRepository memoryItems;
+    private static InMemoryUserRepository memoryUsers;
+    private static InMemoryRentalRepository memoryRentals;
+
+    private static ScheduledExecutorService persistenceExecutor;
+
+    /**
+     * Switches to the JDBC repositories. Changes made in memory and not yet persisted are lost.
+     */
+    public static synchronized void useJdbc()
+    {
+        stopPeriodicPersistence();
+        authors = new JdbcAuthorRepository();
+        classifications = new JdbcClassificationRepository();
+        items = new JdbcItemRepository();
+        users = new JdbcUserRepository();
+        rentals = new JdbcRentalRepository();
+        memoryAuthors = null;
+        memoryClassifications = null;
+        memoryItems = null;
+        memoryUsers = null;
+        memoryRentals = null;
+        EntityCache.clearAll();
+    }
+
+    /**
+     * Switches to new, empty in-memory repositories.
+     */
+    public static synchronized void useInMemory()
+    {
+        stopPeriodicPersistence();
+        memoryAuthors = new InMemoryAuthorRepository();
+        memoryClassifications = new InMemoryClassificationRepository();
+        memoryItems = new InMemoryItemRepository();
+        memoryUsers = new InMemoryUserRepository();
+        memoryRentals = new InMemoryRentalRepository();
+        authors = memoryAuthors;
+        classifications = memoryClassifications;
+        items = memoryItems;
+        users = memoryUsers;
+        rentals = memoryRentals;
+        EntityCache.clearAll();
+    }
+
+    /**
+     * Switches to in-memory repositories holding everything in the database.
+     */
+    public static synchronized void loadIntoMemory()
+    {
+        useInMemory();
+        memoryAuthors.load(new JdbcAuthorRepository());
+        memoryClassifications.load(new JdbcClassificationRepository());
+        memoryItems.load(new JdbcItemRepository());
+        memoryUsers.load(new JdbcUserRepository());
+        memoryRentals.load(new JdbcRentalRepository());
+    }
+
+    /**
+     * Writes what has changed in memory since the last time to the database. Inserts and updates are written in the
+     * order the foreign keys need, and removals in the opposite order. Does nothing unless in memory mode.
+     *
+     * @return the number of entities written or removed
+     */
+    public static synchronized int persist()
+    {
+        if (!isInMemory())
+            return 0;
+
+        int persisted = 0;
+        persisted += memoryAuthors.persistChanges(new JdbcAuthorRepository());
+        persisted += memoryClassifications.persistChanges(new JdbcClassificationRepository());
+        persisted += memoryItems.persistChanges(new JdbcItemRepository());
+        persisted += memoryUsers.persistChanges(new JdbcUserRepository());
+        persisted += memoryRentals.persistChanges(new JdbcRentalRepository());
+
+        persisted += memoryRentals.persistRemovals(new JdbcRentalRepository());
+        persisted += memoryUsers.persistRemovals(new JdbcUserRepository());
+        persisted += memoryItems.persistRemovals(new JdbcItemRepository());
+        persisted += memoryClassifications.persistRemovals(new JdbcClassificationRepository());
+        persisted += memoryAuthors.persistRemovals(new JdbcAuthorRepository());
+        return persisted;
+    }
+
+    /**
+     * Persists the in-memory changes on a background thread at a fixed rate, until stopped or switched away from
+     * memory mode.
+     *
+     * @param period the time between two persists
+     * @param unit   the unit of period
+     * @throws IllegalStateException if not in memory mode
+     */
+    public static synchronized void startPeriodicPersistence(long period, TimeUnit unit)
+    {
+        if (!isInMemory())
+            throw new IllegalStateException("Only in-memory repositories need persisting.");
+
+        stopPeriodicPersistence();
+        persistenceExecutor = Executors.newSingleThreadScheduledExecutor(runnable ->
+        {
+            Thread thread = new Thread(runnable, "repository-persistence");
+            thread.setDaemon(true);
+            return thread;
+        });
+        persistenceExecutor.scheduleAtFixedRate(Repositories::persist, period, period, unit);
+    }
+
+    /**
+     * Stops periodic persistence, if running, and persists what has changed since the last time.
+     */
+    public static synchronized void stopPeriodicPersistence()
+    {
+        if (persistenceExecutor == null)
+            return;
+
+        persistenceExecutor.shutdownNow();
+        persistenceExecutor = null;
+        persist();
+    }
+
+    public static synchronized boolean isInMemory()
+    {
+        return memoryAuthors != null;
+    }
+
+    public static AuthorRepository getAuthors()
+    {
+        return authors;
+    }
+
+    public static ClassificationRepository getClassifications()
+    {
+        return classifications;
+    }
+
+    public static ItemRepository getItems()
+    {
+        return items;
+    }
+
+    public static UserRepository getUsers()
+    {
+        return users;
+    }
+
+    public static RentalRepository getRentals()
+    {
+        return rentals;
+    }
+}
@@ -0,0 +1,79 @@
+package edu.groupeighteen.librarydbms.control.repositories;
+
+import edu.groupeighteen.librarydbms.model.entities.Entity;
+
+import java.util.List;
+
+/**
+ * @author Mattias Fridsén
+ * @project LibraryDBMS
+ * @package edu.groupeighteen.librarydbms.control.repositories
+ * @contact matfir-1@student.ltu.se
+ * @date 10/17/2026
+ * <p>
+ * Stores and retrieves one kind of entity, without any of the validation or bookkeeping the handlers do. There is a
+ * JDBC implementation of every repository, storing the entities in the database, and an in-memory one, keeping them
+ * in maps. Which ones are used is decided by {@link Repositories}.
+ * <p>
+ * Retrieval methods return deleted entities too, it is up to the caller to filter them out. Entities returned are the
+ * caller's to change, changes are only stored by passing them back to {@link #update(Entity)}.
+ *
+ * @param <T> the type of entity stored
+ */
+public interface Repository<T extends Entity>
+{
+    /**
+     * Retrieves an entity by its ID.
+     *
+     * @param id the ID of the entity
+     * @return the entity, or null if there is none with that ID
+     */
+    T findByID(int id);
+
+    /**
+     * Retrieves every entity, ordered by ID.
+     *
+     * @return a list of all entities
+     */
+    List<T> findAll();
+
+    /**
+     * Counts the entities, deleted ones included.
+     *
+     * @return the number of entities
+     */
+    int count();
+
+    /**
+     * Stores a new entity. An entity without an ID is given the next free one, an entity with an ID keeps it.
+     *
+     * @param entity the entity to store
+     * @return the same entity, with its ID set
+     */
+    T insert(T entity);
+
+    /**
+     * Replaces the stored entity with the same ID, every field included.
+     *
+     * @param entity the updated entity
+     * @return true if it was updated, false if there is no entity with its ID
+     */
+    boolean update(T entity);
+
+    /**
+     * Marks an entity as deleted or not deleted.
+     *
+     * @param id      the ID of the entity
+     * @param deleted whether the entity is deleted
+     * @return true if it was changed, false if there is no entity with that ID
+     */
+    boolean setDeleted(int id, boolean deleted);
+
+    /**
+     * Removes an entity for good.
+     *
+     * @param id the ID of the entity
+     * @return true if it was removed, false if there is no entity with that ID
+     */
+    boolean delete(int id);
+}
@@ -0,0 +1,31 @@
+package edu.groupeighteen.librarydbms.control.repositories;
+
+import edu.groupeighteen.librarydbms.model.entities.User;
+
+/**
+ * @author Mattias Fridsén
+ * @project LibraryDBMS
+ * @package edu.groupeighteen.librarydbms.control.repositories
+ * @contact matfir-1@student.ltu.se
+ * @date 10/17/2026
+ * <p>
+ * Stores Users. Usernames and emails are unique.
+ */
+public interface UserRepository extends Repository<User>
+{
+    /**
+     * Retrieves a user by username.
+     *
+     * @param username the username
+     * @return the user, or null if there is none with that username
+     */
+    User findByUsername(String username);
+
+    /**
+     * Retrieves a user by email.
+     *
+     * @param email the email address
+     * @return the user, or null if there is none with that email
+     */
+    User findByEmail(String email);
+}
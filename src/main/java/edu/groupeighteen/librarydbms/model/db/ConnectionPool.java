@@ -0,0 +1,481 @@
+package edu.groupeighteen.librarydbms.model.db;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTimeoutException;
+import java.util.Iterator;
+import java.util.Set;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * @author Mattias Fridsén
+ * @project LibraryDBMS
+ * @package edu.groupeighteen.librarydbms.model.db
+ * @contact matfir-1@student.ltu.se
+ * @date 10/17/2026
+ * <p>
+ * A bounded pool of JDBC Connections, so that independent operations (for example two circulation desks checking
+ * out items at the same time) can run in parallel instead of queueing behind one shared Connection.
+ * <p>
+ * The pool keeps between minSize and maxSize connections open. Connections that have been idle for a while are
+ * validated before being handed out, connections that have been idle for too long are closed by a housekeeping task,
+ * and connections that have been borrowed for suspiciously long are reported together with the stack trace of the
+ * code that borrowed them.
+ * <p>
+ * There are two ways of getting a connection:
+ * <ul>
+ *     <li>{@link #acquire()} leases the connection to the calling thread. Nested calls on the same thread get the
+ *     same connection back, which is what handler methods that call other handler methods while a ResultSet is still
+ *     open need, and what lets a transaction span several handler calls.</li>
+ *     <li>{@link #borrow()} hands out a connection exclusively, for work that must not share its connection with
+ *     anything else.</li>
+ * </ul>
+ * Either way, the connection is handed back by calling {@link PooledConnection#release()}.
+ */
+public class ConnectionPool
+{
+    /**
+     * Opens new physical connections for the pool.
+     */
+    public interface ConnectionFactory
+    {
+        Connection create()
+        throws SQLException;
+    }
+
+    private final ConnectionFactory factory;
+    private final ConnectionPoolConfig config;
+
+    //Idle connections, most recently used first
+    private final BlockingDeque<PooledConnection> idle = new LinkedBlockingDeque<>();
+    //Every connection currently owned by the pool, idle or not
+    private final Set<PooledConnection> all = ConcurrentHashMap.newKeySet();
+    private final AtomicInteger total = new AtomicInteger();
+    //One permit per connection that may be handed out
+    private final Semaphore permits;
+    //The connection currently leased to each thread, if any
+    private final ThreadLocal<PooledConnection> leased = new ThreadLocal<>();
+    private final ScheduledExecutorService housekeeper;
+
+    //The database every connection should be using, and how many times it has been set
+    private volatile String catalog;
+    private volatile int catalogVersion = 0;
+    private volatile boolean closed = false;
+
+    //Statement cache counters of connections that have been discarded
+    private final AtomicLong retiredStatementCacheHits = new AtomicLong();
+    private final AtomicLong retiredStatementCacheMisses = new AtomicLong();
+
+    /**
+     * Creates a new pool and opens minSize connections.
+     *
+     * @param factory used to open new physical connections
+     * @param config  the pool settings
+     * @throws SQLException if the initial connections could not be opened
+     */
+    public ConnectionPool(ConnectionFactory factory, ConnectionPoolConfig config)
+    throws SQLException
+    {
+        if (config.getMinSize() > config.getMaxSize())
+            throw new IllegalArgumentException("Pool minSize " + config.getMinSize() + " is larger than maxSize " +
+                    config.getMaxSize());
+
+        this.factory = factory;
+        this.config = config;
+        this.permits = new Semaphore(config.getMaxSize(), true);
+
+        //Open the initial connections
+        for (int i = 0; i < config.getMinSize(); i++)
+            idle.offerLast(create());
+
+        //Start housekeeping
+        housekeeper = Executors.newSingleThreadScheduledExecutor(runnable ->
+        {
+            Thread thread = new Thread(runnable, "connection-pool-housekeeper");
+            thread.setDaemon(true);
+            return thread;
+        });
+        housekeeper.scheduleWithFixedDelay(this::housekeep, config.getHousekeepingPeriod(),
+                config.getHousekeepingPeriod(), TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Leases a connection to the calling thread. If the thread already holds a lease, the same connection is returned
+     * and its lease count is incremented, otherwise a connection is borrowed from the pool.
+     *
+     * @return a connection leased to the calling thread
+     * @throws SQLException if no connection became available in time, or a new connection couldn't be opened
+     */
+    public PooledConnection acquire()
+    throws SQLException
+    {
+        PooledConnection current = leased.get();
+        if (current != null)
+        {
+            synchronized (this)
+            {
+                if (current.getOwner() == Thread.currentThread() && current.getLeases() > 0)
+                {
+                    current.setLeases(current.getLeases() + 1);
+                    return current;
+                }
+            }
+        }
+
+        PooledConnection pooledConnection = borrow();
+        synchronized (this)
+        {
+            pooledConnection.setOwner(Thread.currentThread());
+        }
+        leased.set(pooledConnection);
+        return pooledConnection;
+    }
+
+    /**
+     * Borrows a connection exclusively. The connection is not shared with nested calls on the same thread.
+     *
+     * @return an exclusively borrowed connection
+     * @throws SQLException if no connection became available in time, or a new connection couldn't be opened
+     */
+    public PooledConnection borrow()
+    throws SQLException
+    {
+        if (closed)
+            throw new SQLException("Connection pool is closed.");
+
+        //Wait for a free slot
+        try
+        {
+            if (!permits.tryAcquire(config.getConnectionTimeout(), TimeUnit.MILLISECONDS))
+                throw new SQLTimeoutException("Timed out after " + config.getConnectionTimeout() + "ms waiting for " +
+                        "a connection. Active: " + getActiveConnections() + ", max: " + config.getMaxSize());
+        }
+        catch (InterruptedException e)
+        {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted while waiting for a connection.", e);
+        }
+
+        try
+        {
+            while (true)
+            {
+                PooledConnection pooledConnection = idle.pollFirst();
+
+                //Nothing idle, open a new connection, otherwise validate connections that haven't been used for a while
+                if (pooledConnection == null)
+                    pooledConnection = create();
+                else if (System.currentTimeMillis() - pooledConnection.getLastUsed() > config.getValidationBypassWindow()
+                        && !isValid(pooledConnection))
+                {
+                    discard(pooledConnection);
+                    continue;
+                }
+
+                try
+                {
+                    pooledConnection.applyCatalog(catalog, catalogVersion);
+                }
+                catch (SQLException e)
+                {
+                    discard(pooledConnection);
+                    throw e;
+                }
+
+                markBorrowed(pooledConnection);
+                return pooledConnection;
+            }
+        }
+        catch (SQLException | RuntimeException e)
+        {
+            permits.release();
+            throw e;
+        }
+    }
+
+    /**
+     * Releases one lease on a connection. Once every lease has been released, the connection is returned to the pool.
+     *
+     * @param pooledConnection the connection to release
+     */
+    void release(PooledConnection pooledConnection)
+    {
+        synchronized (this)
+        {
+            if (pooledConnection.getLeases() <= 0)
+                return; //Already returned
+            pooledConnection.setLeases(pooledConnection.getLeases() - 1);
+            if (pooledConnection.getLeases() > 0)
+                return; //Still in use further up the call stack
+            pooledConnection.setOwner(null);
+            pooledConnection.setBorrowedAt(0);
+            pooledConnection.setBorrowStack(null);
+        }
+
+        if (leased.get() == pooledConnection)
+            leased.remove();
+
+        giveBack(pooledConnection);
+    }
+
+    /**
+     * Puts a connection back among the idle ones, or closes it if it's broken or the pool is closed.
+     *
+     * @param pooledConnection the connection to give back
+     */
+    private void giveBack(PooledConnection pooledConnection)
+    {
+        try
+        {
+            Connection connection = pooledConnection.getConnection();
+            if (closed || connection.isClosed())
+            {
+                discard(pooledConnection);
+                return;
+            }
+
+            //Never hand out a connection with a half-finished transaction
+            if (!connection.getAutoCommit())
+            {
+                connection.rollback();
+                connection.setAutoCommit(true);
+            }
+
+            pooledConnection.setLastUsed(System.currentTimeMillis());
+            idle.offerFirst(pooledConnection);
+        }
+        catch (SQLException e)
+        {
+            discard(pooledConnection);
+        }
+        finally
+        {
+            permits.release();
+        }
+    }
+
+    /**
+     * Opens a new physical connection and registers it with the pool.
+     *
+     * @return the new connection
+     * @throws SQLException if the connection couldn't be opened
+     */
+    private PooledConnection create()
+    throws SQLException
+    {
+        PooledConnection pooledConnection = new PooledConnection(this, factory.create());
+        pooledConnection.applyCatalog(catalog, catalogVersion);
+        all.add(pooledConnection);
+        total.incrementAndGet();
+        return pooledConnection;
+    }
+
+    /**
+     * Closes a connection and forgets about it.
+     *
+     * @param pooledConnection the connection to discard
+     */
+    private void discard(PooledConnection pooledConnection)
+    {
+        if (all.remove(pooledConnection))
+        {
+            total.decrementAndGet();
+            retiredStatementCacheHits.addAndGet(pooledConnection.getStatementCache().getHits());
+            retiredStatementCacheMisses.addAndGet(pooledConnection.getStatementCache().getMisses());
+        }
+        pooledConnection.closeQuietly();
+    }
+
+    /**
+     * Checks whether a connection is still usable.
+     *
+     * @param pooledConnection the connection to check
+     * @return true if the connection is usable, otherwise false
+     */
+    private boolean isValid(PooledConnection pooledConnection)
+    {
+        try
+        {
+            return pooledConnection.getConnection().isValid(config.getValidationTimeoutSeconds());
+        }
+        catch (SQLException e)
+        {
+            return false;
+        }
+    }
+
+    /**
+     * Records when, and if leak detection is enabled from where, a connection was borrowed.
+     *
+     * @param pooledConnection the connection being borrowed
+     */
+    private synchronized void markBorrowed(PooledConnection pooledConnection)
+    {
+        pooledConnection.setLeases(1);
+        pooledConnection.setBorrowedAt(System.currentTimeMillis());
+        pooledConnection.setLeakReported(false);
+        if (config.getLeakDetectionThreshold() > 0)
+            pooledConnection.setBorrowStack(new Throwable("Connection borrowed here"));
+    }
+
+    /**
+     * Closes connections that have been idle for too long, tops the pool back up to minSize and reports connections
+     * that have been borrowed for longer than the leak detection threshold. Runs periodically on the housekeeper
+     * thread.
+     */
+    private void housekeep()
+    {
+        if (closed) return;
+        long now = System.currentTimeMillis();
+
+        //Evict the least recently used idle connections first
+        Iterator<PooledConnection> iterator = idle.descendingIterator();
+        while (iterator.hasNext() && total.get() > config.getMinSize())
+        {
+            PooledConnection pooledConnection = iterator.next();
+            if (now - pooledConnection.getLastUsed() > config.getIdleTimeout()
+                    && idle.removeFirstOccurrence(pooledConnection))
+                discard(pooledConnection);
+        }
+
+        //Refill
+        try
+        {
+            while (total.get() < config.getMinSize())
+                idle.offerLast(create());
+        }
+        catch (SQLException e)
+        {
+            System.err.println("Connection pool failed to open a connection: " + e.getMessage());
+        }
+
+        //Report leaks
+        if (config.getLeakDetectionThreshold() > 0)
+        {
+            for (PooledConnection pooledConnection : all)
+            {
+                synchronized (this)
+                {
+                    if (pooledConnection.getLeases() > 0 && !pooledConnection.isLeakReported()
+                            && now - pooledConnection.getBorrowedAt() > config.getLeakDetectionThreshold())
+                    {
+                        pooledConnection.setLeakReported(true);
+                        System.err.println("Possible connection leak: connection has been borrowed for " +
+                                (now - pooledConnection.getBorrowedAt()) + "ms.");
+                        if (pooledConnection.getBorrowStack() != null)
+                            pooledConnection.getBorrowStack().printStackTrace();
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Closes every connection and stops housekeeping. Connections still borrowed are closed as well.
+     */
+    public void close()
+    {
+        closed = true;
+        housekeeper.shutdownNow();
+        for (PooledConnection pooledConnection : all)
+            discard(pooledConnection);
+        idle.clear();
+    }
+
+    /**
+     * Sets the database all pooled connections should use. Connections switch lazily, the next time they're
+     * handed out. Setting the same name again still makes every connection switch, which is needed after the
+     * database has been dropped and recreated.
+     *
+     * @param catalog the name of the database
+     */
+    public synchronized void setCatalog(String catalog)
+    {
+        this.catalog = catalog;
+        this.catalogVersion++;
+    }
+
+    public String getCatalog()
+    {
+        return catalog;
+    }
+
+    public ConnectionPoolConfig getConfig()
+    {
+        return config;
+    }
+
+    public boolean isClosed()
+    {
+        return closed;
+    }
+
+    /**
+     * Returns the number of open connections, idle or not.
+     *
+     * @return the number of open connections
+     */
+    public int getTotalConnections()
+    {
+        return total.get();
+    }
+
+    /**
+     * Returns the number of connections waiting to be handed out.
+     *
+     * @return the number of idle connections
+     */
+    public int getIdleConnections()
+    {
+        return idle.size();
+    }
+
+    /**
+     * Returns the number of connections currently handed out.
+     *
+     * @return the number of active connections
+     */
+    public int getActiveConnections()
+    {
+        return config.getMaxSize() - permits.availablePermits();
+    }
+
+    /**
+     * Returns the (estimated) number of threads waiting for a connection.
+     *
+     * @return the number of waiting threads
+     */
+    public int getThreadsAwaitingConnection()
+    {
+        return permits.getQueueLength();
+    }
+
+    /**
+     * Returns the number of statements that were reused from a statement cache, over every connection this pool
+     * has ever had.
+     *
+     * @return the number of statement cache hits
+     */
+    public long getStatementCacheHits()
+    {
+        long hits = retiredStatementCacheHits.get();
+        for (PooledConnection pooledConnection : all)
+            hits += pooledConnection.getStatementCache().getHits();
+        return hits;
+    }
+
+    /**
+     * Returns the number of statements that had to be prepared, over every connection this pool has ever had.
+     *
+     * @return the number of statement cache misses
+     */
+    public long getStatementCacheMisses()
+    {
+        long misses = retiredStatementCacheMisses.get();
+        for (PooledConnection pooledConnection : all)
+            misses += pooledConnection.getStatementCache().getMisses();
+        return misses;
+    }
+}
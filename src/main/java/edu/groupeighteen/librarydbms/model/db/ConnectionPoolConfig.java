@@ -0,0 +1,193 @@
+package edu.groupeighteen.librarydbms.model.db;
+
+/**
+ * @author Mattias Fridsén
+ * @project LibraryDBMS
+ * @package edu.groupeighteen.librarydbms.model.db
+ * @contact matfir-1@student.ltu.se
+ * @date 10/17/2026
+ * <p>
+ * Holds the settings used by a {@link ConnectionPool}. All values have sensible defaults for a single library
+ * instance with a handful of circulation desks, and can be overridden through the "pool" object in config.json.
+ * <p>
+ * All time values are given in milliseconds, except for the validation timeout which is given in seconds since
+ * that is what {@link java.sql.Connection#isValid(int)} expects.
+ */
+public class ConnectionPoolConfig
+{
+    /**
+     * The number of connections the pool tries to keep open at all times.
+     */
+    private int minSize = 2;
+
+    /**
+     * The maximum number of connections the pool will ever have open at the same time.
+     */
+    private int maxSize = 10;
+
+    /**
+     * How long a thread will wait for a connection to become available before giving up.
+     */
+    private long connectionTimeout = 30_000;
+
+    /**
+     * How long a validation (isValid) call is allowed to take before the connection is considered broken.
+     */
+    private int validationTimeoutSeconds = 2;
+
+    /**
+     * Connections that were used more recently than this are handed out without being validated.
+     */
+    private long validationBypassWindow = 500;
+
+    /**
+     * Connections that have been idle for longer than this are closed, as long as the pool stays above minSize.
+     */
+    private long idleTimeout = 600_000;
+
+    /**
+     * How often the housekeeping task (idle eviction, refilling and leak detection) runs.
+     */
+    private long housekeepingPeriod = 30_000;
+
+    /**
+     * Connections that have been borrowed for longer than this are reported as possible leaks. 0 = disabled.
+     */
+    private long leakDetectionThreshold = 60_000;
+
+    /**
+     * The number of prepared statements each connection keeps cached. 0 = disabled.
+     */
+    private int statementCacheSize = 64;
+
+    /**
+     * Whether statements are prepared on the server rather than emulated by the driver. Only pays off together
+     * with the statement cache, since a server-side statement costs an extra round trip to prepare.
+     */
+    private boolean useServerPrepStmts = true;
+
+    /**
+     * Whether the driver may rewrite batched INSERTs into multi-row INSERTs, sending a whole batch in one statement.
+     */
+    private boolean rewriteBatchedStatements = false;
+
+    /**
+     * Getters and setters are self-explanatory.
+     */
+    public int getMinSize()
+    {
+        return minSize;
+    }
+
+    public void setMinSize(int minSize)
+    {
+        if (minSize < 0)
+            throw new IllegalArgumentException("minSize can't be negative. Received: " + minSize);
+        this.minSize = minSize;
+    }
+
+    public int getMaxSize()
+    {
+        return maxSize;
+    }
+
+    public void setMaxSize(int maxSize)
+    {
+        if (maxSize <= 0)
+            throw new IllegalArgumentException("maxSize must be greater than 0. Received: " + maxSize);
+        this.maxSize = maxSize;
+    }
+
+    public long getConnectionTimeout()
+    {
+        return connectionTimeout;
+    }
+
+    public void setConnectionTimeout(long connectionTimeout)
+    {
+        this.connectionTimeout = connectionTimeout;
+    }
+
+    public int getValidationTimeoutSeconds()
+    {
+        return validationTimeoutSeconds;
+    }
+
+    public void setValidationTimeoutSeconds(int validationTimeoutSeconds)
+    {
+        this.validationTimeoutSeconds = validationTimeoutSeconds;
+    }
+
+    public long getValidationBypassWindow()
+    {
+        return validationBypassWindow;
+    }
+
+    public void setValidationBypassWindow(long validationBypassWindow)
+    {
+        this.validationBypassWindow = validationBypassWindow;
+    }
+
+    public long getIdleTimeout()
+    {
+        return idleTimeout;
+    }
+
+    public void setIdleTimeout(long idleTimeout)
+    {
+        this.idleTimeout = idleTimeout;
+    }
+
+    public long getHousekeepingPeriod()
+    {
+        return housekeepingPeriod;
+    }
+
+    public void setHousekeepingPeriod(long housekeepingPeriod)
+    {
+        this.housekeepingPeriod = housekeepingPeriod;
+    }
+
+    public long getLeakDetectionThreshold()
+    {
+        return leakDetectionThreshold;
+    }
+
+    public void setLeakDetectionThreshold(long leakDetectionThreshold)
+    {
+        this.leakDetectionThreshold = leakDetectionThreshold;
+    }
+
+    public int getStatementCacheSize()
+    {
+        return statementCacheSize;
+    }
+
+    public void setStatementCacheSize(int statementCacheSize)
+    {
+        if (statementCacheSize < 0)
+            throw new IllegalArgumentException("statementCacheSize can't be negative. Received: " +
+                    statementCacheSize);
+        this.statementCacheSize = statementCacheSize;
+    }
+
+    public boolean isUseServerPrepStmts()
+    {
+        return useServerPrepStmts;
+    }
+
+    public void setUseServerPrepStmts(boolean useServerPrepStmts)
+    {
+        this.useServerPrepStmts = useServerPrepStmts;
+    }
+
+    public boolean isRewriteBatchedStatements()
+    {
+        return rewriteBatchedStatements;
+    }
+
+    public void setRewriteBatchedStatements(boolean rewriteBatchedStatements)
+    {
+        this.rewriteBatchedStatements = rewriteBatchedStatements;
+    }
+}
@@ -2,12 +2,14 @@ package edu.groupeighteen.librarydbms.model.db;
 
 import com.google.gson.Gson;
 import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
 
 import java.io.FileReader;
 import java.io.IOException;
 import java.sql.Connection;
 import java.sql.DriverManager;
 import java.sql.SQLException;
+import java.util.Properties;
 
 /**
  * @author Mattias Fridsén
@@ -16,13 +18,29 @@ import java.sql.SQLException;
  * @contact matfir-1@student.ltu.se
  * @date 4/5/2023
  * <p>
- * This class handles setting up, maintaining and closing of a JDBC Connection.
+ * This class handles setting up, maintaining and closing of a JDBC Connection. It also remembers the url and
+ * credentials of the last successful connection, so that a {@link ConnectionPool} can open more connections to the
+ * same server.
+ * <p>
+ * Connects to a local MySQL server by default. Setting "dialect" to "h2" in config.json runs the embedded H2 engine
+ * instead, and "url" overrides the JDBC url of either. The system property "librarydbms.url" overrides both, which is
+ * how the tests are run on an in-memory H2 database. The {@link SQLDialect} follows the url connected to.
  */
 public class DatabaseConnection
 {
+    //Overrides the url of config.json, e.g. -Dlibrarydbms.url=jdbc:h2:mem:librarydbms
+    public static final String URL_PROPERTY = "librarydbms.url";
+
     private static Connection connection = null;
     //Print commands being run, default = not
     private static boolean verbose = false;
+    //Used to open additional connections for the pool
+    private static String url = null;
+    private static String user = null;
+    private static String password = null;
+    private static ConnectionPoolConfig poolConfig = new ConnectionPoolConfig();
+    //The engine connected to
+    private static SQLDialect dialect = SQLDialect.MYSQL;
 
     /**
      * Standard connection method for a default-configured local MySQL Server. Connects to the server
@@ -32,11 +50,12 @@ public class DatabaseConnection
      * url: jdbc:mysql://localhost:3306
      * server: localhost
      * port: 3306
+     * unless config.json or the librarydbms.url system property says otherwise.
      */
     public static Connection setup()
     throws SQLException, ClassNotFoundException
     {
-        String url = "jdbc:mysql://localhost:3306";
+        String url = SQLDialect.MYSQL.getDefaultUrl();
         String user = null;
         String password = null;
 
@@ -48,12 +67,26 @@ public class DatabaseConnection
                     JsonElement.class);
             user = config.getAsJsonObject().get("user").getAsString();
             password = config.getAsJsonObject().get("password").getAsString();
+
+            //The engine and url are optional
+            if (config.getAsJsonObject().has("dialect"))
+                url = SQLDialect.valueOf(config.getAsJsonObject().get("dialect").getAsString().toUpperCase())
+                        .getDefaultUrl();
+            if (config.getAsJsonObject().has("url"))
+                url = config.getAsJsonObject().get("url").getAsString();
+
+            //Pool settings are optional
+            if (config.getAsJsonObject().has("pool"))
+                poolConfig = readPoolConfig(config.getAsJsonObject().get("pool").getAsJsonObject());
         }
         catch (IOException e)
         {
             // Handle any exceptions that might occur while reading the file
         }
 
+        if (System.getProperty(URL_PROPERTY) != null)
+            url = System.getProperty(URL_PROPERTY);
+
         return connectToDatabaseServer(url, user, password);
     }
 
@@ -72,17 +105,85 @@ public class DatabaseConnection
     throws SQLException, ClassNotFoundException
     {
         // Load the JDBC driver
+        SQLDialect dialect = SQLDialect.fromUrl(url);
         if (verbose) System.out.println("\nLoading JDBC driver...");
-        Class.forName("com.mysql.cj.jdbc.Driver");
+        Class.forName(dialect.getDriverClass());
         if (verbose) System.out.println("Loaded JDBC driver.");
 
         // Establish a connection
         if (verbose) System.out.println("Connecting to: " + user + "@" + url);
         connection = DriverManager.getConnection(url, user, password);
         if (verbose) System.out.println("Connected to: " + user + "@" + url);
+
+        //Remember where we connected, for the pool
+        DatabaseConnection.url = url;
+        DatabaseConnection.user = user;
+        DatabaseConnection.password = password;
+        DatabaseConnection.dialect = dialect;
         return connection;
     }
 
+    /**
+     * Opens a new, separate connection to the server last connected to with connectToDatabaseServer. Does not
+     * replace the connection returned by getConnection. On MySQL, statements are prepared server-side unless disabled
+     * in the pool settings, since pooled connections cache their prepared statements.
+     *
+     * @return a new Connection
+     * @throws SQLException if there is no previous connection to copy, or the connection fails
+     */
+    public static Connection openConnection()
+    throws SQLException
+    {
+        if (url == null)
+            throw new SQLException("Can't open a new connection before connecting to a database server.");
+
+        Properties properties = new Properties();
+        if (user != null) properties.setProperty("user", user);
+        if (password != null) properties.setProperty("password", password);
+        dialect.addConnectionProperties(properties, poolConfig);
+        return DriverManager.getConnection(url, properties);
+    }
+
+    /**
+     * Creates a new ConnectionPool opening connections to the server last connected to, using the pool settings
+     * read from config.json (or the defaults if there were none).
+     *
+     * @return a new ConnectionPool
+     * @throws SQLException if the initial connections of the pool could not be opened
+     */
+    public static ConnectionPool createConnectionPool()
+    throws SQLException
+    {
+        return new ConnectionPool(DatabaseConnection::openConnection, poolConfig);
+    }
+
+    /**
+     * Reads the pool settings from the "pool" object in config.json. Settings that are missing keep their defaults.
+     *
+     * @param pool the "pool" object
+     * @return the pool settings
+     */
+    private static ConnectionPoolConfig readPoolConfig(JsonObject pool)
+    {
+        ConnectionPoolConfig poolConfig = new ConnectionPoolConfig();
+        if (pool.has("maxSize")) poolConfig.setMaxSize(pool.get("maxSize").getAsInt());
+        if (pool.has("minSize")) poolConfig.setMinSize(pool.get("minSize").getAsInt());
+        if (pool.has("connectionTimeout")) poolConfig.setConnectionTimeout(pool.get("connectionTimeout").getAsLong());
+        if (pool.has("validationTimeoutSeconds"))
+            poolConfig.setValidationTimeoutSeconds(pool.get("validationTimeoutSeconds").getAsInt());
+        if (pool.has("idleTimeout")) poolConfig.setIdleTimeout(pool.get("idleTimeout").getAsLong());
+        if (pool.has("housekeepingPeriod")) poolConfig.setHousekeepingPeriod(pool.get("housekeepingPeriod").getAsLong());
+        if (pool.has("leakDetectionThreshold"))
+            poolConfig.setLeakDetectionThreshold(pool.get("leakDetectionThreshold").getAsLong());
+        if (pool.has("statementCacheSize"))
+            poolConfig.setStatementCacheSize(pool.get("statementCacheSize").getAsInt());
+        if (pool.has("useServerPrepStmts"))
+            poolConfig.setUseServerPrepStmts(pool.get("useServerPrepStmts").getAsBoolean());
+        if (pool.has("rewriteBatchedStatements"))
+            poolConfig.setRewriteBatchedStatements(pool.get("rewriteBatchedStatements").getAsBoolean());
+        return poolConfig;
+    }
+
     /**
      * Closes the connection.
      */
@@ -109,6 +210,21 @@ public class DatabaseConnection
         return connection;
     }
 
+    public static SQLDialect getDialect()
+    {
+        return dialect;
+    }
+
+    public static ConnectionPoolConfig getPoolConfig()
+    {
+        return poolConfig;
+    }
+
+    public static void setPoolConfig(ConnectionPoolConfig poolConfig)
+    {
+        DatabaseConnection.poolConfig = poolConfig;
+    }
+
     public static boolean isVerbose()
     {
         return verbose;
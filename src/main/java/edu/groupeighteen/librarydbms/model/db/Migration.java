@@ -0,0 +1,93 @@
+package edu.groupeighteen.librarydbms.model.db;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+/**
+ * @author Mattias Fridsén
+ * @project LibraryDBMS
+ * @package edu.groupeighteen.librarydbms.model.db
+ * @contact matfir-1@student.ltu.se
+ * @date 10/17/2026
+ * <p>
+ * A versioned SQL script that changes the database schema (or its data). Migrations are applied in version order,
+ * once each, and the checksum of each applied script is stored so that scripts changed after being applied are
+ * noticed instead of silently leaving the database out of step with them.
+ */
+public class Migration
+{
+    private final int version;
+    private final String description;
+    private final String scriptPath;
+
+    /**
+     * Creates a new Migration.
+     *
+     * @param version     the version the database is at once the migration is applied, starting at 1
+     * @param description a short description of what the migration does
+     * @param scriptPath  the path of the SQL script
+     */
+    public Migration(int version, String description, String scriptPath)
+    {
+        if (version <= 0)
+            throw new IllegalArgumentException("Invalid version: " + version + ". Version must be greater than 0.");
+        this.version = version;
+        this.description = description;
+        this.scriptPath = scriptPath;
+    }
+
+    /**
+     * Calculates the SHA-256 checksum of the script, as a hex string. Line endings are normalized first, so that the
+     * same script checked out on different systems has the same checksum.
+     *
+     * @return the checksum of the script
+     * @throws IOException if the script couldn't be read
+     */
+    public String checksum()
+    throws IOException
+    {
+        String script = Files.readString(Path.of(DatabaseConnection.getDialect().resolveScript(scriptPath)),
+                StandardCharsets.UTF_8).replace("\r\n", "\n");
+        try
+        {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(script.getBytes(StandardCharsets.UTF_8));
+            StringBuilder hex = new StringBuilder(digest.length * 2);
+            for (byte b : digest)
+                hex.append(String.format("%02x", b));
+            return hex.toString();
+        }
+        catch (NoSuchAlgorithmException e)
+        {
+            //Every Java platform is required to support SHA-256
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Getters are self-explanatory.
+     */
+    public int getVersion()
+    {
+        return version;
+    }
+
+    public String getDescription()
+    {
+        return description;
+    }
+
+    public String getScriptPath()
+    {
+        return scriptPath;
+    }
+
+    @Override
+    public String toString()
+    {
+        return "V" + version + " " + description + " (" + scriptPath + ")";
+    }
+}
@@ -0,0 +1,73 @@
+package edu.groupeighteen.librarydbms.model.db;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.function.ToIntFunction;
+
+/**
+ * @author Mattias Fridsén
+ * @project LibraryDBMS
+ * @package edu.groupeighteen.librarydbms.model.db
+ * @contact matfir-1@student.ltu.se
+ * @date 10/17/2026
+ * <p>
+ * One page of a listing retrieved with a {@link PageRequest}, together with what is needed to request the next one.
+ *
+ * @param <T> the type of the entities in the page
+ */
+public class Page<T>
+{
+    private final List<T> content;
+    private final PageRequest request;
+    private final int lastKey;
+    private final boolean hasNext;
+
+    /**
+     * Creates a page from the rows retrieved for a request. Since one row more than the page size is retrieved, an
+     * extra row means there is a next page, and is dropped from the content.
+     *
+     * @param rows    the rows retrieved with the request's SQL suffix and parameters
+     * @param request the request the rows were retrieved for
+     * @param keyOf   returns the primary key of an entity
+     */
+    public Page(List<T> rows, PageRequest request, ToIntFunction<T> keyOf)
+    {
+        this.request = request;
+        this.hasNext = rows.size() > request.getPageSize();
+        this.content = Collections.unmodifiableList(hasNext ? rows.subList(0, request.getPageSize()) : rows);
+        this.lastKey = content.isEmpty() ? request.getAfterKey() : keyOf.applyAsInt(content.get(content.size() - 1));
+    }
+
+    /**
+     * Returns the request for the following page.
+     *
+     * @return the next PageRequest, or null if this is the last page
+     */
+    public PageRequest next()
+    {
+        return hasNext ? new PageRequest(request.getPageSize(), lastKey) : null;
+    }
+
+    /**
+     * Getters are self-explanatory.
+     */
+    public List<T> getContent()
+    {
+        return content;
+    }
+
+    public PageRequest getRequest()
+    {
+        return request;
+    }
+
+    public int getLastKey()
+    {
+        return lastKey;
+    }
+
+    public boolean hasNext()
+    {
+        return hasNext;
+    }
+}
@@ -0,0 +1,117 @@
+package edu.groupeighteen.librarydbms.model.db;
+
+import java.util.Arrays;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * @author Mattias Fridsén
+ * @project LibraryDBMS
+ * @package edu.groupeighteen.librarydbms.model.db
+ * @contact matfir-1@student.ltu.se
+ * @date 10/17/2026
+ * <p>
+ * A request for one page of a listing, ordered by primary key. Instead of an offset, which makes the server read and
+ * throw away every row before the page, a page is requested by the key of the last row of the previous page. The
+ * server then seeks straight to that key in the primary key index, so every page costs the same however deep it is.
+ * <p>
+ * The first page is requested with {@link #PageRequest(int)}, every following page with {@link Page#next()}.
+ */
+public class PageRequest
+{
+    //Used to split a suffix into its joins and the condition of its WHERE clause
+    private static final Pattern WHERE_PATTERN = Pattern.compile("\\bWHERE\\b", Pattern.CASE_INSENSITIVE);
+    //The page adds these itself, so a suffix must not have them
+    private static final Pattern ORDER_BY_OR_LIMIT_PATTERN = Pattern.compile("\\bORDER\\s+BY\\b|\\bLIMIT\\b",
+            Pattern.CASE_INSENSITIVE);
+
+    private final int pageSize;
+    private final int afterKey;
+
+    /**
+     * Creates a request for the first page.
+     *
+     * @param pageSize the maximum number of rows in the page
+     */
+    public PageRequest(int pageSize)
+    {
+        this(pageSize, 0);
+    }
+
+    /**
+     * Creates a request for the page starting after the given key.
+     *
+     * @param pageSize the maximum number of rows in the page
+     * @param afterKey the primary key of the last row of the previous page, 0 for the first page
+     */
+    public PageRequest(int pageSize, int afterKey)
+    {
+        if (pageSize <= 0)
+            throw new IllegalArgumentException("Invalid page size: " + pageSize + ". Page size must be greater than 0.");
+        if (afterKey < 0)
+            throw new IllegalArgumentException("Invalid key: " + afterKey + ". Key can't be negative.");
+        this.pageSize = pageSize;
+        this.afterKey = afterKey;
+    }
+
+    /**
+     * Adds the keyset condition, ordering and limit to an SQL suffix. The condition of the suffix is wrapped in
+     * parentheses before the keyset condition is added, so that e.g. an OR in it can't let rows before the key
+     * through. One row more than the page size is requested, so that {@link Page} can tell whether there is a next
+     * page.
+     *
+     * @param sqlSuffix the SQL suffix, with joins and a WHERE clause but no ORDER BY or LIMIT, can be null
+     * @param keyColumn the primary key column to page on, e.g. "items.itemID"
+     * @return the SQL suffix with the page's condition, ordering and limit
+     * @throws IllegalArgumentException if the SQL suffix has an ORDER BY or LIMIT clause
+     */
+    public String toSQLSuffix(String sqlSuffix, String keyColumn)
+    {
+        if (sqlSuffix == null || sqlSuffix.isBlank())
+            return "WHERE " + keyColumn + " > ? ORDER BY " + keyColumn + " ASC LIMIT ?";
+        if (ORDER_BY_OR_LIMIT_PATTERN.matcher(sqlSuffix).find())
+            throw new IllegalArgumentException("Invalid SQL suffix: " + sqlSuffix + ". A page is ordered and " +
+                    "limited by its key, the suffix can't have an ORDER BY or LIMIT clause.");
+
+        String joins = sqlSuffix.strip();
+        String condition = "";
+        Matcher where = WHERE_PATTERN.matcher(joins);
+        if (where.find())
+        {
+            condition = "(" + joins.substring(where.end()).strip() + ") AND ";
+            joins = joins.substring(0, where.start()).strip();
+        }
+        if (!joins.isEmpty()) joins += " ";
+        return joins + "WHERE " + condition + keyColumn + " > ? ORDER BY " + keyColumn + " ASC LIMIT ?";
+    }
+
+    /**
+     * Appends the parameters of the page's condition and limit to the parameters of an SQL suffix.
+     *
+     * @param params the parameters of the SQL suffix, can be null
+     * @return the parameters for the suffix returned by {@link #toSQLSuffix(String, String)}
+     */
+    public SQLParameter[] toSQLParameters(SQLParameter[] params)
+    {
+        SQLParameter[] pageParams = params == null ? new SQLParameter[2] : Arrays.copyOf(params, params.length + 2);
+        pageParams[pageParams.length - 2] = SQLParameter.of(afterKey);
+        pageParams[pageParams.length - 1] = SQLParameter.of(pageSize + 1);
+        return pageParams;
+    }
+
+    public int getPageSize()
+    {
+        return pageSize;
+    }
+
+    public int getAfterKey()
+    {
+        return afterKey;
+    }
+
+    @Override
+    public String toString()
+    {
+        return "PageRequest{pageSize=" + pageSize + ", afterKey=" + afterKey + "}";
+    }
+}
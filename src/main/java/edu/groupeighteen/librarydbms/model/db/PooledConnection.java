@@ -0,0 +1,218 @@
+package edu.groupeighteen.librarydbms.model.db;
+
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * @author Mattias Fridsén
+ * @project LibraryDBMS
+ * @package edu.groupeighteen.librarydbms.model.db
+ * @contact matfir-1@student.ltu.se
+ * @date 10/17/2026
+ * <p>
+ * A physical JDBC Connection owned by a {@link ConnectionPool}, together with the bookkeeping the pool needs in order
+ * to validate, evict and detect leaks.
+ * <p>
+ * A PooledConnection is leased to one thread at a time. The same thread can lease it several times (nested handler
+ * calls, such as constructing an Item while the ResultSet of getItems is still open), in which case it is only handed
+ * back to the pool once every lease has been released.
+ * <p>
+ * Each PooledConnection keeps its own {@link StatementCache}, so statements prepared through
+ * {@link #prepareStatement(String, int...)} survive between leases.
+ */
+public class PooledConnection
+{
+    private final ConnectionPool pool;
+    private final Connection connection;
+    private final StatementCache statementCache;
+
+    //The version of the pool's catalog this connection is using, to avoid sending USE when nothing has changed
+    private int catalogVersion = 0;
+
+    //Bookkeeping, guarded by the pool
+    private long lastUsed;
+    private long borrowedAt;
+    private Throwable borrowStack;
+    private boolean leakReported;
+    private Thread owner;
+    private int leases;
+
+    /**
+     * Creates a new PooledConnection wrapping a physical connection.
+     *
+     * @param pool       the pool owning this connection
+     * @param connection the physical connection
+     */
+    PooledConnection(ConnectionPool pool, Connection connection)
+    {
+        this.pool = pool;
+        this.connection = connection;
+        this.statementCache = new StatementCache(connection, pool.getConfig().getStatementCacheSize());
+        this.lastUsed = System.currentTimeMillis();
+    }
+
+    /**
+     * Returns the physical connection. Callers must not close it; call {@link #release()} instead.
+     *
+     * @return the physical connection
+     */
+    public Connection getConnection()
+    {
+        return connection;
+    }
+
+    /**
+     * Returns a PreparedStatement for the given SQL, reused from this connection's statement cache if possible.
+     * The statement must be handed back through {@link #releaseStatement(Statement)} rather than closed.
+     *
+     * @param sql           the SQL to prepare
+     * @param columnIndexes the column indexes of generated keys to return, if any
+     * @return a PreparedStatement with no parameters set
+     * @throws SQLException if the statement could not be prepared
+     */
+    public PreparedStatement prepareStatement(String sql, int... columnIndexes)
+    throws SQLException
+    {
+        return statementCache.prepare(sql, columnIndexes);
+    }
+
+    /**
+     * Returns a CallableStatement for the given call, reused from this connection's statement cache if possible.
+     * The statement must be handed back through {@link #releaseStatement(Statement)} rather than closed.
+     *
+     * @param sql the call to prepare, e.g. "{call procedure(?, ?)}"
+     * @return a CallableStatement with no parameters set
+     * @throws SQLException if the statement could not be prepared
+     */
+    public CallableStatement prepareCall(String sql)
+    throws SQLException
+    {
+        return statementCache.prepareCall(sql);
+    }
+
+    /**
+     * Hands a statement back to the statement cache, or closes it if it isn't cached.
+     *
+     * @param statement the statement to release
+     */
+    public void releaseStatement(Statement statement)
+    {
+        statementCache.release(statement);
+    }
+
+    public StatementCache getStatementCache()
+    {
+        return statementCache;
+    }
+
+    /**
+     * Releases one lease on this connection. Once all leases are released the connection is handed back to the pool.
+     */
+    public void release()
+    {
+        pool.release(this);
+    }
+
+    /**
+     * Switches the connection to the given database, unless it has already been switched to this version of the
+     * pool's catalog. Versions are used rather than names since a database can be dropped and recreated under the
+     * same name, which leaves the connection without a selected database.
+     *
+     * @param catalog the database to use, or null to leave the connection as is
+     * @param version the version of the pool's catalog
+     * @throws SQLException if the database could not be selected
+     */
+    void applyCatalog(String catalog, int version)
+    throws SQLException
+    {
+        if (catalog != null && version != catalogVersion)
+        {
+            //Cached statements still refer to the tables of the old database
+            statementCache.clear();
+            DatabaseConnection.getDialect().selectDatabase(connection, catalog);
+            catalogVersion = version;
+        }
+    }
+
+    /**
+     * Closes the physical connection, ignoring any errors since the connection is being discarded anyway.
+     */
+    void closeQuietly()
+    {
+        statementCache.clear();
+        try
+        {
+            connection.close();
+        }
+        catch (SQLException e)
+        {
+            System.err.println("Error closing pooled connection: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Getters and setters used by the pool.
+     */
+    long getLastUsed()
+    {
+        return lastUsed;
+    }
+
+    void setLastUsed(long lastUsed)
+    {
+        this.lastUsed = lastUsed;
+    }
+
+    long getBorrowedAt()
+    {
+        return borrowedAt;
+    }
+
+    void setBorrowedAt(long borrowedAt)
+    {
+        this.borrowedAt = borrowedAt;
+    }
+
+    Throwable getBorrowStack()
+    {
+        return borrowStack;
+    }
+
+    void setBorrowStack(Throwable borrowStack)
+    {
+        this.borrowStack = borrowStack;
+    }
+
+    boolean isLeakReported()
+    {
+        return leakReported;
+    }
+
+    void setLeakReported(boolean leakReported)
+    {
+        this.leakReported = leakReported;
+    }
+
+    Thread getOwner()
+    {
+        return owner;
+    }
+
+    void setOwner(Thread owner)
+    {
+        this.owner = owner;
+    }
+
+    int getLeases()
+    {
+        return leases;
+    }
+
+    void setLeases(int leases)
+    {
+        this.leases = leases;
+    }
+}
@@ -16,11 +16,18 @@ import java.sql.Statement;
  * the ResultSet and the Statement.
  * <p>
  * Implements {@link AutoCloseable} in order to be used with try-with-resources.
+ * <p>
+ * If the query was run on a pooled connection, closing the QueryResult also hands the connection back to the pool,
+ * so QueryResults must always be closed.
  */
 public class QueryResult implements AutoCloseable
 {
     private final ResultSet resultSet;
     private final Statement statement;
+    private final PooledConnection pooledConnection;
+    //Run once the QueryResult is closed, e.g. to record that the query is finished
+    private final Runnable onClose;
+    private boolean closed = false;
 
     /**
      * Constructs a new QueryResult object with the specified ResultSet and Statement.
@@ -29,24 +36,63 @@ public class QueryResult implements AutoCloseable
      * @param statement the Statement used to execute the SQL query
      */
     public QueryResult(ResultSet resultSet, Statement statement)
+    {
+        this(resultSet, statement, null);
+    }
+
+    /**
+     * Constructs a new QueryResult object with the specified ResultSet and Statement, executed on a pooled
+     * connection which is released when this QueryResult is closed.
+     *
+     * @param resultSet        the ResultSet resulting from the execution of a SQL query
+     * @param statement        the Statement used to execute the SQL query
+     * @param pooledConnection the pooled connection the query was executed on, or null
+     */
+    public QueryResult(ResultSet resultSet, Statement statement, PooledConnection pooledConnection)
+    {
+        this(resultSet, statement, pooledConnection, null);
+    }
+
+    /**
+     * Constructs a new QueryResult object with the specified ResultSet and Statement, executed on a pooled
+     * connection which is released when this QueryResult is closed, after which onClose is run.
+     *
+     * @param resultSet        the ResultSet resulting from the execution of a SQL query
+     * @param statement        the Statement used to execute the SQL query
+     * @param pooledConnection the pooled connection the query was executed on, or null
+     * @param onClose          run when this QueryResult is closed, or null
+     */
+    public QueryResult(ResultSet resultSet, Statement statement, PooledConnection pooledConnection, Runnable onClose)
     {
         this.resultSet = resultSet;
         this.statement = statement;
+        this.pooledConnection = pooledConnection;
+        this.onClose = onClose;
     }
 
     /**
-     * Closes both the ResultSet and the Statement associated with this QueryResult object.
-     * Any SQLExceptions thrown during the closing process are caught and handled within this method.
+     * Closes both the ResultSet and the Statement associated with this QueryResult object, and releases the pooled
+     * connection if there is one. Statements executed on a pooled connection are handed back to its statement cache
+     * rather than closed. Any SQLExceptions thrown during the closing process are caught and handled within
+     * this method. Closing an already closed QueryResult does nothing.
      */
     public void close()
     {
+        if (closed) return;
+        closed = true;
+
         try
         {
             if (resultSet != null)
             {
                 resultSet.close();
             }
-            if (statement != null)
+            //Statements on pooled connections go back to the statement cache instead of being closed
+            if (statement != null && pooledConnection != null)
+            {
+                pooledConnection.releaseStatement(statement);
+            }
+            else if (statement != null)
             {
                 statement.close();
             }
@@ -56,6 +102,13 @@ public class QueryResult implements AutoCloseable
             // Handle the exception or throw it, depending on your needs
             System.err.println("Error closing resources: " + e.getMessage());
         }
+        finally
+        {
+            if (pooledConnection != null)
+                pooledConnection.release();
+            if (onClose != null)
+                onClose.run();
+        }
     }
 
     /**
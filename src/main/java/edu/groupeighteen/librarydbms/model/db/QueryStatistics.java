@@ -0,0 +1,215 @@
+package edu.groupeighteen.librarydbms.model.db;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * @author Mattias Fridsén
+ * @project LibraryDBMS
+ * @package edu.groupeighteen.librarydbms.model.db
+ * @contact matfir-1@student.ltu.se
+ * @date 10/17/2026
+ * <p>
+ * Execution statistics of one SQL statement template: how many times it ran, how many of those failed, how many rows
+ * it returned or affected, and a histogram of how long it took.
+ * <p>
+ * The histogram has one bucket per power of two microseconds, so percentiles are estimates that are at most a factor
+ * two too high. In return, recording an execution never blocks, and is cheap enough to do for every statement.
+ */
+public class QueryStatistics
+{
+    //Bucket i holds latencies below 2^i microseconds, the last bucket everything above
+    private static final int BUCKETS = 40;
+
+    private final String template;
+    private final LongAdder executions = new LongAdder();
+    private final LongAdder errors = new LongAdder();
+    private final LongAdder rows = new LongAdder();
+    private final LongAdder totalNanos = new LongAdder();
+    private final AtomicLong maxNanos = new AtomicLong();
+    private final AtomicLongArray buckets = new AtomicLongArray(BUCKETS);
+
+    /**
+     * Creates empty statistics for a statement template.
+     *
+     * @param template the statement template
+     */
+    public QueryStatistics(String template)
+    {
+        this.template = template;
+    }
+
+    /**
+     * Records a successful execution.
+     *
+     * @param nanos how long it took, in nanoseconds
+     * @param rows  the number of rows returned or affected
+     */
+    public void record(long nanos, long rows)
+    {
+        recordLatency(nanos);
+        this.rows.add(rows);
+    }
+
+    /**
+     * Records a failed execution.
+     *
+     * @param nanos how long it took to fail, in nanoseconds
+     */
+    public void recordError(long nanos)
+    {
+        recordLatency(nanos);
+        errors.increment();
+    }
+
+    public String getTemplate()
+    {
+        return template;
+    }
+
+    /**
+     * Takes a snapshot of the statistics. Executions recorded while the snapshot is taken may be partly included.
+     *
+     * @return a Snapshot
+     */
+    public Snapshot snapshot()
+    {
+        long[] counts = new long[BUCKETS];
+        for (int i = 0; i < BUCKETS; i++)
+            counts[i] = buckets.get(i);
+
+        return new Snapshot(template, executions.sum(), errors.sum(), rows.sum(), totalNanos.sum(), maxNanos.get(),
+                counts);
+    }
+
+    //UTILITY METHODS---------------------------------------------------------------------------------------------------
+
+    private void recordLatency(long nanos)
+    {
+        executions.increment();
+        totalNanos.add(nanos);
+        maxNanos.accumulateAndGet(nanos, Math::max);
+        buckets.incrementAndGet(bucketOf(nanos));
+    }
+
+    /**
+     * Returns the bucket of a latency.
+     *
+     * @param nanos the latency, in nanoseconds
+     * @return the index of the bucket
+     */
+    private static int bucketOf(long nanos)
+    {
+        long micros = Math.max(nanos / 1000, 0);
+        //The number of bits needed to hold micros, so that micros < 2^bucket
+        return Math.min(64 - Long.numberOfLeadingZeros(micros), BUCKETS - 1);
+    }
+
+    /**
+     * An immutable copy of the statistics of a statement template at some point in time.
+     */
+    public static class Snapshot
+    {
+        private final String template;
+        private final long executions;
+        private final long errors;
+        private final long rows;
+        private final long totalNanos;
+        private final long maxNanos;
+        private final long[] buckets;
+
+        private Snapshot(String template, long executions, long errors, long rows, long totalNanos, long maxNanos,
+                         long[] buckets)
+        {
+            this.template = template;
+            this.executions = executions;
+            this.errors = errors;
+            this.rows = rows;
+            this.totalNanos = totalNanos;
+            this.maxNanos = maxNanos;
+            this.buckets = buckets;
+        }
+
+        public String getTemplate()
+        {
+            return template;
+        }
+
+        public long getExecutions()
+        {
+            return executions;
+        }
+
+        public long getErrors()
+        {
+            return errors;
+        }
+
+        public long getRows()
+        {
+            return rows;
+        }
+
+        /**
+         * Returns the total time spent executing the template.
+         *
+         * @return the total time, in milliseconds
+         */
+        public double getTotalMillis()
+        {
+            return totalNanos / 1_000_000.0;
+        }
+
+        /**
+         * Returns the mean latency of the template.
+         *
+         * @return the mean latency, in milliseconds, or 0 if it hasn't been executed
+         */
+        public double getMeanMillis()
+        {
+            return executions == 0 ? 0 : getTotalMillis() / executions;
+        }
+
+        public double getMaxMillis()
+        {
+            return maxNanos / 1_000_000.0;
+        }
+
+        /**
+         * Estimates a percentile of the latency from the histogram, as the upper bound of the bucket it falls in.
+         * Never more than the maximum latency.
+         *
+         * @param percentile the percentile, between 0 and 100
+         * @return the estimated latency, in milliseconds, or 0 if the template hasn't been executed
+         */
+        public double getPercentileMillis(double percentile)
+        {
+            if (percentile < 0 || percentile > 100)
+                throw new IllegalArgumentException("Percentile must be between 0 and 100, received " + percentile);
+
+            long total = 0;
+            for (long count : buckets)
+                total += count;
+            if (total == 0) return 0;
+
+            long rank = Math.max(1, (long) Math.ceil(total * percentile / 100.0));
+            long seen = 0;
+            for (int i = 0; i < buckets.length; i++)
+            {
+                seen += buckets[i];
+                if (seen >= rank)
+                    return Math.min((1L << i) / 1000.0, getMaxMillis());
+            }
+            return getMaxMillis();
+        }
+
+        @Override
+        public String toString()
+        {
+            return String.format("%8d %6d %9d %10.1f %8.3f %8.3f %8.3f %8.3f  %s", executions, errors, rows,
+                    getTotalMillis(), getMeanMillis(), getPercentileMillis(95), getPercentileMillis(99),
+                    getMaxMillis(), template);
+        }
+    }
+}
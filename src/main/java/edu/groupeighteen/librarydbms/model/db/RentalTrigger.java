@@ -0,0 +1,61 @@
+package edu.groupeighteen.librarydbms.model.db;
+
+import org.h2.tools.TriggerAdapter;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * @author Mattias Fridsén
+ * @project LibraryDBMS
+ * @package edu.groupeighteen.librarydbms.model.db
+ * @contact matfir-1@student.ltu.se
+ * @date 10/17/2026
+ * <p>
+ * Keeps the currentRentals and allowedToRent of users, and the availability of items, up to date when rentals are
+ * inserted, updated or deleted, on H2. H2 triggers are Java classes, so this does what the rentals triggers of
+ * create_triggers.sql do on MySQL. Created by h2/create_triggers.sql.
+ * <p>
+ * A rental is active until it has a return date. Each row only changes when one of its rentals starts or stops being
+ * active, with a single UPDATE, so the counts can't be overwritten by concurrent rentals.
+ */
+public class RentalTrigger extends TriggerAdapter
+{
+    //H2 evaluates every assignment against the old row, so allowedToRent is computed from the new count directly
+    private static final String RENT = "UPDATE users SET currentRentals = currentRentals + 1, " +
+            "allowedToRent = currentRentals + 1 < allowedRentals AND lateFee = 0 WHERE userID = ?";
+    private static final String UNRENT = "UPDATE users SET currentRentals = GREATEST(currentRentals - 1, 0), " +
+            "allowedToRent = GREATEST(currentRentals - 1, 0) < allowedRentals AND lateFee = 0 WHERE userID = ?";
+    private static final String SET_AVAILABLE = "UPDATE items SET available = ? WHERE itemID = ?";
+
+    @Override
+    public void fire(Connection connection, ResultSet oldRow, ResultSet newRow)
+    throws SQLException
+    {
+        boolean wasActive = isActive(oldRow);
+        boolean isActive = isActive(newRow);
+
+        //Updates that don't change whether the rental is active, or whose it is, change nothing
+        if (wasActive == isActive && (!wasActive || (oldRow.getInt("userID") == newRow.getInt("userID") &&
+                oldRow.getInt("itemID") == newRow.getInt("itemID"))))
+            return;
+
+        if (wasActive)
+        {
+            TitleStockTrigger.execute(connection, UNRENT, oldRow.getInt("userID"));
+            TitleStockTrigger.execute(connection, SET_AVAILABLE, 1, oldRow.getInt("itemID"));
+        }
+        if (isActive)
+        {
+            TitleStockTrigger.execute(connection, RENT, newRow.getInt("userID"));
+            TitleStockTrigger.execute(connection, SET_AVAILABLE, 0, newRow.getInt("itemID"));
+        }
+    }
+
+    private static boolean isActive(ResultSet row)
+    throws SQLException
+    {
+        return row != null && row.getObject("rentalReturnDate") == null;
+    }
+}
@@ -0,0 +1,30 @@
+package edu.groupeighteen.librarydbms.model.db;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * @author Mattias Fridsén
+ * @project LibraryDBMS
+ * @package edu.groupeighteen.librarydbms.model.db
+ * @contact matfir-1@student.ltu.se
+ * @date 10/17/2026
+ * <p>
+ * Turns the current row of a ResultSet into an object. Used by streaming queries, which construct one object per
+ * row as the rows are consumed.
+ *
+ * @param <T> the type of object to construct
+ */
+@FunctionalInterface
+public interface RowMapper<T>
+{
+    /**
+     * Constructs an object from the current row. Must not move the cursor.
+     *
+     * @param resultSet the ResultSet, positioned on the row to map
+     * @return the constructed object
+     * @throws SQLException if a column couldn't be read
+     */
+    T map(ResultSet resultSet)
+    throws SQLException;
+}
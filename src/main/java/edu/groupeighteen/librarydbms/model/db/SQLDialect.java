@@ -0,0 +1,305 @@
+package edu.groupeighteen.librarydbms.model.db;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * @author Mattias Fridsén
+ * @project LibraryDBMS
+ * @package edu.groupeighteen.librarydbms.model.db
+ * @contact matfir-1@student.ltu.se
+ * @date 10/17/2026
+ * <p>
+ * The database engines the application can run on, and what differs between them.
+ * <p>
+ * MYSQL is the default, a MySQL server reached over the network. H2 is an embedded engine running inside the
+ * application, either in memory or in a local file, for installations without a database server and for fast tests.
+ * H2 runs in its MySQL compatibility mode, with identifiers in lower case, so the queries in the handlers run
+ * unchanged. What it can't run as is:
+ * <ul>
+ *     <li>Databases are schemas in H2. "create database", "drop database" and "use" commands are translated by
+ *     {@link #translate(String)}.</li>
+ *     <li>DDL scripts have an H2 version in the h2 directory next to them, found by {@link #resolveScript(String)}.
+ *     These declare MySQL ENUM columns as VARCHAR with a CHECK constraint, and TINYINT(1) columns as TINYINT, which
+ *     JDBC reads and writes as booleans the same way.</li>
+ *     <li>Stored procedures written in SQL, see {@link #supportsStoredProcedures()}.</li>
+ *     <li>Triggers written in SQL. Its triggers are the Java classes {@link TitleStockTrigger} and
+ *     {@link RentalTrigger} instead.</li>
+ * </ul>
+ * The dialect is chosen from the JDBC url, see {@link #fromUrl(String)}.
+ */
+public enum SQLDialect
+{
+    //Integer.MIN_VALUE tells the MySQL driver to stream rows one at a time instead of reading the whole result
+    MYSQL("com.mysql.cj.jdbc.Driver", "jdbc:mysql://localhost:3306", Integer.MIN_VALUE, true)
+            {
+                @Override
+                public String translate(String command)
+                {
+                    return command;
+                }
+
+                @Override
+                public String resolveScript(String scriptPath)
+                {
+                    return scriptPath;
+                }
+
+                @Override
+                public String getCurrentDatabaseFunction()
+                {
+                    return "DATABASE()";
+                }
+
+                @Override
+                public String getCurrentDatabase(Connection connection)
+                throws SQLException
+                {
+                    return connection.getCatalog();
+                }
+
+                @Override
+                public void selectDatabase(Connection connection, String databaseName)
+                throws SQLException
+                {
+                    connection.setCatalog(databaseName);
+                }
+
+                @Override
+                public void addConnectionProperties(Properties properties, ConnectionPoolConfig poolConfig)
+                {
+                    properties.setProperty("useServerPrepStmts", String.valueOf(poolConfig.isUseServerPrepStmts()));
+                    properties.setProperty("rewriteBatchedStatements",
+                            String.valueOf(poolConfig.isRewriteBatchedStatements()));
+                }
+
+                @Override
+                public List<String> getFullScans(ResultSet plan, long maxScanRows)
+                throws SQLException
+                {
+                    //One row per table. On small tables the optimizer may scan even when an index could be used, so
+                    //a scan only counts if no index could be used, or if the table has more rows than maxScanRows
+                    List<String> fullScans = new ArrayList<>();
+                    while (plan.next())
+                    {
+                        if ("ALL".equalsIgnoreCase(plan.getString("type")) &&
+                                (plan.getString("possible_keys") == null || plan.getLong("rows") > maxScanRows))
+                            fullScans.add(plan.getString("table"));
+                    }
+                    return fullScans;
+                }
+            },
+
+    //H2 rejects negative fetch sizes, and reads large results lazily anyway
+    H2("org.h2.Driver", "jdbc:h2:./data/librarydbms;MODE=MySQL;DATABASE_TO_LOWER=TRUE", 1000, false)
+            {
+                @Override
+                public String translate(String command)
+                {
+                    Matcher matcher = CREATE_DATABASE.matcher(command);
+                    if (matcher.matches())
+                        return "CREATE SCHEMA " + optional(matcher.group(1)) + matcher.group(2);
+                    matcher = DROP_DATABASE.matcher(command);
+                    if (matcher.matches())
+                        return "DROP SCHEMA " + optional(matcher.group(1)) + matcher.group(2) + " CASCADE";
+                    matcher = USE_DATABASE.matcher(command);
+                    if (matcher.matches())
+                        return "SET SCHEMA " + matcher.group(1);
+                    return command;
+                }
+
+                @Override
+                public String resolveScript(String scriptPath)
+                {
+                    Path path = Path.of(scriptPath);
+                    Path parent = path.getParent();
+                    Path h2Script = parent == null ? Path.of("h2").resolve(path.getFileName())
+                            : parent.resolve("h2").resolve(path.getFileName());
+                    return Files.isRegularFile(h2Script) ? h2Script.toString() : scriptPath;
+                }
+
+                @Override
+                public String getCurrentDatabaseFunction()
+                {
+                    return "CURRENT_SCHEMA";
+                }
+
+                @Override
+                public String getCurrentDatabase(Connection connection)
+                throws SQLException
+                {
+                    return connection.getSchema();
+                }
+
+                @Override
+                public void selectDatabase(Connection connection, String databaseName)
+                throws SQLException
+                {
+                    connection.setSchema(databaseName);
+                }
+
+                @Override
+                public void addConnectionProperties(Properties properties, ConnectionPoolConfig poolConfig)
+                {
+                    //Statements are always prepared in-process and batches need no rewriting
+                }
+
+                @Override
+                public List<String> getFullScans(ResultSet plan, long maxScanRows)
+                throws SQLException
+                {
+                    //A single row with the plan as text, where every table read in full is marked "tableScan"
+                    List<String> fullScans = new ArrayList<>();
+                    while (plan.next())
+                    {
+                        Matcher matcher = TABLE_SCAN.matcher(plan.getString(1));
+                        while (matcher.find())
+                            fullScans.add(matcher.group(1));
+                    }
+                    return fullScans;
+                }
+            };
+
+    //Commands translated by H2
+    private static final Pattern CREATE_DATABASE = Pattern.compile(
+            "^\\s*create\\s+database\\s+(if\\s+not\\s+exists\\s+)?`?(\\w+)`?\\s*;?\\s*$", Pattern.CASE_INSENSITIVE);
+    private static final Pattern DROP_DATABASE = Pattern.compile(
+            "^\\s*drop\\s+database\\s+(if\\s+exists\\s+)?`?(\\w+)`?\\s*;?\\s*$", Pattern.CASE_INSENSITIVE);
+    private static final Pattern USE_DATABASE = Pattern.compile(
+            "^\\s*use\\s+`?(\\w+)`?\\s*;?\\s*$", Pattern.CASE_INSENSITIVE);
+    //How H2 marks a table read in full in a plan, as in "/* public.items.tableScan */"
+    private static final Pattern TABLE_SCAN = Pattern.compile(
+            "/\\*\\s*(?:\\w+\\.)?(\\w+)\\.tableScan\\b", Pattern.CASE_INSENSITIVE);
+
+    private final String driverClass;
+    private final String defaultUrl;
+    private final int streamingFetchSize;
+    private final boolean storedProcedures;
+
+    SQLDialect(String driverClass, String defaultUrl, int streamingFetchSize, boolean storedProcedures)
+    {
+        this.driverClass = driverClass;
+        this.defaultUrl = defaultUrl;
+        this.streamingFetchSize = streamingFetchSize;
+        this.storedProcedures = storedProcedures;
+    }
+
+    /**
+     * Returns the dialect of a JDBC url.
+     *
+     * @param url the JDBC url
+     * @return H2 for "jdbc:h2:" urls, otherwise MYSQL
+     */
+    public static SQLDialect fromUrl(String url)
+    {
+        if (url != null && url.regionMatches(true, 0, "jdbc:h2:", 0, "jdbc:h2:".length()))
+            return H2;
+        return MYSQL;
+    }
+
+    /**
+     * Translates a MySQL command that this dialect doesn't support into one that does the same thing.
+     *
+     * @param command the command
+     * @return the translated command, or the command itself if it needs no translation
+     */
+    public abstract String translate(String command);
+
+    /**
+     * Returns the version of an SQL script written for this dialect, if there is one.
+     *
+     * @param scriptPath the path of the MySQL script
+     * @return the path of the script to run
+     */
+    public abstract String resolveScript(String scriptPath);
+
+    /**
+     * Returns the SQL expression for the name of the database in use, for INFORMATION_SCHEMA queries.
+     *
+     * @return the SQL expression
+     */
+    public abstract String getCurrentDatabaseFunction();
+
+    /**
+     * Returns the name of the database a connection is using.
+     *
+     * @param connection the connection
+     * @return the name of the database, or null if none is selected
+     * @throws SQLException if it couldn't be retrieved
+     */
+    public abstract String getCurrentDatabase(Connection connection)
+    throws SQLException;
+
+    /**
+     * Switches a connection to a database.
+     *
+     * @param connection   the connection
+     * @param databaseName the name of the database
+     * @throws SQLException if it couldn't be selected
+     */
+    public abstract void selectDatabase(Connection connection, String databaseName)
+    throws SQLException;
+
+    /**
+     * Adds the driver settings of this dialect to the properties of a new pooled connection.
+     *
+     * @param properties the connection properties
+     * @param poolConfig the pool settings
+     */
+    public abstract void addConnectionProperties(Properties properties, ConnectionPoolConfig poolConfig);
+
+    /**
+     * Reads the result of an EXPLAIN query and returns the tables the query reads in full, without using an index.
+     *
+     * @param plan        the result of "EXPLAIN " followed by the query
+     * @param maxScanRows the number of rows a table may be expected to have and still be read in full when an index
+     *                    could have been used instead, where the plan tells. Small tables are often faster to scan
+     * @return the names of the tables read in full, empty if every table is read through an index
+     * @throws SQLException if the plan couldn't be read
+     */
+    public abstract List<String> getFullScans(ResultSet plan, long maxScanRows)
+    throws SQLException;
+
+    public String getDriverClass()
+    {
+        return driverClass;
+    }
+
+    public String getDefaultUrl()
+    {
+        return defaultUrl;
+    }
+
+    /**
+     * Returns the fetch size that makes the driver stream the rows of a result rather than read them all at once.
+     *
+     * @return the fetch size
+     */
+    public int getStreamingFetchSize()
+    {
+        return streamingFetchSize;
+    }
+
+    /**
+     * Returns whether this dialect runs the stored procedures in create_routines.sql.
+     *
+     * @return true if the procedures exist, false if their work has to be done with separate statements
+     */
+    public boolean supportsStoredProcedures()
+    {
+        return storedProcedures;
+    }
+
+    private static String optional(String group)
+    {
+        return group == null ? "" : group;
+    }
+}
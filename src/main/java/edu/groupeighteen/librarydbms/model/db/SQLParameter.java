@@ -0,0 +1,157 @@
+package edu.groupeighteen.librarydbms.model.db;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+
+/**
+ * @author Mattias Fridsén
+ * @project LibraryDBMS
+ * @package edu.groupeighteen.librarydbms.model.db
+ * @contact matfir-1@student.ltu.se
+ * @date 10/17/2026
+ * <p>
+ * A typed parameter for a PreparedStatement. Binding with the right setter (setInt rather than setString for an ID)
+ * means MySQL doesn't have to convert the value on the server, and comparisons against indexed columns can use the
+ * index as intended.
+ * <p>
+ * Created through the static of-methods, e.g. {@code SQLParameter.of(itemID)}. A null value is bound with setNull,
+ * using the SQL type of the factory method it was passed to, or the type given to {@link #ofNull(int)}.
+ */
+public final class SQLParameter
+{
+    private final int sqlType;
+    private final Object value;
+
+    /**
+     * Creates a new SQLParameter.
+     *
+     * @param sqlType the SQL type from {@link Types}
+     * @param value   the value, or null
+     */
+    private SQLParameter(int sqlType, Object value)
+    {
+        this.sqlType = sqlType;
+        this.value = value;
+    }
+
+    public static SQLParameter of(String value)
+    {
+        return new SQLParameter(Types.VARCHAR, value);
+    }
+
+    public static SQLParameter of(int value)
+    {
+        return new SQLParameter(Types.INTEGER, value);
+    }
+
+    public static SQLParameter of(long value)
+    {
+        return new SQLParameter(Types.BIGINT, value);
+    }
+
+    public static SQLParameter of(boolean value)
+    {
+        return new SQLParameter(Types.BOOLEAN, value);
+    }
+
+    public static SQLParameter of(double value)
+    {
+        return new SQLParameter(Types.DOUBLE, value);
+    }
+
+    public static SQLParameter of(Timestamp value)
+    {
+        return new SQLParameter(Types.TIMESTAMP, value);
+    }
+
+    /**
+     * LocalDateTimes are sent as they are, without being converted between time zones, which matches how the
+     * DATETIME columns are used.
+     *
+     * @param value the date and time, or null
+     * @return a new SQLParameter
+     */
+    public static SQLParameter of(LocalDateTime value)
+    {
+        return new SQLParameter(Types.TIMESTAMP, value);
+    }
+
+    /**
+     * Creates a parameter binding SQL NULL.
+     *
+     * @param sqlType the SQL type of the column, from {@link Types}
+     * @return a new SQLParameter
+     */
+    public static SQLParameter ofNull(int sqlType)
+    {
+        return new SQLParameter(sqlType, null);
+    }
+
+    /**
+     * Binds this parameter to a PreparedStatement.
+     *
+     * @param statement the statement to bind to
+     * @param index     the index of the parameter, starting at 1
+     * @throws SQLException if the parameter could not be bound
+     */
+    public void bind(PreparedStatement statement, int index)
+    throws SQLException
+    {
+        if (value == null)
+        {
+            statement.setNull(index, sqlType);
+            return;
+        }
+
+        switch (sqlType)
+        {
+            case Types.VARCHAR -> statement.setString(index, (String) value);
+            case Types.INTEGER -> statement.setInt(index, (Integer) value);
+            case Types.BIGINT -> statement.setLong(index, (Long) value);
+            case Types.BOOLEAN -> statement.setBoolean(index, (Boolean) value);
+            case Types.DOUBLE -> statement.setDouble(index, (Double) value);
+            case Types.TIMESTAMP ->
+            {
+                if (value instanceof Timestamp)
+                    statement.setTimestamp(index, (Timestamp) value);
+                else
+                    statement.setObject(index, value);
+            }
+            default -> statement.setObject(index, value, sqlType);
+        }
+    }
+
+    /**
+     * Binds every parameter in order, starting at index 1.
+     *
+     * @param statement  the statement to bind to
+     * @param parameters the parameters, can be null
+     * @throws SQLException if a parameter could not be bound
+     */
+    public static void bindAll(PreparedStatement statement, SQLParameter[] parameters)
+    throws SQLException
+    {
+        if (parameters == null) return;
+        for (int i = 0; i < parameters.length; i++)
+            parameters[i].bind(statement, i + 1);
+    }
+
+    public int getSqlType()
+    {
+        return sqlType;
+    }
+
+    public Object getValue()
+    {
+        return value;
+    }
+
+    @Override
+    public String toString()
+    {
+        return String.valueOf(value);
+    }
+}
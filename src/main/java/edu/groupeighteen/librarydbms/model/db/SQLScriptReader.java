@@ -0,0 +1,373 @@
+package edu.groupeighteen.librarydbms.model.db;
+
+import java.io.IOException;
+import java.io.PushbackReader;
+import java.io.Reader;
+
+/**
+ * @author Mattias Fridsén
+ * @project LibraryDBMS
+ * @package edu.groupeighteen.librarydbms.model.db
+ * @contact matfir-1@student.ltu.se
+ * @date 10/17/2026
+ * <p>
+ * Splits an SQL script into statements, reading it as a stream so that scripts of any size can be executed without
+ * being read into memory first.
+ * <p>
+ * Follows the rules of the mysql client closely enough for dumps and the scripts in this project:
+ * <ul>
+ *     <li>Delimiters inside 'single', "double" and `backtick` quotes don't end a statement. Quotes are escaped by
+ *     doubling them or, outside backticks, with a backslash.</li>
+ *     <li>"-- " (followed by whitespace) and "#" comment out the rest of the line, and /* ... *&#47; comments are
+ *     skipped. Executable /*! ... *&#47; comments are kept as part of the statement.</li>
+ *     <li>A line "DELIMITER xx" changes the delimiter, so that stored routines and triggers can contain semicolons.
+ *     The DELIMITER line itself is not returned.</li>
+ * </ul>
+ * The delimiter is not part of the returned statements.
+ */
+public class SQLScriptReader implements AutoCloseable
+{
+    private static final String DELIMITER_COMMAND = "DELIMITER";
+
+    //Enough look-ahead to recognize a DELIMITER command
+    private final PushbackReader reader;
+    private String delimiter = ";";
+    private long charactersRead = 0;
+
+    /**
+     * Creates a new SQLScriptReader. The reader should be buffered.
+     *
+     * @param reader the script to read
+     */
+    public SQLScriptReader(Reader reader)
+    {
+        this.reader = new PushbackReader(reader, DELIMITER_COMMAND.length() + 1);
+    }
+
+    /**
+     * Reads the next statement from the script.
+     *
+     * @return the next statement, trimmed and without its delimiter, or null at the end of the script
+     * @throws IOException if the script couldn't be read
+     */
+    public String nextStatement()
+    throws IOException
+    {
+        StringBuilder statement = new StringBuilder();
+        //Whether only whitespace has been read since the start of the line, for DELIMITER
+        boolean lineStart = true;
+
+        int c;
+        while ((c = read()) != -1)
+        {
+            char ch = (char) c;
+
+            //DELIMITER commands are only recognized at the start of a statement
+            if ((ch == 'D' || ch == 'd') && lineStart && isBlank(statement) && readDelimiterCommand())
+            {
+                statement.setLength(0);
+                continue;
+            }
+
+            switch (ch)
+            {
+                case '\'', '"', '`' ->
+                {
+                    readQuoted(ch, statement);
+                    lineStart = false;
+                    continue;
+                }
+                case '#' ->
+                {
+                    skipLine();
+                    statement.append('\n');
+                    lineStart = true;
+                    continue;
+                }
+                case '-' ->
+                {
+                    if (peek() == '-')
+                    {
+                        read();
+                        int next = peek();
+                        if (next == -1 || Character.isWhitespace(next))
+                        {
+                            skipLine();
+                            statement.append('\n');
+                            lineStart = true;
+                            continue;
+                        }
+                        statement.append('-');
+                    }
+                }
+                case '/' ->
+                {
+                    if (peek() == '*')
+                    {
+                        read();
+                        if (peek() == '!')
+                        {
+                            //Executable comment, which the server runs
+                            statement.append("/*");
+                            readExecutableComment(statement);
+                        }
+                        else
+                        {
+                            skipBlockComment();
+                            statement.append(' ');
+                        }
+                        lineStart = false;
+                        continue;
+                    }
+                }
+                default ->
+                {
+                }
+            }
+
+            statement.append(ch);
+            if (ch == '\n') lineStart = true;
+            else if (!Character.isWhitespace(ch)) lineStart = false;
+
+            //Check for the delimiter at the end of the statement so far
+            if (ch == delimiter.charAt(delimiter.length() - 1) && endsWithDelimiter(statement))
+            {
+                statement.setLength(statement.length() - delimiter.length());
+                String result = statement.toString().trim();
+                if (!result.isEmpty()) return result;
+                statement.setLength(0);
+                lineStart = true;
+            }
+        }
+
+        //A last statement without a delimiter
+        String result = statement.toString().trim();
+        return result.isEmpty() ? null : result;
+    }
+
+    /**
+     * Returns the number of characters read so far.
+     *
+     * @return the number of characters read
+     */
+    public long getCharactersRead()
+    {
+        return charactersRead;
+    }
+
+    public String getDelimiter()
+    {
+        return delimiter;
+    }
+
+    @Override
+    public void close()
+    throws IOException
+    {
+        reader.close();
+    }
+
+    //UTILITY METHODS---------------------------------------------------------------------------------------------------
+
+    /**
+     * Reads a quoted string, including its closing quote, into the statement.
+     *
+     * @param quote     the quote character, already read
+     * @param statement the statement being built
+     * @throws IOException if the quote isn't closed
+     */
+    private void readQuoted(char quote, StringBuilder statement)
+    throws IOException
+    {
+        statement.append(quote);
+        int c;
+        while ((c = read()) != -1)
+        {
+            statement.append((char) c);
+            if (c == '\\' && quote != '`')
+            {
+                int escaped = read();
+                if (escaped == -1) break;
+                statement.append((char) escaped);
+            }
+            else if (c == quote)
+            {
+                //A doubled quote is an escaped quote
+                if (peek() == quote) statement.append((char) read());
+                else return;
+            }
+        }
+        throw new IOException("Unterminated " + quote + " quote at end of script.");
+    }
+
+    /**
+     * Reads an executable comment, from after "/*", up to and including its end, into the statement.
+     *
+     * @param statement the statement being built
+     * @throws IOException if the comment isn't closed
+     */
+    private void readExecutableComment(StringBuilder statement)
+    throws IOException
+    {
+        int c;
+        while ((c = read()) != -1)
+        {
+            char ch = (char) c;
+            if (ch == '\'' || ch == '"' || ch == '`')
+            {
+                readQuoted(ch, statement);
+                continue;
+            }
+            statement.append(ch);
+            if (ch == '*' && peek() == '/')
+            {
+                statement.append((char) read());
+                return;
+            }
+        }
+        throw new IOException("Unterminated comment at end of script.");
+    }
+
+    /**
+     * Skips a block comment, from after "/*" up to and including its end.
+     *
+     * @throws IOException if the comment isn't closed
+     */
+    private void skipBlockComment()
+    throws IOException
+    {
+        int c;
+        while ((c = read()) != -1)
+        {
+            if (c == '*' && peek() == '/')
+            {
+                read();
+                return;
+            }
+        }
+        throw new IOException("Unterminated comment at end of script.");
+    }
+
+    /**
+     * Skips the rest of the current line, including the line break.
+     */
+    private void skipLine()
+    throws IOException
+    {
+        int c;
+        while ((c = read()) != -1 && c != '\n')
+        {
+            //Skip
+        }
+    }
+
+    /**
+     * Reads the rest of a DELIMITER command, whose first letter has been read, and changes the delimiter. If it isn't
+     * a DELIMITER command after all, nothing more is read.
+     *
+     * @return true if a DELIMITER command was read, otherwise false
+     * @throws IOException if the command has no delimiter
+     */
+    private boolean readDelimiterCommand()
+    throws IOException
+    {
+        //Read the rest of the keyword and the character after it, giving it all back if it doesn't match
+        char[] lookahead = new char[DELIMITER_COMMAND.length()];
+        int count = 0;
+        boolean matches = true;
+        while (count < lookahead.length)
+        {
+            int c = read();
+            if (c == -1)
+            {
+                matches = false;
+                break;
+            }
+            lookahead[count++] = (char) c;
+            if (count < DELIMITER_COMMAND.length() &&
+                    Character.toUpperCase((char) c) != DELIMITER_COMMAND.charAt(count))
+            {
+                matches = false;
+                break;
+            }
+        }
+        //The keyword must be followed by a space or tab, then the delimiter
+        if (matches && (count != lookahead.length || (lookahead[count - 1] != ' ' && lookahead[count - 1] != '\t')))
+            matches = false;
+
+        if (!matches)
+        {
+            for (int i = count - 1; i >= 0; i--)
+                unread(lookahead[i]);
+            return false;
+        }
+
+        String newDelimiter = readLine().trim();
+        if (newDelimiter.isEmpty())
+            throw new IOException("DELIMITER without a delimiter at character " + charactersRead + ".");
+        delimiter = newDelimiter;
+        return true;
+    }
+
+    /**
+     * Reads the rest of the current line, without the line break.
+     *
+     * @return the rest of the line, without a trailing carriage return
+     */
+    private String readLine()
+    throws IOException
+    {
+        StringBuilder line = new StringBuilder();
+        int c;
+        while ((c = read()) != -1 && c != '\n')
+            line.append((char) c);
+        int length = line.length();
+        if (length > 0 && line.charAt(length - 1) == '\r') line.setLength(length - 1);
+        return line.toString();
+    }
+
+    /**
+     * Checks whether the statement so far is only whitespace.
+     */
+    private static boolean isBlank(StringBuilder statement)
+    {
+        for (int i = 0; i < statement.length(); i++)
+            if (!Character.isWhitespace(statement.charAt(i))) return false;
+        return true;
+    }
+
+    /**
+     * Checks whether the statement ends with the delimiter.
+     */
+    private boolean endsWithDelimiter(StringBuilder statement)
+    {
+        int start = statement.length() - delimiter.length();
+        if (start < 0) return false;
+        for (int i = 0; i < delimiter.length(); i++)
+            if (statement.charAt(start + i) != delimiter.charAt(i)) return false;
+        return true;
+    }
+
+    private int read()
+    throws IOException
+    {
+        int c = reader.read();
+        if (c != -1) charactersRead++;
+        return c;
+    }
+
+    private void unread(int c)
+    throws IOException
+    {
+        reader.unread(c);
+        charactersRead--;
+    }
+
+    private int peek()
+    throws IOException
+    {
+        int c = reader.read();
+        if (c != -1) reader.unread(c);
+        return c;
+    }
+}
@@ -0,0 +1,262 @@
+package edu.groupeighteen.librarydbms.model.db;
+
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * @author Mattias Fridsén
+ * @project LibraryDBMS
+ * @package edu.groupeighteen.librarydbms.model.db
+ * @contact matfir-1@student.ltu.se
+ * @date 10/17/2026
+ * <p>
+ * A bounded LRU cache of PreparedStatements for a single connection, keyed by SQL text (and whether generated keys
+ * are requested). The handlers only use a few dozen fixed SQL strings, so after warming up almost every statement
+ * is reused instead of being prepared and closed again for every call.
+ * <p>
+ * A cached statement is only handed out to one caller at a time. If the same SQL is needed again before the first
+ * statement has been released (for instance a nested getItemByID while iterating over items), an uncached
+ * statement is prepared instead and closed on release.
+ */
+public class StatementCache
+{
+    private static final String CALL_PREFIX = "\u0000call\u0000";
+
+    /**
+     * Prepares a statement on the connection.
+     */
+    private interface StatementFactory
+    {
+        PreparedStatement create()
+        throws SQLException;
+    }
+
+    /**
+     * A cached statement together with its state.
+     */
+    private static class Entry
+    {
+        private final String key;
+        private final PreparedStatement statement;
+        private boolean inUse;
+        private boolean evicted;
+
+        private Entry(String key, PreparedStatement statement)
+        {
+            this.key = key;
+            this.statement = statement;
+        }
+    }
+
+    private final Connection connection;
+    private final int maxSize;
+
+    //Access-ordered, so the eldest entry is the least recently used one
+    private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    //Statements currently handed out, cached or not
+    private final Map<Statement, Entry> checkedOut = new IdentityHashMap<>();
+
+    private long hits = 0;
+    private long misses = 0;
+    private long evictions = 0;
+
+    /**
+     * Creates a new cache for the given connection.
+     *
+     * @param connection the connection to prepare statements on
+     * @param maxSize    the maximum number of statements to keep, 0 disables caching
+     */
+    public StatementCache(Connection connection, int maxSize)
+    {
+        this.connection = connection;
+        this.maxSize = maxSize;
+    }
+
+    /**
+     * Returns a PreparedStatement for the given SQL, reusing a cached one if possible. The statement must be handed
+     * back through {@link #release(Statement)} rather than closed.
+     *
+     * @param sql           the SQL to prepare
+     * @param columnIndexes the column indexes of generated keys to return, if any
+     * @return a PreparedStatement with no parameters set
+     * @throws SQLException if the statement could not be prepared
+     */
+    public synchronized PreparedStatement prepare(String sql, int... columnIndexes)
+    throws SQLException
+    {
+        if (columnIndexes == null || columnIndexes.length == 0)
+            return checkOut(sql, () -> connection.prepareStatement(sql));
+        return checkOut(sql + '\u0000' + Arrays.toString(columnIndexes),
+                () -> connection.prepareStatement(sql, columnIndexes));
+    }
+
+    /**
+     * Returns a CallableStatement for the given call, reusing a cached one if possible. The statement must be handed
+     * back through {@link #release(Statement)} rather than closed.
+     *
+     * @param sql the call to prepare, e.g. "{call procedure(?, ?)}"
+     * @return a CallableStatement with no parameters set
+     * @throws SQLException if the statement could not be prepared
+     */
+    public synchronized CallableStatement prepareCall(String sql)
+    throws SQLException
+    {
+        //Kept apart from a PreparedStatement of the same SQL
+        return (CallableStatement) checkOut(CALL_PREFIX + sql, () -> connection.prepareCall(sql));
+    }
+
+    /**
+     * Hands out the cached statement with the given key if it is free, or prepares a new one.
+     *
+     * @param key     the key of the statement in the cache
+     * @param factory prepares a new statement
+     * @return the statement, marked as in use
+     * @throws SQLException if the statement could not be prepared
+     */
+    private PreparedStatement checkOut(String key, StatementFactory factory)
+    throws SQLException
+    {
+        Entry entry = entries.get(key);
+        if (entry != null && !entry.inUse)
+        {
+            hits++;
+            entry.inUse = true;
+            checkedOut.put(entry.statement, entry);
+            return entry.statement;
+        }
+
+        misses++;
+        PreparedStatement statement = factory.create();
+
+        //Already handed out, don't cache a second copy
+        if (entry != null || maxSize <= 0)
+        {
+            checkedOut.put(statement, null);
+            return statement;
+        }
+
+        entry = new Entry(key, statement);
+        entry.inUse = true;
+        entries.put(key, entry);
+        checkedOut.put(statement, entry);
+        evictIfNeeded();
+        return statement;
+    }
+
+    /**
+     * Hands a statement back to the cache. Cached statements have their parameters cleared and are kept open,
+     * statements that aren't cached (or have been evicted while in use) are closed.
+     *
+     * @param statement the statement to release
+     */
+    public synchronized void release(Statement statement)
+    {
+        if (statement == null) return;
+
+        Entry entry = checkedOut.remove(statement);
+        if (entry == null || entry.evicted)
+        {
+            closeQuietly(statement);
+            return;
+        }
+
+        try
+        {
+            entry.statement.clearParameters();
+            entry.statement.clearBatch();
+            entry.inUse = false;
+        }
+        catch (SQLException e)
+        {
+            //Not safe to reuse
+            entries.remove(entry.key);
+            closeQuietly(statement);
+        }
+    }
+
+    /**
+     * Closes and forgets every cached statement. Statements that are currently handed out are closed once they are
+     * released. Used when the connection switches database, since statements are bound to the tables they were
+     * prepared against.
+     */
+    public synchronized void clear()
+    {
+        for (Entry entry : entries.values())
+        {
+            entry.evicted = true;
+            if (!entry.inUse)
+                closeQuietly(entry.statement);
+        }
+        entries.clear();
+    }
+
+    /**
+     * Evicts the least recently used statements until the cache is within its maximum size.
+     */
+    private void evictIfNeeded()
+    {
+        Iterator<Entry> iterator = entries.values().iterator();
+        while (entries.size() > maxSize && iterator.hasNext())
+        {
+            Entry eldest = iterator.next();
+            iterator.remove();
+            eldest.evicted = true;
+            evictions++;
+            if (!eldest.inUse)
+                closeQuietly(eldest.statement);
+        }
+    }
+
+    /**
+     * Closes a statement, ignoring any errors.
+     *
+     * @param statement the statement to close
+     */
+    private static void closeQuietly(Statement statement)
+    {
+        try
+        {
+            statement.close();
+        }
+        catch (SQLException e)
+        {
+            System.err.println("Error closing statement: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Getters are self-explanatory.
+     */
+    public synchronized int size()
+    {
+        return entries.size();
+    }
+
+    public int getMaxSize()
+    {
+        return maxSize;
+    }
+
+    public synchronized long getHits()
+    {
+        return hits;
+    }
+
+    public synchronized long getMisses()
+    {
+        return misses;
+    }
+
+    public synchronized long getEvictions()
+    {
+        return evictions;
+    }
+}
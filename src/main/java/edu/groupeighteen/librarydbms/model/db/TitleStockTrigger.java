@@ -0,0 +1,78 @@
+package edu.groupeighteen.librarydbms.model.db;
+
+import org.h2.tools.TriggerAdapter;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * @author Mattias Fridsén
+ * @project LibraryDBMS
+ * @package edu.groupeighteen.librarydbms.model.db
+ * @contact matfir-1@student.ltu.se
+ * @date 10/17/2026
+ * <p>
+ * Keeps the title_stock table up to date when items are inserted, updated or deleted, on H2. H2 triggers are Java
+ * classes, so this does what the items triggers of create_triggers.sql do on MySQL. Created by h2/create_triggers.sql.
+ */
+public class TitleStockTrigger extends TriggerAdapter
+{
+    private static final String ADD_COPY = "UPDATE title_stock SET totalCopies = totalCopies + 1, " +
+            "availableCopies = availableCopies + ? WHERE title = ?";
+    private static final String INSERT_TITLE = "INSERT INTO title_stock (title, totalCopies, availableCopies) " +
+            "VALUES (?, 1, ?)";
+    private static final String REMOVE_COPY = "UPDATE title_stock SET totalCopies = totalCopies - 1, " +
+            "availableCopies = availableCopies - ? WHERE title = ?";
+    private static final String DELETE_EMPTY_TITLE = "DELETE FROM title_stock WHERE title = ? AND totalCopies = 0";
+
+    @Override
+    public void fire(Connection connection, ResultSet oldRow, ResultSet newRow)
+    throws SQLException
+    {
+        //Updates that don't change the title or availability don't change the stock
+        if (oldRow != null && newRow != null && oldRow.getString("title").equals(newRow.getString("title")) &&
+                oldRow.getInt("available") == newRow.getInt("available"))
+            return;
+
+        if (oldRow != null)
+            removeCopy(connection, oldRow.getString("title"), oldRow.getInt("available"));
+        if (newRow != null)
+            addCopy(connection, newRow.getString("title"), newRow.getInt("available"));
+    }
+
+    private static void addCopy(Connection connection, String title, int available)
+    throws SQLException
+    {
+        if (execute(connection, ADD_COPY, available, title) == 0)
+            execute(connection, INSERT_TITLE, title, available);
+    }
+
+    private static void removeCopy(Connection connection, String title, int available)
+    throws SQLException
+    {
+        execute(connection, REMOVE_COPY, available, title);
+        execute(connection, DELETE_EMPTY_TITLE, title);
+    }
+
+    /**
+     * Runs an update in the session that fired the trigger, and so in its transaction.
+     *
+     * @param connection the connection of the session
+     * @param sql        the update
+     * @param params     the parameters of the update
+     * @return the number of rows changed
+     * @throws SQLException if the update failed
+     */
+    static int execute(Connection connection, String sql, Object... params)
+    throws SQLException
+    {
+        try (PreparedStatement statement = connection.prepareStatement(sql))
+        {
+            for (int i = 0; i < params.length; i++)
+                statement.setObject(i + 1, params[i]);
+            return statement.executeUpdate();
+        }
+    }
+}
@@ -0,0 +1,230 @@
+package edu.groupeighteen.librarydbms.model.db;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Savepoint;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * @author Mattias Fridsén
+ * @project LibraryDBMS
+ * @package edu.groupeighteen.librarydbms.model.db
+ * @contact matfir-1@student.ltu.se
+ * @date 10/17/2026
+ * <p>
+ * A unit of work on a pooled connection. While a Transaction is open, the connection stays leased to the thread that
+ * began it, so every query and update the thread runs through DatabaseHandler is part of the transaction.
+ * <p>
+ * Transactions can be nested. The outermost Transaction turns off auto-commit and commits or rolls back for real,
+ * nested ones set a savepoint and release it or roll back to it. Nothing is written until the outermost Transaction
+ * commits.
+ * <p>
+ * Work that must wait until the changes are visible to other connections, such as invalidating caches, is registered
+ * with {@link #afterCommit(Runnable)}. It runs once the outermost Transaction has committed, and is dropped if the
+ * Transaction it was registered in rolls back.
+ * <p>
+ * Implements {@link AutoCloseable} in order to be used with try-with-resources. A Transaction that is closed without
+ * having been committed is rolled back.
+ */
+public class Transaction implements AutoCloseable
+{
+    //The innermost open Transaction of each thread
+    private static final ThreadLocal<Transaction> current = new ThreadLocal<>();
+
+    private final PooledConnection pooledConnection;
+    private final Transaction parent;
+    private final Savepoint savepoint;
+    private boolean completed = false;
+    //Run after the outermost Transaction commits, in the order registered
+    private final List<Runnable> afterCommit = new ArrayList<>();
+
+    /**
+     * Begins a new Transaction on a pooled connection leased to the calling thread. Nests inside the thread's
+     * current Transaction, if there is one. The Transaction takes over the lease, and releases it when completed.
+     *
+     * @param pooledConnection a connection leased to the calling thread
+     * @throws SQLException if auto-commit couldn't be turned off, or the savepoint couldn't be set
+     */
+    public Transaction(PooledConnection pooledConnection)
+    throws SQLException
+    {
+        this.pooledConnection = pooledConnection;
+        this.parent = current.get();
+
+        Connection connection = pooledConnection.getConnection();
+        if (parent == null)
+        {
+            connection.setAutoCommit(false);
+            this.savepoint = null;
+        }
+        else this.savepoint = connection.setSavepoint();
+
+        current.set(this);
+    }
+
+    /**
+     * Returns the calling thread's innermost open Transaction.
+     *
+     * @return the current Transaction, or null if the thread isn't in one
+     */
+    public static Transaction getCurrent()
+    {
+        return current.get();
+    }
+
+    /**
+     * Registers an action to run once the changes of this Transaction have been committed by the outermost
+     * Transaction, on the thread that commits it. Dropped if this Transaction, or one enclosing it, rolls back.
+     *
+     * @param action the action
+     */
+    public void afterCommit(Runnable action)
+    {
+        afterCommit.add(action);
+    }
+
+    /**
+     * Commits the Transaction. For a nested Transaction, the work is kept but not written until the outermost
+     * Transaction commits. The actions registered with {@link #afterCommit(Runnable)} run once the outermost
+     * Transaction has committed.
+     *
+     * @throws SQLException if the Transaction is already completed, or the commit fails
+     */
+    public void commit()
+    throws SQLException
+    {
+        checkActive();
+        try
+        {
+            if (savepoint == null) pooledConnection.getConnection().commit();
+            else pooledConnection.getConnection().releaseSavepoint(savepoint);
+        }
+        finally
+        {
+            complete();
+        }
+
+        //Only reached once committed
+        if (parent != null) parent.afterCommit.addAll(afterCommit);
+        else runAfterCommit();
+        afterCommit.clear();
+    }
+
+    /**
+     * Rolls back everything done since the Transaction began. Rolling back a nested Transaction doesn't affect
+     * work done by the enclosing Transaction before the nested one began.
+     *
+     * @throws SQLException if the Transaction is already completed, or the rollback fails
+     */
+    public void rollback()
+    throws SQLException
+    {
+        checkActive();
+        try
+        {
+            if (savepoint == null) pooledConnection.getConnection().rollback();
+            else pooledConnection.getConnection().rollback(savepoint);
+        }
+        finally
+        {
+            afterCommit.clear();
+            complete();
+        }
+    }
+
+    /**
+     * Rolls back the Transaction unless it has already been committed or rolled back.
+     */
+    @Override
+    public void close()
+    {
+        if (completed) return;
+        try
+        {
+            rollback();
+        }
+        catch (SQLException e)
+        {
+            System.err.println("Error rolling back transaction: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Returns whether this Transaction has been committed or rolled back.
+     *
+     * @return true if completed, otherwise false
+     */
+    public boolean isCompleted()
+    {
+        return completed;
+    }
+
+    /**
+     * Returns whether this Transaction is nested inside another one.
+     *
+     * @return true if nested, otherwise false
+     */
+    public boolean isNested()
+    {
+        return parent != null;
+    }
+
+    /**
+     * Runs the actions registered to run after commit. One that fails doesn't stop the others.
+     */
+    private void runAfterCommit()
+    {
+        for (Runnable action : afterCommit)
+        {
+            try
+            {
+                action.run();
+            }
+            catch (RuntimeException e)
+            {
+                System.err.println("Error running action after commit: " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Throws an SQLException if this Transaction can no longer be committed or rolled back. Nested Transactions
+     * must be completed before the Transaction enclosing them.
+     *
+     * @throws SQLException if completed, or not the thread's innermost Transaction
+     */
+    private void checkActive()
+    throws SQLException
+    {
+        if (completed)
+            throw new SQLException("Transaction has already been completed.");
+        if (current.get() != this)
+            throw new SQLException("Transaction must be completed on the thread that began it, after any " +
+                    "transactions nested inside it.");
+    }
+
+    /**
+     * Marks the Transaction as completed, restores auto-commit if this was the outermost Transaction, and releases
+     * the connection lease.
+     */
+    private void complete()
+    {
+        completed = true;
+        if (parent == null) current.remove();
+        else current.set(parent);
+
+        if (parent == null)
+        {
+            try
+            {
+                pooledConnection.getConnection().setAutoCommit(true);
+            }
+            catch (SQLException e)
+            {
+                System.err.println("Error restoring auto-commit: " + e.getMessage());
+            }
+        }
+        pooledConnection.release();
+    }
+}
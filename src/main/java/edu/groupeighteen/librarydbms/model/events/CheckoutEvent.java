@@ -0,0 +1,52 @@
+package edu.groupeighteen.librarydbms.model.events;
+
+import jdk.jfr.*;
+
+/**
+ * @author Mattias Fridsén
+ * @project LibraryDBMS
+ * @package edu.groupeighteen.librarydbms.model.events
+ * @contact matfir-1@student.ltu.se
+ * @date 10/17/2026
+ * <p>
+ * Flight Recorder event for creating a rental, from validating the IDs until the transaction has been committed.
+ */
+@Name("librarydbms.Checkout")
+@Label("Checkout")
+@Category({"LibraryDBMS", "Rentals"})
+@Description("RentalHandler.createNewRental")
+public class CheckoutEvent extends Event
+{
+    @Label("User ID")
+    private int userID;
+
+    @Label("Item ID")
+    @Description("The item rented, which can differ from the requested one if that one wasn't available")
+    private int itemID;
+
+    @Label("Rental ID")
+    private int rentalID;
+
+    @Label("Succeeded")
+    private boolean succeeded;
+
+    public void setUserID(int userID)
+    {
+        this.userID = userID;
+    }
+
+    public void setItemID(int itemID)
+    {
+        this.itemID = itemID;
+    }
+
+    public void setRentalID(int rentalID)
+    {
+        this.rentalID = rentalID;
+    }
+
+    public void setSucceeded(boolean succeeded)
+    {
+        this.succeeded = succeeded;
+    }
+}
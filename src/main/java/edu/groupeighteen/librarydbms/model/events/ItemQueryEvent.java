@@ -0,0 +1,37 @@
+package edu.groupeighteen.librarydbms.model.events;
+
+import jdk.jfr.*;
+
+/**
+ * @author Mattias Fridsén
+ * @project LibraryDBMS
+ * @package edu.groupeighteen.librarydbms.model.events
+ * @contact matfir-1@student.ltu.se
+ * @date 10/17/2026
+ * <p>
+ * Flight Recorder event for retrieving items, including constructing them from the rows. The difference from the
+ * duration of the StatementEvent inside it is the time spent in Java.
+ */
+@Name("librarydbms.ItemQuery")
+@Label("Item Query")
+@Category({"LibraryDBMS", "Items"})
+@Description("ItemHandler.getItems")
+public class ItemQueryEvent extends Event
+{
+    @Label("SQL Suffix")
+    @Description("The conditions appended to the item query")
+    private String sqlSuffix;
+
+    @Label("Rows")
+    private long rows;
+
+    public void setSqlSuffix(String sqlSuffix)
+    {
+        this.sqlSuffix = sqlSuffix;
+    }
+
+    public void setRows(long rows)
+    {
+        this.rows = rows;
+    }
+}
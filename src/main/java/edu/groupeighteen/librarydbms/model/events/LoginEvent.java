@@ -0,0 +1,36 @@
+package edu.groupeighteen.librarydbms.model.events;
+
+import jdk.jfr.*;
+
+/**
+ * @author Mattias Fridsén
+ * @project LibraryDBMS
+ * @package edu.groupeighteen.librarydbms.model.events
+ * @contact matfir-1@student.ltu.se
+ * @date 10/17/2026
+ * <p>
+ * Flight Recorder event for a login attempt.
+ */
+@Name("librarydbms.Login")
+@Label("Login")
+@Category({"LibraryDBMS", "Users"})
+@Description("UserHandler.login")
+public class LoginEvent extends Event
+{
+    @Label("Username")
+    private String username;
+
+    @Label("Succeeded")
+    @Description("Whether the username and password matched")
+    private boolean succeeded;
+
+    public void setUsername(String username)
+    {
+        this.username = username;
+    }
+
+    public void setSucceeded(boolean succeeded)
+    {
+        this.succeeded = succeeded;
+    }
+}
@@ -0,0 +1,51 @@
+package edu.groupeighteen.librarydbms.model.events;
+
+import jdk.jfr.*;
+
+/**
+ * @author Mattias Fridsén
+ * @project LibraryDBMS
+ * @package edu.groupeighteen.librarydbms.model.events
+ * @contact matfir-1@student.ltu.se
+ * @date 10/17/2026
+ * <p>
+ * Flight Recorder event for returning a rental, from validating it until the transaction has been committed.
+ */
+@Name("librarydbms.Return")
+@Label("Return")
+@Category({"LibraryDBMS", "Rentals"})
+@Description("RentalHandler.returnRental")
+public class ReturnEvent extends Event
+{
+    @Label("Rental ID")
+    private int rentalID;
+
+    @Label("User ID")
+    private int userID;
+
+    @Label("Item ID")
+    private int itemID;
+
+    @Label("Succeeded")
+    private boolean succeeded;
+
+    public void setRentalID(int rentalID)
+    {
+        this.rentalID = rentalID;
+    }
+
+    public void setUserID(int userID)
+    {
+        this.userID = userID;
+    }
+
+    public void setItemID(int itemID)
+    {
+        this.itemID = itemID;
+    }
+
+    public void setSucceeded(boolean succeeded)
+    {
+        this.succeeded = succeeded;
+    }
+}
@@ -0,0 +1,58 @@
+package edu.groupeighteen.librarydbms.model.events;
+
+import jdk.jfr.*;
+
+/**
+ * @author Mattias Fridsén
+ * @project LibraryDBMS
+ * @package edu.groupeighteen.librarydbms.model.events
+ * @contact matfir-1@student.ltu.se
+ * @date 10/17/2026
+ * <p>
+ * Flight Recorder event for a statement executed through the DatabaseHandler. The duration is the time until the
+ * statement was executed, for queries not including reading the result, which is when rows are counted.
+ */
+@Name("librarydbms.Statement")
+@Label("SQL Statement")
+@Category({"LibraryDBMS", "Database"})
+@Description("A statement executed through the DatabaseHandler")
+@StackTrace(false)
+public class StatementEvent extends Event
+{
+    private static final EventType TYPE = EventType.getEventType(StatementEvent.class);
+
+    @Label("SQL Template")
+    private String template;
+
+    @Label("Rows")
+    @Description("Rows returned or affected")
+    private long rows;
+
+    @Label("Failed")
+    private boolean failed;
+
+    /**
+     * Returns whether StatementEvents are being recorded, so that they don't have to be created when they aren't.
+     *
+     * @return true if a recording with StatementEvents enabled is running, otherwise false
+     */
+    public static boolean isRecording()
+    {
+        return TYPE.isEnabled();
+    }
+
+    public void setTemplate(String template)
+    {
+        this.template = template;
+    }
+
+    public void setRows(long rows)
+    {
+        this.rows = rows;
+    }
+
+    public void setFailed(boolean failed)
+    {
+        this.failed = failed;
+    }
+}
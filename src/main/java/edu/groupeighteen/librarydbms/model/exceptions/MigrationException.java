@@ -0,0 +1,24 @@
+package edu.groupeighteen.librarydbms.model.exceptions;
+
+/**
+ * @author Mattias Fridsén
+ * @project LibraryDBMS
+ * @package edu.groupeighteen.librarydbms.model.exceptions
+ * @contact matfir-1@student.ltu.se
+ * @date 10/17/2026
+ * <p>
+ * Custom MigrationException class. Thrown when the database schema can't be brought up to date, for instance
+ * because a script that has already been applied has since been changed.
+ */
+public class MigrationException extends Exception
+{
+    public MigrationException(String message, Throwable cause)
+    {
+        super(message, cause);
+    }
+
+    public MigrationException(String message)
+    {
+        super(message);
+    }
+}
@@ -0,0 +1,8 @@
+-- @author Mattias Fridsén
+-- @project LibraryDBMS
+-- @date 10/18/2026
+-- @contact matfir-1@student.ltu.se
+
+-- Makes titles that differ only in case the same title in title_stock, as TitleStock caches them.
+-- On MySQL the title column already compares by the case-insensitive default collation, so nothing changes here.
+-- See h2/alter_title_stock.sql for the embedded H2 engine.
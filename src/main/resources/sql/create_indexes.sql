@@ -0,0 +1,27 @@
+-- @author Mattias Fridsén
+-- @project LibraryDBMS
+-- @date 10/17/2026
+-- @contact matfir-1@student.ltu.se
+
+-- Creates the secondary indexes used by the queries of the handlers.
+-- Primary keys, UNIQUE columns and foreign keys are already indexed by create_tables.sql.
+-- The queries that use each index are checked by QueryPlanChecker, so add them there when adding one here.
+
+-- Items by title, from getItemsByTitle and getAvailableCopy.
+-- Covers the title, availability and barcode sync query, which never has to read the rows.
+CREATE INDEX idx_items_title ON items (title, available, barcode);
+
+-- Literature by ISBN
+CREATE INDEX idx_literature_isbn ON literature (ISBN);
+
+-- Overdue rentals: not returned, and due before a date
+CREATE INDEX idx_rentals_return_due ON rentals (rentalReturnDate, rentalDueDate);
+
+-- Rentals by the date, or range of dates, they were made
+CREATE INDEX idx_rentals_date ON rentals (rentalDate);
+
+-- Authors by first name, or first and last name
+CREATE INDEX idx_authors_name ON authors (authorFirstname, authorLastname);
+
+-- Authors by last name only
+CREATE INDEX idx_authors_lastname ON authors (authorLastname);
@@ -1 +1,178 @@
--- //TODO add routines here
\ No newline at end of file
+-- @author Mattias Fridsén
+-- @project LibraryDBMS
+-- @date 10/17/2026
+-- @contact matfir-1@student.ltu.se
+
+-- Creates the stored routines of the database.
+-- Checking out and returning an item are procedures, so that each costs RentalHandler a single round trip.
+-- Both return one row, starting with a status that is 0 if the procedure succeeded, and otherwise tells why it
+-- changed nothing. RentalHandler turns the statuses into exceptions.
+-- Local variables start with a v, since in a routine they would hide columns with the same name.
+-- Both run in a transaction of their own, unless called inside one, and lock the rows they read until it ends.
+
+DELIMITER //
+
+-- Rents an item to a user. If the item is rented out, another available copy with the same title is rented instead.
+-- Statuses: 1 user not found, 2 user deleted, 3 user not allowed to rent,
+--           4 item not found, 5 item deleted, 6 item not allowed for rent, 7 no available copy
+-- Returns:  status, rentalID, itemID, username, itemTitle, itemType, rentalDueDate, receipt
+CREATE PROCEDURE checkout_item(IN inUserID INT, IN inItemID INT, IN inRentalDate DATETIME)
+BEGIN
+    DECLARE vOwnTransaction BOOLEAN DEFAULT @@autocommit = 1;
+    DECLARE vStatus INT DEFAULT 0;
+    DECLARE vUsername VARCHAR(20);
+    DECLARE vUserDeleted BOOLEAN;
+    DECLARE vAllowedToRent BOOLEAN;
+    DECLARE vItemID INT;
+    DECLARE vTitle VARCHAR(255);
+    DECLARE vItemType VARCHAR(20);
+    DECLARE vRentalDays INT;
+    DECLARE vAvailable BOOLEAN;
+    DECLARE vItemDeleted BOOLEAN;
+    DECLARE vRentalID INT;
+    DECLARE vDueDate DATETIME;
+    DECLARE vReceipt TEXT;
+
+    -- Rows that aren't found leave the variables NULL
+    DECLARE CONTINUE HANDLER FOR NOT FOUND BEGIN END;
+    DECLARE EXIT HANDLER FOR SQLEXCEPTION
+    BEGIN
+        IF vOwnTransaction THEN
+            ROLLBACK;
+        END IF;
+        RESIGNAL;
+    END;
+
+    IF vOwnTransaction THEN
+        START TRANSACTION;
+    END IF;
+
+    SELECT username, deleted, allowedToRent
+    INTO vUsername, vUserDeleted, vAllowedToRent
+    FROM users
+    WHERE userID = inUserID
+    FOR UPDATE;
+
+    IF vUsername IS NULL THEN
+        SET vStatus = 1;
+    ELSEIF vUserDeleted THEN
+        SET vStatus = 2;
+    ELSEIF NOT vAllowedToRent THEN
+        SET vStatus = 3;
+    ELSE
+        SELECT itemID, title, itemType, allowedRentalDays, available, deleted
+        INTO vItemID, vTitle, vItemType, vRentalDays, vAvailable, vItemDeleted
+        FROM items
+        WHERE itemID = inItemID
+        FOR UPDATE;
+
+        IF vItemID IS NULL THEN
+            SET vStatus = 4;
+        ELSEIF vItemDeleted THEN
+            SET vStatus = 5;
+        ELSEIF vRentalDays <= 0 THEN
+            SET vStatus = 6;
+        ELSE
+            -- Another copy, using idx_items_title
+            IF NOT vAvailable THEN
+                SET vItemID = NULL;
+                SELECT itemID, itemType, allowedRentalDays
+                INTO vItemID, vItemType, vRentalDays
+                FROM items
+                WHERE title = vTitle AND available = 1 AND deleted = 0 AND allowedRentalDays > 0
+                ORDER BY itemID
+                LIMIT 1
+                FOR UPDATE;
+            END IF;
+
+            IF vItemID IS NULL THEN
+                SET vStatus = 7;
+            ELSE
+                -- Due at 20:00, like Rental.RENTAL_DUE_DATE_HOURS
+                SET vDueDate = TIMESTAMP(DATE(inRentalDate + INTERVAL vRentalDays DAY), '20:00:00');
+                -- Dates are written like LocalDateTime.toString(), which leaves out zero seconds
+                SET vReceipt = CONCAT('\nRECEIPT',
+                                     '\nRental Date: ', DATE_FORMAT(inRentalDate,
+                                                                    IF(SECOND(inRentalDate) = 0, '%Y-%m-%dT%H:%i',
+                                                                       '%Y-%m-%dT%H:%i:%s')),
+                                     '\nRental Due Date: ', DATE_FORMAT(vDueDate, '%Y-%m-%dT%H:%i'),
+                                     '\nUser ID: ', inUserID, ', User: ', vUsername,
+                                     '\nItem Title: ', vTitle,
+                                     '\nItem Type: ', vItemType, '\n');
+
+                INSERT INTO rentals (userID, itemID, rentalDate, rentalDueDate, rentalReturnDate, lateFee, receipt,
+                                     deleted)
+                VALUES (inUserID, vItemID, inRentalDate, vDueDate, NULL, 0.0, vReceipt, 0);
+                SET vRentalID = LAST_INSERT_ID();
+
+                UPDATE items SET available = 0 WHERE itemID = vItemID;
+                -- Assignments are made left to right, so allowedToRent sees the new currentRentals
+                UPDATE users
+                SET currentRentals = currentRentals + 1,
+                    allowedToRent  = currentRentals < allowedRentals AND lateFee = 0
+                WHERE userID = inUserID;
+            END IF;
+        END IF;
+    END IF;
+
+    IF vOwnTransaction THEN
+        COMMIT;
+    END IF;
+
+    SELECT vStatus AS status, vRentalID AS rentalID, vItemID AS itemID, vUsername AS username,
+           vTitle AS itemTitle, vItemType AS itemType, vDueDate AS rentalDueDate, vReceipt AS receipt;
+END //
+
+-- Returns a rented item.
+-- Statuses: 1 rental not found, 2 rental already returned
+-- Returns:  status, itemID, itemTitle
+CREATE PROCEDURE return_item(IN inRentalID INT, IN inReturnDate DATETIME)
+BEGIN
+    DECLARE vOwnTransaction BOOLEAN DEFAULT @@autocommit = 1;
+    DECLARE vStatus INT DEFAULT 0;
+    DECLARE vUserID INT;
+    DECLARE vItemID INT;
+    DECLARE vReturnDate DATETIME;
+    DECLARE vTitle VARCHAR(255);
+
+    DECLARE CONTINUE HANDLER FOR NOT FOUND BEGIN END;
+    DECLARE EXIT HANDLER FOR SQLEXCEPTION
+    BEGIN
+        IF vOwnTransaction THEN
+            ROLLBACK;
+        END IF;
+        RESIGNAL;
+    END;
+
+    IF vOwnTransaction THEN
+        START TRANSACTION;
+    END IF;
+
+    SELECT userID, itemID, rentalReturnDate
+    INTO vUserID, vItemID, vReturnDate
+    FROM rentals
+    WHERE rentalID = inRentalID
+    FOR UPDATE;
+
+    IF vUserID IS NULL THEN
+        SET vStatus = 1;
+    ELSEIF vReturnDate IS NOT NULL THEN
+        SET vStatus = 2;
+    ELSE
+        UPDATE rentals SET rentalReturnDate = inReturnDate WHERE rentalID = inRentalID;
+        UPDATE users
+        SET currentRentals = GREATEST(currentRentals - 1, 0),
+            allowedToRent  = currentRentals < allowedRentals AND lateFee = 0
+        WHERE userID = vUserID;
+        UPDATE items SET available = 1 WHERE itemID = vItemID;
+        SELECT title INTO vTitle FROM items WHERE itemID = vItemID;
+    END IF;
+
+    IF vOwnTransaction THEN
+        COMMIT;
+    END IF;
+
+    SELECT vStatus AS status, vItemID AS itemID, vTitle AS itemTitle;
+END //
+
+DELIMITER ;
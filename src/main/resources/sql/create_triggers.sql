@@ -1 +1,291 @@
--- //TODO add triggers here
\ No newline at end of file
+-- @author Mattias Fridsén
+-- @project LibraryDBMS
+-- @date 10/17/2026
+-- @contact matfir-1@student.ltu.se
+
+-- Creates the triggers of the database, and the title_stock table they keep up to date.
+-- A user's currentRentals and allowedToRent, and an item's availability, follow from the user's and item's active
+-- rentals, that is the ones without a return date. The triggers on rentals change them whenever a rental starts or
+-- stops being active, with a single UPDATE of each row, so two desks renting to the same user can't overwrite each
+-- other's count, and RentalHandler no longer reads and rewrites the whole user and item.
+-- title_stock holds the number of copies of each title, and how many of them are available. The triggers on items
+-- keep it up to date, including when the triggers on rentals change an item's availability.
+-- Rentals that are soft deleted still count, like items that are soft deleted.
+
+-- Copies and available copies per title
+CREATE TABLE title_stock
+(
+    title           VARCHAR(255) NOT NULL,
+    totalCopies     INT          NOT NULL,
+    availableCopies INT          NOT NULL,
+    PRIMARY KEY (title)
+);
+
+-- The items that exist before the triggers do
+INSERT INTO title_stock (title, totalCopies, availableCopies)
+SELECT title, COUNT(*), SUM(available)
+FROM items
+GROUP BY title;
+
+DELIMITER //
+
+-- Items ---------------------------------------------------------------------------------------------------------------
+
+CREATE TRIGGER items_after_insert
+    AFTER INSERT
+    ON items
+    FOR EACH ROW
+BEGIN
+    INSERT INTO title_stock (title, totalCopies, availableCopies)
+    VALUES (NEW.title, 1, NEW.available)
+    ON DUPLICATE KEY UPDATE totalCopies     = totalCopies + 1,
+                            availableCopies = availableCopies + NEW.available;
+END //
+
+CREATE TRIGGER items_after_update
+    AFTER UPDATE
+    ON items
+    FOR EACH ROW
+BEGIN
+    IF NEW.title <> OLD.title OR NEW.available <> OLD.available THEN
+        UPDATE title_stock
+        SET totalCopies     = totalCopies - 1,
+            availableCopies = availableCopies - OLD.available
+        WHERE title = OLD.title;
+        DELETE FROM title_stock WHERE title = OLD.title AND totalCopies = 0;
+
+        INSERT INTO title_stock (title, totalCopies, availableCopies)
+        VALUES (NEW.title, 1, NEW.available)
+        ON DUPLICATE KEY UPDATE totalCopies     = totalCopies + 1,
+                                availableCopies = availableCopies + NEW.available;
+    END IF;
+END //
+
+CREATE TRIGGER items_after_delete
+    AFTER DELETE
+    ON items
+    FOR EACH ROW
+BEGIN
+    UPDATE title_stock
+    SET totalCopies     = totalCopies - 1,
+        availableCopies = availableCopies - OLD.available
+    WHERE title = OLD.title;
+    DELETE FROM title_stock WHERE title = OLD.title AND totalCopies = 0;
+END //
+
+-- Rentals -------------------------------------------------------------------------------------------------------------
+-- Assignments are made left to right, so allowedToRent sees the new currentRentals
+
+CREATE TRIGGER rentals_after_insert
+    AFTER INSERT
+    ON rentals
+    FOR EACH ROW
+BEGIN
+    IF NEW.rentalReturnDate IS NULL THEN
+        UPDATE users
+        SET currentRentals = currentRentals + 1,
+            allowedToRent  = currentRentals < allowedRentals AND lateFee = 0
+        WHERE userID = NEW.userID;
+        UPDATE items SET available = 0 WHERE itemID = NEW.itemID;
+    END IF;
+END //
+
+-- Returning a rental, or moving an active rental to another user or item
+CREATE TRIGGER rentals_after_update
+    AFTER UPDATE
+    ON rentals
+    FOR EACH ROW
+BEGIN
+    IF (OLD.rentalReturnDate IS NULL) <> (NEW.rentalReturnDate IS NULL)
+        OR NEW.userID <> OLD.userID OR NEW.itemID <> OLD.itemID THEN
+        IF OLD.rentalReturnDate IS NULL THEN
+            UPDATE users
+            SET currentRentals = GREATEST(currentRentals - 1, 0),
+                allowedToRent  = currentRentals < allowedRentals AND lateFee = 0
+            WHERE userID = OLD.userID;
+            UPDATE items SET available = 1 WHERE itemID = OLD.itemID;
+        END IF;
+        IF NEW.rentalReturnDate IS NULL THEN
+            UPDATE users
+            SET currentRentals = currentRentals + 1,
+                allowedToRent  = currentRentals < allowedRentals AND lateFee = 0
+            WHERE userID = NEW.userID;
+            UPDATE items SET available = 0 WHERE itemID = NEW.itemID;
+        END IF;
+    END IF;
+END //
+
+-- Removing an active rental returns it
+CREATE TRIGGER rentals_after_delete
+    AFTER DELETE
+    ON rentals
+    FOR EACH ROW
+BEGIN
+    IF OLD.rentalReturnDate IS NULL THEN
+        UPDATE users
+        SET currentRentals = GREATEST(currentRentals - 1, 0),
+            allowedToRent  = currentRentals < allowedRentals AND lateFee = 0
+        WHERE userID = OLD.userID;
+        UPDATE items SET available = 1 WHERE itemID = OLD.itemID;
+    END IF;
+END //
+
+-- Routines ------------------------------------------------------------------------------------------------------------
+-- The procedures of create_routines.sql, without the updates of the user and item the triggers now make. Applied
+-- scripts can't be changed, so they are replaced here.
+
+DROP PROCEDURE IF EXISTS checkout_item //
+DROP PROCEDURE IF EXISTS return_item //
+
+-- Rents an item to a user. The user and item are updated by rentals_after_insert. If the item is rented out, another available copy with the same title is rented instead.
+-- Statuses: 1 user not found, 2 user deleted, 3 user not allowed to rent,
+--           4 item not found, 5 item deleted, 6 item not allowed for rent, 7 no available copy
+-- Returns:  status, rentalID, itemID, username, itemTitle, itemType, rentalDueDate, receipt
+CREATE PROCEDURE checkout_item(IN inUserID INT, IN inItemID INT, IN inRentalDate DATETIME)
+BEGIN
+    DECLARE vOwnTransaction BOOLEAN DEFAULT @@autocommit = 1;
+    DECLARE vStatus INT DEFAULT 0;
+    DECLARE vUsername VARCHAR(20);
+    DECLARE vUserDeleted BOOLEAN;
+    DECLARE vAllowedToRent BOOLEAN;
+    DECLARE vItemID INT;
+    DECLARE vTitle VARCHAR(255);
+    DECLARE vItemType VARCHAR(20);
+    DECLARE vRentalDays INT;
+    DECLARE vAvailable BOOLEAN;
+    DECLARE vItemDeleted BOOLEAN;
+    DECLARE vRentalID INT;
+    DECLARE vDueDate DATETIME;
+    DECLARE vReceipt TEXT;
+
+    -- Rows that aren't found leave the variables NULL
+    DECLARE CONTINUE HANDLER FOR NOT FOUND BEGIN END;
+    DECLARE EXIT HANDLER FOR SQLEXCEPTION
+    BEGIN
+        IF vOwnTransaction THEN
+            ROLLBACK;
+        END IF;
+        RESIGNAL;
+    END;
+
+    IF vOwnTransaction THEN
+        START TRANSACTION;
+    END IF;
+
+    SELECT username, deleted, allowedToRent
+    INTO vUsername, vUserDeleted, vAllowedToRent
+    FROM users
+    WHERE userID = inUserID
+    FOR UPDATE;
+
+    IF vUsername IS NULL THEN
+        SET vStatus = 1;
+    ELSEIF vUserDeleted THEN
+        SET vStatus = 2;
+    ELSEIF NOT vAllowedToRent THEN
+        SET vStatus = 3;
+    ELSE
+        SELECT itemID, title, itemType, allowedRentalDays, available, deleted
+        INTO vItemID, vTitle, vItemType, vRentalDays, vAvailable, vItemDeleted
+        FROM items
+        WHERE itemID = inItemID
+        FOR UPDATE;
+
+        IF vItemID IS NULL THEN
+            SET vStatus = 4;
+        ELSEIF vItemDeleted THEN
+            SET vStatus = 5;
+        ELSEIF vRentalDays <= 0 THEN
+            SET vStatus = 6;
+        ELSE
+            -- Another copy, using idx_items_title
+            IF NOT vAvailable THEN
+                SET vItemID = NULL;
+                SELECT itemID, itemType, allowedRentalDays
+                INTO vItemID, vItemType, vRentalDays
+                FROM items
+                WHERE title = vTitle AND available = 1 AND deleted = 0 AND allowedRentalDays > 0
+                ORDER BY itemID
+                LIMIT 1
+                FOR UPDATE;
+            END IF;
+
+            IF vItemID IS NULL THEN
+                SET vStatus = 7;
+            ELSE
+                -- Due at 20:00, like Rental.RENTAL_DUE_DATE_HOURS
+                SET vDueDate = TIMESTAMP(DATE(inRentalDate + INTERVAL vRentalDays DAY), '20:00:00');
+                -- Dates are written like LocalDateTime.toString(), which leaves out zero seconds
+                SET vReceipt = CONCAT('\nRECEIPT',
+                                     '\nRental Date: ', DATE_FORMAT(inRentalDate,
+                                                                    IF(SECOND(inRentalDate) = 0, '%Y-%m-%dT%H:%i',
+                                                                       '%Y-%m-%dT%H:%i:%s')),
+                                     '\nRental Due Date: ', DATE_FORMAT(vDueDate, '%Y-%m-%dT%H:%i'),
+                                     '\nUser ID: ', inUserID, ', User: ', vUsername,
+                                     '\nItem Title: ', vTitle,
+                                     '\nItem Type: ', vItemType, '\n');
+
+                INSERT INTO rentals (userID, itemID, rentalDate, rentalDueDate, rentalReturnDate, lateFee, receipt,
+                                     deleted)
+                VALUES (inUserID, vItemID, inRentalDate, vDueDate, NULL, 0.0, vReceipt, 0);
+                SET vRentalID = LAST_INSERT_ID();
+            END IF;
+        END IF;
+    END IF;
+
+    IF vOwnTransaction THEN
+        COMMIT;
+    END IF;
+
+    SELECT vStatus AS status, vRentalID AS rentalID, vItemID AS itemID, vUsername AS username,
+           vTitle AS itemTitle, vItemType AS itemType, vDueDate AS rentalDueDate, vReceipt AS receipt;
+END //
+
+-- Returns a rented item. The user and item are updated by rentals_after_update.
+-- Statuses: 1 rental not found, 2 rental already returned
+-- Returns:  status, itemID, itemTitle
+CREATE PROCEDURE return_item(IN inRentalID INT, IN inReturnDate DATETIME)
+BEGIN
+    DECLARE vOwnTransaction BOOLEAN DEFAULT @@autocommit = 1;
+    DECLARE vStatus INT DEFAULT 0;
+    DECLARE vUserID INT;
+    DECLARE vItemID INT;
+    DECLARE vReturnDate DATETIME;
+    DECLARE vTitle VARCHAR(255);
+
+    DECLARE CONTINUE HANDLER FOR NOT FOUND BEGIN END;
+    DECLARE EXIT HANDLER FOR SQLEXCEPTION
+    BEGIN
+        IF vOwnTransaction THEN
+            ROLLBACK;
+        END IF;
+        RESIGNAL;
+    END;
+
+    IF vOwnTransaction THEN
+        START TRANSACTION;
+    END IF;
+
+    SELECT userID, itemID, rentalReturnDate
+    INTO vUserID, vItemID, vReturnDate
+    FROM rentals
+    WHERE rentalID = inRentalID
+    FOR UPDATE;
+
+    IF vUserID IS NULL THEN
+        SET vStatus = 1;
+    ELSEIF vReturnDate IS NOT NULL THEN
+        SET vStatus = 2;
+    ELSE
+        UPDATE rentals SET rentalReturnDate = inReturnDate WHERE rentalID = inRentalID;
+        SELECT title INTO vTitle FROM items WHERE itemID = vItemID;
+    END IF;
+
+    IF vOwnTransaction THEN
+        COMMIT;
+    END IF;
+
+    SELECT vStatus AS status, vItemID AS itemID, vTitle AS itemTitle;
+END //
+
+DELIMITER ;
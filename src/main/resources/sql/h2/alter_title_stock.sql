@@ -0,0 +1,10 @@
+-- @author Mattias Fridsén
+-- @project LibraryDBMS
+-- @date 10/18/2026
+-- @contact matfir-1@student.ltu.se
+
+-- Makes titles that differ only in case the same title in title_stock, as TitleStock caches them, for the embedded
+-- H2 engine in MySQL mode. MySQL does this through the collation of the column, so here it is made VARCHAR_IGNORECASE,
+-- like the author names in create_indexes.sql.
+
+ALTER TABLE title_stock ALTER COLUMN title SET DATA TYPE VARCHAR_IGNORECASE(255);
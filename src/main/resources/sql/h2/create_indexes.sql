@@ -0,0 +1,30 @@
+-- @author Mattias Fridsén
+-- @project LibraryDBMS
+-- @date 10/17/2026
+-- @contact matfir-1@student.ltu.se
+
+-- Creates the secondary indexes used by the queries of the handlers, for the embedded H2 engine in MySQL mode.
+-- Same indexes as ../create_indexes.sql. Author names are looked up regardless of case, which MySQL does through the
+-- collation of the columns, so here they are made VARCHAR_IGNORECASE first, for the index to be used the same way.
+
+ALTER TABLE authors ALTER COLUMN authorFirstname SET DATA TYPE VARCHAR_IGNORECASE(100);
+ALTER TABLE authors ALTER COLUMN authorLastname SET DATA TYPE VARCHAR_IGNORECASE(100);
+
+-- Items by title, from getItemsByTitle and getAvailableCopy.
+-- Covers the title, availability and barcode sync query, which never has to read the rows.
+CREATE INDEX idx_items_title ON items (title, available, barcode);
+
+-- Literature by ISBN
+CREATE INDEX idx_literature_isbn ON literature (ISBN);
+
+-- Overdue rentals: not returned, and due before a date
+CREATE INDEX idx_rentals_return_due ON rentals (rentalReturnDate, rentalDueDate);
+
+-- Rentals by the date, or range of dates, they were made
+CREATE INDEX idx_rentals_date ON rentals (rentalDate);
+
+-- Authors by first name, or first and last name
+CREATE INDEX idx_authors_name ON authors (authorFirstname, authorLastname);
+
+-- Authors by last name only
+CREATE INDEX idx_authors_lastname ON authors (authorLastname);
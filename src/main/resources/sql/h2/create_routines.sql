@@ -0,0 +1,8 @@
+-- @author Mattias Fridsén
+-- @project LibraryDBMS
+-- @date 10/17/2026
+-- @contact matfir-1@student.ltu.se
+
+-- H2 can't run stored procedures written in SQL, so there is nothing to create.
+-- RentalHandler checks out and returns items through separate statements instead, see
+-- SQLDialect.supportsStoredProcedures(). Being embedded, H2 has no round trips to save.
@@ -0,0 +1,105 @@
+-- @author Mattias Fridsén
+-- @project LibraryDBMS
+-- @date 10/17/2026
+-- @contact matfir-1@student.ltu.se
+
+-- Creates all tables in the database, for the embedded H2 engine in MySQL mode.
+-- Same tables and columns as ../create_tables.sql, with the MySQL specific types replaced:
+--   ENUM(...)   -> VARCHAR with a CHECK constraint on the allowed values
+--   TINYINT(1)  -> TINYINT, read and written as a boolean through JDBC like in MySQL
+--   TEXT        -> VARCHAR(65535), the maximum length of a MySQL TEXT
+--   DATETIME    -> TIMESTAMP(0)
+
+-- Author, depended on by Item
+CREATE TABLE authors
+(
+    authorID        INT AUTO_INCREMENT NOT NULL,
+    authorFirstname VARCHAR(100)       NOT NULL,
+    authorLastname  VARCHAR(100),
+    biography       VARCHAR(65535),
+    deleted         TINYINT            NOT NULL,
+    PRIMARY KEY (authorID)
+);
+
+-- Classification, depended on by Item
+CREATE TABLE classifications
+(
+    classificationID   INT AUTO_INCREMENT NOT NULL,
+    classificationName VARCHAR(255) UNIQUE NOT NULL,
+    description        VARCHAR(65535),
+    deleted            TINYINT            NOT NULL,
+    PRIMARY KEY (classificationID)
+);
+
+-- Item, dependent on Author, Classification, depended on by Rental
+CREATE TABLE items
+(
+    itemID            INT AUTO_INCREMENT  NOT NULL,
+    title             VARCHAR(255)        NOT NULL,
+    itemType          VARCHAR(20) CHECK (itemType IN
+                                         ('REFERENCE_LITERATURE', 'MAGAZINE', 'FILM', 'COURSE_LITERATURE',
+                                          'OTHER_BOOKS')),
+    barcode           VARCHAR(255) UNIQUE NOT NULL,
+    authorID          INT                 NOT NULL,
+    classificationID  INT                 NOT NULL,
+    allowedRentalDays INT                 NOT NULL,
+    available         TINYINT             NOT NULL,
+    deleted           TINYINT             NOT NULL,
+    PRIMARY KEY (itemID),
+    FOREIGN KEY (authorID) REFERENCES authors (authorID),
+    FOREIGN KEY (classificationID) REFERENCES classifications (classificationID)
+);
+
+-- Literature
+CREATE TABLE literature
+(
+    literatureID INT         NOT NULL,
+    ISBN         VARCHAR(13) NOT NULL,
+    PRIMARY KEY (literatureID),
+    FOREIGN KEY (literatureID) REFERENCES items (itemID)
+);
+
+-- Film
+CREATE TABLE films
+(
+    filmID              INT NOT NULL,
+    ageRating           INT NOT NULL,
+    countryOfProduction VARCHAR(100),
+    actors              VARCHAR(65535),
+    PRIMARY KEY (filmID),
+    FOREIGN KEY (filmID) REFERENCES items (itemID)
+);
+
+-- User, depended on by Rental
+CREATE TABLE users
+(
+    userID         INT AUTO_INCREMENT  NOT NULL,
+    username       VARCHAR(20) UNIQUE  NOT NULL,
+    password       VARCHAR(50)         NOT NULL,
+    userType       VARCHAR(10) CHECK (userType IN
+                                      ('ADMIN', 'STAFF', 'PATRON', 'STUDENT', 'TEACHER', 'RESEARCHER')),
+    email          VARCHAR(255) UNIQUE NOT NULL,
+    allowedRentals INT                 NOT NULL,
+    currentRentals INT                 NOT NULL,
+    lateFee        DOUBLE              NOT NULL,
+    allowedToRent  TINYINT             NOT NULL,
+    deleted        TINYINT             NOT NULL,
+    PRIMARY KEY (userID)
+);
+
+-- Rental, dependent on Item and User
+CREATE TABLE rentals
+(
+    rentalID         INT AUTO_INCREMENT NOT NULL,
+    userID           INT                NOT NULL,
+    itemID           INT                NOT NULL,
+    rentalDate       TIMESTAMP(0)       NOT NULL,
+    rentalDueDate    TIMESTAMP(0)       NOT NULL,
+    rentalReturnDate TIMESTAMP(0),
+    lateFee          DOUBLE             NOT NULL,
+    receipt          VARCHAR(65535)     NOT NULL,
+    deleted          TINYINT            NOT NULL,
+    PRIMARY KEY (rentalID),
+    FOREIGN KEY (userID) REFERENCES users (userID),
+    FOREIGN KEY (itemID) REFERENCES items (itemID)
+);
@@ -0,0 +1,29 @@
+-- @author Mattias Fridsén
+-- @project LibraryDBMS
+-- @date 10/17/2026
+-- @contact matfir-1@student.ltu.se
+
+-- Creates the triggers of the database, and the title_stock table they keep up to date, for the embedded H2 engine.
+-- Same table and triggers as ../create_triggers.sql, but H2 triggers are Java classes, in model.db. There are no
+-- procedures to replace, see create_routines.sql.
+
+-- Copies and available copies per title
+CREATE TABLE title_stock
+(
+    title           VARCHAR(255) NOT NULL,
+    totalCopies     INT          NOT NULL,
+    availableCopies INT          NOT NULL,
+    PRIMARY KEY (title)
+);
+
+-- The items that exist before the triggers do
+INSERT INTO title_stock (title, totalCopies, availableCopies)
+SELECT title, COUNT(*), SUM(available)
+FROM items
+GROUP BY title;
+
+CREATE TRIGGER items_title_stock AFTER INSERT, UPDATE, DELETE ON items FOR EACH ROW
+    CALL 'edu.groupeighteen.librarydbms.model.db.TitleStockTrigger';
+
+CREATE TRIGGER rentals_counters AFTER INSERT, UPDATE, DELETE ON rentals FOR EACH ROW
+    CALL 'edu.groupeighteen.librarydbms.model.db.RentalTrigger';
@@ -2,9 +2,22 @@ package edu.groupeighteen.librarydbms.control;
 
 import edu.groupeighteen.librarydbms.control.db.DatabaseHandlerMetaDataTest;
 import edu.groupeighteen.librarydbms.control.db.DatabaseHandlerTest;
+import edu.groupeighteen.librarydbms.control.db.DatabaseHandlerTransactionTest;
+import edu.groupeighteen.librarydbms.control.db.EntityCacheTest;
+import edu.groupeighteen.librarydbms.control.db.SchemaMigratorTest;
+import edu.groupeighteen.librarydbms.control.db.SchemaMetadataTest;
+import edu.groupeighteen.librarydbms.control.db.QueryMonitorTest;
+import edu.groupeighteen.librarydbms.control.db.QueryPlanCheckerTest;
+import edu.groupeighteen.librarydbms.control.db.TriggersTest;
+import edu.groupeighteen.librarydbms.control.entities.AsyncHandlerTest;
+import edu.groupeighteen.librarydbms.control.entities.CuckooFilterTest;
+import edu.groupeighteen.librarydbms.control.entities.FlightRecorderEventsTest;
+import edu.groupeighteen.librarydbms.control.entities.KeyRegistryTest;
+import edu.groupeighteen.librarydbms.control.entities.TitleStockTest;
 import edu.groupeighteen.librarydbms.control.entities.item.ItemHandlerTestSuite;
 import edu.groupeighteen.librarydbms.control.entities.rental.RentalHandlerTestSuite;
 import edu.groupeighteen.librarydbms.control.entities.user.UserHandlerTestSuite;
+import edu.groupeighteen.librarydbms.control.repositories.RepositoriesTest;
 import org.junit.platform.suite.api.SelectClasses;
 import org.junit.platform.suite.api.Suite;
 
@@ -23,11 +36,24 @@ import org.junit.platform.suite.api.Suite;
         //Control tests
         DatabaseHandlerTest.class,
         DatabaseHandlerMetaDataTest.class,
+        DatabaseHandlerTransactionTest.class,
+        SchemaMigratorTest.class,
+        SchemaMetadataTest.class,
+        QueryMonitorTest.class,
         //AuthorHandlerTestSuite.class,
         //ClassificationHandlerTestSuite.class,
         ItemHandlerTestSuite.class,
         UserHandlerTestSuite.class,
         RentalHandlerTestSuite.class,
+        AsyncHandlerTest.class,
+        FlightRecorderEventsTest.class,
+        RepositoriesTest.class,
+        QueryPlanCheckerTest.class,
+        TriggersTest.class,
+        TitleStockTest.class,
+        EntityCacheTest.class,
+        KeyRegistryTest.class,
+        CuckooFilterTest.class,
 })
 
 public class ControlTestSuite
@@ -0,0 +1,50 @@
+package edu.groupeighteen.librarydbms.control;
+
+import edu.groupeighteen.librarydbms.control.db.*;
+import edu.groupeighteen.librarydbms.control.entities.*;
+import edu.groupeighteen.librarydbms.control.entities.item.ItemHandlerTestSuite;
+import edu.groupeighteen.librarydbms.control.entities.rental.RentalHandlerTestSuite;
+import edu.groupeighteen.librarydbms.control.entities.user.UserHandlerTestSuite;
+import edu.groupeighteen.librarydbms.control.repositories.RepositoriesTest;
+import org.junit.platform.suite.api.ConfigurationParameter;
+import org.junit.platform.suite.api.SelectClasses;
+import org.junit.platform.suite.api.Suite;
+
+/**
+ * @author Mattias Fridsén
+ * @project LibraryDBMS
+ * @package edu.groupeighteen.librarydbms.control
+ * @contact matfir-1@student.ltu.se
+ * @date 10/18/2026
+ * <p>
+ * Runs the handler tests on an in-memory H2 database instead of a MySQL server, so that they can run anywhere,
+ * including CI. This covers the H2 scripts, the Java triggers and the checkout and return paths used without stored
+ * procedures. It is the suite run by "mvn test".
+ * <p>
+ * The url is handed to DatabaseConnection by {@link TestDatabaseExtension}.
+ */
+@Suite
+@ConfigurationParameter(key = "junit.jupiter.extensions.autodetection.enabled", value = "true")
+@ConfigurationParameter(key = TestDatabaseExtension.URL_PARAMETER,
+        value = "jdbc:h2:mem:librarydbms;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1")
+@SelectClasses({
+        SchemaMigratorTest.class,
+        SchemaMetadataTest.class,
+        DatabaseHandlerMetaDataTest.class,
+        DatabaseHandlerTransactionTest.class,
+        EntityCacheTest.class,
+        ItemHandlerTestSuite.class,
+        UserHandlerTestSuite.class,
+        RentalHandlerTestSuite.class,
+        TriggersTest.class,
+        TitleStockTest.class,
+        KeyRegistryTest.class,
+        CuckooFilterTest.class,
+        AsyncHandlerTest.class,
+        FlightRecorderEventsTest.class,
+        RepositoriesTest.class,
+})
+public class H2TestSuite
+{
+
+}
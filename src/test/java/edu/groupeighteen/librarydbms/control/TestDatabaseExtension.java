@@ -0,0 +1,27 @@
+package edu.groupeighteen.librarydbms.control;
+
+import edu.groupeighteen.librarydbms.model.db.DatabaseConnection;
+import org.junit.jupiter.api.extension.BeforeAllCallback;
+import org.junit.jupiter.api.extension.ExtensionContext;
+
+/**
+ * @author Mattias Fridsén
+ * @project LibraryDBMS
+ * @package edu.groupeighteen.librarydbms.control
+ * @contact matfir-1@student.ltu.se
+ * @date 10/18/2026
+ * <p>
+ * Points DatabaseConnection at the database given by a suite, see {@link H2TestSuite}, before each test class
+ * connects. Registered through META-INF/services, and only loaded by suites that enable extension autodetection.
+ */
+public class TestDatabaseExtension implements BeforeAllCallback
+{
+    public static final String URL_PARAMETER = "librarydbms.test.url";
+
+    @Override
+    public void beforeAll(ExtensionContext context)
+    {
+        context.getConfigurationParameter(URL_PARAMETER)
+                .ifPresent(url -> System.setProperty(DatabaseConnection.URL_PROPERTY, url));
+    }
+}
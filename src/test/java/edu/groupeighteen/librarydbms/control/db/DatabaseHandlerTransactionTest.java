@@ -0,0 +1,236 @@
+package edu.groupeighteen.librarydbms.control.db;
+
+import edu.groupeighteen.librarydbms.control.BaseHandlerTest;
+import edu.groupeighteen.librarydbms.model.db.QueryResult;
+import edu.groupeighteen.librarydbms.model.db.SQLParameter;
+import edu.groupeighteen.librarydbms.model.db.Transaction;
+import org.junit.jupiter.api.*;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author Mattias Fridsén
+ * @project LibraryDBMS
+ * @date 10/17/2026
+ * @contact matfir-1@student.ltu.se
+ * <p>
+ * Tests the transaction methods in DatabaseHandler.
+ */
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+public class DatabaseHandlerTransactionTest extends BaseHandlerTest
+{
+    /**
+     * Sets the title of item 1.
+     */
+    private static void setTitle(String title)
+    {
+        DatabaseHandler.executePreparedUpdate("UPDATE items SET title = ? WHERE itemID = ?",
+                new SQLParameter[]{SQLParameter.of(title), SQLParameter.of(1)});
+    }
+
+    /**
+     * Returns the title of item 1.
+     */
+    private static String getTitle()
+    throws SQLException
+    {
+        try (QueryResult queryResult = DatabaseHandler.executePreparedQuery("SELECT title FROM items WHERE itemID = ?",
+                new SQLParameter[]{SQLParameter.of(1)}))
+        {
+            ResultSet resultSet = queryResult.getResultSet();
+            assertTrue(resultSet.next());
+            return resultSet.getString("title");
+        }
+    }
+
+    /**
+     * Tests that committed changes are kept.
+     */
+    @Test
+    @Order(1)
+    void testCommit()
+    throws SQLException
+    {
+        System.out.println("\n1: Testing commit...");
+
+        try (Transaction transaction = DatabaseHandler.beginTransaction())
+        {
+            setTitle("Committed Title");
+            transaction.commit();
+        }
+
+        assertNull(Transaction.getCurrent());
+        assertEquals("Committed Title", getTitle());
+
+        System.out.println("\nTEST FINISHED.");
+    }
+
+    /**
+     * Tests that a transaction closed without being committed is rolled back, and that changes are visible inside
+     * the transaction before that.
+     */
+    @Test
+    @Order(2)
+    void testRollbackOnClose()
+    throws SQLException
+    {
+        System.out.println("\n2: Testing rollback when closed without commit...");
+
+        String originalTitle = getTitle();
+        try (Transaction transaction = DatabaseHandler.beginTransaction())
+        {
+            setTitle("Uncommitted Title");
+            assertEquals("Uncommitted Title", getTitle());
+            //Left open for close to roll back
+            assertFalse(transaction.isCompleted());
+        }
+
+        assertEquals(originalTitle, getTitle());
+
+        System.out.println("\nTEST FINISHED.");
+    }
+
+    /**
+     * Tests that rolling back a nested transaction only undoes the nested work.
+     */
+    @Test
+    @Order(3)
+    void testNestedRollback()
+    throws SQLException
+    {
+        System.out.println("\n3: Testing rollback of a nested transaction...");
+
+        try (Transaction outer = DatabaseHandler.beginTransaction())
+        {
+            setTitle("Outer Title");
+
+            try (Transaction inner = DatabaseHandler.beginTransaction())
+            {
+                assertTrue(inner.isNested());
+                setTitle("Inner Title");
+                inner.rollback();
+            }
+
+            assertEquals("Outer Title", getTitle());
+            outer.commit();
+        }
+
+        assertEquals("Outer Title", getTitle());
+
+        System.out.println("\nTEST FINISHED.");
+    }
+
+    /**
+     * Tests that work committed by a nested transaction is still rolled back with the enclosing transaction.
+     */
+    @Test
+    @Order(4)
+    void testNestedCommitOuterRollback()
+    throws SQLException
+    {
+        System.out.println("\n4: Testing a committed nested transaction inside a rolled back one...");
+
+        String originalTitle = getTitle();
+        try (Transaction outer = DatabaseHandler.beginTransaction())
+        {
+            try (Transaction inner = DatabaseHandler.beginTransaction())
+            {
+                setTitle("Inner Title");
+                inner.commit();
+            }
+            outer.rollback();
+        }
+
+        assertEquals(originalTitle, getTitle());
+
+        System.out.println("\nTEST FINISHED.");
+    }
+
+    /**
+     * Tests that a batch executed inside a transaction is rolled back with it.
+     */
+    @Test
+    @Order(5)
+    void testBatchInsideTransaction()
+    throws SQLException
+    {
+        System.out.println("\n5: Testing a batch inside a rolled back transaction...");
+
+        List<SQLParameter[]> batch = new ArrayList<>();
+        for (int i = 0; i < 3; i++)
+            batch.add(new SQLParameter[]{SQLParameter.of("Batch Title " + i), SQLParameter.of(1)});
+
+        try (Transaction transaction = DatabaseHandler.beginTransaction())
+        {
+            int[] counts = DatabaseHandler.executeBatch("UPDATE items SET title = ? WHERE itemID = ?", batch);
+            assertEquals(3, counts.length);
+            assertEquals("Batch Title 2", getTitle());
+            transaction.rollback();
+        }
+
+        assertNotEquals("Batch Title 2", getTitle());
+
+        System.out.println("\nTEST FINISHED.");
+    }
+
+    /**
+     * Tests that a completed transaction can't be completed again.
+     */
+    @Test
+    @Order(6)
+    void testCompletedTransaction()
+    {
+        System.out.println("\n6: Testing a transaction that has already been committed...");
+
+        Transaction transaction = DatabaseHandler.beginTransaction();
+        assertDoesNotThrow(transaction::commit);
+        assertTrue(transaction.isCompleted());
+        assertThrows(SQLException.class, transaction::rollback);
+        transaction.close(); //Does nothing
+
+        System.out.println("\nTEST FINISHED.");
+    }
+
+    /**
+     * Tests that actions registered to run after commit run once the outermost transaction commits, and are dropped
+     * with a nested transaction that rolls back.
+     */
+    @Test
+    @Order(7)
+    void testAfterCommit()
+    throws SQLException
+    {
+        System.out.println("\n7: Testing actions run after commit...");
+
+        List<String> actions = new ArrayList<>();
+        try (Transaction outer = DatabaseHandler.beginTransaction())
+        {
+            outer.afterCommit(() -> actions.add("outer"));
+            try (Transaction inner = DatabaseHandler.beginTransaction())
+            {
+                inner.afterCommit(() -> actions.add("rolled back"));
+            }
+            try (Transaction inner = DatabaseHandler.beginTransaction())
+            {
+                inner.afterCommit(() -> actions.add("inner"));
+                inner.commit();
+            }
+            assertTrue(actions.isEmpty());
+            outer.commit();
+        }
+        assertEquals(List.of("outer", "inner"), actions);
+
+        try (Transaction transaction = DatabaseHandler.beginTransaction())
+        {
+            transaction.afterCommit(() -> actions.add("rolled back"));
+        }
+        assertEquals(2, actions.size());
+
+        System.out.println("\nTEST FINISHED.");
+    }
+}
@@ -0,0 +1,191 @@
+package edu.groupeighteen.librarydbms.control.db;
+
+import edu.groupeighteen.librarydbms.control.BaseHandlerTest;
+import edu.groupeighteen.librarydbms.control.entities.ItemHandler;
+import edu.groupeighteen.librarydbms.control.entities.RentalHandler;
+import edu.groupeighteen.librarydbms.control.entities.UserHandler;
+import edu.groupeighteen.librarydbms.model.db.Transaction;
+import edu.groupeighteen.librarydbms.model.entities.User;
+import org.junit.jupiter.api.*;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author Mattias Fridsén
+ * @project LibraryDBMS
+ * @package edu.groupeighteen.librarydbms.control.db
+ * @contact matfir-1@student.ltu.se
+ * @date 10/17/2026
+ * <p>
+ * Tests the EntityCache class, and that the handlers keep their caches up to date.
+ */
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+public class EntityCacheTest extends BaseHandlerTest
+{
+    //Counts the loads, finds nothing for IDs above 100
+    private final AtomicInteger loads = new AtomicInteger();
+    private final EntityCache.Loader<int[], RuntimeException> loader = id ->
+    {
+        loads.incrementAndGet();
+        return id > 100 ? null : new int[]{id};
+    };
+
+    @BeforeEach
+    void setupHandlers()
+    {
+        ItemHandler.setup();
+        UserHandler.setup();
+        loads.set(0);
+    }
+
+    /**
+     * Tests that an entity is loaded once, handed out as copies, and that lookups finding nothing aren't cached.
+     */
+    @Test
+    @Order(1)
+    void testReadThrough()
+    {
+        System.out.println("\n1: Testing read-through...");
+
+        EntityCache<int[]> cache = new EntityCache<>("test", 10, Duration.ofMinutes(1), int[]::clone);
+        int[] first = cache.get(1, loader);
+        first[0] = 42;
+        assertArrayEquals(new int[]{1}, cache.get(1, loader));
+        assertEquals(1, loads.get());
+
+        assertNull(cache.get(101, loader));
+        assertNull(cache.get(101, loader));
+        assertEquals(3, loads.get());
+
+        assertEquals(1, cache.getHits());
+        assertEquals(3, cache.getMisses());
+        assertEquals(0.25, cache.getHitRate(), 0.0001);
+        assertEquals(1, cache.size());
+
+        System.out.println("\nTEST FINISHED.");
+    }
+
+    /**
+     * Tests that the least recently used entity is evicted, and that expired entities are loaded again.
+     */
+    @Test
+    @Order(2)
+    void testEvictionAndTTL()
+    {
+        System.out.println("\n2: Testing eviction and TTL...");
+
+        EntityCache<int[]> cache = new EntityCache<>("test", 2, Duration.ofMinutes(1), int[]::clone);
+        cache.get(1, loader);
+        cache.get(2, loader);
+        cache.get(1, loader);
+        cache.get(3, loader);
+        assertEquals(1, cache.getEvictions());
+        assertEquals(3, loads.get());
+
+        //2 was the least recently used
+        cache.get(1, loader);
+        assertEquals(3, loads.get());
+        cache.get(2, loader);
+        assertEquals(4, loads.get());
+
+        EntityCache<int[]> expiring = new EntityCache<>("test", 2, Duration.ZERO, int[]::clone);
+        expiring.get(1, loader);
+        expiring.get(1, loader);
+        assertEquals(6, loads.get());
+        assertEquals(0, expiring.getHits());
+
+        System.out.println("\nTEST FINISHED.");
+    }
+
+    /**
+     * Tests that an entity is loaded again after being invalidated, that entities invalidated while loaded or read
+     * inside a transaction aren't cached, and that invalidations inside a transaction wait for it to commit.
+     */
+    @Test
+    @Order(3)
+    void testInvalidation()
+    throws Exception
+    {
+        System.out.println("\n3: Testing invalidation...");
+
+        EntityCache<int[]> cache = new EntityCache<>("test", 10, Duration.ofMinutes(1), int[]::clone);
+        cache.get(1, loader);
+        cache.invalidate(1);
+        cache.get(1, loader);
+        assertEquals(2, loads.get());
+
+        //Invalidated while being loaded
+        cache.get(2, id ->
+        {
+            cache.invalidate(id);
+            return loader.load(id);
+        });
+        cache.get(2, loader);
+        assertEquals(4, loads.get());
+
+        try (Transaction transaction = DatabaseHandler.beginTransaction())
+        {
+            cache.get(3, loader);
+            transaction.rollback();
+        }
+        cache.get(3, loader);
+        assertEquals(6, loads.get());
+
+        //Kept if the transaction rolls back
+        cache.get(4, loader);
+        try (Transaction transaction = DatabaseHandler.beginTransaction())
+        {
+            cache.invalidate(4);
+            transaction.rollback();
+        }
+        cache.get(4, loader);
+        assertEquals(7, loads.get());
+
+        //Read from the database inside the transaction, and invalidated once it commits
+        try (Transaction transaction = DatabaseHandler.beginTransaction())
+        {
+            cache.invalidate(4);
+            cache.get(4, loader);
+            assertEquals(8, loads.get());
+            transaction.commit();
+        }
+        cache.get(4, loader);
+        assertEquals(9, loads.get());
+
+        //Raw commands clear every cache
+        DatabaseHandler.executeCommand("UPDATE users SET lateFee = 0 WHERE userID = 0");
+        assertEquals(0, cache.size());
+
+        System.out.println("\nTEST FINISHED.");
+    }
+
+    /**
+     * Tests that users retrieved by ID are up to date after being rented to and deleted.
+     */
+    @Test
+    @Order(4)
+    void testHandlerInvalidation()
+    throws Exception
+    {
+        System.out.println("\n4: Testing that the handlers invalidate their caches...");
+
+        assertEquals(0, UserHandler.getUserByID(3).getCurrentRentals());
+        assertTrue(ItemHandler.getItemByID(3).isAvailable());
+
+        RentalHandler.createNewRental(3, 3);
+        assertEquals(1, UserHandler.getUserByID(3).getCurrentRentals());
+        assertFalse(ItemHandler.getItemByID(3).isAvailable());
+
+        //Deleted users are cached, but only retrieved when asked for
+        User user = UserHandler.getUserByID(4);
+        assertNotNull(user);
+        UserHandler.deleteUser(user);
+        assertNull(UserHandler.getUserByID(4));
+        assertTrue(UserHandler.getUserByID(4, true).isDeleted());
+
+        System.out.println("\nTEST FINISHED.");
+    }
+}
@@ -0,0 +1,227 @@
+package edu.groupeighteen.librarydbms.control.db;
+
+import edu.groupeighteen.librarydbms.model.db.QueryResult;
+import edu.groupeighteen.librarydbms.model.db.QueryStatistics;
+import edu.groupeighteen.librarydbms.model.db.SQLParameter;
+import org.junit.jupiter.api.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author Mattias Fridsén
+ * @project LibraryDBMS
+ * @package edu.groupeighteen.librarydbms.control.db
+ * @contact matfir-1@student.ltu.se
+ * @date 10/17/2026
+ * <p>
+ * Tests the QueryMonitor class, and the QueryStatistics it keeps, against the application database.
+ */
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+public class QueryMonitorTest
+{
+    private static final String QUERY = "SELECT userID FROM users WHERE userID <= ? ORDER BY userID";
+    private static Path slowQueryLog;
+
+    @BeforeAll
+    static void setUp()
+    throws IOException
+    {
+        DatabaseHandler.setup(false);
+        slowQueryLog = Files.createTempFile("slow-queries", ".log");
+        QueryMonitor.setSlowQueryLog(slowQueryLog);
+    }
+
+    @BeforeEach
+    void reset()
+    {
+        QueryMonitor.reset();
+    }
+
+    @AfterAll
+    static void tearDown()
+    {
+        QueryMonitor.setSlowQueryLog(QueryMonitor.getDefaultSlowQueryLog());
+        QueryMonitor.setSlowQueryThresholdMillis(200);
+        QueryMonitor.setEnabled(true);
+        DatabaseHandler.closeDatabaseConnection();
+    }
+
+    /**
+     * Tests the counts and percentiles of QueryStatistics.
+     */
+    @Test
+    @Order(1)
+    void testQueryStatistics()
+    {
+        System.out.println("\n1: Testing QueryStatistics...");
+
+        QueryStatistics statistics = new QueryStatistics("SELECT 1");
+        for (int i = 0; i < 98; i++)
+            statistics.record(1_000_000, 1); //1 ms
+        statistics.record(50_000_000, 2); //50 ms
+        statistics.recordError(100_000_000); //100 ms
+
+        QueryStatistics.Snapshot snapshot = statistics.snapshot();
+        assertEquals(100, snapshot.getExecutions());
+        assertEquals(1, snapshot.getErrors());
+        assertEquals(100, snapshot.getRows());
+        assertEquals(248, snapshot.getTotalMillis(), 0.001);
+        assertEquals(100, snapshot.getMaxMillis(), 0.001);
+
+        //Percentiles are the upper bound of their bucket, at most a factor two off
+        double median = snapshot.getPercentileMillis(50);
+        assertTrue(median >= 1 && median <= 2, "Median was " + median);
+        double p99 = snapshot.getPercentileMillis(99);
+        assertTrue(p99 >= 50 && p99 <= 100, "p99 was " + p99);
+        assertEquals(100, snapshot.getPercentileMillis(100), 0.001);
+        assertThrows(IllegalArgumentException.class, () -> snapshot.getPercentileMillis(101));
+
+        assertEquals(0, new QueryStatistics("SELECT 2").snapshot().getPercentileMillis(50));
+
+        System.out.println("\nTEST FINISHED.");
+    }
+
+    /**
+     * Tests turning statements into templates.
+     */
+    @Test
+    @Order(2)
+    void testToTemplate()
+    {
+        System.out.println("\n2: Testing statement templates...");
+
+        assertEquals("SELECT * FROM items WHERE itemID = ?",
+                QueryMonitor.toTemplate("SELECT *\n  FROM items WHERE itemID = 15"));
+        assertEquals("SELECT * FROM users WHERE username = ? AND email = ?",
+                QueryMonitor.toTemplate("SELECT * FROM users WHERE username = 'it''s' AND email = \"a@b.se\""));
+        assertEquals("use lilla_biblioteket", QueryMonitor.toTemplate("use lilla_biblioteket"));
+        assertEquals("SELECT t1.a FROM t1 LIMIT ?", QueryMonitor.toTemplate("SELECT t1.a FROM t1 LIMIT 10"));
+
+        System.out.println("\nTEST FINISHED.");
+    }
+
+    /**
+     * Tests that prepared queries are recorded by template, with the rows read from them.
+     */
+    @Test
+    @Order(3)
+    void testRecordPreparedQuery()
+    throws SQLException
+    {
+        System.out.println("\n3: Testing recording prepared queries...");
+
+        int rows = 0;
+        for (int i = 1; i <= 3; i++)
+        {
+            try (QueryResult queryResult = DatabaseHandler.executePreparedQuery(QUERY,
+                    new SQLParameter[]{SQLParameter.of(i)}))
+            {
+                ResultSet resultSet = queryResult.getResultSet();
+                while (resultSet.next())
+                    rows++;
+            }
+        }
+
+        QueryStatistics.Snapshot snapshot = QueryMonitor.snapshot(QUERY);
+        assertNotNull(snapshot);
+        assertEquals(3, snapshot.getExecutions());
+        assertEquals(0, snapshot.getErrors());
+        assertEquals(6, rows);
+        assertEquals(rows, snapshot.getRows());
+        assertTrue(snapshot.getTotalMillis() > 0);
+
+        System.out.println("\nTEST FINISHED.");
+    }
+
+    /**
+     * Tests that queries that aren't prepared are recorded by their template, and that streamed rows are counted.
+     */
+    @Test
+    @Order(4)
+    void testRecordQueryAndStream()
+    throws SQLException
+    {
+        System.out.println("\n4: Testing recording queries and streams...");
+
+        for (int i = 1; i <= 2; i++)
+        {
+            try (QueryResult queryResult = DatabaseHandler.executeQuery("SELECT userID FROM users WHERE userID = " + i))
+            {
+                assertTrue(queryResult.getResultSet().next());
+            }
+        }
+        QueryStatistics.Snapshot snapshot = QueryMonitor.snapshot("SELECT userID FROM users WHERE userID = ?");
+        assertNotNull(snapshot);
+        assertEquals(2, snapshot.getExecutions());
+        assertEquals(2, snapshot.getRows());
+
+        try (Stream<Integer> userIDs = DatabaseHandler.streamPreparedQuery(QUERY,
+                new SQLParameter[]{SQLParameter.of(4)}, resultSet -> resultSet.getInt(1)))
+        {
+            assertEquals(4, userIDs.count());
+        }
+        snapshot = QueryMonitor.snapshot(QUERY);
+        assertNotNull(snapshot);
+        assertEquals(1, snapshot.getExecutions());
+        assertEquals(4, snapshot.getRows());
+
+        System.out.println("\nTEST FINISHED.");
+    }
+
+    /**
+     * Tests that statements slower than the threshold are written to the slow query log, and faster ones aren't.
+     */
+    @Test
+    @Order(5)
+    void testSlowQueryLog()
+    throws IOException
+    {
+        System.out.println("\n5: Testing the slow query log...");
+
+        Files.writeString(slowQueryLog, "");
+        QueryMonitor.setSlowQueryThresholdMillis(100);
+        DatabaseHandler.executeQuery("SELECT SLEEP(0.2)").close();
+        DatabaseHandler.executeQuery("SELECT 1").close();
+
+        List<String> lines = Files.readAllLines(slowQueryLog);
+        assertEquals(1, lines.size());
+        assertTrue(lines.get(0).endsWith("SELECT SLEEP(?)"), lines.get(0));
+        assertThrows(IllegalArgumentException.class, () -> QueryMonitor.setSlowQueryThresholdMillis(-1));
+
+        System.out.println("\nTEST FINISHED.");
+    }
+
+    /**
+     * Tests that nothing is recorded while the QueryMonitor is turned off, and that dump lists every template.
+     */
+    @Test
+    @Order(6)
+    void testDisabledAndDump()
+    {
+        System.out.println("\n6: Testing turning the QueryMonitor off, and dumping statistics...");
+
+        QueryMonitor.setEnabled(false);
+        DatabaseHandler.executeQuery("SELECT 1").close();
+        assertTrue(QueryMonitor.snapshot().isEmpty());
+
+        QueryMonitor.setEnabled(true);
+        DatabaseHandler.executeQuery("SELECT 1").close();
+        DatabaseHandler.executePreparedUpdate("UPDATE users SET email = email WHERE userID = ?",
+                new SQLParameter[]{SQLParameter.of(1)});
+        assertEquals(2, QueryMonitor.snapshot().size());
+
+        String dump = QueryMonitor.dump();
+        assertTrue(dump.contains("SELECT ?"));
+        assertTrue(dump.contains("UPDATE users SET email = email WHERE userID = ?"));
+
+        System.out.println("\nTEST FINISHED.");
+    }
+}
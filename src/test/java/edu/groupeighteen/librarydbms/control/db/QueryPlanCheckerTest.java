@@ -0,0 +1,70 @@
+package edu.groupeighteen.librarydbms.control.db;
+
+import edu.groupeighteen.librarydbms.control.BaseHandlerTest;
+import edu.groupeighteen.librarydbms.model.db.SQLParameter;
+import org.junit.jupiter.api.*;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author Mattias Fridsén
+ * @project LibraryDBMS
+ * @package edu.groupeighteen.librarydbms.control.db
+ * @contact matfir-1@student.ltu.se
+ * @date 10/17/2026
+ * <p>
+ * Tests that the hot queries of the handlers use the indexes created by create_indexes.sql.
+ */
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+public class QueryPlanCheckerTest extends BaseHandlerTest
+{
+    /**
+     * Tests that no hot query reads a table in full.
+     */
+    @Test
+    @Order(1)
+    void testHotQueriesUseIndexes()
+    {
+        System.out.println("\n1: Testing that hot queries use indexes...");
+        List<String> violations = QueryPlanChecker.verify();
+        assertTrue(violations.isEmpty(), String.join("\n", violations));
+        System.out.println("\nTEST FINISHED.");
+    }
+
+    /**
+     * Tests that a query on a column without an index is reported.
+     */
+    @Test
+    @Order(2)
+    void testFullScanReported()
+    {
+        System.out.println("\n2: Testing that a full table scan is reported...");
+        List<String> fullScans = QueryPlanChecker.getFullScans("SELECT * FROM rentals WHERE lateFee = ?",
+                SQLParameter.of(0.0));
+        assertEquals(1, fullScans.size());
+        assertTrue(fullScans.get(0).equalsIgnoreCase("rentals"));
+        System.out.println("\nTEST FINISHED.");
+    }
+
+    /**
+     * Tests that a full scan is reported once the index a hot query relies on is gone.
+     */
+    @Test
+    @Order(3)
+    void testMissingIndexReported()
+    {
+        System.out.println("\n3: Testing that a missing index is reported...");
+        DatabaseHandler.executeCommand("ALTER TABLE rentals DROP INDEX idx_rentals_date");
+        //The joins give rentals possible keys, and the test data is small, so every scan counts
+        List<String> violations = QueryPlanChecker.verify(0);
+        assertTrue(violations.stream().anyMatch(violation ->
+                        violation.startsWith("RentalHandler.getRentalsByRentalDate reads rentals")),
+                String.join("\n", violations));
+        assertTrue(violations.stream().anyMatch(violation ->
+                        violation.startsWith("RentalHandler.getRentalsByTimePeriod reads rentals")),
+                String.join("\n", violations));
+        System.out.println("\nTEST FINISHED.");
+    }
+}
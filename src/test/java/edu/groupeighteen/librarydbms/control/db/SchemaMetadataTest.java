@@ -0,0 +1,141 @@
+package edu.groupeighteen.librarydbms.control.db;
+
+import edu.groupeighteen.librarydbms.LibraryManager;
+import org.junit.jupiter.api.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author Mattias Fridsén
+ * @project LibraryDBMS
+ * @package edu.groupeighteen.librarydbms.control.db
+ * @contact matfir-1@student.ltu.se
+ * @date 10/17/2026
+ * <p>
+ * Tests the SchemaMetadata class against the application database, caching column sizes in a temporary directory.
+ * <p>
+ * NOTE: These tests will fail if the sizes of the users columns are changed.
+ */
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+public class SchemaMetadataTest
+{
+    private static Path cacheDirectory;
+    private static Path cacheFile;
+
+    @BeforeAll
+    static void setUp()
+    throws IOException
+    {
+        DatabaseHandler.setup(false);
+        cacheDirectory = Files.createTempDirectory("schema-metadata");
+        SchemaMetadata.setCacheDirectory(cacheDirectory);
+        cacheFile = SchemaMetadata.getCacheFile(LibraryManager.databaseName, SchemaMigrator.getCurrentVersion());
+    }
+
+    @AfterAll
+    static void tearDown()
+    {
+        SchemaMetadata.setCacheDirectory(SchemaMetadata.getDefaultCacheDirectory());
+        DatabaseHandler.closeDatabaseConnection();
+    }
+
+    /**
+     * Tests retrieving column sizes, which loads them from the database and writes the cache file.
+     */
+    @Test
+    @Order(1)
+    void testGetColumnSize()
+    {
+        System.out.println("\n1: Testing to retrieve column sizes...");
+
+        assertFalse(Files.exists(cacheFile));
+        assertEquals(20, SchemaMetadata.getColumnSize("users", "username"));
+        assertEquals(50, SchemaMetadata.getColumnSize("users", "password"));
+        assertEquals(255, SchemaMetadata.getColumnSize("users", "email"));
+        assertTrue(Files.exists(cacheFile));
+
+        System.out.println("\nTEST FINISHED.");
+    }
+
+    /**
+     * Tests that table and column names are case-insensitive, and that unknown columns have size 0.
+     */
+    @Test
+    @Order(2)
+    void testGetColumnSizeNames()
+    {
+        System.out.println("\n2: Testing column names...");
+
+        assertEquals(20, SchemaMetadata.getColumnSize("USERS", "UserName"));
+        assertEquals(100, SchemaMetadata.getColumnSize("authors", "AUTHORLASTNAME"));
+        assertEquals(0, SchemaMetadata.getColumnSize("users", "nonexistent"));
+        assertEquals(0, SchemaMetadata.getColumnSize("nonexistent", "username"));
+
+        System.out.println("\nTEST FINISHED.");
+    }
+
+    /**
+     * Tests that column sizes are read from the cache file once it exists, by changing a size in the file.
+     */
+    @Test
+    @Order(3)
+    void testLoadFromCacheFile()
+    throws IOException
+    {
+        System.out.println("\n3: Testing to load column sizes from the cache file...");
+
+        List<String> lines = Files.readAllLines(cacheFile).stream()
+                .map(line -> line.startsWith("users.username=") ? "users.username=42" : line)
+                .collect(Collectors.toList());
+        Files.write(cacheFile, lines);
+
+        SchemaMetadata.invalidate();
+        assertEquals(42, SchemaMetadata.getColumnSize("users", "username"));
+        assertEquals(50, SchemaMetadata.getColumnSize("users", "password"));
+
+        System.out.println("\nTEST FINISHED.");
+    }
+
+    /**
+     * Tests that a cache file that can't be read is ignored and replaced.
+     */
+    @Test
+    @Order(4)
+    void testCorruptCacheFile()
+    throws IOException
+    {
+        System.out.println("\n4: Testing a corrupt cache file...");
+
+        Files.writeString(cacheFile, "users.username=not a number\n");
+        SchemaMetadata.invalidate();
+        assertEquals(20, SchemaMetadata.getColumnSize("users", "username"));
+        assertTrue(Files.readString(cacheFile).contains("users.username=20"));
+
+        System.out.println("\nTEST FINISHED.");
+    }
+
+    /**
+     * Tests that nothing is written without a cache directory.
+     */
+    @Test
+    @Order(5)
+    void testNoCacheDirectory()
+    throws IOException
+    {
+        System.out.println("\n5: Testing without a cache directory...");
+
+        Files.delete(cacheFile);
+        SchemaMetadata.setCacheDirectory(null);
+        assertNull(SchemaMetadata.getCacheFile(LibraryManager.databaseName, 1));
+        assertEquals(20, SchemaMetadata.getColumnSize("users", "username"));
+        assertFalse(Files.exists(cacheFile));
+
+        System.out.println("\nTEST FINISHED.");
+    }
+}
@@ -0,0 +1,151 @@
+package edu.groupeighteen.librarydbms.control.db;
+
+import edu.groupeighteen.librarydbms.model.db.DatabaseConnection;
+import edu.groupeighteen.librarydbms.model.db.Migration;
+import edu.groupeighteen.librarydbms.model.exceptions.MigrationException;
+import org.junit.jupiter.api.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.SQLException;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author Mattias Fridsén
+ * @project LibraryDBMS
+ * @package edu.groupeighteen.librarydbms.control.db
+ * @contact matfir-1@student.ltu.se
+ * @date 10/17/2026
+ * <p>
+ * Tests the SchemaMigrator class against an empty test database, using small scripts written to a temporary
+ * directory. The tests build on each other and must be run in order.
+ */
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+public class SchemaMigratorTest
+{
+    private static final String testDatabaseName = "test_database";
+    private static Path scriptDirectory;
+    private static Migration first;
+    private static Migration second;
+
+    @BeforeAll
+    static void setup()
+    throws SQLException, ClassNotFoundException, IOException
+    {
+        DatabaseHandler.setConnection(DatabaseConnection.setup());
+        DatabaseHandler.executeCommand("drop database if exists " + testDatabaseName);
+        DatabaseHandler.executeCommand("create database " + testDatabaseName);
+        DatabaseHandler.executeCommand("use " + testDatabaseName);
+
+        scriptDirectory = Files.createTempDirectory("migrations");
+        first = new Migration(1, "Create table", writeScript("V1.sql",
+                "CREATE TABLE migration_test (id INT NOT NULL, PRIMARY KEY (id));"));
+        second = new Migration(2, "Insert rows", writeScript("V2.sql",
+                "INSERT INTO migration_test (id) VALUES (1), (2);"));
+    }
+
+    @AfterAll
+    static void tearDown()
+    {
+        DatabaseHandler.executeCommand("drop database if exists " + testDatabaseName);
+        DatabaseHandler.closeDatabaseConnection();
+    }
+
+    /**
+     * Writes a script to the temporary directory.
+     *
+     * @return the path of the script
+     */
+    private static String writeScript(String name, String content)
+    throws IOException
+    {
+        return Files.writeString(scriptDirectory.resolve(name), content).toString();
+    }
+
+    /**
+     * Tests that every migration is applied to an empty database.
+     */
+    @Test
+    @Order(1)
+    void testMigrateEmptyDatabase()
+    throws MigrationException
+    {
+        System.out.println("\n1: Testing migrating an empty database...");
+        assertEquals(0, SchemaMigrator.getCurrentVersion());
+        assertEquals(2, SchemaMigrator.migrate(List.of(first, second)));
+        assertEquals(2, SchemaMigrator.getCurrentVersion());
+        System.out.println("\nTEST FINISHED.");
+    }
+
+    /**
+     * Tests that nothing is applied twice.
+     */
+    @Test
+    @Order(2)
+    void testMigrateUpToDateDatabase()
+    throws MigrationException
+    {
+        System.out.println("\n2: Testing migrating an up to date database...");
+        assertEquals(0, SchemaMigrator.migrate(List.of(first, second)));
+        assertEquals(2, SchemaMigrator.getCurrentVersion());
+        System.out.println("\nTEST FINISHED.");
+    }
+
+    /**
+     * Tests that only a new migration is applied.
+     */
+    @Test
+    @Order(3)
+    void testMigratePendingMigration()
+    throws MigrationException, IOException
+    {
+        System.out.println("\n3: Testing applying only pending migrations...");
+        Migration third = new Migration(3, "Add column", writeScript("V3.sql",
+                "ALTER TABLE migration_test ADD COLUMN name VARCHAR(10);"));
+        assertEquals(1, SchemaMigrator.migrate(List.of(first, second, third)));
+        assertEquals(3, SchemaMigrator.getCurrentVersion());
+        System.out.println("\nTEST FINISHED.");
+    }
+
+    /**
+     * Tests that changing an applied script makes the migration fail.
+     */
+    @Test
+    @Order(4)
+    void testChangedScript()
+    throws IOException
+    {
+        System.out.println("\n4: Testing a changed script...");
+        Migration changed = new Migration(1, "Create table", writeScript("V1_changed.sql",
+                "CREATE TABLE migration_test (id BIGINT NOT NULL, PRIMARY KEY (id));"));
+        assertThrows(MigrationException.class, () -> SchemaMigrator.migrate(List.of(changed, second)));
+        System.out.println("\nTEST FINISHED.");
+    }
+
+    /**
+     * Tests that a database with migrations the application doesn't know of is refused.
+     */
+    @Test
+    @Order(5)
+    void testUnknownAppliedMigration()
+    {
+        System.out.println("\n5: Testing a database newer than the application...");
+        assertThrows(MigrationException.class, () -> SchemaMigrator.migrate(List.of(first, second)));
+        System.out.println("\nTEST FINISHED.");
+    }
+
+    /**
+     * Tests that migrations out of order are refused.
+     */
+    @Test
+    @Order(6)
+    void testMigrationsOutOfOrder()
+    {
+        System.out.println("\n6: Testing migrations out of order...");
+        assertThrows(MigrationException.class, () -> SchemaMigrator.migrate(List.of(second, first)));
+        System.out.println("\nTEST FINISHED.");
+    }
+}
@@ -0,0 +1,146 @@
+package edu.groupeighteen.librarydbms.control.db;
+
+import edu.groupeighteen.librarydbms.control.BaseHandlerTest;
+import edu.groupeighteen.librarydbms.model.db.QueryResult;
+import edu.groupeighteen.librarydbms.model.db.SQLParameter;
+import org.junit.jupiter.api.*;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author Mattias Fridsén
+ * @project LibraryDBMS
+ * @package edu.groupeighteen.librarydbms.control.db
+ * @contact matfir-1@student.ltu.se
+ * @date 10/17/2026
+ * <p>
+ * Tests the triggers created by create_triggers.sql, by changing the tables directly.
+ */
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+public class TriggersTest extends BaseHandlerTest
+{
+    private static final String INSERT_RENTAL = "INSERT INTO rentals " +
+            "(userID, itemID, rentalDate, rentalDueDate, rentalReturnDate, lateFee, receipt, deleted) " +
+            "VALUES (?, ?, ?, ?, NULL, 0.0, 'receipt', 0)";
+
+    /**
+     * Tests that renting and returning an item updates the user, the item and title_stock.
+     */
+    @Test
+    @Order(1)
+    void testRentAndReturn()
+    throws SQLException
+    {
+        System.out.println("\n1: Testing rental triggers...");
+
+        String title = getTitle(3);
+        assertNotNull(title);
+        int availableCopies = getInt("SELECT availableCopies FROM title_stock WHERE title = ?", title);
+
+        //Rent item 3 to user 3, who is allowed 3 rentals
+        LocalDateTime now = LocalDateTime.now().withNano(0);
+        DatabaseHandler.executePreparedUpdate(INSERT_RENTAL, new SQLParameter[]{SQLParameter.of(3),
+                SQLParameter.of(3), SQLParameter.of(now), SQLParameter.of(now.plusDays(7))});
+        assertEquals(1, getInt("SELECT currentRentals FROM users WHERE userID = 3"));
+        assertEquals(1, getInt("SELECT allowedToRent FROM users WHERE userID = 3"));
+        assertEquals(0, getInt("SELECT available FROM items WHERE itemID = 3"));
+        assertEquals(availableCopies - 1, getInt("SELECT availableCopies FROM title_stock WHERE title = ?", title));
+
+        //Changing anything but the return date changes nothing
+        DatabaseHandler.executeCommand("UPDATE rentals SET lateFee = 1.0 WHERE userID = 3");
+        assertEquals(1, getInt("SELECT currentRentals FROM users WHERE userID = 3"));
+
+        //Return it
+        DatabaseHandler.executePreparedUpdate("UPDATE rentals SET rentalReturnDate = ? WHERE userID = 3",
+                new SQLParameter[]{SQLParameter.of(now.plusDays(1))});
+        assertEquals(0, getInt("SELECT currentRentals FROM users WHERE userID = 3"));
+        assertEquals(1, getInt("SELECT available FROM items WHERE itemID = 3"));
+        assertEquals(availableCopies, getInt("SELECT availableCopies FROM title_stock WHERE title = ?", title));
+
+        System.out.println("\nTEST FINISHED.");
+    }
+
+    /**
+     * Tests that a user renting at maximum capacity isn't allowed to rent, until a rental is deleted.
+     */
+    @Test
+    @Order(2)
+    void testAllowedToRent()
+    throws SQLException
+    {
+        System.out.println("\n2: Testing allowedToRent...");
+
+        LocalDateTime now = LocalDateTime.now().withNano(0);
+        for (int itemID = 1; itemID <= 3; itemID++)
+            DatabaseHandler.executePreparedUpdate(INSERT_RENTAL, new SQLParameter[]{SQLParameter.of(3),
+                    SQLParameter.of(itemID), SQLParameter.of(now), SQLParameter.of(now.plusDays(7))});
+        assertEquals(3, getInt("SELECT currentRentals FROM users WHERE userID = 3"));
+        assertEquals(0, getInt("SELECT allowedToRent FROM users WHERE userID = 3"));
+
+        DatabaseHandler.executeCommand("DELETE FROM rentals WHERE itemID = 1");
+        assertEquals(2, getInt("SELECT currentRentals FROM users WHERE userID = 3"));
+        assertEquals(1, getInt("SELECT allowedToRent FROM users WHERE userID = 3"));
+        assertEquals(1, getInt("SELECT available FROM items WHERE itemID = 1"));
+
+        System.out.println("\nTEST FINISHED.");
+    }
+
+    /**
+     * Tests that title_stock follows items being inserted, renamed and deleted.
+     */
+    @Test
+    @Order(3)
+    void testTitleStock()
+    throws SQLException
+    {
+        System.out.println("\n3: Testing title_stock triggers...");
+
+        assertEquals(getInt("SELECT COUNT(*) FROM items"), getInt("SELECT SUM(totalCopies) FROM title_stock"));
+
+        String title = getTitle(20);
+        int totalCopies = getInt("SELECT totalCopies FROM title_stock WHERE title = ?", title);
+        DatabaseHandler.executeCommand("UPDATE items SET title = 'Renamed Title' WHERE itemID = 20");
+        assertEquals(1, getInt("SELECT totalCopies FROM title_stock WHERE title = 'Renamed Title'"));
+        assertEquals(1, getInt("SELECT availableCopies FROM title_stock WHERE title = 'Renamed Title'"));
+        assertEquals(totalCopies - 1, getInt("SELECT COUNT(*) FROM items WHERE title = ?", title));
+        assertEquals(totalCopies - 1, getInt("SELECT COALESCE(SUM(totalCopies), 0) FROM title_stock " +
+                "WHERE title = ?", title));
+
+        //Titles without copies are removed
+        DatabaseHandler.executeCommand("DELETE FROM literature WHERE literatureID = 20");
+        DatabaseHandler.executeCommand("DELETE FROM films WHERE filmID = 20");
+        DatabaseHandler.executeCommand("DELETE FROM items WHERE itemID = 20");
+        assertEquals(0, getInt("SELECT COUNT(*) FROM title_stock WHERE title = 'Renamed Title'"));
+
+        System.out.println("\nTEST FINISHED.");
+    }
+
+    private static String getTitle(int itemID)
+    throws SQLException
+    {
+        try (QueryResult queryResult = DatabaseHandler.executePreparedQuery(
+                "SELECT title FROM items WHERE itemID = ?", new SQLParameter[]{SQLParameter.of(itemID)}))
+        {
+            ResultSet resultSet = queryResult.getResultSet();
+            return resultSet.next() ? resultSet.getString("title") : null;
+        }
+    }
+
+    private static int getInt(String query, String... params)
+    throws SQLException
+    {
+        SQLParameter[] sqlParams = new SQLParameter[params.length];
+        for (int i = 0; i < params.length; i++)
+            sqlParams[i] = SQLParameter.of(params[i]);
+        try (QueryResult queryResult = DatabaseHandler.executePreparedQuery(query, sqlParams))
+        {
+            ResultSet resultSet = queryResult.getResultSet();
+            assertTrue(resultSet.next());
+            return resultSet.getInt(1);
+        }
+    }
+}
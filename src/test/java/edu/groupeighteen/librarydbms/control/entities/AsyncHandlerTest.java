@@ -0,0 +1,96 @@
+package edu.groupeighteen.librarydbms.control.entities;
+
+import edu.groupeighteen.librarydbms.control.BaseHandlerTest;
+import edu.groupeighteen.librarydbms.model.entities.Item;
+import edu.groupeighteen.librarydbms.model.entities.User;
+import edu.groupeighteen.librarydbms.model.exceptions.InvalidIDException;
+import org.junit.jupiter.api.*;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author Mattias Fridsén
+ * @project LibraryDBMS
+ * @package edu.groupeighteen.librarydbms.control.entities
+ * @contact matfir-1@student.ltu.se
+ * @date 10/17/2026
+ * <p>
+ * Unit Test for the AsyncHandler class.
+ */
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+public class AsyncHandlerTest extends BaseHandlerTest
+{
+    @AfterAll
+    static void shutdownExecutors()
+    {
+        AsyncHandler.shutdown();
+    }
+
+    /**
+     * Tests looking up a user and an item at the same time.
+     */
+    @Test
+    @Order(1)
+    void testParallelLookups()
+    {
+        System.out.println("\n1: Testing parallel lookups...");
+
+        CompletableFuture<User> user = AsyncHandler.getUserByID(3);
+        CompletableFuture<Item> item = AsyncHandler.getItemByID(3);
+        CompletableFuture.allOf(user, item).join();
+
+        assertNotNull(user.join());
+        assertEquals(3, user.join().getUserID());
+        assertNotNull(item.join());
+        assertEquals(3, item.join().getItemID());
+
+        System.out.println("\nTEST FINISHED.");
+    }
+
+    /**
+     * Tests that a checked exception thrown by a handler method is the cause of the CompletionException.
+     */
+    @Test
+    @Order(2)
+    void testExceptionalCompletion()
+    {
+        System.out.println("\n2: Testing a lookup that throws...");
+
+        CompletionException e = assertThrows(CompletionException.class, () -> AsyncHandler.getUserByID(0).join());
+        assertTrue(e.getCause() instanceof InvalidIDException);
+
+        System.out.println("\nTEST FINISHED.");
+    }
+
+    /**
+     * Tests that writes submitted together all complete, each with its own row.
+     */
+    @Test
+    @Order(3)
+    void testConcurrentWrites()
+    {
+        System.out.println("\n3: Testing concurrent writes...");
+
+        List<CompletableFuture<User>> users = new ArrayList<>();
+        for (int i = 0; i < 5; i++)
+            users.add(AsyncHandler.createNewUser("asyncuser" + i, "Password123!", "async" + i + "@example.com",
+                    User.UserType.PATRON));
+
+        Set<Integer> userIDs = new HashSet<>();
+        for (int i = 0; i < users.size(); i++)
+        {
+            User user = users.get(i).join();
+            assertEquals("asyncuser" + i, user.getUsername());
+            assertTrue(userIDs.add(user.getUserID()));
+        }
+
+        System.out.println("\nTEST FINISHED.");
+    }
+}
@@ -0,0 +1,103 @@
+package edu.groupeighteen.librarydbms.control.entities;
+
+import org.junit.jupiter.api.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author Mattias Fridsén
+ * @project LibraryDBMS
+ * @package edu.groupeighteen.librarydbms.control.entities
+ * @contact matfir-1@student.ltu.se
+ * @date 10/17/2026
+ * <p>
+ * Tests the CuckooFilter class.
+ */
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+public class CuckooFilterTest
+{
+    /**
+     * Tests that every string added is found, and that strings not added are rarely reported as maybe present.
+     */
+    @Test
+    @Order(1)
+    void testMembership()
+    {
+        System.out.println("\n1: Testing membership...");
+
+        CuckooFilter filter = new CuckooFilter(100_000);
+        for (int i = 0; i < 90_000; i++)
+            assertTrue(filter.add("barcode" + i));
+        assertEquals(90_000, filter.size());
+
+        for (int i = 0; i < 90_000; i++)
+            assertTrue(filter.mightContain("barcode" + i));
+
+        int falsePositives = 0;
+        for (int i = 90_000; i < 190_000; i++)
+            if (filter.mightContain("barcode" + i))
+                falsePositives++;
+        //About 12 expected
+        assertTrue(falsePositives < 100, "Too many false positives: " + falsePositives);
+
+        System.out.println("\nTEST FINISHED.");
+    }
+
+    /**
+     * Tests that removed strings are no longer found, and that the same string can be added twice.
+     */
+    @Test
+    @Order(2)
+    void testRemove()
+    {
+        System.out.println("\n2: Testing remove...");
+
+        CuckooFilter filter = new CuckooFilter(16);
+        assertTrue(filter.add("user1"));
+        assertTrue(filter.add("user1"));
+        assertTrue(filter.add("user2"));
+
+        assertTrue(filter.remove("user1"));
+        assertTrue(filter.mightContain("user1"));
+        assertTrue(filter.remove("user1"));
+        assertFalse(filter.mightContain("user1"));
+        assertFalse(filter.remove("user1"));
+        assertTrue(filter.mightContain("user2"));
+        assertEquals(1, filter.size());
+
+        filter.clear();
+        assertFalse(filter.mightContain("user2"));
+        assertEquals(0, filter.size());
+
+        System.out.println("\nTEST FINISHED.");
+    }
+
+    /**
+     * Tests that a full filter refuses new strings without losing any it holds, and takes them again once something
+     * is removed.
+     */
+    @Test
+    @Order(3)
+    void testFull()
+    {
+        System.out.println("\n3: Testing a full filter...");
+
+        CuckooFilter filter = new CuckooFilter(64);
+        int added = 0;
+        while (filter.add("email" + added))
+            added++;
+        assertTrue(filter.isFull());
+        assertEquals(added, filter.size());
+        assertTrue(added <= filter.getSlots() + 1);
+        for (int i = 0; i < added; i++)
+            assertTrue(filter.mightContain("email" + i));
+
+        for (int i = 0; i < added; i++)
+            assertTrue(filter.remove("email" + i));
+        assertFalse(filter.isFull());
+        assertEquals(0, filter.size());
+        assertTrue(filter.add("email" + added));
+
+        System.out.println("\nTEST FINISHED.");
+    }
+}
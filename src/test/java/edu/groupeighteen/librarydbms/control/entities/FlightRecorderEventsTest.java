@@ -0,0 +1,167 @@
+package edu.groupeighteen.librarydbms.control.entities;
+
+import edu.groupeighteen.librarydbms.control.BaseHandlerTest;
+import edu.groupeighteen.librarydbms.model.entities.Item;
+import edu.groupeighteen.librarydbms.model.entities.Rental;
+import edu.groupeighteen.librarydbms.model.events.*;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.function.Executable;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author Mattias Fridsén
+ * @project LibraryDBMS
+ * @package edu.groupeighteen.librarydbms.control.entities
+ * @contact matfir-1@student.ltu.se
+ * @date 10/17/2026
+ * <p>
+ * Tests that the handlers emit their Flight Recorder events, by recording them in-process and reading them back.
+ */
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+public class FlightRecorderEventsTest extends BaseHandlerTest
+{
+    @BeforeEach
+    void setupHandlers()
+    {
+        ItemHandler.setup();
+        UserHandler.setup();
+    }
+
+    /**
+     * Runs an action while recording every LibraryDBMS event.
+     *
+     * @param action the action to run
+     * @return the events recorded while it ran
+     */
+    private static List<RecordedEvent> record(Executable action)
+    throws Throwable
+    {
+        Path file = Files.createTempFile("librarydbms", ".jfr");
+        try (Recording recording = new Recording())
+        {
+            recording.enable(StatementEvent.class);
+            recording.enable(CheckoutEvent.class);
+            recording.enable(ReturnEvent.class);
+            recording.enable(ItemQueryEvent.class);
+            recording.enable(LoginEvent.class);
+            recording.start();
+            action.execute();
+            recording.stop();
+            recording.dump(file);
+        }
+
+        try
+        {
+            return RecordingFile.readAllEvents(file);
+        }
+        finally
+        {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    private static List<RecordedEvent> eventsNamed(List<RecordedEvent> events, String name)
+    {
+        return events.stream()
+                .filter(event -> event.getEventType().getName().equals(name))
+                .sorted(Comparator.comparing(RecordedEvent::getStartTime))
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Tests that retrieving items emits an ItemQueryEvent with the rows, and a StatementEvent for the query.
+     */
+    @Test
+    @Order(1)
+    void testItemQueryEvents()
+    throws Throwable
+    {
+        System.out.println("\n1: Testing item query events...");
+
+        List<Item> items = new ArrayList<>();
+        List<RecordedEvent> events = record(() -> items.addAll(ItemHandler.getAllItems()));
+
+        List<RecordedEvent> itemQueries = eventsNamed(events, "librarydbms.ItemQuery");
+        assertEquals(1, itemQueries.size());
+        assertEquals(items.size(), itemQueries.get(0).getLong("rows"));
+
+        //Constructing the items can run other statements too
+        RecordedEvent statement = eventsNamed(events, "librarydbms.Statement").stream()
+                .filter(event -> event.getString("template").startsWith("SELECT * FROM items"))
+                .findFirst().orElse(null);
+        assertNotNull(statement);
+        assertEquals(items.size(), statement.getLong("rows"));
+        assertFalse(statement.getBoolean("failed"));
+
+        System.out.println("\nTEST FINISHED.");
+    }
+
+    /**
+     * Tests that logging in emits a LoginEvent with whether it succeeded.
+     */
+    @Test
+    @Order(2)
+    void testLoginEvents()
+    throws Throwable
+    {
+        System.out.println("\n2: Testing login events...");
+
+        List<RecordedEvent> events = record(() ->
+        {
+            assertTrue(UserHandler.login("user3", "password3"));
+            assertFalse(UserHandler.login("user3", "wrongpassword"));
+        });
+
+        List<RecordedEvent> logins = eventsNamed(events, "librarydbms.Login");
+        assertEquals(2, logins.size());
+        assertEquals("user3", logins.get(0).getString("username"));
+        assertTrue(logins.get(0).getBoolean("succeeded"));
+        assertFalse(logins.get(1).getBoolean("succeeded"));
+
+        System.out.println("\nTEST FINISHED.");
+    }
+
+    /**
+     * Tests that creating and returning a rental emit a CheckoutEvent and a ReturnEvent with the IDs involved.
+     */
+    @Test
+    @Order(3)
+    void testRentalEvents()
+    throws Throwable
+    {
+        System.out.println("\n3: Testing checkout and return events...");
+
+        Rental[] rental = new Rental[1];
+        List<RecordedEvent> events = record(() ->
+        {
+            rental[0] = RentalHandler.createNewRental(4, 3);
+            RentalHandler.returnRental(rental[0]);
+        });
+
+        List<RecordedEvent> checkouts = eventsNamed(events, "librarydbms.Checkout");
+        assertEquals(1, checkouts.size());
+        RecordedEvent checkout = checkouts.get(0);
+        assertEquals(4, checkout.getInt("userID"));
+        assertEquals(rental[0].getItemID(), checkout.getInt("itemID"));
+        assertEquals(rental[0].getRentalID(), checkout.getInt("rentalID"));
+        assertTrue(checkout.getBoolean("succeeded"));
+
+        List<RecordedEvent> returns = eventsNamed(events, "librarydbms.Return");
+        assertEquals(1, returns.size());
+        assertEquals(rental[0].getRentalID(), returns.get(0).getInt("rentalID"));
+        assertTrue(returns.get(0).getBoolean("succeeded"));
+
+        System.out.println("\nTEST FINISHED.");
+    }
+}
@@ -0,0 +1,78 @@
+package edu.groupeighteen.librarydbms.control.entities;
+
+import org.junit.jupiter.api.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author Mattias Fridsén
+ * @project LibraryDBMS
+ * @package edu.groupeighteen.librarydbms.control.entities
+ * @contact matfir-1@student.ltu.se
+ * @date 10/17/2026
+ * <p>
+ * Tests the KeyRegistry class.
+ */
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+public class KeyRegistryTest
+{
+    /**
+     * Tests adding, removing and looking up values, with and without case.
+     */
+    @Test
+    @Order(1)
+    void testAddRemoveContains()
+    {
+        System.out.println("\n1: Testing add, remove and contains...");
+
+        KeyRegistry exact = new KeyRegistry(false);
+        assertTrue(exact.add("Barcode1"));
+        assertFalse(exact.add("Barcode1"));
+        assertTrue(exact.add("barcode1"));
+        assertEquals(2, exact.size());
+        assertTrue(exact.remove("Barcode1"));
+        assertFalse(exact.contains("Barcode1"));
+        assertFalse(exact.contains(null));
+
+        KeyRegistry ignoringCase = new KeyRegistry(true);
+        assertTrue(ignoringCase.add("User1"));
+        assertFalse(ignoringCase.add("user1"));
+        assertTrue(ignoringCase.contains("USER1"));
+        assertTrue(ignoringCase.isSameKey("User1", "uSER1"));
+        assertEquals("User1", ignoringCase.iterator().next());
+        assertTrue(ignoringCase.remove("user1"));
+        assertTrue(ignoringCase.isEmpty());
+
+        System.out.println("\nTEST FINISHED.");
+    }
+
+    /**
+     * Tests that values added from many threads at once are all registered, each only once.
+     */
+    @Test
+    @Order(2)
+    void testConcurrentAdd()
+    {
+        System.out.println("\n2: Testing concurrent add...");
+
+        KeyRegistry registry = new KeyRegistry(true);
+        List<Boolean> added = new ArrayList<>();
+        IntStream.range(0, 10_000).parallel()
+                .mapToObj(i -> registry.add("user" + (i % 5_000)))
+                .forEach(result ->
+                {
+                    synchronized (added)
+                    {
+                        added.add(result);
+                    }
+                });
+        assertEquals(5_000, registry.size());
+        assertEquals(5_000, added.stream().filter(Boolean::booleanValue).count());
+
+        System.out.println("\nTEST FINISHED.");
+    }
+}
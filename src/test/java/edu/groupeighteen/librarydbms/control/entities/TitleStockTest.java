@@ -0,0 +1,112 @@
+package edu.groupeighteen.librarydbms.control.entities;
+
+import edu.groupeighteen.librarydbms.control.BaseHandlerTest;
+import edu.groupeighteen.librarydbms.control.db.DatabaseHandler;
+import org.junit.jupiter.api.*;
+
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author Mattias Fridsén
+ * @project LibraryDBMS
+ * @package edu.groupeighteen.librarydbms.control.entities
+ * @contact matfir-1@student.ltu.se
+ * @date 10/17/2026
+ * <p>
+ * Tests reading title counts from title_stock through TitleStock and its cache.
+ */
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+public class TitleStockTest extends BaseHandlerTest
+{
+    /**
+     * Tests the counts of titles with and without copies.
+     */
+    @Test
+    @Order(1)
+    void testGet()
+    {
+        System.out.println("\n1: Testing get...");
+
+        TitleStock titleStock = new TitleStock(10);
+        assertArrayEquals(new int[]{1, 1}, titleStock.get("Red Country"));
+        assertNull(titleStock.get("No Such Title"));
+        //Titles differing only in case are the same title
+        assertArrayEquals(new int[]{1, 1}, new TitleStock(10).get("RED COUNTRY"));
+
+        assertEquals(20, titleStock.countTitles());
+        try (Stream<String> titles = titleStock.streamTitles())
+        {
+            assertEquals(20, titles.mapToInt(title -> titleStock.get(title)[0]).sum());
+        }
+
+        System.out.println("\nTEST FINISHED.");
+    }
+
+    /**
+     * Tests that a cached title is only read again once invalidated, or once it's been evicted.
+     */
+    @Test
+    @Order(2)
+    void testCache()
+    {
+        System.out.println("\n2: Testing the cache...");
+
+        TitleStock titleStock = new TitleStock(2);
+        assertEquals(1, titleStock.get("item1")[1]);
+        assertNull(titleStock.get("New Title"));
+
+        DatabaseHandler.executeCommand("UPDATE items SET available = 0 WHERE itemID = 1");
+        DatabaseHandler.executeCommand("UPDATE items SET title = 'New Title' WHERE itemID = 2");
+
+        //Still cached
+        assertEquals(1, titleStock.get("item1")[1]);
+        assertNull(titleStock.get("New Title"));
+
+        //Invalidated regardless of case
+        titleStock.invalidate("ITEM1");
+        assertArrayEquals(new int[]{1, 0}, titleStock.get("item1"));
+
+        //Reading two other titles evicts New Title, the least recently used
+        titleStock.get("item3");
+        titleStock.get("item4");
+        assertArrayEquals(new int[]{1, 1}, titleStock.get("New Title"));
+
+        System.out.println("\nTEST FINISHED.");
+    }
+
+    /**
+     * Tests that rented and returned copies are counted in place, and that counts which may already include the
+     * change, or which don't add up, are read again instead.
+     */
+    @Test
+    @Order(3)
+    void testReserveAndRelease()
+    {
+        System.out.println("\n3: Testing reserve and release...");
+
+        TitleStock titleStock = new TitleStock(10);
+        assertArrayEquals(new int[]{1, 1}, titleStock.get("item1"));
+
+        long ticket = titleStock.beginChange();
+        titleStock.reserve("item1", ticket);
+        assertArrayEquals(new int[]{1, 0}, titleStock.get("item1"));
+        titleStock.release("item1", titleStock.beginChange());
+        assertArrayEquals(new int[]{1, 1}, titleStock.get("item1"));
+
+        //Every copy is already available, so the counts are forgotten and read again
+        DatabaseHandler.executeCommand("UPDATE items SET available = 0 WHERE itemID = 1");
+        titleStock.release("item1", titleStock.beginChange());
+        assertArrayEquals(new int[]{1, 0}, titleStock.get("item1"));
+
+        //Read after the ticket, so it may already count the rental
+        ticket = titleStock.beginChange();
+        assertArrayEquals(new int[]{1, 1}, titleStock.get("item2"));
+        titleStock.reserve("item2", ticket);
+        DatabaseHandler.executeCommand("UPDATE items SET available = 0 WHERE itemID = 2");
+        assertArrayEquals(new int[]{1, 0}, titleStock.get("item2"));
+
+        System.out.println("\nTEST FINISHED.");
+    }
+}
@@ -0,0 +1,154 @@
+package edu.groupeighteen.librarydbms.control.entities.item;
+
+import edu.groupeighteen.librarydbms.control.BaseHandlerTest;
+import edu.groupeighteen.librarydbms.control.entities.ItemHandler;
+import edu.groupeighteen.librarydbms.model.entities.Film;
+import edu.groupeighteen.librarydbms.model.entities.Item;
+import edu.groupeighteen.librarydbms.model.entities.Literature;
+import edu.groupeighteen.librarydbms.model.exceptions.EntityNotFoundException;
+import edu.groupeighteen.librarydbms.model.exceptions.item.InvalidBarcodeException;
+import org.junit.jupiter.api.*;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author Mattias Fridsén
+ * @project LibraryDBMS
+ * @date 10/17/2026
+ * @contact matfir-1@student.ltu.se
+ * <p>
+ * Tests the createNewLiteratureBatch and createNewFilmBatch methods in ItemHandler.
+ */
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+public class CreateItemBatchTest extends BaseHandlerTest
+{
+    @Override
+    @BeforeEach
+    protected void setupAndReset()
+    {
+        super.setupAndReset();
+        ItemHandler.setup();
+    }
+
+    /**
+     * Tests creating a batch of literature, verifying IDs, the literature table and the title counts.
+     */
+    @Test
+    @Order(1)
+    void testCreateNewLiteratureBatch_ValidInput()
+    {
+        System.out.println("\n1: Testing createNewLiteratureBatch with valid input...");
+
+        try
+        {
+            List<Literature> batch = new ArrayList<>();
+            for (int i = 0; i < 10; i++)
+                batch.add(new Literature("Batch Title", Item.ItemType.COURSE_LITERATURE, 1, 1,
+                        "batchBarcode" + i, "978316148410" + i));
+
+            int storedBefore = ItemHandler.countCopies("Batch Title");
+            List<Literature> created = ItemHandler.createNewLiteratureBatch(batch);
+
+            assertEquals(10, created.size());
+            for (Literature literature : created)
+            {
+                assertTrue(literature.getItemID() > 0);
+                assertNotNull(literature.getAuthorFirstname());
+                assertNotNull(literature.getClassificationName());
+
+                Literature retrieved = (Literature) ItemHandler.getItemByID(literature.getItemID());
+                assertNotNull(retrieved);
+                assertEquals(literature.getBarcode(), retrieved.getBarcode());
+                assertEquals(literature.getISBN(), retrieved.getISBN());
+            }
+
+            assertEquals(storedBefore + 10, ItemHandler.countCopies("Batch Title"));
+            assertTrue(ItemHandler.getRegisteredBarcodes().contains("batchBarcode9"));
+        }
+        catch (Exception e)
+        {
+            e.printStackTrace();
+            fail("Valid operations should not throw exceptions.");
+        }
+
+        System.out.println("\nTEST FINISHED.");
+    }
+
+    /**
+     * Tests creating a batch of films.
+     */
+    @Test
+    @Order(2)
+    void testCreateNewFilmBatch_ValidInput()
+    {
+        System.out.println("\n2: Testing createNewFilmBatch with valid input...");
+
+        try
+        {
+            List<Film> batch = new ArrayList<>();
+            for (int i = 0; i < 10; i++)
+                batch.add(new Film("Batch Film", 1, 1, "batchFilmBarcode" + i, 12));
+
+            List<Film> created = ItemHandler.createNewFilmBatch(batch);
+
+            for (Film film : created)
+            {
+                Film retrieved = (Film) ItemHandler.getItemByID(film.getItemID());
+                assertNotNull(retrieved);
+                assertEquals(12, retrieved.getAgeRating());
+            }
+        }
+        catch (Exception e)
+        {
+            e.printStackTrace();
+            fail("Valid operations should not throw exceptions.");
+        }
+
+        System.out.println("\nTEST FINISHED.");
+    }
+
+    /**
+     * Tests that a barcode appearing twice in the batch fails the whole batch before anything is saved.
+     */
+    @Test
+    @Order(3)
+    void testCreateNewFilmBatch_DuplicateBarcode()
+    throws Exception
+    {
+        System.out.println("\n3: Testing createNewFilmBatch with a duplicate barcode...");
+
+        List<Film> batch = new ArrayList<>();
+        batch.add(new Film("Batch Film", 1, 1, "sameBarcode", 12));
+        batch.add(new Film("Batch Film", 1, 1, "sameBarcode", 12));
+
+        assertThrows(InvalidBarcodeException.class, () -> ItemHandler.createNewFilmBatch(batch));
+        assertEquals(0, ItemHandler.countCopies("Batch Film"));
+
+        System.out.println("\nTEST FINISHED.");
+    }
+
+    /**
+     * Tests that a non-existent author fails the whole batch.
+     */
+    @Test
+    @Order(4)
+    void testCreateNewLiteratureBatch_NonExistentAuthor()
+    throws Exception
+    {
+        System.out.println("\n4: Testing createNewLiteratureBatch with a non-existent author...");
+
+        List<Literature> batch = new ArrayList<>();
+        batch.add(new Literature("Batch Title", Item.ItemType.COURSE_LITERATURE, 1, 1,
+                "batchBarcode", "9783161484100"));
+        batch.add(new Literature("Batch Title", Item.ItemType.COURSE_LITERATURE, 9999, 1,
+                "batchBarcode2", "9783161484101"));
+
+        assertThrows(EntityNotFoundException.class, () -> ItemHandler.createNewLiteratureBatch(batch));
+        assertFalse(ItemHandler.getRegisteredBarcodes().contains("batchBarcode"));
+
+        System.out.println("\nTEST FINISHED.");
+    }
+}
@@ -1,13 +1,24 @@
 package edu.groupeighteen.librarydbms.control.entities.item;
 
 import edu.groupeighteen.librarydbms.control.BaseHandlerTest;
+import edu.groupeighteen.librarydbms.control.db.DatabaseHandler;
 import edu.groupeighteen.librarydbms.control.entities.ItemHandler;
 import edu.groupeighteen.librarydbms.control.entities.ItemHandlerUtils;
+import edu.groupeighteen.librarydbms.model.db.Page;
+import edu.groupeighteen.librarydbms.model.db.PageRequest;
+import edu.groupeighteen.librarydbms.model.entities.Item;
 import org.junit.jupiter.api.MethodOrderer;
 import org.junit.jupiter.api.Order;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.TestMethodOrder;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
 /**
  * @author Mattias Fridsén
  * @project LibraryDBMS
@@ -34,4 +45,73 @@ public class GetAllItemsTest extends BaseHandlerTest
 
         System.out.println("\nTEST FINISHED.");
     }
-}
\ No newline at end of file
+
+    /**
+     * Tests that streamAllItems returns the same items, in the same order, as getAllItems.
+     */
+    @Test
+    @Order(2)
+    void testStreamAllItems()
+    {
+        System.out.println("\n2: Testing streamAllItems...");
+
+        List<Item> expectedItems = ItemHandler.getAllItems();
+        List<Item> streamedItems;
+        try (Stream<Item> items = ItemHandler.streamAllItems())
+        {
+            streamedItems = items.collect(Collectors.toList());
+        }
+
+        assertEquals(expectedItems.size(), streamedItems.size());
+        for (int i = 0; i < expectedItems.size(); i++)
+            assertEquals(expectedItems.get(i).getItemID(), streamedItems.get(i).getItemID());
+
+        System.out.println("\nTEST FINISHED.");
+    }
+
+    /**
+     * Tests that closing a partially consumed stream hands its connection back to the pool.
+     */
+    @Test
+    @Order(3)
+    void testStreamAllItems_PartiallyConsumed()
+    {
+        System.out.println("\n3: Testing closing a partially consumed item stream...");
+
+        try (Stream<Item> items = ItemHandler.streamAllItems())
+        {
+            assertEquals(2, items.limit(2).count());
+        }
+        assertEquals(0, DatabaseHandler.getPool().getActiveConnections());
+
+        System.out.println("\nTEST FINISHED.");
+    }
+
+    /**
+     * Tests that walking through every page of getAllItems returns every item exactly once, in itemID order.
+     */
+    @Test
+    @Order(4)
+    void testGetAllItems_Paged()
+    {
+        System.out.println("\n4: Testing getAllItems one page at a time...");
+
+        List<Item> expectedItems = ItemHandler.getAllItems();
+        List<Item> pagedItems = new ArrayList<>();
+
+        PageRequest pageRequest = new PageRequest(7);
+        while (pageRequest != null)
+        {
+            Page<Item> page = ItemHandler.getAllItems(pageRequest);
+            assertTrue(page.getContent().size() <= 7);
+            pagedItems.addAll(page.getContent());
+            pageRequest = page.next();
+        }
+
+        assertEquals(expectedItems.size(), pagedItems.size());
+        for (int i = 1; i < pagedItems.size(); i++)
+            assertTrue(pagedItems.get(i - 1).getItemID() < pagedItems.get(i).getItemID());
+
+        System.out.println("\nTEST FINISHED.");
+    }
+}
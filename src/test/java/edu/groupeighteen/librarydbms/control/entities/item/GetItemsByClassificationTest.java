@@ -43,6 +43,8 @@ public class GetItemsByClassificationTest
         DatabaseHandler.executeCommand("use " + testDatabaseName);
         DatabaseHandler.setVerbose(false);
         DatabaseHandler.executeSQLCommandsFromFile("src/main/resources/sql/create_tables.sql");
+        DatabaseHandler.executeSQLCommandsFromFile("src/main/resources/sql/create_triggers.sql");
+        DatabaseHandler.executeSQLCommandsFromFile("src/main/resources/sql/alter_title_stock.sql");
     }
 
     static void setupTestData()
@@ -6,10 +6,12 @@ import edu.groupeighteen.librarydbms.control.entities.ItemHandler;
 import org.junit.jupiter.api.*;
 
 import java.sql.SQLException;
-import java.util.Iterator;
-import java.util.Map;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 /**
  * @author Mattias Fridsén
@@ -53,10 +55,8 @@ public class ItemHandlerSetupTest extends BaseHandlerTest
         ItemHandler.setup();
 
         // Verify that the storedTitles, availableTitles maps, and registeredBarcodes list are empty
-        assertEquals(0, ItemHandler.getStoredTitles().size(),
-                "storedTitles map should be empty after setup with an empty database");
-        assertEquals(0, ItemHandler.getAvailableTitles().size(),
-                "availableTitles map should be empty after setup with an empty database");
+        assertEquals(0, ItemHandler.countTitles(),
+                "There should be no titles after setup with an empty database");
         assertEquals(0, ItemHandler.getRegisteredBarcodes().size(),
                 "registeredBarcodes list should be empty after setup with an empty database");
 
@@ -84,8 +84,7 @@ public class ItemHandlerSetupTest extends BaseHandlerTest
 
 
         //Check that the maps and list are empty
-        assertEquals(0, ItemHandler.getStoredTitles().size());
-        assertEquals(0, ItemHandler.getAvailableTitles().size());
+        assertEquals(0, ItemHandler.countTitles());
         assertEquals(0, ItemHandler.getRegisteredBarcodes().size());
 
         //Set some variables
@@ -116,26 +115,22 @@ public class ItemHandlerSetupTest extends BaseHandlerTest
         ItemHandler.setup();
 
         //Verify amount of contents
-        assertEquals(3, ItemHandler.getStoredTitles().size());
-        assertEquals(3, ItemHandler.getAvailableTitles().size());
-        assertEquals(1, ItemHandler.getAvailableTitles().get(title1));
+        assertEquals(3, ItemHandler.countTitles());
+        assertEquals(2, ItemHandler.countCopies(title1));
+        assertEquals(1, ItemHandler.countAvailableCopies(title1));
         assertEquals(4, ItemHandler.getRegisteredBarcodes().size());
 
-        //Verify content of maps
-        Map<String, Integer> storedTitles = ItemHandler.getStoredTitles();
-        Iterator<String> iterator = storedTitles.keySet().iterator();
-        String firstKey = iterator.next();
-        String secondKey = iterator.next();
-        String thirdKey = iterator.next();
-        assertEquals(title1, firstKey);
-        assertEquals(title2, secondKey);
-        assertEquals(title3, thirdKey);
-
-        //Verify barcodes
-        assertEquals(barcode1, ItemHandler.getRegisteredBarcodes().get(0));
-        assertEquals(barcode2, ItemHandler.getRegisteredBarcodes().get(1));
-        assertEquals(barcode3, ItemHandler.getRegisteredBarcodes().get(2));
-        assertEquals(barcode4, ItemHandler.getRegisteredBarcodes().get(3));
+        //Verify the titles, in title order
+        try (Stream<String> titles = ItemHandler.streamTitles())
+        {
+            assertEquals(List.of(title1, title2, title3), titles.collect(Collectors.toList()));
+        }
+
+        //Verify barcodes, which are registered in no particular order
+        assertTrue(ItemHandler.getRegisteredBarcodes().contains(barcode1));
+        assertTrue(ItemHandler.getRegisteredBarcodes().contains(barcode2));
+        assertTrue(ItemHandler.getRegisteredBarcodes().contains(barcode3));
+        assertTrue(ItemHandler.getRegisteredBarcodes().contains(barcode4));
 
         System.out.println("\nTEST FINISHED.");
     }
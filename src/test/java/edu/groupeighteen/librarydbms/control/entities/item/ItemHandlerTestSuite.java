@@ -16,6 +16,7 @@ import org.junit.platform.suite.api.Suite;
         ItemHandlerSetupTest.class,
         CreateNewLiteratureTest.class,
         CreateNewFilmTest.class,
+        CreateItemBatchTest.class,
         GetItemByIDTest.class,
         UpdateItemTest.class,
         DeleteAndRecoverItemTest.class,
@@ -2,6 +2,7 @@ package edu.groupeighteen.librarydbms.control.entities.item;
 
 import edu.groupeighteen.librarydbms.control.BaseHandlerTest;
 import edu.groupeighteen.librarydbms.control.entities.ItemHandler;
+import edu.groupeighteen.librarydbms.control.entities.RentalHandler;
 import edu.groupeighteen.librarydbms.model.entities.Film;
 import edu.groupeighteen.librarydbms.model.entities.Item;
 import edu.groupeighteen.librarydbms.model.entities.Literature;
@@ -182,4 +183,53 @@ public class UpdateItemTest extends BaseHandlerTest
         System.out.println("\nTEST FINISHED.");
     }
 
-}
\ No newline at end of file
+    /**
+     * Test case for updating the title of a rented item with an Item retrieved before it was rented.
+     * <p>
+     * Availability is left to the triggers on rentals, so the item should stay unavailable, and title_stock should
+     * move a rented copy from the old title to the new one.
+     */
+    @Test
+    @Order(5)
+    void testUpdateItem_RentedItemTitleChanged()
+    {
+        System.out.println("\n5: Testing updateItem method with a rented item whose title is changed...");
+
+        try
+        {
+            //Retrieved while still available
+            Item staleItem = ItemHandler.getItemByID(5);
+            assertNotNull(staleItem);
+            assertTrue(staleItem.isAvailable());
+            assertEquals(1, ItemHandler.countCopies("item4"));
+            assertEquals(1, ItemHandler.countAvailableCopies("item4"));
+
+            RentalHandler.createNewRental(5, 5);
+            assertEquals(0, ItemHandler.countAvailableCopies("item5"));
+
+            //Give it the title of item4
+            staleItem.setTitle("item4");
+            ItemHandler.updateItem(staleItem);
+
+            //The item is still rented, and the Item shows it
+            assertFalse(staleItem.isAvailable());
+            Item updatedItem = ItemHandler.getItemByID(5);
+            assertNotNull(updatedItem);
+            assertEquals("item4", updatedItem.getTitle());
+            assertFalse(updatedItem.isAvailable());
+
+            //The rented copy has moved from item5 to item4
+            assertEquals(0, ItemHandler.countCopies("item5"));
+            assertEquals(0, ItemHandler.countAvailableCopies("item5"));
+            assertEquals(2, ItemHandler.countCopies("item4"));
+            assertEquals(1, ItemHandler.countAvailableCopies("item4"));
+        }
+        catch (Exception e)
+        {
+            e.printStackTrace();
+            fail("Valid operations should not throw exceptions.");
+        }
+
+        System.out.println("\nTEST FINISHED.");
+    }
+}
@@ -77,6 +77,10 @@ public abstract class BaseRentalHandlerTest
             DatabaseHandler.executeCommand("use " + testDatabaseName);
             DatabaseHandler.setVerbose(false);
             DatabaseHandler.executeSQLCommandsFromFile("src/main/resources/sql/create_tables.sql");
+            DatabaseHandler.executeSQLCommandsFromFile("src/main/resources/sql/create_indexes.sql");
+            DatabaseHandler.executeSQLCommandsFromFile("src/main/resources/sql/create_routines.sql");
+            DatabaseHandler.executeSQLCommandsFromFile("src/main/resources/sql/create_triggers.sql");
+            DatabaseHandler.executeSQLCommandsFromFile("src/main/resources/sql/alter_title_stock.sql");
         }
         catch (SQLException | ClassNotFoundException e)
         {
@@ -110,14 +110,12 @@ public class CreateNewRentalTest extends BaseRentalHandlerTest
                 "should be greater than 0");
 
         // Verify that storedTitles still contains 1 count for "item1"
-        int storedTitlesCount = ItemHandler.getStoredTitles().get(expectedTitle);
+        int storedTitlesCount = ItemHandler.countCopies(expectedTitle);
         assertEquals(1, storedTitlesCount, "Stored titles should still contain 1 count for " + expectedTitle);
 
-        // Verify that availableTitles has 0 counts for "item1", but "item1" still exists in it
-        int availableTitlesCount = ItemHandler.getAvailableTitles().get(expectedTitle);
+        // Verify that availableTitles has 0 counts for "item1"
+        int availableTitlesCount = ItemHandler.countAvailableCopies(expectedTitle);
         assertEquals(0, availableTitlesCount, "Available titles should have 0 counts for " + expectedTitle);
-        assertTrue(ItemHandler.getAvailableTitles().containsKey(expectedTitle),
-                "Available titles should still contain " + expectedTitle);
 
         System.out.println("\nTEST FINISHED.");
     }
@@ -287,11 +285,10 @@ public class CreateNewRentalTest extends BaseRentalHandlerTest
             int validUserID = 3;
             int validItemID = 4; //OTHER_BOOKS
 
-            //Change item to be unavailable and update it
+            //Rent out the only copy to another user
             Item unavailableItem = ItemHandler.getItemByID(validItemID);
             assertNotNull(unavailableItem);
-            unavailableItem.setAvailable(false);
-            ItemHandler.updateItem(unavailableItem);
+            RentalHandler.createNewRental(5, validItemID);
 
             //Assert correct exception with correct message is thrown
             String title = unavailableItem.getTitle();
@@ -310,7 +307,7 @@ public class CreateNewRentalTest extends BaseRentalHandlerTest
             actualMessage = exception.getMessage();
             assertTrue(actualMessage.contains(expectedMessage));
         }
-        catch (InvalidIDException | NullEntityException | RetrievalException | RentalNotAllowedException |
+        catch (InvalidIDException | RetrievalException | RentalNotAllowedException |
                EntityNotFoundException | InvalidTypeException e)
         {
             e.printStackTrace();
@@ -336,10 +333,10 @@ public class CreateNewRentalTest extends BaseRentalHandlerTest
 
             RentalHandler.setVerbose(true);
 
-            //Change users number of rentals to maximum allowed
+            //Lower users allowed rentals to the number of rentals it has, currentRentals belongs to the triggers
             User maxRentalUser = UserHandler.getUserByID(validUserID);
             assertNotNull(maxRentalUser);
-            maxRentalUser.setCurrentRentals(3);
+            maxRentalUser.setAllowedRentals(maxRentalUser.getCurrentRentals());
             UserHandler.updateUser(maxRentalUser);
 
             //Tracer to find bug
@@ -442,6 +439,45 @@ public class CreateNewRentalTest extends BaseRentalHandlerTest
             e.printStackTrace();
         }
 
+        System.out.println("\nTEST FINISHED.");
+    }
+    /**
+     * Test case for the receipt of createNewRental.
+     * <p>
+     * Where the dialect supports stored procedures, the receipt and due date are made by checkout_item in SQL, and
+     * must be the same as the ones made in Java. The receipt is checked both on the returned rental and on the saved
+     * one.
+     */
+    @Test
+    @Order(11)
+    void testCreateNewRental_Receipt()
+    {
+        System.out.println("\n11: Testing the receipt of createNewRental...");
+
+        try
+        {
+            Rental rental = RentalHandler.createNewRental(5, 5);
+            assertNotNull(rental);
+
+            LocalDateTime expectedDueDate = rental.getRentalDate()
+                    .plusDays(ItemHandler.getAllowedRentalDaysByID(rental.getItemID()))
+                    .withHour(Rental.RENTAL_DUE_DATE_HOURS).withMinute(0).withSecond(0);
+            assertEquals(expectedDueDate, rental.getRentalDueDate());
+
+            String expectedReceipt = RentalHandler.createReceipt(rental);
+            assertEquals(expectedReceipt, rental.getReceipt());
+            assertTrue(expectedReceipt.contains("User ID: 5, User: user5"));
+            assertTrue(expectedReceipt.contains("Item Title: " + rental.getItemTitle()));
+
+            Rental savedRental = RentalHandler.getRentalByID(rental.getRentalID());
+            assertNotNull(savedRental);
+            assertEquals(expectedReceipt, savedRental.getReceipt());
+        }
+        catch (Exception e)
+        {
+            fail("Valid operations should not throw exceptions: " + e.getMessage());
+        }
+
         System.out.println("\nTEST FINISHED.");
     }
 }
\ No newline at end of file
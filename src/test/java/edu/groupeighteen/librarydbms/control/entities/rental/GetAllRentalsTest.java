@@ -2,6 +2,8 @@ package edu.groupeighteen.librarydbms.control.entities.rental;
 
 import edu.groupeighteen.librarydbms.control.db.DatabaseHandler;
 import edu.groupeighteen.librarydbms.control.entities.RentalHandler;
+import edu.groupeighteen.librarydbms.model.db.Page;
+import edu.groupeighteen.librarydbms.model.db.PageRequest;
 import edu.groupeighteen.librarydbms.model.entities.Rental;
 import edu.groupeighteen.librarydbms.model.exceptions.EntityNotFoundException;
 import edu.groupeighteen.librarydbms.model.exceptions.InvalidIDException;
@@ -14,6 +16,8 @@ import org.junit.jupiter.api.TestMethodOrder;
 
 import java.util.Collections;
 import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -144,4 +148,80 @@ public class GetAllRentalsTest extends BaseRentalHandlerTest
 
         System.out.println("\nTEST FINISHED.");
     }
-}
\ No newline at end of file
+
+    /**
+     * Tests that streamAllRentals returns the same rentals, in the same order, as getAllRentals, and that the nested
+     * user and item lookups made for each row work while the rentals are being streamed.
+     */
+    @Test
+    @Order(14)
+    void testStreamAllRentals()
+    {
+        System.out.println("\n14: Testing streamAllRentals...");
+
+        try
+        {
+            //Make sure there is something to stream
+            RentalHandler.createNewRental(4, 10);
+            RentalHandler.createNewRental(5, 11);
+
+            List<Rental> streamedRentals;
+            try (Stream<Rental> rentals = RentalHandler.streamAllRentals())
+            {
+                streamedRentals = rentals.collect(Collectors.toList());
+            }
+
+            List<Rental> expectedRentals = RentalHandler.getAllRentals();
+            assertEquals(expectedRentals.size(), streamedRentals.size());
+            for (int i = 0; i < expectedRentals.size(); i++)
+            {
+                assertEquals(expectedRentals.get(i).getRentalID(), streamedRentals.get(i).getRentalID());
+                assertEquals(expectedRentals.get(i).getUsername(), streamedRentals.get(i).getUsername());
+                assertEquals(expectedRentals.get(i).getItemTitle(), streamedRentals.get(i).getItemTitle());
+            }
+        }
+        catch (EntityNotFoundException | RentalNotAllowedException | InvalidIDException | InvalidTypeException e)
+        {
+            fail("Exception occurred during test: " + e.getMessage());
+            e.printStackTrace();
+        }
+
+        System.out.println("\nTEST FINISHED.");
+    }
+
+    /**
+     * Tests paging through the rentals of a single user.
+     */
+    @Test
+    @Order(15)
+    void testGetRentalsByUserID_Paged()
+    {
+        System.out.println("\n15: Testing getRentalsByUserID one page at a time...");
+
+        try
+        {
+            //Create 3 rentals for user 6 and one for user 5
+            for (int i = 12; i <= 14; i++)
+                RentalHandler.createNewRental(6, i);
+            RentalHandler.createNewRental(5, 15);
+
+            Page<Rental> firstPage = RentalHandler.getRentalsByUserID(6, new PageRequest(2));
+            assertEquals(2, firstPage.getContent().size());
+            assertTrue(firstPage.hasNext());
+
+            Page<Rental> secondPage = RentalHandler.getRentalsByUserID(6, firstPage.next());
+            assertEquals(1, secondPage.getContent().size());
+            assertFalse(secondPage.hasNext());
+            assertTrue(secondPage.getContent().get(0).getRentalID() > firstPage.getLastKey());
+            for (Rental rental : secondPage.getContent())
+                assertEquals(6, rental.getUserID());
+        }
+        catch (EntityNotFoundException | RentalNotAllowedException | InvalidIDException | InvalidTypeException e)
+        {
+            fail("Exception occurred during test: " + e.getMessage());
+            e.printStackTrace();
+        }
+
+        System.out.println("\nTEST FINISHED.");
+    }
+}
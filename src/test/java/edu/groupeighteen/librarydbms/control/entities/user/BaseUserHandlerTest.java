@@ -67,6 +67,8 @@ public abstract class BaseUserHandlerTest
             DatabaseHandler.executeCommand("use " + testDatabaseName);
             DatabaseHandler.setVerbose(false);
             DatabaseHandler.executeSQLCommandsFromFile("src/main/resources/sql/create_tables.sql");
+            DatabaseHandler.executeSQLCommandsFromFile("src/main/resources/sql/create_triggers.sql");
+            DatabaseHandler.executeSQLCommandsFromFile("src/main/resources/sql/alter_title_stock.sql");
         }
         catch (SQLException | ClassNotFoundException e)
         {
@@ -141,7 +143,8 @@ public abstract class BaseUserHandlerTest
     {
         int numberOfUsers = 0;
 
-        try (QueryResult queryResult = DatabaseHandler.executePreparedQuery("SELECT COUNT(*) FROM users;", null))
+        try (QueryResult queryResult =
+                     DatabaseHandler.executePreparedQuery("SELECT COUNT(*) FROM users;", (String[]) null))
         {
             ResultSet resultSet = queryResult.getResultSet();
             if (resultSet.next())
@@ -0,0 +1,125 @@
+package edu.groupeighteen.librarydbms.control.entities.user;
+
+import edu.groupeighteen.librarydbms.control.entities.UserHandler;
+import edu.groupeighteen.librarydbms.model.entities.User;
+import edu.groupeighteen.librarydbms.model.exceptions.CreationException;
+import edu.groupeighteen.librarydbms.model.exceptions.InvalidEmailException;
+import edu.groupeighteen.librarydbms.model.exceptions.InvalidNameException;
+import org.junit.jupiter.api.*;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author Mattias Fridsén
+ * @project LibraryDBMS
+ * @date 10/17/2026
+ * @contact matfir-1@student.ltu.se
+ * <p>
+ * Unit Test for the createNewUserBatch method in UserHandler.
+ */
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+public class CreateNewUserBatchTest extends BaseUserHandlerTest
+{
+    private static final String validPassword = "validpassword";
+    private static final User.UserType userType = User.UserType.PATRON;
+
+    /**
+     * Clear lists and table.
+     */
+    @Override
+    @AfterEach
+    protected void reset()
+    {
+        super.reset(); //Clears lists
+        resetUsersTable();
+    }
+
+    /**
+     * Creates a list of unsaved users named batchuser1, batchuser2 ...
+     */
+    private static List<User> createUsers(int count)
+    throws Exception
+    {
+        List<User> users = new ArrayList<>();
+        for (int i = 1; i <= count; i++)
+            users.add(new User("batchuser" + i, validPassword, "batchuser" + i + "@example.com", userType));
+        return users;
+    }
+
+    /**
+     * Tests that every user in a valid batch is saved, given an ID in order, and added to the lists.
+     */
+    @Test
+    @Order(1)
+    void testCreateNewUserBatch_ValidUsers()
+    {
+        System.out.println("\n1: Testing createNewUserBatch with valid users...");
+
+        try
+        {
+            List<User> users = UserHandler.createNewUserBatch(createUsers(25));
+
+            assertEquals(25, users.size());
+            for (int i = 0; i < users.size(); i++)
+            {
+                assertEquals(i + 1, users.get(i).getUserID());
+                assertEquals(users.get(i).getUsername(),
+                        UserHandler.getUserByID(users.get(i).getUserID()).getUsername());
+            }
+
+            assertEquals(25, getNumberOfUsers());
+            assertEquals(25, UserHandler.getStoredUsernames().size());
+            assertEquals(25, UserHandler.getRegisteredEmails().size());
+        }
+        catch (Exception e)
+        {
+            e.printStackTrace();
+            fail("Valid operations should not throw exceptions.");
+        }
+
+        System.out.println("\nTEST FINISHED.");
+    }
+
+    /**
+     * Tests that a username appearing twice in the batch fails the whole batch before anything is saved.
+     */
+    @Test
+    @Order(2)
+    void testCreateNewUserBatch_DuplicateUsernameInBatch()
+    throws Exception
+    {
+        System.out.println("\n2: Testing createNewUserBatch with a duplicate username...");
+
+        List<User> users = createUsers(3);
+        users.add(new User("batchuser1", validPassword, "other@example.com", userType));
+
+        Exception e = assertThrows(CreationException.class, () -> UserHandler.createNewUserBatch(users));
+        assertTrue(e.getCause() instanceof InvalidNameException);
+        assertEquals(0, getNumberOfUsers());
+        assertEquals(0, UserHandler.getStoredUsernames().size());
+
+        System.out.println("\nTEST FINISHED.");
+    }
+
+    /**
+     * Tests that an email that is already registered fails the whole batch before anything is saved.
+     */
+    @Test
+    @Order(3)
+    void testCreateNewUserBatch_RegisteredEmail()
+    throws Exception
+    {
+        System.out.println("\n3: Testing createNewUserBatch with an already registered email...");
+
+        UserHandler.createNewUser("existinguser", validPassword, "batchuser2@example.com", userType);
+
+        Exception e = assertThrows(CreationException.class, () -> UserHandler.createNewUserBatch(createUsers(3)));
+        assertTrue(e.getCause() instanceof InvalidEmailException);
+        assertEquals(1, getNumberOfUsers());
+
+        System.out.println("\nTEST FINISHED.");
+    }
+}
@@ -218,7 +218,7 @@ public class UpdateUserTest extends BaseUserHandlerTest
     }
 
     /**
-     * Test to update a User's currentRentals.
+     * Test that updateUser leaves a User's currentRentals to the triggers on rentals.
      */
     @Test
     @Order(6)
@@ -228,11 +228,12 @@ public class UpdateUserTest extends BaseUserHandlerTest
 
         try
         {
+            int currentRentals = baseUser.getCurrentRentals();
             baseUser.setCurrentRentals(changedCurrentRentals);
             UserHandler.updateUser(baseUser);
             User updatedUser = UserHandler.getUserByID(baseUser.getUserID());
             assertNotNull(updatedUser);
-            assertEquals(changedCurrentRentals, updatedUser.getCurrentRentals());
+            assertEquals(currentRentals, updatedUser.getCurrentRentals());
         }
         catch (NullEntityException | UpdateException | InvalidIDException | InvalidUserRentalsException e)
         {
@@ -293,7 +294,7 @@ public class UpdateUserTest extends BaseUserHandlerTest
             baseUser.setUserType(changedUserType);
             // (Allowed Rentals Changed    3 -> 7)
             baseUser.setAllowedRentals(changedAllowedRentals);
-            // (Current Rentals Changed    0 -> 7)
+            // (Current Rentals Changed    0 -> 7, not written, the triggers on rentals own it)
             baseUser.setCurrentRentals(7);
             // Late fee 0 -> 1
             baseUser.setLateFee(1);
@@ -309,7 +310,7 @@ public class UpdateUserTest extends BaseUserHandlerTest
             assertEquals(changedEmail, updatedUser.getEmail());
             assertEquals(changedUserType, updatedUser.getUserType());
             assertEquals(changedAllowedRentals, updatedUser.getAllowedRentals());
-            assertEquals(7, updatedUser.getCurrentRentals());
+            assertEquals(0, updatedUser.getCurrentRentals());
             assertEquals(1, updatedUser.getLateFee());
             assertFalse(updatedUser.isAllowedToRent());
         }
@@ -15,6 +15,7 @@ import org.junit.platform.suite.api.Suite;
 @SelectClasses({
         UserHandlerSetupTest.class,
         CreateNewUserTest.class,
+        CreateNewUserBatchTest.class,
         GetUserByIDTest.class,
         DeleteAndRecoverUserTest.class,
         LoginAndValidationTest.class,
@@ -0,0 +1,253 @@
+package edu.groupeighteen.librarydbms.control.repositories;
+
+import edu.groupeighteen.librarydbms.control.BaseHandlerTest;
+import edu.groupeighteen.librarydbms.model.entities.*;
+import edu.groupeighteen.librarydbms.model.exceptions.*;
+import edu.groupeighteen.librarydbms.model.exceptions.rental.InvalidReceiptException;
+import edu.groupeighteen.librarydbms.model.exceptions.user.InvalidUserRentalsException;
+import org.junit.jupiter.api.*;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author Mattias Fridsén
+ * @project LibraryDBMS
+ * @package edu.groupeighteen.librarydbms.control.repositories
+ * @contact matfir-1@student.ltu.se
+ * @date 10/17/2026
+ * <p>
+ * Tests the JDBC and in-memory repositories against the test data, and persisting from memory to the database.
+ */
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+public class RepositoriesTest extends BaseHandlerTest
+{
+    @AfterEach
+    void useJdbc()
+    {
+        Repositories.useJdbc();
+    }
+
+    /**
+     * Tests the lookups of the JDBC repositories.
+     */
+    @Test
+    @Order(1)
+    void testJdbcLookups()
+    {
+        System.out.println("\n1: Testing JDBC repository lookups...");
+        assertFalse(Repositories.isInMemory());
+
+        ItemRepository items = Repositories.getItems();
+        assertEquals(20, items.count());
+        assertEquals(20, items.findAll().size());
+
+        Item film = items.findByBarcode("6");
+        assertTrue(film instanceof Film);
+        assertEquals(6, film.getItemID());
+        assertEquals("USA", ((Film) film).getCountryOfProduction());
+        assertNotNull(film.getAuthorFirstname());
+        assertNotNull(film.getClassificationName());
+
+        List<Item> byISBN = items.findByISBN("9783161484100");
+        assertEquals(1, byISBN.size());
+        assertTrue(byISBN.get(0) instanceof Literature);
+        assertEquals("item1", byISBN.get(0).getTitle());
+        assertEquals(10, items.findByAuthorID(11).size());
+        assertEquals("Red Country", items.findByTitle("Red Country").get(0).getTitle());
+        assertNull(items.findByBarcode("nosuchbarcode"));
+
+        assertEquals(3, Repositories.getUsers().findByUsername("user3").getUserID());
+        assertEquals("user4", Repositories.getUsers().findByEmail("student@example.com").getUsername());
+        assertEquals(1, Repositories.getClassifications().findByName("Physics").getClassificationID());
+        assertEquals(1, Repositories.getAuthors().findByName("AUTHOR1", null).size());
+        assertEquals(1, Repositories.getAuthors().findByName("author1", "lastname1").size());
+        assertTrue(Repositories.getAuthors().findByName("author1", "lastname2").isEmpty());
+
+        System.out.println("\nTEST FINISHED.");
+    }
+
+    /**
+     * Tests inserting, updating and removing through the JDBC repositories.
+     */
+    @Test
+    @Order(2)
+    void testJdbcWrites()
+    throws ConstructionException, InvalidEmailException
+    {
+        System.out.println("\n2: Testing JDBC repository writes...");
+
+        ItemRepository items = Repositories.getItems();
+        Literature literature = new Literature("New Book", Item.ItemType.OTHER_BOOKS, 11, 10, "9999",
+                "9780123849472");
+        items.insert(literature);
+        assertEquals(21, literature.getItemID());
+        Item inserted = items.findByID(21);
+        assertTrue(inserted instanceof Literature);
+        assertEquals("9780123849472", ((Literature) inserted).getISBN());
+
+        UserRepository users = Repositories.getUsers();
+        User user = users.findByID(3);
+        user.setEmail("updated@example.com");
+        assertTrue(users.update(user));
+        assertEquals(3, users.findByEmail("updated@example.com").getUserID());
+
+        assertTrue(users.setDeleted(3, true));
+        assertTrue(users.findByID(3).isDeleted());
+
+        assertTrue(items.delete(21));
+        assertNull(items.findByID(21));
+        assertFalse(items.delete(21));
+        assertEquals(20, items.count());
+
+        System.out.println("\nTEST FINISHED.");
+    }
+
+    /**
+     * Tests the indexes of the in-memory repositories, and that they hand out copies.
+     */
+    @Test
+    @Order(3)
+    void testInMemoryIndexes()
+    throws ConstructionException, InvalidNameException
+    {
+        System.out.println("\n3: Testing in-memory repository indexes...");
+
+        Repositories.useInMemory();
+        UserRepository users = Repositories.getUsers();
+        assertEquals(0, users.count());
+
+        User user = users.insert(new User("kiosk1", "password1", "kiosk1@example.com", User.UserType.PATRON));
+        assertEquals(1, user.getUserID());
+        assertEquals(1, users.findByUsername("kiosk1").getUserID());
+
+        //Changing a retrieved user doesn't change the stored one until updated
+        User retrieved = users.findByID(1);
+        retrieved.setUsername("kiosk2");
+        assertEquals("kiosk1", users.findByID(1).getUsername());
+        assertTrue(users.update(retrieved));
+        assertNull(users.findByUsername("kiosk1"));
+        assertEquals(1, users.findByUsername("kiosk2").getUserID());
+
+        //Unique keys
+        assertThrows(IllegalStateException.class, () ->
+                users.insert(new User("kiosk3", "password3", "kiosk1@example.com", User.UserType.PATRON)));
+        assertEquals(1, users.count());
+
+        assertTrue(users.delete(1));
+        assertNull(users.findByUsername("kiosk2"));
+        assertEquals(0, users.count());
+
+        System.out.println("\nTEST FINISHED.");
+    }
+
+    /**
+     * Tests finding rentals by user and overdue rentals in memory.
+     */
+    @Test
+    @Order(4)
+    void testInMemoryRentals()
+    throws ConstructionException, InvalidDateException
+    {
+        System.out.println("\n4: Testing in-memory rentals...");
+
+        Repositories.useInMemory();
+        RentalRepository rentals = Repositories.getRentals();
+        LocalDateTime now = LocalDateTime.now();
+        Rental overdue = new Rental(1, 3, 1, now.minusDays(10), now.minusDays(3), "user3", "item1",
+                "REFERENCE_LITERATURE", null, 0.0, "receipt", false);
+        Rental notDue = new Rental(2, 3, 2, now.minusDays(1), now.plusDays(5), "user3", "item2", "MAGAZINE", null,
+                0.0, "receipt", false);
+        rentals.insert(overdue);
+        rentals.insert(notDue);
+
+        assertEquals(2, rentals.findByUserID(3).size());
+        assertEquals(1, rentals.findByItemID(2).size());
+        List<Rental> found = rentals.findOverdue(now);
+        assertEquals(1, found.size());
+        assertEquals(1, found.get(0).getRentalID());
+
+        overdue.setRentalReturnDate(now);
+        rentals.update(overdue);
+        assertTrue(rentals.findOverdue(now).isEmpty());
+
+        System.out.println("\nTEST FINISHED.");
+    }
+
+    /**
+     * Tests loading the database into memory, and persisting the changes made there.
+     */
+    @Test
+    @Order(5)
+    void testLoadAndPersist()
+    throws InvalidEmailException, ConstructionException
+    {
+        System.out.println("\n5: Testing loading into memory and persisting...");
+
+        Repositories.loadIntoMemory();
+        assertTrue(Repositories.isInMemory());
+        assertEquals(20, Repositories.getItems().count());
+        assertEquals(10, Repositories.getUsers().count());
+        assertEquals(10, Repositories.getUsers().findByUsername("user10").getUserID());
+
+        UserRepository users = Repositories.getUsers();
+        User user = users.findByID(3);
+        user.setEmail("kiosk@example.com");
+        users.update(user);
+        User newUser = users.insert(new User("user11", "password11", "user11@example.com",
+                User.UserType.STUDENT));
+        assertEquals(11, newUser.getUserID());
+        assertTrue(Repositories.getItems().delete(20));
+
+        //Nothing reaches the database until persisted
+        JdbcUserRepository database = new JdbcUserRepository();
+        assertEquals("patron@example.com", database.findByID(3).getEmail());
+        assertEquals(3, Repositories.persist());
+        assertEquals("kiosk@example.com", database.findByID(3).getEmail());
+        assertEquals("user11", database.findByID(11).getUsername());
+        assertNull(new JdbcItemRepository().findByID(20));
+
+        //Only new changes are persisted the next time
+        assertEquals(0, Repositories.persist());
+
+        System.out.println("\nTEST FINISHED.");
+    }
+
+    /**
+     * Tests that a rental made in memory is counted once for its user when persisted. The user is written before its
+     * rentals, and the count belongs to the triggers on rentals.
+     */
+    @Test
+    @Order(6)
+    void testPersistRentalCountedOnce()
+    throws ConstructionException, InvalidDateException, InvalidReceiptException, InvalidUserRentalsException
+    {
+        System.out.println("\n6: Testing persisting a rental made in memory...");
+
+        Repositories.loadIntoMemory();
+
+        //What renting item 3 to user 3 changes in memory
+        Rental rental = new Rental(3, 3);
+        rental.setRentalDueDate(rental.getRentalDate().plusDays(7));
+        rental.setReceipt("receipt");
+        Repositories.getRentals().insert(rental);
+        User user = Repositories.getUsers().findByID(3);
+        user.setCurrentRentals(user.getCurrentRentals() + 1);
+        Repositories.getUsers().update(user);
+        Item item = Repositories.getItems().findByID(3);
+        item.setAvailable(false);
+        Repositories.getItems().update(item);
+        assertEquals(1, Repositories.getUsers().findByID(3).getCurrentRentals());
+
+        assertEquals(3, Repositories.persist());
+        User stored = new JdbcUserRepository().findByID(3);
+        assertEquals(1, stored.getCurrentRentals());
+        assertTrue(stored.isAllowedToRent());
+        assertFalse(new JdbcItemRepository().findByID(3).isAvailable());
+        assertEquals(1, new JdbcRentalRepository().findByUserID(3).size());
+
+        System.out.println("\nTEST FINISHED.");
+    }
+}
@@ -1,6 +1,11 @@
 package edu.groupeighteen.librarydbms.model;
 
+import edu.groupeighteen.librarydbms.model.db.ConnectionPoolTest;
 import edu.groupeighteen.librarydbms.model.db.DatabaseConnectionTest;
+import edu.groupeighteen.librarydbms.model.db.PageRequestTest;
+import edu.groupeighteen.librarydbms.model.db.SQLDialectTest;
+import edu.groupeighteen.librarydbms.model.db.SQLParameterTest;
+import edu.groupeighteen.librarydbms.model.db.SQLScriptReaderTest;
 import edu.groupeighteen.librarydbms.model.entities.author.AuthorTestSuite;
 import edu.groupeighteen.librarydbms.model.entities.classification.ClassificationTestSuite;
 import edu.groupeighteen.librarydbms.model.entities.item.FilmTestSuite;
@@ -28,6 +33,11 @@ import org.junit.platform.suite.api.Suite;
 @SelectClasses({
         //Model tests
         DatabaseConnectionTest.class,
+        ConnectionPoolTest.class,
+        SQLParameterTest.class,
+        PageRequestTest.class,
+        SQLScriptReaderTest.class,
+        SQLDialectTest.class,
         AuthorTestSuite.class,
         ClassificationTestSuite.class,
         LiteratureTestSuite.class,
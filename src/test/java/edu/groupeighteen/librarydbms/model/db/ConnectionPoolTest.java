@@ -0,0 +1,231 @@
+package edu.groupeighteen.librarydbms.model.db;
+
+import org.junit.jupiter.api.*;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.SQLTimeoutException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author Mattias Fridsén
+ * @project LibraryDBMS
+ * @package edu.groupeighteen.librarydbms.model.db
+ * @contact matfir-1@student.ltu.se
+ * @date 10/17/2026
+ * <p>
+ * We plan as much as we can (based on the knowledge available),
+ * When we can (based on the time and resources available),
+ * But not before.
+ * <p>
+ * Unit Test for the ConnectionPool class.
+ */
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+public class ConnectionPoolTest
+{
+    private ConnectionPool pool;
+
+    /**
+     * Connect to the database server, so that the pool knows which credentials to use.
+     */
+    @BeforeAll
+    static void setupConnection()
+    {
+        try
+        {
+            DatabaseConnection.setup();
+        }
+        catch (SQLException | ClassNotFoundException e)
+        {
+            e.printStackTrace();
+        }
+    }
+
+    @AfterAll
+    static void tearDownConnection()
+    {
+        DatabaseConnection.closeConnection();
+    }
+
+    /**
+     * Every test gets a small pool of its own.
+     */
+    @BeforeEach
+    void setup()
+    throws SQLException
+    {
+        ConnectionPoolConfig config = new ConnectionPoolConfig();
+        config.setMinSize(1);
+        config.setMaxSize(2);
+        config.setConnectionTimeout(500);
+        pool = new ConnectionPool(DatabaseConnection::openConnection, config);
+    }
+
+    @AfterEach
+    void tearDown()
+    {
+        pool.close();
+    }
+
+    /**
+     * Tests that the pool opens minSize connections up front.
+     */
+    @Test
+    @Order(1)
+    void testPrefill()
+    {
+        System.out.println("\n1: Testing that the pool is prefilled...");
+        assertEquals(1, pool.getTotalConnections());
+        assertEquals(1, pool.getIdleConnections());
+        assertEquals(0, pool.getActiveConnections());
+        System.out.println("\nTEST FINISHED.");
+    }
+
+    /**
+     * Tests that a released connection is handed back to the pool and reused.
+     */
+    @Test
+    @Order(2)
+    void testBorrowAndRelease()
+    throws SQLException
+    {
+        System.out.println("\n2: Testing borrow and release...");
+        PooledConnection first = pool.borrow();
+        assertEquals(1, pool.getActiveConnections());
+        assertFalse(first.getConnection().isClosed());
+        first.release();
+        assertEquals(0, pool.getActiveConnections());
+
+        PooledConnection second = pool.borrow();
+        assertSame(first, second);
+        second.release();
+        System.out.println("\nTEST FINISHED.");
+    }
+
+    /**
+     * Tests that acquire hands the same connection to nested calls on one thread, and that it is only returned to
+     * the pool once every lease has been released.
+     */
+    @Test
+    @Order(3)
+    void testReentrantAcquire()
+    throws SQLException
+    {
+        System.out.println("\n3: Testing nested acquire on the same thread...");
+        PooledConnection outer = pool.acquire();
+        PooledConnection inner = pool.acquire();
+        assertSame(outer, inner);
+        assertEquals(1, pool.getActiveConnections());
+
+        inner.release();
+        assertEquals(1, pool.getActiveConnections());
+        outer.release();
+        assertEquals(0, pool.getActiveConnections());
+        System.out.println("\nTEST FINISHED.");
+    }
+
+    /**
+     * Tests that borrowing from an exhausted pool times out.
+     */
+    @Test
+    @Order(4)
+    void testExhaustedPoolTimesOut()
+    throws SQLException
+    {
+        System.out.println("\n4: Testing that an exhausted pool times out...");
+        PooledConnection first = pool.borrow();
+        PooledConnection second = pool.borrow();
+        assertNotSame(first, second);
+        assertEquals(2, pool.getTotalConnections());
+
+        assertThrows(SQLTimeoutException.class, () -> pool.borrow());
+
+        first.release();
+        second.release();
+        System.out.println("\nTEST FINISHED.");
+    }
+
+    /**
+     * Tests that a connection which was closed behind the pool's back is discarded instead of being handed out.
+     */
+    @Test
+    @Order(5)
+    void testBrokenConnectionIsDiscarded()
+    throws SQLException
+    {
+        System.out.println("\n5: Testing that broken connections are discarded...");
+        PooledConnection broken = pool.borrow();
+        broken.getConnection().close();
+        broken.release();
+        assertEquals(0, pool.getTotalConnections());
+
+        PooledConnection fresh = pool.borrow();
+        assertNotSame(broken, fresh);
+        assertFalse(fresh.getConnection().isClosed());
+        fresh.release();
+        System.out.println("\nTEST FINISHED.");
+    }
+
+    /**
+     * Tests that a closed pool refuses to hand out connections.
+     */
+    @Test
+    @Order(6)
+    void testClosedPool()
+    {
+        System.out.println("\n6: Testing that a closed pool can't be borrowed from...");
+        pool.close();
+        assertTrue(pool.isClosed());
+        assertEquals(0, pool.getTotalConnections());
+        assertThrows(SQLException.class, () -> pool.borrow());
+        System.out.println("\nTEST FINISHED.");
+    }
+
+    /**
+     * Tests that a released statement is reused for the same SQL, and that the hit/miss counters follow.
+     */
+    @Test
+    @Order(7)
+    void testStatementCacheReuse()
+    throws SQLException
+    {
+        System.out.println("\n7: Testing that prepared statements are reused...");
+        PooledConnection pooledConnection = pool.borrow();
+        PreparedStatement first = pooledConnection.prepareStatement("SELECT ?");
+        pooledConnection.releaseStatement(first);
+        PreparedStatement second = pooledConnection.prepareStatement("SELECT ?");
+        assertSame(first, second);
+        assertFalse(second.isClosed());
+        pooledConnection.releaseStatement(second);
+
+        assertEquals(1, pool.getStatementCacheHits());
+        assertEquals(1, pool.getStatementCacheMisses());
+        pooledConnection.release();
+        System.out.println("\nTEST FINISHED.");
+    }
+
+    /**
+     * Tests that a cached statement isn't handed out twice at the same time, and that the extra statement is closed
+     * on release.
+     */
+    @Test
+    @Order(8)
+    void testStatementCacheNestedUse()
+    throws SQLException
+    {
+        System.out.println("\n8: Testing nested use of the same SQL...");
+        PooledConnection pooledConnection = pool.borrow();
+        PreparedStatement outer = pooledConnection.prepareStatement("SELECT ?");
+        PreparedStatement inner = pooledConnection.prepareStatement("SELECT ?");
+        assertNotSame(outer, inner);
+
+        pooledConnection.releaseStatement(inner);
+        assertTrue(inner.isClosed());
+        pooledConnection.releaseStatement(outer);
+        assertFalse(outer.isClosed());
+        assertEquals(1, pooledConnection.getStatementCache().size());
+        pooledConnection.release();
+        System.out.println("\nTEST FINISHED.");
+    }
+}
@@ -0,0 +1,120 @@
+package edu.groupeighteen.librarydbms.model.db;
+
+import org.junit.jupiter.api.*;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author Mattias Fridsén
+ * @project LibraryDBMS
+ * @package edu.groupeighteen.librarydbms.model.db
+ * @contact matfir-1@student.ltu.se
+ * @date 10/17/2026
+ * <p>
+ * We plan as much as we can (based on the knowledge available),
+ * When we can (based on the time and resources available),
+ * But not before.
+ * <p>
+ * Unit Test for the PageRequest and Page classes.
+ */
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+public class PageRequestTest
+{
+    /**
+     * Tests that invalid page sizes and keys are rejected.
+     */
+    @Test
+    @Order(1)
+    void testInvalidPageRequest()
+    {
+        System.out.println("\n1: Testing invalid page requests...");
+        assertThrows(IllegalArgumentException.class, () -> new PageRequest(0));
+        assertThrows(IllegalArgumentException.class, () -> new PageRequest(-1));
+        assertThrows(IllegalArgumentException.class, () -> new PageRequest(10, -1));
+        System.out.println("\nTEST FINISHED.");
+    }
+
+    /**
+     * Tests that the keyset condition is added after the condition of the suffix, and that a suffix with its own
+     * ordering or limit is rejected.
+     */
+    @Test
+    @Order(2)
+    void testToSQLSuffix()
+    {
+        System.out.println("\n2: Testing building page suffixes...");
+        PageRequest pageRequest = new PageRequest(10, 5);
+
+        assertEquals("WHERE itemID > ? ORDER BY itemID ASC LIMIT ?", pageRequest.toSQLSuffix(null, "itemID"));
+        assertEquals("WHERE (title = ?) AND itemID > ? ORDER BY itemID ASC LIMIT ?",
+                pageRequest.toSQLSuffix("WHERE title = ?", "itemID"));
+        assertEquals("WHERE (title = ? OR isbn = ?) AND itemID > ? ORDER BY itemID ASC LIMIT ?",
+                pageRequest.toSQLSuffix("where title = ? OR isbn = ?", "itemID"));
+        assertEquals("LEFT JOIN authors ON items.authorID = authors.authorID WHERE itemID > ? ORDER BY itemID ASC " +
+                "LIMIT ?", pageRequest.toSQLSuffix("LEFT JOIN authors ON items.authorID = authors.authorID", "itemID"));
+        assertEquals("LEFT JOIN authors ON items.authorID = authors.authorID WHERE (authors.authorLastname = ?) AND " +
+                "itemID > ? ORDER BY itemID ASC LIMIT ?", pageRequest.toSQLSuffix("LEFT JOIN authors ON " +
+                "items.authorID = authors.authorID WHERE authors.authorLastname = ?", "itemID"));
+
+        assertThrows(IllegalArgumentException.class,
+                () -> pageRequest.toSQLSuffix("WHERE title = ? ORDER BY title", "itemID"));
+        assertThrows(IllegalArgumentException.class,
+                () -> pageRequest.toSQLSuffix("WHERE title = ? LIMIT 5", "itemID"));
+        assertThrows(IllegalArgumentException.class,
+                () -> pageRequest.toSQLSuffix("order  by title", "itemID"));
+        System.out.println("\nTEST FINISHED.");
+    }
+
+    /**
+     * Tests that the key and one more than the page size are appended to the parameters.
+     */
+    @Test
+    @Order(3)
+    void testToSQLParameters()
+    {
+        System.out.println("\n3: Testing building page parameters...");
+        PageRequest pageRequest = new PageRequest(10, 5);
+
+        SQLParameter[] params = pageRequest.toSQLParameters(null);
+        assertEquals(2, params.length);
+        assertEquals(5, params[0].getValue());
+        assertEquals(11, params[1].getValue());
+
+        params = pageRequest.toSQLParameters(new SQLParameter[]{SQLParameter.of("Bamse")});
+        assertEquals(3, params.length);
+        assertEquals("Bamse", params[0].getValue());
+        assertEquals(5, params[1].getValue());
+        assertEquals(11, params[2].getValue());
+        System.out.println("\nTEST FINISHED.");
+    }
+
+    /**
+     * Tests that a page drops the extra row, and requests the next page after its last key.
+     */
+    @Test
+    @Order(4)
+    void testPage()
+    {
+        System.out.println("\n4: Testing pages...");
+        PageRequest pageRequest = new PageRequest(3);
+
+        Page<Integer> fullPage = new Page<>(Arrays.asList(2, 4, 6, 8), pageRequest, Integer::intValue);
+        assertEquals(List.of(2, 4, 6), fullPage.getContent());
+        assertTrue(fullPage.hasNext());
+        assertEquals(6, fullPage.next().getAfterKey());
+        assertEquals(3, fullPage.next().getPageSize());
+
+        Page<Integer> lastPage = new Page<>(Arrays.asList(8), fullPage.next(), Integer::intValue);
+        assertEquals(List.of(8), lastPage.getContent());
+        assertFalse(lastPage.hasNext());
+        assertNull(lastPage.next());
+
+        Page<Integer> emptyPage = new Page<>(List.of(), new PageRequest(3, 8), Integer::intValue);
+        assertTrue(emptyPage.getContent().isEmpty());
+        assertEquals(8, emptyPage.getLastKey());
+        System.out.println("\nTEST FINISHED.");
+    }
+}
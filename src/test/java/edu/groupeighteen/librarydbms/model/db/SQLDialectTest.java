@@ -0,0 +1,73 @@
+package edu.groupeighteen.librarydbms.model.db;
+
+import org.junit.jupiter.api.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author Mattias Fridsén
+ * @project LibraryDBMS
+ * @package edu.groupeighteen.librarydbms.model.db
+ * @contact matfir-1@student.ltu.se
+ * @date 10/17/2026
+ * <p>
+ * Unit Test for the SQLDialect enum. Needs no database.
+ */
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+public class SQLDialectTest
+{
+    /**
+     * Tests choosing the dialect from the JDBC url.
+     */
+    @Test
+    @Order(1)
+    void testFromUrl()
+    {
+        System.out.println("\n1: Testing choosing the dialect from the url...");
+        assertEquals(SQLDialect.MYSQL, SQLDialect.fromUrl("jdbc:mysql://localhost:3306"));
+        assertEquals(SQLDialect.H2, SQLDialect.fromUrl("jdbc:h2:mem:test;MODE=MySQL"));
+        assertEquals(SQLDialect.H2, SQLDialect.fromUrl("JDBC:H2:./data/librarydbms"));
+        assertEquals(SQLDialect.MYSQL, SQLDialect.fromUrl(null));
+        assertEquals(SQLDialect.H2, SQLDialect.fromUrl(SQLDialect.H2.getDefaultUrl()));
+        System.out.println("\nTEST FINISHED.");
+    }
+
+    /**
+     * Tests translating database commands.
+     */
+    @Test
+    @Order(2)
+    void testTranslate()
+    {
+        System.out.println("\n2: Testing translating database commands...");
+        assertEquals("use test_database", SQLDialect.MYSQL.translate("use test_database"));
+
+        assertEquals("CREATE SCHEMA test_database", SQLDialect.H2.translate("create database test_database"));
+        assertEquals("CREATE SCHEMA IF NOT EXISTS test_database",
+                SQLDialect.H2.translate("CREATE DATABASE IF NOT EXISTS `test_database`;"));
+        assertEquals("DROP SCHEMA if exists test_database CASCADE",
+                SQLDialect.H2.translate("drop database if exists test_database"));
+        assertEquals("SET SCHEMA lilla_biblioteket", SQLDialect.H2.translate("use `lilla_biblioteket`;"));
+        assertEquals("SELECT 1", SQLDialect.H2.translate("SELECT 1"));
+        System.out.println("\nTEST FINISHED.");
+    }
+
+    /**
+     * Tests finding the version of a script written for a dialect.
+     */
+    @Test
+    @Order(3)
+    void testResolveScript()
+    {
+        System.out.println("\n3: Testing resolving scripts...");
+        String createTables = "src/main/resources/sql/create_tables.sql";
+        String testData = "src/main/resources/sql/data/test_data.sql";
+
+        assertEquals(createTables, SQLDialect.MYSQL.resolveScript(createTables));
+        assertTrue(SQLDialect.H2.resolveScript(createTables).replace('\\', '/')
+                .endsWith("src/main/resources/sql/h2/create_tables.sql"));
+        //Scripts without an H2 version are run as they are
+        assertEquals(testData, SQLDialect.H2.resolveScript(testData));
+        System.out.println("\nTEST FINISHED.");
+    }
+}
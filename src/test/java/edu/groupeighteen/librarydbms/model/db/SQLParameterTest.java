@@ -0,0 +1,119 @@
+package edu.groupeighteen.librarydbms.model.db;
+
+import org.junit.jupiter.api.*;
+
+import java.sql.*;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author Mattias Fridsén
+ * @project LibraryDBMS
+ * @package edu.groupeighteen.librarydbms.model.db
+ * @contact matfir-1@student.ltu.se
+ * @date 10/17/2026
+ * <p>
+ * We plan as much as we can (based on the knowledge available),
+ * When we can (based on the time and resources available),
+ * But not before.
+ * <p>
+ * Unit Test for the SQLParameter class. Binds parameters to "SELECT ?" and reads them back.
+ */
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+public class SQLParameterTest
+{
+    private static Connection connection;
+
+    @BeforeAll
+    static void setup()
+    {
+        try
+        {
+            connection = DatabaseConnection.setup();
+        }
+        catch (SQLException | ClassNotFoundException e)
+        {
+            e.printStackTrace();
+        }
+    }
+
+    @AfterAll
+    static void tearDown()
+    {
+        DatabaseConnection.closeConnection();
+    }
+
+    /**
+     * Binds a single parameter to "SELECT ?" and returns the resulting column as an Object.
+     */
+    private static Object selectBound(SQLParameter parameter)
+    throws SQLException
+    {
+        try (PreparedStatement statement = connection.prepareStatement("SELECT ?"))
+        {
+            parameter.bind(statement, 1);
+            try (ResultSet resultSet = statement.executeQuery())
+            {
+                assertTrue(resultSet.next());
+                return resultSet.getObject(1);
+            }
+        }
+    }
+
+    /**
+     * Tests binding numbers and booleans.
+     */
+    @Test
+    @Order(1)
+    void testNumbersAndBooleans()
+    throws SQLException
+    {
+        System.out.println("\n1: Testing numeric and boolean parameters...");
+        assertEquals(42, ((Number) selectBound(SQLParameter.of(42))).intValue());
+        assertEquals(9_000_000_000L, ((Number) selectBound(SQLParameter.of(9_000_000_000L))).longValue());
+        assertEquals(2.5, ((Number) selectBound(SQLParameter.of(2.5))).doubleValue(), 0.0001);
+        assertEquals(1, ((Number) selectBound(SQLParameter.of(true))).intValue());
+        assertEquals(0, ((Number) selectBound(SQLParameter.of(false))).intValue());
+        System.out.println("\nTEST FINISHED.");
+    }
+
+    /**
+     * Tests binding strings and date-times.
+     */
+    @Test
+    @Order(2)
+    void testStringsAndDates()
+    throws SQLException
+    {
+        System.out.println("\n2: Testing string and date-time parameters...");
+        assertEquals("Bamse", String.valueOf(selectBound(SQLParameter.of("Bamse"))));
+
+        LocalDateTime dateTime = LocalDateTime.of(2023, 5, 17, 12, 30, 15);
+        try (PreparedStatement statement = connection.prepareStatement("SELECT CAST(? AS DATETIME)"))
+        {
+            SQLParameter.of(dateTime).bind(statement, 1);
+            try (ResultSet resultSet = statement.executeQuery())
+            {
+                assertTrue(resultSet.next());
+                assertEquals(dateTime, resultSet.getObject(1, LocalDateTime.class));
+            }
+        }
+        System.out.println("\nTEST FINISHED.");
+    }
+
+    /**
+     * Tests binding nulls, both through ofNull and through a factory method given null.
+     */
+    @Test
+    @Order(3)
+    void testNulls()
+    throws SQLException
+    {
+        System.out.println("\n3: Testing null parameters...");
+        assertNull(selectBound(SQLParameter.ofNull(Types.INTEGER)));
+        assertNull(selectBound(SQLParameter.of((String) null)));
+        assertNull(selectBound(SQLParameter.of((LocalDateTime) null)));
+        System.out.println("\nTEST FINISHED.");
+    }
+}
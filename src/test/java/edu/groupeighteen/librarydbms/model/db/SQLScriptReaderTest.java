@@ -0,0 +1,123 @@
+package edu.groupeighteen.librarydbms.model.db;
+
+import org.junit.jupiter.api.*;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author Mattias Fridsén
+ * @project LibraryDBMS
+ * @package edu.groupeighteen.librarydbms.model.db
+ * @contact matfir-1@student.ltu.se
+ * @date 10/17/2026
+ * <p>
+ * We plan as much as we can (based on the knowledge available),
+ * When we can (based on the time and resources available),
+ * But not before.
+ * <p>
+ * Unit Test for the SQLScriptReader class.
+ */
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+public class SQLScriptReaderTest
+{
+    /**
+     * Reads every statement of a script.
+     */
+    private static List<String> readAll(String script)
+    throws IOException
+    {
+        List<String> statements = new ArrayList<>();
+        try (SQLScriptReader reader = new SQLScriptReader(new StringReader(script)))
+        {
+            String statement;
+            while ((statement = reader.nextStatement()) != null)
+                statements.add(statement);
+        }
+        return statements;
+    }
+
+    /**
+     * Tests splitting simple statements, several on one line and one spanning lines.
+     */
+    @Test
+    @Order(1)
+    void testSimpleStatements()
+    throws IOException
+    {
+        System.out.println("\n1: Testing simple statements...");
+        List<String> statements = readAll("DROP TABLE a; DROP TABLE b;\nCREATE TABLE c\n(\n    id INT\n);\nSELECT 1");
+        assertEquals(List.of("DROP TABLE a", "DROP TABLE b", "CREATE TABLE c\n(\n    id INT\n)", "SELECT 1"),
+                statements);
+        System.out.println("\nTEST FINISHED.");
+    }
+
+    /**
+     * Tests that delimiters and comment markers inside quotes are kept.
+     */
+    @Test
+    @Order(2)
+    void testQuotes()
+    throws IOException
+    {
+        System.out.println("\n2: Testing quotes...");
+        List<String> statements = readAll("INSERT INTO t VALUES ('a;b', 'c -- d', 'it''s', 'e\\'f', \"g#h\");\n" +
+                "SELECT `odd;name` FROM t;");
+        assertEquals(2, statements.size());
+        assertEquals("INSERT INTO t VALUES ('a;b', 'c -- d', 'it''s', 'e\\'f', \"g#h\")", statements.get(0));
+        assertEquals("SELECT `odd;name` FROM t", statements.get(1));
+        System.out.println("\nTEST FINISHED.");
+    }
+
+    /**
+     * Tests that comments are skipped, except executable ones.
+     */
+    @Test
+    @Order(3)
+    void testComments()
+    throws IOException
+    {
+        System.out.println("\n3: Testing comments...");
+        List<String> statements = readAll("-- A comment; with a semicolon\n" +
+                "# Another comment;\n" +
+                "/* A block; comment */ SELECT 1; -- trailing comment\n" +
+                "SELECT 2--1;\n" +
+                "/*!40101 SET NAMES utf8 */;");
+        assertEquals(List.of("SELECT 1", "SELECT 2--1", "/*!40101 SET NAMES utf8 */"), statements);
+        System.out.println("\nTEST FINISHED.");
+    }
+
+    /**
+     * Tests changing the delimiter to define a routine containing semicolons.
+     */
+    @Test
+    @Order(4)
+    void testDelimiter()
+    throws IOException
+    {
+        System.out.println("\n4: Testing DELIMITER...");
+        List<String> statements = readAll("DELIMITER $$\n" +
+                "CREATE PROCEDURE p()\nBEGIN\n    SELECT 1;\n    SELECT 2;\nEND $$\n" +
+                "DELIMITER ;\n" +
+                "DELETE FROM t;");
+        assertEquals(List.of("CREATE PROCEDURE p()\nBEGIN\n    SELECT 1;\n    SELECT 2;\nEND", "DELETE FROM t"),
+                statements);
+        System.out.println("\nTEST FINISHED.");
+    }
+
+    /**
+     * Tests that an unterminated quote is reported.
+     */
+    @Test
+    @Order(5)
+    void testUnterminatedQuote()
+    {
+        System.out.println("\n5: Testing an unterminated quote...");
+        assertThrows(IOException.class, () -> readAll("SELECT 'abc;"));
+        System.out.println("\nTEST FINISHED.");
+    }
+}